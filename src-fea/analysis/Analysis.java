@@ -16,8 +16,12 @@
 package analysis;
 
 import java.io.Serializable;
+import java.util.IdentityHashMap;
 import java.util.Vector;
 
+import node.Node;
+import solver.Solver;
+import solver.Solver0;
 import boundary.BoundaryCase;
 
 /**
@@ -40,6 +44,12 @@ public abstract class Analysis implements Serializable {
 	/** Current status message of analysis. */
 	protected String status_;
 
+	/** The phases (status messages) of recent run of analysis. */
+	private transient Vector<String> phases_;
+
+	/** The start times of phases of recent run (in nanoseconds). */
+	private transient Vector<Long> starts_;
+
 	/** The name of analysis. */
 	protected String name_;
 
@@ -152,6 +162,66 @@ public abstract class Analysis implements Serializable {
 		return status_;
 	}
 
+	/**
+	 * Returns the phases of recent run of analysis, that is the sequence of
+	 * status messages set during the run.
+	 * 
+	 * @return Vector storing the phases of recent run.
+	 */
+	public Vector<String> getPhases() {
+		if (phases_ == null)
+			return new Vector<String>();
+		return new Vector<String>(phases_);
+	}
+
+	/**
+	 * Returns the durations of phases of recent run of analysis (see
+	 * {@link #getPhases()}). The last phase is measured up to the time of
+	 * call.
+	 * 
+	 * @return Array storing the durations of phases in milliseconds.
+	 */
+	public double[] getPhaseTimes() {
+
+		// no run
+		if (starts_ == null)
+			return new double[0];
+
+		// compute durations
+		long now = System.nanoTime();
+		double[] times = new double[starts_.size()];
+		for (int i = 0; i < times.length; i++) {
+			long end = i + 1 < times.length ? starts_.get(i + 1) : now;
+			times[i] = (end - starts_.get(i)) / 1.0e6;
+		}
+		return times;
+	}
+
+	/**
+	 * Sets status message of analysis, starting a new phase of run. Null
+	 * message starts a new run.
+	 * 
+	 * @param status
+	 *            The status message.
+	 */
+	protected void setStatus(String status) {
+
+		// set message
+		status_ = status;
+
+		// start new run
+		if (status == null || phases_ == null) {
+			phases_ = new Vector<String>();
+			starts_ = new Vector<Long>();
+		}
+
+		// start new phase
+		if (status != null) {
+			phases_.add(status);
+			starts_.add(System.nanoTime());
+		}
+	}
+
 	/**
 	 * Returns analysis properties depending on the analysis type.
 	 * 
@@ -177,6 +247,86 @@ public abstract class Analysis implements Serializable {
 		return killed_;
 	}
 
+	/**
+	 * Sets the rigid body modes of nodes as near null space to given solver, if
+	 * it is an iterative solver with algebraic multigrid preconditioner. The
+	 * modes are computed from the node positions relative to their centroid,
+	 * in nodal local coordinate systems. Has to be called after the dofs are
+	 * numbered and before the solver is initialized.
+	 * 
+	 * @param solver
+	 *            The linear equation solver.
+	 */
+	protected void setNearNullSpace(Solver solver) {
+
+		// check solver
+		if (solver instanceof Solver0 == false)
+			return;
+		Solver0 solver0 = (Solver0) solver;
+		if (solver0.getPreconditionerType() != Solver0.AMG_)
+			return;
+
+		// collect nodes of structure and elements
+		IdentityHashMap<Node, Node> map = new IdentityHashMap<Node, Node>();
+		Vector<Node> nodes = new Vector<Node>();
+		for (int i = 0; i < structure_.getNumberOfNodes(); i++)
+			if (map.put(structure_.getNode(i), structure_.getNode(i)) == null)
+				nodes.add(structure_.getNode(i));
+		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
+			Node[] enodes = structure_.getElement(i).getNodes();
+			for (int j = 0; j < enodes.length; j++)
+				if (map.put(enodes[j], enodes[j]) == null)
+					nodes.add(enodes[j]);
+		}
+
+		// compute centroid
+		int nn = nodes.size();
+		double[] c = new double[3];
+		for (int i = 0; i < nn; i++)
+			for (int j = 0; j < 3; j++)
+				c[j] += nodes.get(i).getPosition(j) / nn;
+
+		// loop over nodes
+		int[] dofs = new int[6 * nn];
+		double[] modes = new double[36 * nn];
+		for (int i = 0; i < nn; i++) {
+
+			// get dof numbers and relative position of node
+			Node node = nodes.get(i);
+			System.arraycopy(node.getDofNumbers(), 0, dofs, 6 * i, 6);
+			double x = node.getPosition(0) - c[0];
+			double y = node.getPosition(1) - c[1];
+			double z = node.getPosition(2) - c[2];
+
+			// rigid body modes in global coordinates (dof x mode)
+			double[][] g = new double[6][6];
+			for (int j = 0; j < 6; j++)
+				g[j][j] = 1.0;
+			g[1][3] = -z;
+			g[2][3] = y;
+			g[0][4] = z;
+			g[2][4] = -x;
+			g[0][5] = -y;
+			g[1][5] = x;
+
+			// transform to nodal local coordinates
+			double[][] tr = node.getTransformationData();
+			for (int j = 0; j < 6; j++)
+				for (int k = 0; k < 6; k++) {
+					double value = g[j][k];
+					if (tr != null) {
+						value = 0.0;
+						for (int l = 0; l < 6; l++)
+							value += tr[j][l] * g[l][k];
+					}
+					modes[36 * i + 6 * j + k] = value;
+				}
+		}
+
+		// set to solver
+		solver0.setNearNullSpace(dofs, modes);
+	}
+
 	/**
 	 * Throws exception with the related message.
 	 * 
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.util.Arrays;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import node.Node;
+import element.Element;
+
+import matrix.DMat;
+import matrix.Mat;
+
+/**
+ * Class for fork-join assembly of element matrices into system matrices.
+ * Element matrices are computed concurrently, each task writing the free
+ * components of its elements into its own coordinate (COO) buffer. The buffers
+ * are then scattered into the system matrix on the calling thread in element
+ * order, so that every system component receives exactly the same sequence of
+ * additions as in serial assembly. Results are therefore bitwise identical
+ * regardless of the number of threads.
+ * 
+ * @author Murat Artim
+ * 
+ */
+class Assembler {
+
+	/** Matrix types. */
+	protected static final int stiffness_ = 0, mass_ = 1, stability_ = 2;
+
+	/** Number of elements computed by a single task. */
+	private static final int chunkSize_ = 16;
+
+	/** Number of tasks per thread in a single batch. */
+	private static final int tasksPerThread_ = 4;
+
+	/** The fork-join pool shared by all assemblies. */
+	protected static final ForkJoinPool pool_ = new ForkJoinPool();
+
+	/**
+	 * Assembles element matrices of given structure into system matrix.
+	 * Homogeneous Dirichlet boundaries are imposed during the assembly.
+	 * 
+	 * @param structure
+	 *            The structure to be assembled.
+	 * @param system
+	 *            System matrix.
+	 * @param type
+	 *            The type of element matrix (stiffness, mass or stability).
+	 * @param lumped
+	 *            True if only the diagonal terms of element matrices are to be
+	 *            assembled.
+	 */
+	protected static void assemble(Structure structure, Mat system, int type,
+			boolean lumped) {
+
+		// get number of elements and batch size
+		int ne = structure.getNumberOfElements();
+		int batch = pool_.getParallelism() * tasksPerThread_ * chunkSize_;
+
+		// loop over batches (keeps buffered element matrices bounded)
+		for (int first = 0; first < ne; first += batch) {
+
+			// create tasks of batch
+			int last = Math.min(first + batch, ne);
+			Buffer[] tasks = new Buffer[(last - first + chunkSize_ - 1)
+					/ chunkSize_];
+			for (int i = 0; i < tasks.length; i++) {
+				int start = first + i * chunkSize_;
+				tasks[i] = new Buffer(structure, type, lumped, start, Math.min(
+						start + chunkSize_, last));
+			}
+
+			// compute element matrices concurrently
+			pool_.invoke(new Batch(tasks));
+
+			// scatter buffers into system matrix in element order
+			for (int i = 0; i < tasks.length; i++) {
+				Buffer task = tasks[i];
+				for (int j = 0; j < task.size_; j++)
+					system.add(task.row_[j], task.col_[j], task.val_[j]);
+			}
+		}
+	}
+
+	/**
+	 * Computes the sparsity pattern of system matrix symbolically from the dof
+	 * connectivity of elements and nodal springs. Diagonal entries are always
+	 * included.
+	 * 
+	 * @param structure
+	 *            The structure to be assembled.
+	 * @param eqn
+	 *            The number of equations.
+	 * @param lumped
+	 *            True if only the diagonal entries are to be included.
+	 * @return Sorted column indices of non-zero entries for each row.
+	 */
+	protected static int[][] computePattern(Structure structure, int eqn,
+			boolean lumped) {
+
+		// create pattern
+		int[][] nz = new int[eqn][];
+
+		// lumped pattern
+		if (lumped) {
+			for (int i = 0; i < eqn; i++)
+				nz[i] = new int[] { i };
+			return nz;
+		}
+
+		// collect dof groups of elements and nodal springs
+		Vector<int[]> groups = new Vector<int[]>();
+		for (int i = 0; i < structure.getNumberOfElements(); i++)
+			groups.add(getActiveDofs(structure.getElement(i)));
+		for (int i = 0; i < structure.getNumberOfNodes(); i++) {
+			Node node = structure.getNode(i);
+			if (node.getSprings() != null)
+				groups.add(node.getDofNumbers());
+		}
+
+		// count groups of each dof
+		int[] pointer = new int[eqn + 1];
+		for (int i = 0; i < groups.size(); i++) {
+			int[] dof = groups.get(i);
+			for (int j = 0; j < dof.length; j++)
+				if (dof[j] != -1)
+					pointer[dof[j] + 1]++;
+		}
+		for (int i = 0; i < eqn; i++)
+			pointer[i + 1] += pointer[i];
+
+		// store groups of each dof
+		int[] incidence = new int[pointer[eqn]];
+		int[] next = Arrays.copyOf(pointer, eqn);
+		for (int i = 0; i < groups.size(); i++) {
+			int[] dof = groups.get(i);
+			for (int j = 0; j < dof.length; j++)
+				if (dof[j] != -1)
+					incidence[next[dof[j]]++] = i;
+		}
+
+		// loop over rows
+		int[] marker = new int[eqn];
+		Arrays.fill(marker, -1);
+		int[] cols = new int[eqn];
+		for (int i = 0; i < eqn; i++) {
+
+			// diagonal entry
+			int m = 0;
+			marker[i] = i;
+			cols[m++] = i;
+
+			// collect free dofs of groups connected to row
+			for (int k = pointer[i]; k < pointer[i + 1]; k++) {
+				int[] dof = groups.get(incidence[k]);
+				for (int j = 0; j < dof.length; j++) {
+					if (dof[j] != -1 && marker[dof[j]] != i) {
+						marker[dof[j]] = i;
+						cols[m++] = dof[j];
+					}
+				}
+			}
+
+			// sort columns of row
+			nz[i] = Arrays.copyOf(cols, m);
+			Arrays.sort(nz[i]);
+		}
+		return nz;
+	}
+
+	/**
+	 * Returns the dof numbers of given element which can receive non-zero
+	 * contributions, or -1 for the others. Since nodal local axes transform
+	 * translational and rotational dofs among themselves, a whole block of 3
+	 * is active if the element has any dof in it.
+	 * 
+	 * @param e
+	 *            The element.
+	 * @return The active dof numbers of element.
+	 */
+	private static int[] getActiveDofs(Element e) {
+
+		// get active blocks of element
+		boolean[] block = new boolean[2];
+		int[] edof = e.getDofArray(Element.global_);
+		for (int i = 0; i < edof.length; i++)
+			block[edof[i] / 3] = true;
+
+		// mask dof numbers of inactive blocks
+		int[] dof = e.getDofNumbers().clone();
+		for (int i = 0; i < dof.length; i++)
+			if (block[(i % 6) / 3] == false)
+				dof[i] = -1;
+		return dof;
+	}
+
+	/**
+	 * Fork-join task computing the buffers of a batch.
+	 * 
+	 */
+	private static class Batch extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/** The buffers to be computed. */
+		private final Buffer[] tasks_;
+
+		/**
+		 * Creates batch task.
+		 * 
+		 * @param tasks
+		 *            The buffers to be computed.
+		 */
+		private Batch(Buffer[] tasks) {
+			tasks_ = tasks;
+		}
+
+		@Override
+		protected void compute() {
+			invokeAll(tasks_);
+		}
+	}
+
+	/**
+	 * Fork-join task computing the element matrices of a range of elements into
+	 * a coordinate buffer.
+	 * 
+	 */
+	private static class Buffer extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/** The structure. */
+		private final Structure structure_;
+
+		/** Matrix type and element range. */
+		private final int type_, start_, end_;
+
+		/** Flag for lumped (diagonal only) assembly. */
+		private final boolean lumped_;
+
+		/** Row and column indices of buffered components. */
+		private int[] row_ = new int[0], col_ = new int[0];
+
+		/** Values of buffered components. */
+		private double[] val_ = new double[0];
+
+		/** Number of buffered components. */
+		private int size_ = 0;
+
+		/** Workspace for element matrices (row-major). */
+		private double[] work_ = new double[0];
+
+		/**
+		 * Creates buffer task.
+		 * 
+		 * @param structure
+		 *            The structure.
+		 * @param type
+		 *            Matrix type.
+		 * @param lumped
+		 *            Flag for lumped assembly.
+		 * @param start
+		 *            Index of first element (inclusive).
+		 * @param end
+		 *            Index of last element (exclusive).
+		 */
+		private Buffer(Structure structure, int type, boolean lumped,
+				int start, int end) {
+			structure_ = structure;
+			type_ = type;
+			lumped_ = lumped;
+			start_ = start;
+			end_ = end;
+		}
+
+		@Override
+		protected void compute() {
+
+			// loop over elements
+			for (int i = start_; i < end_; i++) {
+
+				// get element
+				Element e = structure_.getElement(i);
+
+				// get dof numbers of element
+				int[] dof = e.getDofNumbers();
+
+				// get element matrix in nodal local coordinate system
+				int n = dof.length;
+				if (work_.length < n * n)
+					work_ = new double[n * n];
+				if (type_ == stiffness_)
+					e.getStiffnessMatrix(Element.local_, work_);
+				else {
+					DMat m = null;
+					if (type_ == mass_)
+						m = e.getMassMatrix(Element.local_);
+					else if (type_ == stability_)
+						m = e.getStabilityMatrix(Element.local_);
+					for (int j = 0; j < n; j++)
+						for (int k = 0; k < n; k++)
+							work_[j * n + k] = m.get(j, k);
+				}
+
+				// lumped assembly
+				if (lumped_) {
+
+					// loop over rows of element matrix
+					ensureCapacity(size_ + dof.length);
+					for (int j = 0; j < dof.length; j++) {
+
+						// check if dof is free
+						if (dof[j] != -1)
+							put(dof[j], dof[j], work_[j * n + j]);
+					}
+				}
+
+				// consistent assembly
+				else {
+
+					// loop over rows of element matrix
+					ensureCapacity(size_ + dof.length * dof.length);
+					for (int j = 0; j < dof.length; j++) {
+
+						// check if dof is free
+						if (dof[j] != -1) {
+
+							// loop over columns of element matrix
+							for (int k = 0; k < dof.length; k++) {
+
+								// check if dof is free
+								if (dof[k] != -1)
+									put(dof[j], dof[k], work_[j * n + k]);
+							}
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Appends component to buffer.
+		 * 
+		 * @param row
+		 *            Row index.
+		 * @param col
+		 *            Column index.
+		 * @param val
+		 *            Value.
+		 */
+		private void put(int row, int col, double val) {
+			row_[size_] = row;
+			col_[size_] = col;
+			val_[size_] = val;
+			size_++;
+		}
+
+		/**
+		 * Grows buffer arrays if necessary.
+		 * 
+		 * @param capacity
+		 *            Required capacity.
+		 */
+		private void ensureCapacity(int capacity) {
+			if (capacity > val_.length) {
+				capacity = Math.max(capacity, 2 * val_.length);
+				int[] row = new int[capacity];
+				int[] col = new int[capacity];
+				double[] val = new double[capacity];
+				System.arraycopy(row_, 0, row, 0, size_);
+				System.arraycopy(col_, 0, col, 0, size_);
+				System.arraycopy(val_, 0, val, 0, size_);
+				row_ = row;
+				col_ = col;
+				val_ = val;
+			}
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.util.IdentityHashMap;
+import java.util.Vector;
+
+import node.Node;
+import element.Element;
+
+/**
+ * Class for element-node connectivity of structure in compressed row form.
+ * Node indices of element i are stored at positions pointers[i] to
+ * pointers[i + 1] - 1, in the order of the nodes of element. Nodes are
+ * identified by their indices in the structure; nodes of elements which don't
+ * belong to the structure are numbered after them.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class Connectivity {
+
+	/** Pointers to the node indices of each element. */
+	private final int[] pointers_;
+
+	/** Node indices of elements. */
+	private final int[] nodes_;
+
+	/** Number of numbered nodes. */
+	private final int numberOfNodes_;
+
+	/**
+	 * Creates connectivity.
+	 * 
+	 * @param elements
+	 *            The elements of structure.
+	 * @param indices
+	 *            The indices of nodes of structure.
+	 */
+	protected Connectivity(Vector<Element> elements,
+			IdentityHashMap<Node, Integer> indices) {
+
+		// compute pointers
+		pointers_ = new int[elements.size() + 1];
+		for (int i = 0; i < elements.size(); i++)
+			pointers_[i + 1] = pointers_[i]
+					+ elements.get(i).getNodes().length;
+
+		// store node indices (number the foreign nodes after the others)
+		IdentityHashMap<Node, Integer> foreign = null;
+		int n = indices.size();
+		nodes_ = new int[pointers_[elements.size()]];
+		for (int i = 0; i < elements.size(); i++) {
+			Node[] nodes = elements.get(i).getNodes();
+			for (int j = 0; j < nodes.length; j++) {
+				Integer index = indices.get(nodes[j]);
+				if (index == null) {
+					if (foreign == null)
+						foreign = new IdentityHashMap<Node, Integer>();
+					index = foreign.get(nodes[j]);
+					if (index == null) {
+						index = n++;
+						foreign.put(nodes[j], index);
+					}
+				}
+				nodes_[pointers_[i] + j] = index;
+			}
+		}
+		numberOfNodes_ = n;
+	}
+
+	/**
+	 * Returns the number of numbered nodes. This is the number of nodes of
+	 * structure, plus the number of foreign nodes of elements if any.
+	 * 
+	 * @return The number of numbered nodes.
+	 */
+	public int getNumberOfNodes() {
+		return numberOfNodes_;
+	}
+
+	/**
+	 * Returns the number of elements.
+	 * 
+	 * @return The number of elements.
+	 */
+	public int getNumberOfElements() {
+		return pointers_.length - 1;
+	}
+
+	/**
+	 * Returns the pointers to the node indices of each element. The returned
+	 * array should not be modified.
+	 * 
+	 * @return The pointers array.
+	 */
+	public int[] getPointers() {
+		return pointers_;
+	}
+
+	/**
+	 * Returns the node indices of elements. The returned array should not be
+	 * modified.
+	 * 
+	 * @return The node indices array.
+	 */
+	public int[] getNodeIndices() {
+		return nodes_;
+	}
+
+	/**
+	 * Returns true if the node at the given position of connectivity doesn't
+	 * occur at a preceding position of the same element.
+	 * 
+	 * @param element
+	 *            The index of element.
+	 * @param position
+	 *            The position within the node indices array.
+	 * @return True if it is the first occurrence of node in element.
+	 */
+	public boolean isFirstOccurrence(int element, int position) {
+		for (int k = pointers_[element]; k < position; k++)
+			if (nodes_[k] == nodes_[position])
+				return false;
+		return true;
+	}
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+import node.Node;
+import element.Element;
+import matrix.DMat;
+
+/**
+ * Class for element-by-element evaluation of internal forces (K * u) without
+ * assembling the system stiffness matrix. The stiffness matrices of elements
+ * and nodal springs are computed once, restricted to their free dofs. Forces
+ * of elements are computed concurrently into their own slots, and then
+ * gathered concurrently for each dof from the slots of its elements in element
+ * order. Results are therefore identical regardless of the number of threads.
+ * 
+ * @author Murat Artim
+ * 
+ */
+class InternalForce {
+
+	/** Number of elements or dofs processed by a single task. */
+	private static final int grainSize_ = 256;
+
+	/** Task types. */
+	private static final int setup_ = 0, forces_ = 1, gather_ = 2;
+
+	/** The structure. */
+	private final Structure structure_;
+
+	/** Number of elements and elements together with nodal springs. */
+	private final int ne_, groups_;
+
+	/** The nodes with springs. */
+	private final Node[] springNodes_;
+
+	/** Number of equations. */
+	private final int eqn_;
+
+	/** Pointers to the first slot of each element. */
+	private final int[] pointers_;
+
+	/** Dof numbers of slots. */
+	private final int[] dofs_;
+
+	/** Stiffness matrices of elements restricted to free dofs (row-major). */
+	private final double[][] stiffness_;
+
+	/** Pointers to the first slot of each dof and the slots of dofs. */
+	private final int[] dofPointers_, slots_;
+
+	/** Values of slots. */
+	private final double[] values_;
+
+	/** The vector multiplied and the resulting vector. */
+	private double[] u_, f_;
+
+	/**
+	 * Computes element stiffness matrices of given structure. Nodal springs
+	 * are treated as additional elements.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @param eqn
+	 *            The number of equations.
+	 */
+	protected InternalForce(Structure structure, int eqn) {
+
+		// collect nodes with springs
+		structure_ = structure;
+		eqn_ = eqn;
+		ne_ = structure.getNumberOfElements();
+		int count = 0;
+		Node[] nodes = new Node[structure.getNumberOfNodes()];
+		for (int i = 0; i < nodes.length; i++)
+			if (structure.getNode(i).getSprings() != null)
+				nodes[count++] = structure.getNode(i);
+		springNodes_ = Arrays.copyOf(nodes, count);
+		groups_ = ne_ + count;
+
+		// store free dofs of elements
+		pointers_ = new int[groups_ + 1];
+		int[][] dofs = new int[groups_][];
+		for (int g = 0; g < groups_; g++) {
+			dofs[g] = getFreeDofs(getDofNumbers(g));
+			pointers_[g + 1] = pointers_[g] + dofs[g].length;
+		}
+		dofs_ = new int[pointers_[groups_]];
+		for (int g = 0; g < groups_; g++)
+			System.arraycopy(dofs[g], 0, dofs_, pointers_[g], dofs[g].length);
+
+		// store slots of each dof in element order
+		dofPointers_ = new int[eqn_ + 1];
+		for (int k = 0; k < dofs_.length; k++)
+			dofPointers_[dofs_[k] + 1]++;
+		for (int i = 0; i < eqn_; i++)
+			dofPointers_[i + 1] += dofPointers_[i];
+		slots_ = new int[dofs_.length];
+		int[] next = Arrays.copyOf(dofPointers_, eqn_);
+		for (int k = 0; k < dofs_.length; k++)
+			slots_[next[dofs_[k]]++] = k;
+
+		// compute element stiffness matrices concurrently
+		stiffness_ = new double[groups_][];
+		values_ = new double[dofs_.length];
+		Assembler.pool_.invoke(new Task(setup_, 0, groups_));
+	}
+
+	/**
+	 * Computes internal forces for the given displacements.
+	 * 
+	 * @param u
+	 *            The displacement vector.
+	 * @param f
+	 *            Vector to store the internal forces.
+	 */
+	protected void compute(double[] u, double[] f) {
+		u_ = u;
+		Assembler.pool_.invoke(new Task(forces_, 0, groups_));
+		gather(f);
+	}
+
+	/**
+	 * Returns the sums of absolute values of system stiffness matrix rows, as
+	 * assembled from the elements. Used for Gershgorin bounds of eigenvalues.
+	 * 
+	 * @return Array storing the absolute row sums for each dof.
+	 */
+	protected double[] getAbsoluteRowSums() {
+
+		// compute absolute row sums of elements into slots
+		for (int g = 0; g < groups_; g++) {
+			int first = pointers_[g], n = pointers_[g + 1] - first;
+			for (int i = 0; i < n; i++) {
+				double sum = 0.0;
+				for (int j = 0; j < n; j++)
+					sum += Math.abs(stiffness_[g][i * n + j]);
+				values_[first + i] = sum;
+			}
+		}
+
+		// gather
+		double[] sums = new double[eqn_];
+		gather(sums);
+		return sums;
+	}
+
+	/**
+	 * Gathers the values of slots into given vector.
+	 * 
+	 * @param f
+	 *            Vector to store the gathered values.
+	 */
+	private void gather(double[] f) {
+		f_ = f;
+		Assembler.pool_.invoke(new Task(gather_, 0, eqn_));
+	}
+
+	/**
+	 * Returns the dof numbers of given element or node with springs.
+	 * 
+	 * @param g
+	 *            Index of element (elements are followed by the nodes with
+	 *            springs).
+	 * @return The dof numbers.
+	 */
+	private int[] getDofNumbers(int g) {
+		if (g < ne_)
+			return structure_.getElement(g).getDofNumbers();
+		return springNodes_[g - ne_].getDofNumbers();
+	}
+
+	/**
+	 * Returns the free dofs of given dof numbers.
+	 * 
+	 * @param dof
+	 *            The dof numbers (-1 for constrained dofs).
+	 * @return The free dof numbers.
+	 */
+	private static int[] getFreeDofs(int[] dof) {
+		int m = 0;
+		int[] free = new int[dof.length];
+		for (int i = 0; i < dof.length; i++)
+			if (dof[i] != -1)
+				free[m++] = dof[i];
+		return Arrays.copyOf(free, m);
+	}
+
+	/**
+	 * Computes the stiffness matrix of given element restricted to its free
+	 * dofs.
+	 * 
+	 * @param g
+	 *            Index of element (elements are followed by the nodes with
+	 *            springs).
+	 */
+	private void setup(int g) {
+
+		// get stiffness matrix in nodal local coordinate system
+		int[] dof = getDofNumbers(g);
+		int n = dof.length;
+		double[] k = new double[n * n];
+		if (g < ne_)
+			structure_.getElement(g).getStiffnessMatrix(Element.local_, k);
+		else {
+			DMat kn = springNodes_[g - ne_].getStiffnessMatrix();
+			for (int i = 0; i < n; i++)
+				for (int j = 0; j < n; j++)
+					k[i * n + j] = kn.get(i, j);
+		}
+
+		// restrict to free dofs
+		int m = pointers_[g + 1] - pointers_[g];
+		double[] kf = new double[m * m];
+		int r = 0;
+		for (int i = 0; i < n; i++) {
+			if (dof[i] == -1)
+				continue;
+			int c = 0;
+			for (int j = 0; j < n; j++)
+				if (dof[j] != -1)
+					kf[r * m + c++] = k[i * n + j];
+			r++;
+		}
+		stiffness_[g] = kf;
+	}
+
+	/**
+	 * Fork-join task processing a range of elements or dofs.
+	 * 
+	 */
+	private class Task extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/** Task type and range (end is exclusive). */
+		private final int type_, start_, end_;
+
+		/**
+		 * Creates task.
+		 * 
+		 * @param type
+		 *            Task type.
+		 * @param start
+		 *            First index of range (inclusive).
+		 * @param end
+		 *            Last index of range (exclusive).
+		 */
+		private Task(int type, int start, int end) {
+			type_ = type;
+			start_ = start;
+			end_ = end;
+		}
+
+		@Override
+		protected void compute() {
+
+			// split range
+			if (end_ - start_ > grainSize_) {
+				int middle = (start_ + end_) >>> 1;
+				invokeAll(new Task(type_, start_, middle), new Task(type_,
+						middle, end_));
+				return;
+			}
+
+			// compute element stiffness matrices
+			if (type_ == setup_) {
+				for (int g = start_; g < end_; g++)
+					setup(g);
+			}
+
+			// compute element forces into slots
+			else if (type_ == forces_) {
+				for (int g = start_; g < end_; g++) {
+					int first = pointers_[g], n = pointers_[g + 1] - first;
+					double[] k = stiffness_[g];
+					for (int i = 0; i < n; i++) {
+						double sum = 0.0;
+						for (int j = 0; j < n; j++)
+							sum += k[i * n + j] * u_[dofs_[first + j]];
+						values_[first + i] = sum;
+					}
+				}
+			}
+
+			// gather slots of dofs
+			else if (type_ == gather_) {
+				for (int i = start_; i < end_; i++) {
+					double sum = 0.0;
+					for (int k = dofPointers_[i]; k < dofPointers_[i + 1]; k++)
+						sum += values_[slots_[k]];
+					f_[i] = sum;
+				}
+			}
+		}
+	}
+}
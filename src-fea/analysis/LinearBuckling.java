@@ -21,7 +21,6 @@ import solver.GESolver;
 import solver.Solver;
 
 import node.Node;
-import element.Element;
 
 import boundary.BoundaryCase;
 import matrix.*;
@@ -104,7 +103,8 @@ public class LinearBuckling extends Analysis {
 	/**
 	 * Returns analysis properties. The sequence of information is; name
 	 * (String), analysis type (int), boundary cases (String[]), boundary scales
-	 * (double[]), solver (String), eigenvalues (double[]).
+	 * (double[]), solver (String), eigenvalues (double[]), equation numbering
+	 * (long[]).
 	 * 
 	 * @return Vector storing the analysis properties.
 	 */
@@ -135,6 +135,9 @@ public class LinearBuckling extends Analysis {
 		// get eigenvalues -5
 		prop.add(getEigenvalues());
 
+		// get equation numbering information -6
+		prop.add(structure_.getNumberingInfo());
+
 		// return vector
 		return prop;
 	}
@@ -161,12 +164,12 @@ public class LinearBuckling extends Analysis {
 		hbw_ = 0;
 		killed_ = false;
 		completed_ = false;
-		status_ = null;
+		setStatus(null);
 		eigVal_ = null;
 
 		// no previous analysis has been performed
 		if (structure_.getAnalysisInfo().size() == 0) {
-			status_ = "A static analysis should be performed before the analysis!";
+			setStatus("A static analysis should be performed before the analysis!");
 			killed_ = true;
 		}
 
@@ -178,7 +181,7 @@ public class LinearBuckling extends Analysis {
 
 			// not linear static analysis
 			if (type != Analysis.linearStatic_) {
-				status_ = "A static analysis should be performed before the analysis!";
+				setStatus("A static analysis should be performed before the analysis!");
 				killed_ = true;
 			}
 
@@ -186,12 +189,12 @@ public class LinearBuckling extends Analysis {
 			else {
 
 				// check model
-				status_ = "Checking model...";
+				setStatus("Checking model...");
 				String message = structure_.checkModel(0);
 
 				// problem occured with the model
 				if (message != null) {
-					status_ = message;
+					setStatus(message);
 					killed_ = true;
 				}
 
@@ -199,41 +202,45 @@ public class LinearBuckling extends Analysis {
 				else {
 
 					// set step number to structure
-					status_ = "Setting step number...";
+					setStatus("Setting step number...");
 					structure_.setStep(path_, 0);
 
 					// enumerate degrees of freedom of structure
-					status_ = "Enumerating dofs...";
+					setStatus("Enumerating dofs...");
 					eqn_ = structure_.enumerateDofs(bCases_, bScales_);
 
 					// compute effective bandwidth
-					status_ = "Computing effective bandwidth...";
+					setStatus("Computing effective bandwidth...");
 					hbw_ = computeHalfBandWidth();
 
 					// assemble system stiffness matrix
-					status_ = "Assembling system stiffness matrix...";
+					setStatus("Assembling system stiffness matrix...");
 					SMat kSystem = null;
 					if (solver_.getType() == Solver.solver3_)
 						kSystem = new USB1Mat(eqn_, hbw_);
 					else if (solver_.getType() == Solver.solver4_)
 						kSystem = new USPMat(eqn_);
+					else if (solver_.getType() == Solver.solver5_)
+						kSystem = new USB1Mat(eqn_, hbw_);
 					assembleStiffness(kSystem);
 
 					// assemble system stability matrix
-					status_ = "Assembling system stability matrix...";
+					setStatus("Assembling system stability matrix...");
 					SMat gSystem = null;
 					if (solver_.getType() == Solver.solver3_)
 						gSystem = new USB1Mat(eqn_, hbw_);
 					else if (solver_.getType() == Solver.solver4_)
 						gSystem = new USPMat(eqn_);
+					else if (solver_.getType() == Solver.solver5_)
+						gSystem = new USB1Mat(eqn_, hbw_);
 					assembleStability(gSystem);
 
 					// initialize structure
-					status_ = "Initializing model...";
+					setStatus("Initializing model...");
 					structure_.initialize();
 
 					// start of eigenvalue problem solution
-					status_ = "Solution of eigensystem...";
+					setStatus("Solution of eigensystem...");
 					solve(kSystem, gSystem);
 				}
 			}
@@ -265,11 +272,11 @@ public class LinearBuckling extends Analysis {
 			solver_.solve(kSystem, gSystem, eigVal, eigVec, nroot);
 
 			// set unknowns to structure
-			status_ = "Writing output data...";
+			setStatus("Writing output data...");
 
 			// exception occurred during writing output data
 			if (structure_.setUnknowns(path_, eigVec.getData(), nroot) == false) {
-				status_ = "Exception occurred during writing output data!";
+				setStatus("Exception occurred during writing output data!");
 				killed_ = true;
 			}
 
@@ -280,11 +287,11 @@ public class LinearBuckling extends Analysis {
 				eigVal_ = eigVal.get1DArray();
 
 				// set analysis info to structure
-				status_ = "Setting analysis info to model...";
+				setStatus("Setting analysis info to model...");
 				structure_.setAnalysisInfo(getAnalysisInfo());
 
 				// analysis completed
-				status_ = "Analysis complete.";
+				setStatus("Analysis complete.");
 				completed_ = true;
 			}
 		}
@@ -293,7 +300,7 @@ public class LinearBuckling extends Analysis {
 		catch (Exception excep) {
 
 			// write message
-			status_ = "Solve failed!";
+			setStatus("Solve failed!");
 			killed_ = true;
 		}
 	}
@@ -306,37 +313,8 @@ public class LinearBuckling extends Analysis {
 	 */
 	private void assembleStability(Mat gSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get stability matrix of element in nodal local coordinate system
-			DMat ge = e.getStabilityMatrix(Node.local_);
-
-			// loop over rows of element stability matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// loop over columns of element stability matrix
-					for (int k = 0; k < dof.length; k++) {
-
-						// check if dof is free
-						if (dof[k] != -1) {
-
-							// store into system stability matrix
-							gSystem.add(dof[j], dof[k], ge.get(j, k));
-						}
-					}
-				}
-			}
-		}
+		// assemble element stability matrices
+		Assembler.assemble(structure_, gSystem, Assembler.stability_, false);
 	}
 
 	/**
@@ -348,37 +326,8 @@ public class LinearBuckling extends Analysis {
 	 */
 	private void assembleStiffness(Mat kSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get stiffness matrix of element in nodal local coordinate system
-			DMat ke = e.getStiffnessMatrix(Node.local_);
-
-			// loop over rows of element stiffness matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// loop over columns of element stiffness matrix
-					for (int k = 0; k < dof.length; k++) {
-
-						// check if dof is free
-						if (dof[k] != -1) {
-
-							// store into system stiffness matrix
-							kSystem.add(dof[j], dof[k], ke.get(j, k));
-						}
-					}
-				}
-			}
-		}
+		// assemble element stiffness matrices
+		Assembler.assemble(structure_, kSystem, Assembler.stiffness_, false);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
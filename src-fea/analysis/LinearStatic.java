@@ -70,7 +70,7 @@ public class LinearStatic extends Analysis {
 	/**
 	 * Returns analysis properties. The sequence of information is; name
 	 * (String), analysis type (int), boundary cases (String[]), boundary scales
-	 * (double[]), solver (String).
+	 * (double[]), solver (String), equation numbering (long[]).
 	 * 
 	 * @return Vector storing the analysis information.
 	 */
@@ -98,6 +98,9 @@ public class LinearStatic extends Analysis {
 		// get solver -4
 		prop.add(getSolver().getName());
 
+		// get equation numbering information -5
+		prop.add(structure_.getNumberingInfo());
+
 		// return vector
 		return prop;
 	}
@@ -160,17 +163,17 @@ public class LinearStatic extends Analysis {
 		hbw_ = 0;
 		killed_ = false;
 		completed_ = false;
-		status_ = null;
+		setStatus(null);
 		iterations_ = null;
 		residual_ = null;
 
 		// check model
-		status_ = "Checking model...";
+		setStatus("Checking model...");
 		String message = structure_.checkModel(0);
 
 		// problem occured with the model
 		if (message != null) {
-			status_ = message;
+			setStatus(message);
 			killed_ = true;
 		}
 
@@ -178,22 +181,23 @@ public class LinearStatic extends Analysis {
 		else {
 
 			// initialize structure
-			status_ = "Initializing model...";
+			setStatus("Initializing model...");
 			structure_.initialize();
 
 			// enumerate degrees of freedom of structure
-			status_ = "Enumerating dofs...";
+			setStatus("Enumerating dofs...");
 			eqn_ = structure_.enumerateDofs(bCases_, bScales_);
 
 			// compute effective bandwidth
-			status_ = "Computing effective bandwidth...";
+			setStatus("Computing effective bandwidth...");
 			hbw_ = computeHalfBandWidth();
 
 			// assemble system stiffness matrix
-			status_ = "Assembling system stiffness matrix...";
+			setStatus("Assembling system stiffness matrix...");
 			SMat kSystem = null;
 			if (solver_.getType() == Solver.solver0_)
-				kSystem = new CDSMat(eqn_, hbw_);
+				kSystem = new CSRMat(eqn_, Assembler.computePattern(
+						structure_, eqn_, false));
 			else if (solver_.getType() == Solver.solver1_)
 				kSystem = new USB1Mat(eqn_, hbw_);
 			else if (solver_.getType() == Solver.solver2_)
@@ -201,12 +205,12 @@ public class LinearStatic extends Analysis {
 			assembleStiffness(kSystem);
 
 			// assemble system load vector
-			status_ = "Assembling system load vector...";
+			setStatus("Assembling system load vector...");
 			DVec rSystem = new DVec(eqn_);
 			assembleLoad(rSystem, kSystem);
 
 			// start of linear equation solution
-			status_ = "Solving linear system of equations...";
+			setStatus("Solving linear system of equations...");
 			DVec uSystem = new DVec(eqn_);
 			solve(kSystem, rSystem, uSystem);
 		}
@@ -222,37 +226,8 @@ public class LinearStatic extends Analysis {
 	 */
 	private void assembleStiffness(Mat kSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get stiffness matrix of element in nodal local coordinate system
-			DMat ke = e.getStiffnessMatrix(Element.local_);
-
-			// loop over rows of element stiffness matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// loop over columns of element stiffness matrix
-					for (int k = 0; k < dof.length; k++) {
-
-						// check if dof is free
-						if (dof[k] != -1) {
-
-							// store into system stiffness matrix
-							kSystem.add(dof[j], dof[k], ke.get(j, k));
-						}
-					}
-				}
-			}
-		}
+		// assemble element stiffness matrices
+		Assembler.assemble(structure_, kSystem, Assembler.stiffness_, false);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
@@ -455,6 +430,7 @@ public class LinearStatic extends Analysis {
 		try {
 
 			// initialize solver
+			setNearNullSpace(solver_);
 			solver_.initialize(kSystem, uSystem);
 
 			// solve
@@ -468,11 +444,11 @@ public class LinearStatic extends Analysis {
 			solver_.clear();
 
 			// set unknowns to structure
-			status_ = "Writing output data...";
+			setStatus("Writing output data...");
 
 			// exception occurred during writing output data
 			if (setUnknowns(uSystem) == false) {
-				status_ = "Exception occurred during writing output data!";
+				setStatus("Exception occurred during writing output data!");
 				killed_ = true;
 			}
 
@@ -480,11 +456,11 @@ public class LinearStatic extends Analysis {
 			else {
 
 				// set analysis info to structure
-				status_ = "Setting analysis info to model...";
+				setStatus("Setting analysis info to model...");
 				structure_.setAnalysisInfo(getAnalysisInfo());
 
 				// analysis completed
-				status_ = "Analysis complete.";
+				setStatus("Analysis complete.");
 				completed_ = true;
 			}
 		}
@@ -493,7 +469,7 @@ public class LinearStatic extends Analysis {
 		catch (Exception excep) {
 
 			// write message
-			status_ = "Solve failed!";
+			setStatus("Solve failed!");
 			killed_ = true;
 		}
 	}
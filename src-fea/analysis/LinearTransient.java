@@ -15,6 +15,7 @@
  */
 package analysis;
 
+import java.util.Arrays;
 import java.util.Vector;
 
 import solver.LESolver;
@@ -29,6 +30,8 @@ import element.Element;
 import math.Function;
 import matrix.*;
 
+import dialogs.file.OutputDataWriter;
+
 /**
  * Class for linear tarnsient analysis.
  * 
@@ -40,7 +43,11 @@ public class LinearTransient extends Analysis {
 	private static final long serialVersionUID = 1L;
 
 	/** Static variable for the direct integration method. */
-	public static final int newmark_ = 0, wilson_ = 1;
+	public static final int newmark_ = 0, wilson_ = 1, centralDifference_ = 2,
+			modalSuperposition_ = 3;
+
+	/** Factor applied to the critical time step of central difference. */
+	private static final double stabilityFactor_ = 0.9;
 
 	/**
 	 * The number of equations to be solved, effective bandwidth and current
@@ -78,6 +85,15 @@ public class LinearTransient extends Analysis {
 	/** Residual of iterative solver. */
 	private Double residual_;
 
+	/** Estimated critical time step of central difference method. */
+	private Double criticalStep_;
+
+	/** Number of central difference steps within each time step. */
+	private int substeps_ = 1;
+
+	/** Number of modes used for modal superposition (0 for all modes). */
+	private int modes_ = 0;
+
 	/**
 	 * Creates linear dynamic analysis.
 	 * 
@@ -181,13 +197,29 @@ public class LinearTransient extends Analysis {
 	public void setIntegrationMethod(int method) {
 
 		// check method
-		if (method < 0 || method > 2)
+		if (method < 0 || method > 3)
 			exceptionHandler("Illegal integration method for linear dynamic analysis!");
 
 		// set integration method
 		integrationMethod_ = method;
 	}
 
+	/**
+	 * Sets number of modes to be used for modal superposition.
+	 * 
+	 * @param modes
+	 *            Number of modes (0 for all modes of modal analysis).
+	 */
+	public void setNumberOfModes(int modes) {
+
+		// check number of modes
+		if (modes < 0)
+			exceptionHandler("Illegal number of modes for modal superposition!");
+
+		// set number of modes
+		modes_ = modes;
+	}
+
 	/**
 	 * Sets time function for scaling the system load vector during the
 	 * analysis.
@@ -226,7 +258,8 @@ public class LinearTransient extends Analysis {
 	 * (String), analysis type (int), boundary cases (String[]), boundary scales
 	 * (double[]), solver (String), number of time steps (int), time step size
 	 * (double), integration method (int), integration parameters (double[]),
-	 * damping constants (double[]), load time function (Function).
+	 * damping constants (double[]), load time function (Function), equation
+	 * numbering (long[]).
 	 * 
 	 * @return Vector storing the analysis properties.
 	 */
@@ -268,6 +301,12 @@ public class LinearTransient extends Analysis {
 		if (integrationMethod_ == LinearTransient.wilson_) {
 			param = new double[1];
 			param[0] = getWilsonParameter();
+		} else if (integrationMethod_ == LinearTransient.centralDifference_) {
+			param = new double[1];
+			param[0] = criticalStep_ == null ? 0.0 : criticalStep_;
+		} else if (integrationMethod_ == LinearTransient.modalSuperposition_) {
+			param = new double[1];
+			param[0] = modes_;
 		}
 		prop.add(param);
 
@@ -277,6 +316,9 @@ public class LinearTransient extends Analysis {
 		// get load time function -10
 		prop.add(getLoadTimeFunction());
 
+		// get equation numbering information -11
+		prop.add(structure_.getNumberingInfo());
+
 		// return vector
 		return prop;
 	}
@@ -290,6 +332,25 @@ public class LinearTransient extends Analysis {
 		return solver_;
 	}
 
+	/**
+	 * Returns the estimated critical time step of central difference method,
+	 * or null if it has not been estimated.
+	 * 
+	 * @return The critical time step.
+	 */
+	public Double getCriticalTimeStep() {
+		return criticalStep_;
+	}
+
+	/**
+	 * Returns the number of central difference steps within each time step.
+	 * 
+	 * @return The number of substeps.
+	 */
+	public int getNumberOfSubsteps() {
+		return substeps_;
+	}
+
 	/**
 	 * Returns the integration method of analysis.
 	 * 
@@ -355,6 +416,15 @@ public class LinearTransient extends Analysis {
 		return wilsonPar_;
 	}
 
+	/**
+	 * Returns number of modes used for modal superposition.
+	 * 
+	 * @return Number of modes (0 for all modes of modal analysis).
+	 */
+	public int getNumberOfModes() {
+		return modes_;
+	}
+
 	/**
 	 * Returns number of time steps used for time integration.
 	 * 
@@ -414,17 +484,19 @@ public class LinearTransient extends Analysis {
 		currentStep_ = -1;
 		killed_ = false;
 		completed_ = false;
-		status_ = null;
+		setStatus(null);
 		iterations_ = null;
 		residual_ = null;
+		criticalStep_ = null;
+		substeps_ = 1;
 
 		// check model
-		status_ = "Checking model...";
+		setStatus("Checking model...");
 		String message = structure_.checkModel(0);
 
 		// problem occured with the model
 		if (message != null) {
-			status_ = message;
+			setStatus(message);
 			killed_ = true;
 		}
 
@@ -432,22 +504,35 @@ public class LinearTransient extends Analysis {
 		else {
 
 			// initialize structure
-			status_ = "Initializing model...";
+			setStatus("Initializing model...");
 			structure_.initialize();
 
 			// enumerate degrees of freedom of structure
-			status_ = "Enumerating dofs...";
+			setStatus("Enumerating dofs...");
 			eqn_ = structure_.enumerateDofs(bCases_, bScales_);
 
+			// central difference method (no system matrix is factorized)
+			if (integrationMethod_ == LinearTransient.centralDifference_) {
+				centralDifference();
+				return;
+			}
+
+			// modal superposition (modes of previous modal analysis)
+			if (integrationMethod_ == LinearTransient.modalSuperposition_) {
+				modalSuperposition();
+				return;
+			}
+
 			// compute effective bandwidth
-			status_ = "Computing effective bandwidth...";
+			setStatus("Computing effective bandwidth...");
 			hbw_ = computeHalfBandWidth();
 
 			// assemble system stiffness matrix
-			status_ = "Assembling system stiffness matrix...";
+			setStatus("Assembling system stiffness matrix...");
 			SMat kSystem = null;
 			if (solver_.getType() == Solver.solver0_)
-				kSystem = new CDSMat(eqn_, hbw_);
+				kSystem = new CSRMat(eqn_, Assembler.computePattern(
+						structure_, eqn_, false));
 			else if (solver_.getType() == Solver.solver1_)
 				kSystem = new USB1Mat(eqn_, hbw_);
 			else if (solver_.getType() == Solver.solver2_)
@@ -455,10 +540,11 @@ public class LinearTransient extends Analysis {
 			assembleStiffness(kSystem);
 
 			// assemble system mass matrix
-			status_ = "Assembling system mass matrix...";
+			setStatus("Assembling system mass matrix...");
 			SMat mSystem = null;
 			if (solver_.getType() == Solver.solver0_)
-				mSystem = new CDSMat(eqn_, 0);
+				mSystem = new CSRMat(eqn_, Assembler.computePattern(
+						structure_, eqn_, true));
 			else if (solver_.getType() == Solver.solver1_)
 				mSystem = new USB1Mat(eqn_, 0);
 			else if (solver_.getType() == Solver.solver2_)
@@ -468,26 +554,39 @@ public class LinearTransient extends Analysis {
 			// assemble system damping matrix
 			SMat cSystem = null;
 			if (proporCoeff_[0] != 0.0 || proporCoeff_[1] != 0.0) {
-				status_ = "Assembling system damping matrix...";
-				cSystem = mSystem.copy().scale(proporCoeff_[0]).add(
-						kSystem.copy().scale(proporCoeff_[1]));
+				setStatus("Assembling system damping matrix...");
+				cSystem = kSystem.copy().scale(proporCoeff_[1]).axpy(
+						proporCoeff_[0], mSystem);
 			}
 
 			// assemble system load vector
-			status_ = "Assembling system load vector...";
+			setStatus("Assembling system load vector...");
 			DVec rSystem = new DVec(eqn_);
 			assembleLoad(rSystem, kSystem);
 
 			// assemble system initial displacement-velocity vectors
-			status_ = "Assembling system initial vectors...";
+			setStatus("Assembling system initial vectors...");
 			DVec uSystem = new DVec(eqn_);
 			DVec uuSystem = new DVec(eqn_);
 			assembleInitialVec(uSystem, uuSystem);
 
+			// create output data writer
+			setStatus("Creating output data...");
+			OutputDataWriter sol = structure_.createOutputWriter(path_, eqn_,
+					n_);
+
+			// exception occurred during creating output data
+			if (sol == null) {
+				setStatus("Exception occurred during writing output data!");
+				killed_ = true;
+			}
+
 			// start of time integration
-			status_ = "Time integration of system equations...";
-			double[][] sol = new double[eqn_][n_];
-			solve(kSystem, mSystem, cSystem, rSystem, uSystem, uuSystem, sol);
+			else {
+				setStatus("Time integration of system equations...");
+				solve(kSystem, mSystem, cSystem, rSystem, uSystem, uuSystem,
+						sol);
+			}
 		}
 	}
 
@@ -507,10 +606,10 @@ public class LinearTransient extends Analysis {
 	 * @param uu
 	 *            System initial velocity vector.
 	 * @param sol
-	 *            Solution matrix.
+	 *            Output data writer for the solution steps.
 	 */
 	private void solve(SMat k, SMat m, SMat c, DVec r, DVec u, DVec uu,
-			double[][] sol) {
+			OutputDataWriter sol) {
 
 		try {
 
@@ -525,37 +624,466 @@ public class LinearTransient extends Analysis {
 			// clear solver
 			solver_.clear();
 
-			// set unknowns to structure
-			status_ = "Writing output data...";
+			// write output data
+			complete(sol);
+		}
+
+		// solve failed
+		catch (Exception excep) {
+
+			// keep completed steps readable
+			structure_.setUnknowns(sol);
 
-			// exception occurred during writing output data
-			if (structure_.setUnknowns(path_, sol, n_) == false) {
-				status_ = "Exception occurred during writing output data!";
+			// write message
+			setStatus("Solve failed!");
+			killed_ = true;
+		}
+	}
+
+	/**
+	 * Writes output data and sets analysis info to structure.
+	 * 
+	 * @param sol
+	 *            Output data writer for the solution steps.
+	 */
+	private void complete(OutputDataWriter sol) {
+
+		// set unknowns to structure
+		setStatus("Writing output data...");
+
+		// exception occurred during writing output data
+		if (structure_.setUnknowns(sol) == false) {
+			setStatus("Exception occurred during writing output data!");
+			killed_ = true;
+		}
+
+		// no problem with writing
+		else {
+
+			// set analysis info to structure
+			setStatus("Setting analysis info to model...");
+			structure_.setAnalysisInfo(getAnalysisInfo());
+
+			// analysis completed
+			setStatus("Analysis complete.");
+			completed_ = true;
+		}
+	}
+
+	/**
+	 * Prepares and performs central difference integration. The lumped system
+	 * mass matrix is kept as a diagonal array and internal forces are
+	 * evaluated element by element, so that no system matrix is assembled or
+	 * factorized. The time step is subdivided if it exceeds the estimated
+	 * critical time step.
+	 */
+	private void centralDifference() {
+
+		// assemble diagonal system mass matrix
+		setStatus("Assembling system mass matrix...");
+		double[] m = assembleDiagonalMass();
+
+		// compute element stiffness matrices
+		setStatus("Computing element stiffness matrices...");
+		InternalForce k = new InternalForce(structure_, eqn_);
+
+		// assemble system load vector and prescribed displacements
+		setStatus("Assembling system load vector...");
+		DVec r = new DVec(eqn_);
+		assembleLoad(r, null);
+		double[] d = new double[eqn_];
+		boolean[] prescribed = new boolean[eqn_];
+		assemblePrescribed(d, prescribed);
+
+		// assemble system initial displacement-velocity vectors
+		setStatus("Assembling system initial vectors...");
+		DVec u = new DVec(eqn_);
+		DVec uu = new DVec(eqn_);
+		assembleInitialVec(u, uu);
+
+		// estimate critical time step
+		setStatus("Estimating critical time step...");
+		double omega2 = 0.0;
+		double[] sums = k.getAbsoluteRowSums();
+		for (int i = 0; i < eqn_; i++) {
+			if (prescribed[i] || sums[i] == 0.0)
+				continue;
+			if (m[i] <= 0.0) {
+				setStatus("Central difference method needs mass at all "
+						+ "dofs with stiffness!");
 				killed_ = true;
+				return;
 			}
+			omega2 = Math.max(omega2, sums[i] / m[i]);
+		}
+		criticalStep_ = getCriticalTimeStep(Math.sqrt(omega2));
+		substeps_ = (int) Math.max(1.0, Math.ceil(dt_
+				/ (stabilityFactor_ * criticalStep_)));
 
-			// no problem with writing
-			else {
+		// create output data writer
+		setStatus("Creating output data...");
+		OutputDataWriter sol = structure_.createOutputWriter(path_, eqn_, n_);
 
-				// set analysis info to structure
-				status_ = "Setting analysis info to model...";
-				structure_.setAnalysisInfo(getAnalysisInfo());
+		// exception occurred during creating output data
+		if (sol == null) {
+			setStatus("Exception occurred during writing output data!");
+			killed_ = true;
+			return;
+		}
 
-				// analysis completed
-				status_ = "Analysis complete.";
-				completed_ = true;
-			}
+		// start of time integration
+		setStatus("Time integration of system equations...");
+		try {
+			centralDifference(k, m, r.vec_.getData(), d, prescribed, u.vec_
+					.getData(), uu.vec_.getData(), sol);
+			complete(sol);
 		}
 
-		// solve failed
+		// integration failed
 		catch (Exception excep) {
 
+			// keep completed steps readable
+			structure_.setUnknowns(sol);
+
 			// write message
-			status_ = "Solve failed!";
+			setStatus("Solve failed!");
 			killed_ = true;
 		}
 	}
 
+	/**
+	 * Performs modal superposition using the modes of previous modal analysis
+	 * of structure. The load vector and initial vectors are projected onto the
+	 * modes (with respect to the lumped system mass matrix), and the decoupled
+	 * modal equations are integrated exactly for piecewise linear loading
+	 * (Chopra-p167). The modes and modal coordinates are written as output
+	 * data, so that unknowns are expanded only for demanded steps and dofs.
+	 */
+	private void modalSuperposition() {
+
+		// check previous analysis
+		Vector<Object> info = structure_.getAnalysisInfo();
+		if (info.size() == 0 || (Integer) info.get(1) != Analysis.modal_) {
+			setStatus("Modal analysis should be performed before the analysis!");
+			killed_ = true;
+			return;
+		}
+
+		// check equation numbering of modal analysis (DOF map and
+		// renumbering flag of modes)
+		boolean same = info.size() > 10;
+		if (same) {
+			int[] dofMap = (int[]) info.get(9);
+			same = Arrays.equals(dofMap, structure_.getDofMap())
+					&& (Boolean) info.get(10) == structure_.isRenumbering();
+		}
+		if (same == false) {
+			setStatus("Equation numbering of modal analysis is different!");
+			killed_ = true;
+			return;
+		}
+
+		// read modes of modal analysis
+		setStatus("Reading modes...");
+		double[] eigVal = (double[]) info.get(4);
+		double[][] phi = structure_.getUnknowns(path_);
+		if (phi == null) {
+			setStatus("Modes of modal analysis cannot be read!");
+			killed_ = true;
+			return;
+		}
+		if (phi.length != eqn_) {
+			setStatus("Boundaries of modal analysis are different!");
+			killed_ = true;
+			return;
+		}
+		int nm = eigVal.length;
+		if (phi.length > 0)
+			nm = Math.min(nm, phi[0].length);
+		if (modes_ > 0)
+			nm = Math.min(nm, modes_);
+
+		// assemble diagonal system mass matrix
+		setStatus("Assembling system mass matrix...");
+		double[] m = assembleDiagonalMass();
+
+		// assemble system load vector
+		setStatus("Assembling system load vector...");
+		DVec r = new DVec(eqn_);
+		assembleLoad(r, null);
+		boolean[] prescribed = new boolean[eqn_];
+		assemblePrescribed(new double[eqn_], prescribed);
+		for (int i = 0; i < eqn_; i++) {
+			if (prescribed[i]) {
+				setStatus("Modal superposition can't have displacement loads!");
+				killed_ = true;
+				return;
+			}
+		}
+
+		// assemble system initial displacement-velocity vectors
+		setStatus("Assembling system initial vectors...");
+		DVec u = new DVec(eqn_);
+		DVec uu = new DVec(eqn_);
+		assembleInitialVec(u, uu);
+
+		// project load and initial vectors onto modes
+		setStatus("Projecting onto modes...");
+		double[] p = new double[nm];
+		double[] q = new double[nm];
+		double[] qq = new double[nm];
+		for (int j = 0; j < nm; j++) {
+			double mj = 0.0;
+			for (int i = 0; i < eqn_; i++) {
+				double mphi = m[i] * phi[i][j];
+				mj += mphi * phi[i][j];
+				p[j] += phi[i][j] * r.get(i);
+				q[j] += mphi * u.get(i);
+				qq[j] += mphi * uu.get(i);
+			}
+			if (mj > 0.0) {
+				p[j] /= mj;
+				q[j] /= mj;
+				qq[j] /= mj;
+			}
+		}
+
+		// get load time function values
+		double[] g = new double[n_ + 1];
+		for (int k = 0; k <= n_; k++)
+			g[k] = loadTimeFunc_.getValue(k * dt_);
+
+		// integrate modal equations
+		setStatus("Time integration of modal equations...");
+		double[][] coords = new double[n_][nm];
+		for (int j = 0; j < nm; j++)
+			integrateMode(Math.max(eigVal[j], 0.0), p[j], g, q[j], qq[j],
+					coords, j);
+		currentStep_ = n_ - 1;
+
+		// write modes and modal coordinates
+		setStatus("Writing output data...");
+		if (structure_.setUnknowns(path_, phi, coords) == false) {
+			setStatus("Exception occurred during writing output data!");
+			killed_ = true;
+			return;
+		}
+
+		// set analysis info to structure
+		setStatus("Setting analysis info to model...");
+		structure_.setAnalysisInfo(getAnalysisInfo());
+
+		// analysis completed
+		setStatus("Analysis complete.");
+		completed_ = true;
+	}
+
+	/**
+	 * Integrates the modal equation of a mode (with unit modal mass).
+	 * Underdamped modes are integrated exactly for piecewise linear loading
+	 * (Chopra-p167), the others by Newmark method with constant average
+	 * acceleration.
+	 * 
+	 * @param omega2
+	 *            The eigenvalue of mode.
+	 * @param p
+	 *            The modal load.
+	 * @param g
+	 *            The values of load time function at time steps (starting
+	 *            from time zero).
+	 * @param q
+	 *            The initial modal coordinate.
+	 * @param qq
+	 *            The initial modal velocity.
+	 * @param coords
+	 *            Array to store the modal coordinates of steps.
+	 * @param j
+	 *            The index of mode in modal coordinates.
+	 */
+	private void integrateMode(double omega2, double p, double[] g, double q,
+			double qq, double[][] coords, int j) {
+
+		// compute damping ratio
+		double omega = Math.sqrt(omega2);
+		double xi = 0.0;
+		if (omega > 0.0)
+			xi = 0.5 * (proporCoeff_[0] / omega + proporCoeff_[1] * omega);
+
+		// underdamped mode (exact for piecewise linear loading)
+		if (omega > 0.0 && xi < 1.0) {
+
+			// compute recurrence coefficients
+			double sq = Math.sqrt(1.0 - xi * xi);
+			double wd = omega * sq, h = dt_;
+			double e = Math.exp(-xi * omega * h);
+			double sn = Math.sin(wd * h), cs = Math.cos(wd * h);
+			double a = e * (xi / sq * sn + cs);
+			double b = e * sn / wd;
+			double c = (2.0 * xi / (omega * h) + e
+					* (((1.0 - 2.0 * xi * xi) / (wd * h) - xi / sq) * sn
+					- (1.0 + 2.0 * xi / (omega * h)) * cs)) / omega2;
+			double d = (1.0 - 2.0 * xi / (omega * h) + e
+					* ((2.0 * xi * xi - 1.0) / (wd * h) * sn + 2.0 * xi
+							/ (omega * h) * cs))
+					/ omega2;
+			double a1 = -e * omega / sq * sn;
+			double b1 = e * (cs - xi / sq * sn);
+			double c1 = (-1.0 / h + e
+					* ((omega / sq + xi / (h * sq)) * sn + cs / h))
+					/ omega2;
+			double d1 = (1.0 - e * (xi / sq * sn + cs)) / (omega2 * h);
+
+			// loop over time steps
+			for (int k = 0; k < n_; k++) {
+				double p0 = p * g[k], p1 = p * g[k + 1];
+				double qt = a * q + b * qq + c * p0 + d * p1;
+				qq = a1 * q + b1 * qq + c1 * p0 + d1 * p1;
+				q = qt;
+				coords[k][j] = q;
+			}
+		}
+
+		// other modes (Newmark method with constant average acceleration)
+		else {
+
+			// compute effective stiffness and initial acceleration
+			double h = dt_, damp = 2.0 * xi * omega;
+			double k0 = omega2 + 2.0 * damp / h + 4.0 / (h * h);
+			double qqq = p * g[0] - damp * qq - omega2 * q;
+
+			// loop over time steps
+			for (int k = 0; k < n_; k++) {
+				double pt = p * g[k + 1] + 4.0 / (h * h) * q + 4.0 / h * qq
+						+ qqq + damp * (2.0 / h * q + qq);
+				double qt = pt / k0;
+				double qqt = 2.0 / h * (qt - q) - qq;
+				qqq = 4.0 / (h * h) * (qt - q) - 4.0 / h * qq - qqq;
+				q = qt;
+				qq = qqt;
+				coords[k][j] = q;
+			}
+		}
+	}
+
+	/**
+	 * Assembles and returns diagonal system mass matrix.
+	 * 
+	 * @return Array storing the diagonal of system mass matrix.
+	 */
+	private double[] assembleDiagonalMass() {
+		USB1Mat mSystem = new USB1Mat(eqn_, 0);
+		assembleMass(mSystem);
+		double[] m = new double[eqn_];
+		for (int i = 0; i < eqn_; i++)
+			m[i] = mSystem.get(i, i);
+		return m;
+	}
+
+	/**
+	 * Returns the critical time step of central difference method for the
+	 * given highest natural frequency, reduced for proportional damping
+	 * (Bathe-p775).
+	 * 
+	 * @param omega
+	 *            Upper bound of the highest natural frequency.
+	 * @return The critical time step.
+	 */
+	private double getCriticalTimeStep(double omega) {
+
+		// no stiffness
+		if (omega == 0.0)
+			return Double.POSITIVE_INFINITY;
+
+		// damping ratio of highest mode
+		double xi = 0.5 * (proporCoeff_[0] / omega + proporCoeff_[1] * omega);
+		return 2.0 / omega * (Math.sqrt(1.0 + xi * xi) - xi);
+	}
+
+	/**
+	 * Solves semi-discrete equation of motion by central difference method,
+	 * in its half-step velocity form. Damping forces are computed from the
+	 * velocities of previous half-step, so that the method remains explicit
+	 * for stiffness proportional damping. Prescribed displacements are scaled
+	 * by the load time function.
+	 * 
+	 * @param k
+	 *            Element-by-element internal forces.
+	 * @param m
+	 *            Diagonal system mass matrix.
+	 * @param r
+	 *            System load vector.
+	 * @param d
+	 *            System prescribed displacement vector.
+	 * @param prescribed
+	 *            Array denoting the dofs with prescribed displacements.
+	 * @param u
+	 *            System initial displacement vector.
+	 * @param uu
+	 *            System initial velocity vector.
+	 * @param sol
+	 *            Output data writer for the solution steps.
+	 */
+	private void centralDifference(InternalForce k, double[] m, double[] r,
+			double[] d, boolean[] prescribed, double[] u, double[] uu,
+			OutputDataWriter sol) {
+
+		// get damping coefficients and substep size
+		double alpha = proporCoeff_[0], beta = proporCoeff_[1];
+		double h = dt_ / substeps_;
+		int n = u.length;
+
+		// set initial prescribed displacements
+		double g = loadTimeFunc_.getValue(0.0);
+		for (int i = 0; i < n; i++)
+			if (prescribed[i])
+				u[i] = d[i] * g;
+
+		// compute initial accelerations and half-step velocities
+		double[] w = new double[n];
+		double[] f = new double[n];
+		for (int i = 0; i < n; i++)
+			w[i] = u[i] + beta * uu[i];
+		k.compute(w, f);
+		for (int i = 0; i < n; i++)
+			if (prescribed[i] == false && m[i] > 0.0)
+				uu[i] += 0.5 * h * ((g * r[i] - f[i]) / m[i] - alpha * uu[i]);
+
+		// loop over time steps
+		for (int step = 0; step < n_; step++) {
+
+			// set current time step
+			currentStep_ = step;
+
+			// loop over substeps
+			for (int sub = 1; sub <= substeps_; sub++) {
+
+				// update displacements
+				double t = step * dt_ + sub * h;
+				g = loadTimeFunc_.getValue(t);
+				for (int i = 0; i < n; i++) {
+					if (prescribed[i]) {
+						double ui = d[i] * g;
+						uu[i] = (ui - u[i]) / h;
+						u[i] = ui;
+					} else
+						u[i] += h * uu[i];
+					w[i] = u[i] + beta * uu[i];
+				}
+
+				// compute internal and damping forces
+				k.compute(w, f);
+
+				// update half-step velocities
+				for (int i = 0; i < n; i++)
+					if (prescribed[i] == false && m[i] > 0.0)
+						uu[i] += h * ((g * r[i] - f[i]) / m[i] - alpha * uu[i]);
+			}
+
+			// write displacements of step to output data
+			sol.write(u);
+		}
+	}
+
 	/**
 	 * Solves semi-discrete equation of motion by Newmark direct integration
 	 * method.
@@ -573,21 +1101,14 @@ public class LinearTransient extends Analysis {
 	 * @param uu
 	 *            System initial velocity vector.
 	 * @param sol
-	 *            Solution matrix.
+	 *            Output data writer for the solution steps.
 	 */
 	private void newmark(SMat k, SMat m, SMat c, DVec r, DVec u, DVec uu,
-			double[][] sol) {
+			OutputDataWriter sol) {
 
-		// initialize acceleration vector
-		DVec uuu = r.scale(loadTimeFunc_.getValue(0.0));
-		if (c == null)
-			uuu = uuu.add(k.multiply(u).scale(-1.0));
-		else
-			uuu = uuu.add(c.multiply(uu).add(k.multiply(u)).scale(-1.0));
-
-		// compute initial acceleration vector
-		for (int i = 0; i < uuu.rowCount(); i++)
-			uuu.set(i, uuu.get(i) / m.get(i, i));
+		// create step kernel (computes initial acceleration vector)
+		StepKernel kernel = new StepKernel(k, m, c, r, u, uu,
+				loadTimeFunc_.getValue(0.0));
 
 		// compute integration constants
 		double a0 = 1.0 / (newmarkPar_[0] * dt_ * dt_);
@@ -600,14 +1121,19 @@ public class LinearTransient extends Analysis {
 		double a7 = newmarkPar_[1] * dt_;
 
 		// form effective stiffness matrix
-		if (c == null)
-			k.add(m.copy().scale(a0));
-		else
-			k.add(m.copy().scale(a0)).add(c.copy().scale(a1));
+		k.axpy(a0, m);
+		if (c != null)
+			k.axpy(a1, c);
 
 		// initialize solver
+		setNearNullSpace(solver_);
 		solver_.initialize(k, u);
 
+		// get arrays of vectors
+		DVec ut = new DVec(eqn_);
+		double[] x = u.vec_.getData(), xt = ut.vec_.getData();
+		double[] v = uu.vec_.getData(), acc = kernel.uuu_.vec_.getData();
+
 		// loop over time steps
 		for (int i = 0; i < n_; i++) {
 
@@ -615,35 +1141,26 @@ public class LinearTransient extends Analysis {
 			currentStep_ = i;
 
 			// calculate effective load vector at time t + dt
-			DVec temp1 = u.scale(a0).add(uu.scale(a2)).add(uuu.scale(a3));
-			DVec rt = r.scale(loadTimeFunc_.getValue(i * dt_ + dt_));
-			if (c == null)
-				rt = rt.add(m.multiply(temp1));
-			else {
-				DVec temp2 = u.scale(a1).add(uu.scale(a4)).add(uuu.scale(a5));
-				rt = rt.add(m.multiply(temp1)).add(c.multiply(temp2));
-			}
+			kernel.load(loadTimeFunc_.getValue(i * dt_ + dt_), a0, a2, a3, a1,
+					a4, a5);
 
 			// solve for displacements at time t + dt
-			DVec ut = new DVec(u.rowCount());
-			solver_.solve(k, rt, ut);
+			solver_.solve(k, kernel.rt_, ut);
 
 			// set # of iterations and residual
 			setNumberOfIterations();
 			setResidual();
 
-			// calculate accelerations and velocities at time t + dt
-			DVec temp3 = ut.subtract(u).scale(a0);
-			DVec uuut = temp3.subtract(uu.scale(a2)).subtract(uuu.scale(a3));
-			uu = uu.add(uuu.scale(a6)).add(uuut.scale(a7));
-
-			// replace displacement and acceleration vectors
-			u = ut;
-			uuu = uuut;
+			// update accelerations, velocities and displacements
+			for (int j = 0; j < eqn_; j++) {
+				double at = a0 * (xt[j] - x[j]) - a2 * v[j] - a3 * acc[j];
+				v[j] += a6 * acc[j] + a7 * at;
+				acc[j] = at;
+				x[j] = xt[j];
+			}
 
-			// set displacement to solution matrix
-			for (int j = 0; j < eqn_; j++)
-				sol[j][i] = u.get(j);
+			// write displacements of step to output data
+			sol.write(x);
 		}
 	}
 
@@ -664,21 +1181,14 @@ public class LinearTransient extends Analysis {
 	 * @param uu
 	 *            System initial velocity vector.
 	 * @param sol
-	 *            Solution matrix.
+	 *            Output data writer for the solution steps.
 	 */
 	private void wilson(SMat k, SMat m, SMat c, DVec r, DVec u, DVec uu,
-			double[][] sol) {
+			OutputDataWriter sol) {
 
-		// initialize acceleration vector
-		DVec uuu = r.scale(loadTimeFunc_.getValue(0.0));
-		if (c == null)
-			uuu = uuu.add(k.multiply(u).scale(-1.0));
-		else
-			uuu = uuu.add(c.multiply(uu).add(k.multiply(u)).scale(-1.0));
-
-		// compute initial acceleration vector
-		for (int i = 0; i < uuu.rowCount(); i++)
-			uuu.set(i, uuu.get(i) / m.get(i, i));
+		// create step kernel (computes initial acceleration vector)
+		StepKernel kernel = new StepKernel(k, m, c, r, u, uu,
+				loadTimeFunc_.getValue(0.0));
 
 		// compute integration constants
 		double a0 = 6.0 / Math.pow(wilsonPar_ * dt_, 2.0);
@@ -692,14 +1202,19 @@ public class LinearTransient extends Analysis {
 		double a8 = dt_ * dt_ / 6.0;
 
 		// form effective stiffness matrix
-		if (c == null)
-			k.add(m.copy().scale(a0));
-		else
-			k.add(m.copy().scale(a0)).add(c.copy().scale(a1));
+		k.axpy(a0, m);
+		if (c != null)
+			k.axpy(a1, c);
 
 		// initialize solver
+		setNearNullSpace(solver_);
 		solver_.initialize(k, u);
 
+		// get arrays of vectors
+		DVec ut = new DVec(eqn_);
+		double[] x = u.vec_.getData(), xt = ut.vec_.getData();
+		double[] v = uu.vec_.getData(), acc = kernel.uuu_.vec_.getData();
+
 		// loop over time steps
 		for (int i = 0; i < n_; i++) {
 
@@ -707,40 +1222,28 @@ public class LinearTransient extends Analysis {
 			currentStep_ = i;
 
 			// calculate effective load vector at time t + theta * dt
-			DVec temp1 = u.scale(a0).add(uu.scale(a2)).add(uuu.scale(2.0));
-			DVec temp2 = u.scale(a1).add(uu.scale(2.0)).add(uuu.scale(a3));
-			DVec rt = r.scale(loadTimeFunc_.getValue(i * dt_));
-			rt = rt.subtract(rt.scale(wilsonPar_));
-			rt = rt.add(r.scale(loadTimeFunc_.getValue(i * dt_ + dt_)).scale(
-					wilsonPar_));
-			if (c == null)
-				rt = rt.add(m.multiply(temp1));
-			else
-				rt = rt.add(m.multiply(temp1)).add(c.multiply(temp2));
+			double g = loadTimeFunc_.getValue(i * dt_);
+			g += wilsonPar_ * (loadTimeFunc_.getValue(i * dt_ + dt_) - g);
+			kernel.load(g, a0, a2, 2.0, a1, 2.0, a3);
 
 			// solve for displacements at time t + theta * dt
-			DVec ut = new DVec(u.rowCount());
-			solver_.solve(k, rt, ut);
+			solver_.solve(k, kernel.rt_, ut);
 
 			// set # of iterations and residual
 			setNumberOfIterations();
 			setResidual();
 
-			// calculate accelerations, velocities and displacements at time t +
-			// theta * dt
-			temp1 = ut.subtract(u).scale(a4);
-			DVec uuut = temp1.add(uu.scale(a5)).add(uuu.scale(a6));
-			DVec uut = uu.add(uuut.add(uuu).scale(a7));
-			temp2 = uuut.add(uuu.scale(2.0)).scale(a8);
-			u = u.add(uu.scale(dt_)).add(temp2);
-
-			// replace velocities and accelerations
-			uu = uut;
-			uuu = uuut;
-
-			// set displacement to solution matrix
-			for (int j = 0; j < eqn_; j++)
-				sol[j][i] = u.get(j);
+			// calculate accelerations, velocities and displacements at time
+			// t + dt
+			for (int j = 0; j < eqn_; j++) {
+				double at = a4 * (xt[j] - x[j]) + a5 * v[j] + a6 * acc[j];
+				x[j] += dt_ * v[j] + a8 * (at + 2.0 * acc[j]);
+				v[j] += a7 * (at + acc[j]);
+				acc[j] = at;
+			}
+
+			// write displacements of step to output data
+			sol.write(x);
 		}
 	}
 
@@ -812,7 +1315,8 @@ public class LinearTransient extends Analysis {
 	 * @param rSystem
 	 *            System load vector.
 	 * @param kSystem
-	 *            The system stiffness matrix.
+	 *            The system stiffness matrix. Displacement loads are not
+	 *            imposed if null.
 	 */
 	private void assembleLoad(DVec rSystem, Mat kSystem) {
 
@@ -893,7 +1397,7 @@ public class LinearTransient extends Analysis {
 			}
 
 			// check if the node has displacement load
-			if (node.getDispLoads().size() != 0) {
+			if (kSystem != null && node.getDispLoads().size() != 0) {
 
 				// get node's dof numbers array
 				int[] dof = node.getDofNumbers();
@@ -924,37 +1428,55 @@ public class LinearTransient extends Analysis {
 	}
 
 	/**
-	 * Assembles system mass matrix. The system mass matrix is assumed to be
-	 * diagonal (lumped).
+	 * Assembles system prescribed displacement vector from the displacement
+	 * loads of nodes.
 	 * 
-	 * @param mSystem
-	 *            System mass matrix.
+	 * @param dSystem
+	 *            Array to store the system prescribed displacements.
+	 * @param prescribed
+	 *            Array to denote the dofs with prescribed displacements.
 	 */
-	private void assembleMass(Mat mSystem) {
+	private void assemblePrescribed(double[] dSystem, boolean[] prescribed) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
+		// loop over nodes
+		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
 
-			// get element
-			Element e = structure_.getElement(i);
+			// get node
+			Node node = structure_.getNode(i);
 
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
+			// check if the node has displacement load
+			if (node.getDispLoads().size() != 0) {
 
-			// get mass matrix of element in nodal local coordinate system
-			DMat me = e.getMassMatrix(Element.local_);
+				// get node's dof numbers array
+				int[] dof = node.getDofNumbers();
 
-			// loop over rows of element mass matrix
-			for (int j = 0; j < dof.length; j++) {
+				// get displacement load vector of node
+				DVec vec = node.getDispLoadVector();
 
-				// check if dof is free
-				if (dof[j] != -1) {
+				// loop over dofs
+				for (int j = 0; j < 6; j++) {
 
-					// store into system mass matrix
-					mSystem.add(dof[j], dof[j], me.get(j, j));
+					// check if dof is free and displacement is non-zero
+					if (dof[j] != -1 && vec.get(j) != 0.0) {
+						dSystem[dof[j]] = vec.get(j);
+						prescribed[dof[j]] = true;
+					}
 				}
 			}
 		}
+	}
+
+	/**
+	 * Assembles system mass matrix. The system mass matrix is assumed to be
+	 * diagonal (lumped).
+	 * 
+	 * @param mSystem
+	 *            System mass matrix.
+	 */
+	private void assembleMass(Mat mSystem) {
+
+		// assemble element mass matrices
+		Assembler.assemble(structure_, mSystem, Assembler.mass_, true);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
@@ -995,37 +1517,8 @@ public class LinearTransient extends Analysis {
 	 */
 	private void assembleStiffness(Mat kSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get stiffness matrix of element in nodal local coordinate system
-			DMat ke = e.getStiffnessMatrix(Element.local_);
-
-			// loop over rows of element stiffness matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// loop over columns of element stiffness matrix
-					for (int k = 0; k < dof.length; k++) {
-
-						// check if dof is free
-						if (dof[k] != -1) {
-
-							// store into system stiffness matrix
-							kSystem.add(dof[j], dof[k], ke.get(j, k));
-						}
-					}
-				}
-			}
-		}
+		// assemble element stiffness matrices
+		Assembler.assemble(structure_, kSystem, Assembler.stiffness_, false);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
@@ -1168,4 +1661,146 @@ public class LinearTransient extends Analysis {
 			residual_ = solver.getResidual();
 		}
 	}
+
+	/**
+	 * Class for the effective load vectors of implicit integration steps. The
+	 * system vectors are kept in preallocated buffers, and the effective load
+	 * is evaluated in fused loops, so that no vectors are allocated during the
+	 * time steps. Diagonal mass matrices are applied directly.
+	 * 
+	 */
+	private static class StepKernel {
+
+		/** System mass and damping matrices. */
+		private final SMat m_, c_;
+
+		/** Diagonal of system mass matrix (null if mass is not diagonal). */
+		private final double[] mDiag_;
+
+		/** System load, displacement, velocity and acceleration vectors. */
+		private final DVec r_, u_, uu_, uuu_;
+
+		/** Effective load vector and work vectors. */
+		private final DVec rt_, temp_, prod_;
+
+		/**
+		 * Creates step kernel and computes initial acceleration vector. The
+		 * given displacement and velocity vectors are updated in place during
+		 * the time steps.
+		 * 
+		 * @param k
+		 *            System stiffness matrix.
+		 * @param m
+		 *            System mass matrix.
+		 * @param c
+		 *            System damping matrix (null if there is no damping).
+		 * @param r
+		 *            System load vector.
+		 * @param u
+		 *            System initial displacement vector.
+		 * @param uu
+		 *            System initial velocity vector.
+		 * @param g
+		 *            Value of load time function at time zero.
+		 */
+		private StepKernel(SMat k, SMat m, SMat c, DVec r, DVec u, DVec uu,
+				double g) {
+
+			// set matrices and vectors
+			m_ = m;
+			c_ = c;
+			r_ = r;
+			u_ = u;
+			uu_ = uu;
+			int n = r.rowCount();
+			uuu_ = new DVec(n);
+			rt_ = new DVec(n);
+			temp_ = new DVec(n);
+			prod_ = new DVec(n);
+
+			// get diagonal of lumped mass matrix
+			boolean diagonal = false;
+			if (m instanceof USB1Mat)
+				diagonal = ((USB1Mat) m).getHalfBandwidth() == 0;
+			else if (m instanceof USB2Mat)
+				diagonal = ((USB2Mat) m).getHalfBandwidth() == 0;
+			else if (m instanceof CSRMat)
+				diagonal = ((CSRMat) m).getNonZeroCount() == n;
+			double[] md = new double[n];
+			for (int i = 0; i < n; i++)
+				md[i] = m.get(i, i);
+			mDiag_ = diagonal ? md : null;
+
+			// compute initial acceleration vector
+			double[] rv = r.vec_.getData(), acc = uuu_.vec_.getData();
+			double[] prod = prod_.vec_.getData();
+			k.multiply(u, prod_);
+			for (int i = 0; i < n; i++)
+				acc[i] = g * rv[i] - prod[i];
+			if (c != null) {
+				c.multiply(uu, prod_);
+				for (int i = 0; i < n; i++)
+					acc[i] -= prod[i];
+			}
+			for (int i = 0; i < n; i++)
+				acc[i] /= md[i];
+		}
+
+		/**
+		 * Computes effective load vector (rt = g * r + M * (b0 * u + b1 * uu +
+		 * b2 * uuu) + C * (c0 * u + c1 * uu + c2 * uuu)).
+		 * 
+		 * @param g
+		 *            Value of load time function.
+		 * @param b0
+		 *            Displacement coefficient of mass term.
+		 * @param b1
+		 *            Velocity coefficient of mass term.
+		 * @param b2
+		 *            Acceleration coefficient of mass term.
+		 * @param c0
+		 *            Displacement coefficient of damping term.
+		 * @param c1
+		 *            Velocity coefficient of damping term.
+		 * @param c2
+		 *            Acceleration coefficient of damping term.
+		 */
+		private void load(double g, double b0, double b1, double b2,
+				double c0, double c1, double c2) {
+
+			// get arrays of vectors
+			double[] r = r_.vec_.getData(), rt = rt_.vec_.getData();
+			double[] u = u_.vec_.getData(), uu = uu_.vec_.getData();
+			double[] uuu = uuu_.vec_.getData(), temp = temp_.vec_.getData();
+			double[] prod = prod_.vec_.getData();
+			int n = r.length;
+
+			// damping term
+			if (c_ != null) {
+				for (int i = 0; i < n; i++)
+					temp[i] = c0 * u[i] + c1 * uu[i] + c2 * uuu[i];
+				c_.multiply(temp_, prod_);
+				for (int i = 0; i < n; i++)
+					rt[i] = g * r[i] + prod[i];
+			} else {
+				for (int i = 0; i < n; i++)
+					rt[i] = g * r[i];
+			}
+
+			// mass term (diagonal mass matrix)
+			if (mDiag_ != null) {
+				for (int i = 0; i < n; i++)
+					rt[i] += mDiag_[i] * (b0 * u[i] + b1 * uu[i] + b2 * uuu[i]);
+			}
+
+			// mass term
+			else {
+				for (int i = 0; i < n; i++)
+					temp[i] = b0 * u[i] + b1 * uu[i] + b2 * uuu[i];
+				m_.multiply(temp_, prod_);
+				for (int i = 0; i < n; i++)
+					rt[i] += prod[i];
+			}
+		}
+	}
 }
@@ -23,7 +23,6 @@ import solver.Solver;
 import boundary.BoundaryCase;
 
 import node.Node;
-import element.Element;
 
 import matrix.*;
 
@@ -147,7 +146,8 @@ public class Modal extends Analysis {
 	 * Returns analysis properties. The sequence of information is; name
 	 * (String), analysis type (int), boundary cases (String[]), solver
 	 * (String), eigenvalues (double[]), natural frequencies (double[]), cyclic
-	 * frequencies (double[]), periods (double[]).
+	 * frequencies (double[]), periods (double[]), equation numbering
+	 * (long[]).
 	 * 
 	 * @return Vector storing the analysis properties.
 	 */
@@ -184,6 +184,15 @@ public class Modal extends Analysis {
 		// get periods -7
 		prop.add(getPeriods());
 
+		// get equation numbering information -8
+		prop.add(structure_.getNumberingInfo());
+
+		// get DOF map -9
+		prop.add(structure_.getDofMap());
+
+		// get renumbering flag -10
+		prop.add(structure_.isRenumbering());
+
 		// return vector
 		return prop;
 	}
@@ -210,16 +219,16 @@ public class Modal extends Analysis {
 		hbw_ = 0;
 		killed_ = false;
 		completed_ = false;
-		status_ = null;
+		setStatus(null);
 		eigVal_ = null;
 
 		// check model
-		status_ = "Checking model...";
+		setStatus("Checking model...");
 		String message = structure_.checkModel(0);
 
 		// problem occured with the model
 		if (message != null) {
-			status_ = message;
+			setStatus(message);
 			killed_ = true;
 		}
 
@@ -227,37 +236,41 @@ public class Modal extends Analysis {
 		else {
 
 			// initialize structure
-			status_ = "Initializing model...";
+			setStatus("Initializing model...");
 			structure_.initialize();
 
 			// enumerate degrees of freedom of structure
-			status_ = "Enumerating dofs...";
+			setStatus("Enumerating dofs...");
 			eqn_ = structure_.enumerateDofs(bCases_, bScales_);
 
 			// compute effective bandwidth
-			status_ = "Computing effective bandwidth...";
+			setStatus("Computing effective bandwidth...");
 			hbw_ = computeHalfBandWidth();
 
 			// assemble system stiffness matrix
-			status_ = "Assembling system stiffness matrix...";
+			setStatus("Assembling system stiffness matrix...");
 			SMat kSystem = null;
 			if (solver_.getType() == Solver.solver3_)
 				kSystem = new USB1Mat(eqn_, hbw_);
 			else if (solver_.getType() == Solver.solver4_)
 				kSystem = new USPMat(eqn_);
+			else if (solver_.getType() == Solver.solver5_)
+				kSystem = new USB1Mat(eqn_, hbw_);
 			assembleStiffness(kSystem);
 
 			// assemble system mass matrix
-			status_ = "Assembling system mass matrix...";
+			setStatus("Assembling system mass matrix...");
 			SMat mSystem = null;
 			if (solver_.getType() == Solver.solver3_)
 				mSystem = new USB1Mat(eqn_, hbw_);
 			else if (solver_.getType() == Solver.solver4_)
 				mSystem = new USPMat(eqn_);
+			else if (solver_.getType() == Solver.solver5_)
+				mSystem = new USB1Mat(eqn_, 0);
 			assembleMass(mSystem);
 
 			// start of eigenvalue problem solution
-			status_ = "Solution of eigensystem...";
+			setStatus("Solution of eigensystem...");
 			solve(kSystem, mSystem);
 		}
 	}
@@ -287,11 +300,11 @@ public class Modal extends Analysis {
 			solver_.solve(kSystem, mSystem, eigVal, eigVec, nroot);
 
 			// set unknowns to structure
-			status_ = "Writing output data...";
+			setStatus("Writing output data...");
 
 			// exception occurred during writing output data
 			if (structure_.setUnknowns(path_, eigVec.getData(), nroot) == false) {
-				status_ = "Exception occurred during writing output data!";
+				setStatus("Exception occurred during writing output data!");
 				killed_ = true;
 			}
 
@@ -302,11 +315,11 @@ public class Modal extends Analysis {
 				eigVal_ = eigVal.get1DArray();
 
 				// set analysis info to structure
-				status_ = "Setting analysis info to model...";
+				setStatus("Setting analysis info to model...");
 				structure_.setAnalysisInfo(getAnalysisInfo());
 
 				// analysis completed
-				status_ = "Analysis complete.";
+				setStatus("Analysis complete.");
 				completed_ = true;
 			}
 		}
@@ -315,7 +328,7 @@ public class Modal extends Analysis {
 		catch (Exception excep) {
 
 			// write message
-			status_ = "Solve failed!";
+			setStatus("Solve failed!");
 			killed_ = true;
 		}
 	}
@@ -329,29 +342,8 @@ public class Modal extends Analysis {
 	 */
 	private void assembleMass(Mat mSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get mass matrix of element in nodal local coordinate system
-			DMat me = e.getMassMatrix(Element.local_);
-
-			// loop over rows of element mass matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// store into system mass matrix
-					mSystem.add(dof[j], dof[j], me.get(j, j));
-				}
-			}
-		}
+		// assemble element mass matrices
+		Assembler.assemble(structure_, mSystem, Assembler.mass_, true);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
@@ -391,37 +383,8 @@ public class Modal extends Analysis {
 	 */
 	private void assembleStiffness(Mat kSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get stiffness matrix of element in nodal local coordinate system
-			DMat ke = e.getStiffnessMatrix(Element.local_);
-
-			// loop over rows of element stiffness matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// loop over columns of element stiffness matrix
-					for (int k = 0; k < dof.length; k++) {
-
-						// check if dof is free
-						if (dof[k] != -1) {
-
-							// store into system stiffness matrix
-							kSystem.add(dof[j], dof[k], ke.get(j, k));
-						}
-					}
-				}
-			}
-		}
+		// assemble element stiffness matrices
+		Assembler.assemble(structure_, kSystem, Assembler.stiffness_, false);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
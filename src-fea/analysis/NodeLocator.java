@@ -0,0 +1,351 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Vector;
+
+import node.Node;
+
+/**
+ * Class for spatial hash of nodes. Nodes are bucketed into a uniform grid of
+ * cubic cells, so that nodes near a given point can be found by visiting only
+ * the few cells overlapping the search box. The cell size is chosen from the
+ * extent and the number of nodes at creation; the locator should be recreated
+ * once it has outgrown this size.
+ * 
+ * @author Murat Artim
+ * 
+ */
+class NodeLocator {
+
+	/** Minimum cell size. */
+	private static final double minCellSize_ = Math.pow(10, -6);
+
+	/** Growth factor after which the locator is considered as outgrown. */
+	private static final int growth_ = 8;
+
+	/** Cell size of grid. */
+	private final double size_;
+
+	/** Number of nodes at creation. */
+	private final int initial_;
+
+	/** Nodes of each cell keyed by hash of cell indices. */
+	private final HashMap<Long, Vector<Node>> cells_;
+
+	/** Cell keys of located nodes. */
+	private final IdentityHashMap<Node, Long> keys_;
+
+	/**
+	 * Creates locator for given nodes.
+	 * 
+	 * @param nodes
+	 *            The nodes to be located.
+	 */
+	protected NodeLocator(Vector<Node> nodes) {
+
+		// set cell size (about one node per cell along a surface)
+		initial_ = nodes.size();
+		size_ = Math.max(getExtent(getBounds(nodes))
+				/ Math.sqrt(Math.max(initial_, 1)), minCellSize_);
+
+		// locate nodes
+		cells_ = new HashMap<Long, Vector<Node>>();
+		keys_ = new IdentityHashMap<Node, Long>();
+		for (int i = 0; i < nodes.size(); i++)
+			add(nodes.get(i));
+	}
+
+	/**
+	 * Returns the bounding box of given nodes.
+	 * 
+	 * @param nodes
+	 *            The nodes.
+	 * @return Array storing the minimum and maximum coordinates (in this
+	 *         sequence).
+	 */
+	protected static double[] getBounds(Vector<Node> nodes) {
+		double[] bounds = { Double.MAX_VALUE, Double.MAX_VALUE,
+				Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE,
+				-Double.MAX_VALUE };
+		for (int i = 0; i < nodes.size(); i++) {
+			Node node = nodes.get(i);
+			for (int j = 0; j < 3; j++) {
+				bounds[j] = Math.min(bounds[j], node.getPosition(j));
+				bounds[j + 3] = Math.max(bounds[j + 3], node.getPosition(j));
+			}
+		}
+		return bounds;
+	}
+
+	/**
+	 * Returns the largest edge length of given bounding box.
+	 * 
+	 * @param bounds
+	 *            The bounding box.
+	 * @return The extent of bounding box.
+	 */
+	protected static double getExtent(double[] bounds) {
+		double extent = 0.0;
+		for (int j = 0; j < 3; j++)
+			extent = Math.max(extent, bounds[j + 3] - bounds[j]);
+		return extent;
+	}
+
+	/**
+	 * Returns true if the number of nodes has grown far beyond the number at
+	 * creation, so that the cells have become too crowded.
+	 * 
+	 * @return True if the locator is outgrown.
+	 */
+	protected boolean isOutgrown() {
+		return keys_.size() > growth_ * Math.max(initial_, 16);
+	}
+
+	/**
+	 * Adds node to locator.
+	 * 
+	 * @param node
+	 *            The node to be added.
+	 */
+	protected void add(Node node) {
+
+		// get key of cell
+		Long key = getKey(getCell(node.getPosition(0)),
+				getCell(node.getPosition(1)), getCell(node.getPosition(2)));
+
+		// add node to cell
+		Vector<Node> cell = cells_.get(key);
+		if (cell == null) {
+			cell = new Vector<Node>(2);
+			cells_.put(key, cell);
+		}
+		cell.add(node);
+		keys_.put(node, key);
+	}
+
+	/**
+	 * Removes node from locator. The node is found from the cell it was added
+	 * to, so it can be removed even if it has been moved since.
+	 * 
+	 * @param node
+	 *            The node to be removed.
+	 * @return True if the node was in the locator.
+	 */
+	protected boolean remove(Node node) {
+
+		// get key of cell
+		Long key = keys_.remove(node);
+		if (key == null)
+			return false;
+
+		// remove node from cell
+		Vector<Node> cell = cells_.get(key);
+		for (int i = 0; i < cell.size(); i++) {
+			if (cell.get(i) == node) {
+				cell.remove(i);
+				break;
+			}
+		}
+		if (cell.isEmpty())
+			cells_.remove(key);
+		return true;
+	}
+
+	/**
+	 * Returns the nearest node within the given distance to given point, or
+	 * null if there is no such node.
+	 * 
+	 * @param x
+	 *            Global x coordinate of point.
+	 * @param y
+	 *            Global y coordinate of point.
+	 * @param z
+	 *            Global z coordinate of point.
+	 * @param tol
+	 *            The search distance.
+	 * @return The nearest node, or null.
+	 */
+	protected Node find(double x, double y, double z, double tol) {
+		Search search = new Search(x, y, z, tol, false);
+		search(search);
+		return search.node_;
+	}
+
+	/**
+	 * Returns all nodes within the given distance to given point.
+	 * 
+	 * @param x
+	 *            Global x coordinate of point.
+	 * @param y
+	 *            Global y coordinate of point.
+	 * @param z
+	 *            Global z coordinate of point.
+	 * @param tol
+	 *            The search distance.
+	 * @return The nodes within distance.
+	 */
+	protected Vector<Node> findAll(double x, double y, double z, double tol) {
+		Search search = new Search(x, y, z, tol, true);
+		search(search);
+		return search.nodes_;
+	}
+
+	/**
+	 * Checks the nodes in the search box of given search.
+	 * 
+	 * @param search
+	 *            The search.
+	 */
+	private void search(Search search) {
+
+		// get cell ranges of search box
+		double x = search.x_, y = search.y_, z = search.z_;
+		double tol = search.tol_;
+		long x0 = getCell(x - tol), x1 = getCell(x + tol);
+		long y0 = getCell(y - tol), y1 = getCell(y + tol);
+		long z0 = getCell(z - tol), z1 = getCell(z + tol);
+
+		// search box covers more cells than nodes (scan all nodes)
+		double cells = (double) (x1 - x0 + 1) * (y1 - y0 + 1) * (z1 - z0 + 1);
+		if (cells > keys_.size()) {
+			Iterator<Node> nodes = keys_.keySet().iterator();
+			while (nodes.hasNext())
+				search.check(nodes.next());
+			return;
+		}
+
+		// loop over cells of search box
+		HashSet<Long> visited = new HashSet<Long>();
+		for (long i = x0; i <= x1; i++) {
+			for (long j = y0; j <= y1; j++) {
+				for (long k = z0; k <= z1; k++) {
+
+					// skip cells sharing the key of a visited cell
+					Long key = getKey(i, j, k);
+					if (visited.add(key) == false)
+						continue;
+
+					// check nodes of cell
+					Vector<Node> cell = cells_.get(key);
+					if (cell != null)
+						for (int l = 0; l < cell.size(); l++)
+							search.check(cell.get(l));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the cell index of given coordinate.
+	 * 
+	 * @param coord
+	 *            The coordinate.
+	 * @return The cell index.
+	 */
+	private long getCell(double coord) {
+		return (long) Math.floor(coord / size_);
+	}
+
+	/**
+	 * Returns hash key of given cell. Different cells may share a key, in which
+	 * case their nodes are simply stored together.
+	 * 
+	 * @param i
+	 *            Cell index in x direction.
+	 * @param j
+	 *            Cell index in y direction.
+	 * @param k
+	 *            Cell index in z direction.
+	 * @return The key of cell.
+	 */
+	private static Long getKey(long i, long j, long k) {
+		return (i * 73856093L) ^ (j * 19349663L) ^ (k * 83492791L);
+	}
+
+	/**
+	 * Class for node search around a point.
+	 * 
+	 */
+	private static class Search {
+
+		/** Coordinates of search point and search distance. */
+		private final double x_, y_, z_, tol_;
+
+		/** Distance of nearest node found so far. */
+		private double distance_;
+
+		/** Nearest node found so far. */
+		private Node node_;
+
+		/** All nodes found within distance (null if not collected). */
+		private Vector<Node> nodes_;
+
+		/**
+		 * Creates search.
+		 * 
+		 * @param x
+		 *            Global x coordinate of point.
+		 * @param y
+		 *            Global y coordinate of point.
+		 * @param z
+		 *            Global z coordinate of point.
+		 * @param tol
+		 *            The search distance.
+		 * @param collect
+		 *            True if all nodes within distance are to be collected.
+		 */
+		private Search(double x, double y, double z, double tol,
+				boolean collect) {
+			x_ = x;
+			y_ = y;
+			z_ = z;
+			tol_ = tol;
+			distance_ = tol;
+			if (collect)
+				nodes_ = new Vector<Node>();
+		}
+
+		/**
+		 * Checks given node against the search point.
+		 * 
+		 * @param node
+		 *            The node to be checked.
+		 */
+		private void check(Node node) {
+
+			// compute distance
+			double dx = node.getPosition(0) - x_;
+			double dy = node.getPosition(1) - y_;
+			double dz = node.getPosition(2) - z_;
+			double d = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+			// collect node
+			if (nodes_ != null && d <= tol_)
+				nodes_.add(node);
+
+			// update nearest node
+			if (d < distance_ || (node_ == null && d <= distance_)) {
+				distance_ = d;
+				node_ = node;
+			}
+		}
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.util.Arrays;
+import java.util.Vector;
+
+import node.Node;
+
+/**
+ * Class for computing the minimum distance between nodes on a uniform grid.
+ * Coordinates of nodes are sorted by cells into contiguous arrays, and each
+ * node is only compared with the nodes of its own and neighbouring cells. The
+ * cell size is refined while cells are crowded, and coarsened until the
+ * closest pair of nodes lies within a cell size, so that line, surface and
+ * solid meshes are all handled in nearly linear time.
+ * 
+ * @author Murat Artim
+ * 
+ */
+class NodeSpacing {
+
+	/** Number of nodes in a cell above which the cells are refined. */
+	private static final int crowded_ = 32;
+
+	/** Number of bits of cell index in each direction. */
+	private static final int bits_ = 21;
+
+	/** Coordinates of nodes sorted by cells. */
+	private final double[] x_, y_, z_;
+
+	/** Sorted keys of occupied cells. */
+	private final long[] cells_;
+
+	/** Pointers to the first node of each cell. */
+	private final int[] start_;
+
+	/** Largest number of nodes in a cell. */
+	private int occupancy_ = 0;
+
+	/**
+	 * Returns the minimum non-zero distance between given nodes, or infinity
+	 * if there is no such pair of nodes.
+	 * 
+	 * @param nodes
+	 *            The nodes.
+	 * @param bounds
+	 *            The bounding box of nodes.
+	 * @return The minimum distance between nodes.
+	 */
+	protected static double getMinimumDistance(Vector<Node> nodes,
+			double[] bounds) {
+
+		// no pair of distinct nodes
+		int n = nodes.size();
+		double extent = NodeLocator.getExtent(bounds);
+		if (n < 2 || extent == 0.0)
+			return Double.POSITIVE_INFINITY;
+
+		// get coordinates and diagonal of bounding box
+		double[] coords = new double[3 * n];
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < 3; j++)
+				coords[3 * i + j] = nodes.get(i).getPosition(j);
+		double diagonal = 0.0;
+		for (int j = 0; j < 3; j++)
+			diagonal += Math.pow(bounds[j + 3] - bounds[j], 2);
+		diagonal = Math.sqrt(diagonal);
+
+		// set initial cell size to the spacing of a solid mesh
+		double minSize = extent / ((1 << bits_) - 2);
+		double size = Math.max(extent / Math.cbrt(n), minSize);
+		NodeSpacing grid = new NodeSpacing(coords, bounds, size);
+
+		// refine cells while crowded and refining helps (line or surface)
+		while (grid.occupancy_ > crowded_ && size / 2.0 >= minSize) {
+			NodeSpacing finer = new NodeSpacing(coords, bounds, size / 2.0);
+			if (finer.occupancy_ >= grid.occupancy_)
+				break;
+			size /= 2.0;
+			grid = finer;
+		}
+
+		// coarsen cells until the closest pair lies within a cell size
+		double min = grid.getMinimumDistance();
+		while (min > size && size < diagonal) {
+			size *= 2.0;
+			grid = new NodeSpacing(coords, bounds, size);
+			min = grid.getMinimumDistance();
+		}
+		return min;
+	}
+
+	/**
+	 * Creates grid of nodes.
+	 * 
+	 * @param coords
+	 *            The coordinates of nodes (x, y and z of each node in
+	 *            sequence).
+	 * @param bounds
+	 *            The bounding box of nodes.
+	 * @param size
+	 *            The cell size.
+	 */
+	private NodeSpacing(double[] coords, double[] bounds, double size) {
+
+		// compute cell keys of nodes
+		int n = coords.length / 3;
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			long ci = (long) ((coords[3 * i] - bounds[0]) / size);
+			long cj = (long) ((coords[3 * i + 1] - bounds[1]) / size);
+			long ck = (long) ((coords[3 * i + 2] - bounds[2]) / size);
+			keys[i] = getKey(ci, cj, ck);
+		}
+
+		// get sorted keys of occupied cells
+		long[] sorted = keys.clone();
+		Arrays.sort(sorted);
+		int m = 0;
+		for (int i = 0; i < n; i++)
+			if (m == 0 || sorted[i] != sorted[m - 1])
+				sorted[m++] = sorted[i];
+		cells_ = Arrays.copyOf(sorted, m);
+
+		// count nodes of each cell
+		int[] cell = new int[n];
+		start_ = new int[m + 1];
+		for (int i = 0; i < n; i++) {
+			cell[i] = Arrays.binarySearch(cells_, keys[i]);
+			start_[cell[i] + 1]++;
+		}
+		for (int i = 0; i < m; i++) {
+			occupancy_ = Math.max(occupancy_, start_[i + 1]);
+			start_[i + 1] += start_[i];
+		}
+
+		// store coordinates sorted by cells
+		x_ = new double[n];
+		y_ = new double[n];
+		z_ = new double[n];
+		int[] next = Arrays.copyOf(start_, m);
+		for (int i = 0; i < n; i++) {
+			int k = next[cell[i]]++;
+			x_[k] = coords[3 * i];
+			y_[k] = coords[3 * i + 1];
+			z_[k] = coords[3 * i + 2];
+		}
+	}
+
+	/**
+	 * Returns the minimum non-zero distance between nodes of neighbouring
+	 * cells, or infinity if there is no such pair of nodes.
+	 * 
+	 * @return The minimum distance between nodes of neighbouring cells.
+	 */
+	private double getMinimumDistance() {
+
+		// loop over cells
+		double min = Double.POSITIVE_INFINITY;
+		long mask = (1L << bits_) - 1;
+		for (int c = 0; c < cells_.length; c++) {
+
+			// pairs within cell
+			for (int a = start_[c]; a < start_[c + 1]; a++)
+				min = check(a, a + 1, start_[c + 1], min);
+
+			// get cell indices
+			long key = cells_[c];
+			long ci = key >>> (2 * bits_);
+			long cj = (key >>> bits_) & mask;
+			long ck = key & mask;
+
+			// loop over neighbouring cells with greater keys
+			for (long i = Math.max(ci - 1, 0); i <= ci + 1; i++) {
+				for (long j = Math.max(cj - 1, 0); j <= cj + 1; j++) {
+					for (long k = Math.max(ck - 1, 0); k <= ck + 1; k++) {
+
+						// find cell
+						long key2 = getKey(i, j, k);
+						if (key2 <= key)
+							continue;
+						int d = Arrays.binarySearch(cells_, c + 1,
+								cells_.length, key2);
+						if (d < 0)
+							continue;
+
+						// pairs between cells
+						for (int a = start_[c]; a < start_[c + 1]; a++)
+							min = check(a, start_[d], start_[d + 1], min);
+					}
+				}
+			}
+		}
+		return Math.sqrt(min);
+	}
+
+	/**
+	 * Checks squared distances between given node and a range of nodes.
+	 * 
+	 * @param a
+	 *            Index of node.
+	 * @param first
+	 *            Index of first node of range (inclusive).
+	 * @param last
+	 *            Index of last node of range (exclusive).
+	 * @param min
+	 *            The minimum squared distance so far.
+	 * @return The updated minimum squared distance.
+	 */
+	private double check(int a, int first, int last, double min) {
+		double x = x_[a], y = y_[a], z = z_[a];
+		for (int b = first; b < last; b++) {
+			double dx = x_[b] - x, dy = y_[b] - y, dz = z_[b] - z;
+			double d = dx * dx + dy * dy + dz * dz;
+			if (d > 0.0 && d < min)
+				min = d;
+		}
+		return min;
+	}
+
+	/**
+	 * Returns key of given cell.
+	 * 
+	 * @param i
+	 *            Cell index in x direction.
+	 * @param j
+	 *            Cell index in y direction.
+	 * @param k
+	 *            Cell index in z direction.
+	 * @return The key of cell.
+	 */
+	private static long getKey(long i, long j, long k) {
+		return (i << (2 * bits_)) | (j << bits_) | k;
+	}
+}
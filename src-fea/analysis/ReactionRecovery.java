@@ -0,0 +1,388 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.util.Arrays;
+
+import node.Node;
+import element.Element;
+import matrix.DVec;
+
+/**
+ * Class for recovery of nodal reaction forces. Element stiffness matrices and
+ * load vectors (in nodal local coordinates) are assembled once into a sparse
+ * matrix over the active nodal dofs (in compressed row form) and a load
+ * vector, so that the reaction forces of a step are recovered by a single
+ * sparse matrix-vector product. A dof of node is active if any element of
+ * node has stiffness or load at that dof; the reaction forces of other dofs
+ * are due to nodal loads only. The system is assembled again when the
+ * connectivity or the state of any element (see {@link Element#getState()})
+ * changes. Element matrices are not kept after assembly.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class ReactionRecovery {
+
+	/** The connectivity and element states of assembled system. */
+	private Connectivity connectivity_;
+
+	private Object[][] states_;
+
+	/** The numbered nodes of assembled system. */
+	private Node[] nodes_;
+
+	/** Active dofs of each node. */
+	private int[][] dofs_;
+
+	/** Pointers to the first active dof of each node in system vectors. */
+	private int[] offsets_;
+
+	/** Row pointers and column indices of assembled stiffness matrix. */
+	private int[] pointers_, columns_;
+
+	/** Components of assembled stiffness matrix. */
+	private double[] values_;
+
+	/** Assembled element load vector. */
+	private double[] loads_;
+
+	/**
+	 * Sets reaction forces to nodes of given structure, for the unknowns
+	 * currently set to nodes.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 */
+	public synchronized void recover(Structure structure) {
+
+		// get states of elements
+		Connectivity connectivity = structure.getConnectivity();
+		Object[][] states = new Object[connectivity.getNumberOfElements()][];
+		boolean changed = connectivity != connectivity_
+				|| states.length != states_.length;
+		for (int i = 0; i < states.length; i++) {
+			states[i] = structure.getElement(i).getState();
+			if (changed == false
+					&& Element.isSameState(states[i], states_[i]) == false)
+				changed = true;
+		}
+
+		// assemble system if structure has changed
+		if (changed)
+			assemble(structure, connectivity, states);
+
+		// get active unknowns of nodes
+		double[] u = new double[loads_.length];
+		for (int a = 0; a < nodes_.length; a++) {
+			DVec vec = nodes_[a].getUnknown(Node.local_);
+			for (int q = 0; q < dofs_[a].length; q++)
+				u[offsets_[a] + q] = vec.get(dofs_[a][q]);
+		}
+
+		// set reactions to nodes
+		for (int a = 0; a < nodes_.length; a++) {
+
+			// compute reaction force of node (r = K * u - p)
+			double[] fNode = new double[6];
+			for (int q = 0; q < dofs_[a].length; q++) {
+				int i = offsets_[a] + q;
+				double sum = -loads_[i];
+				for (int k = pointers_[i]; k < pointers_[i + 1]; k++)
+					sum += values_[k] * u[columns_[k]];
+				fNode[dofs_[a][q]] = sum;
+			}
+
+			// subtract nodal mechanical loads
+			Node node = nodes_[a];
+			if (node.getMechLoads().size() != 0) {
+				DVec rn = node.getMechLoadVector();
+				for (int j = 0; j < 6; j++)
+					fNode[j] -= rn.get(j);
+			}
+
+			// set to node
+			node.setReactionForce(fNode);
+		}
+	}
+
+	/**
+	 * Assembles element stiffness matrices and load vectors of structure.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @param connectivity
+	 *            The connectivity of structure.
+	 * @param states
+	 *            The states of elements of structure.
+	 */
+	private void assemble(Structure structure, Connectivity connectivity,
+			Object[][] states) {
+
+		// get connectivity arrays
+		int ne = connectivity.getNumberOfElements();
+		int nn = connectivity.getNumberOfNodes();
+		int[] pointers = connectivity.getPointers();
+		int[] indices = connectivity.getNodeIndices();
+
+		// collect numbered nodes
+		nodes_ = new Node[nn];
+		for (int i = 0; i < structure.getNumberOfNodes(); i++)
+			nodes_[i] = structure.getNode(i);
+		for (int i = 0; i < ne; i++) {
+			Node[] nodes = structure.getElement(i).getNodes();
+			for (int k = pointers[i]; k < pointers[i + 1]; k++)
+				nodes_[indices[k]] = nodes[k - pointers[i]];
+		}
+
+		// compute element matrices and active dofs of nodes
+		ElementMatrices[] matrices = new ElementMatrices[ne];
+		int[] masks = new int[nn];
+		for (int e = 0; e < ne; e++) {
+			matrices[e] = new ElementMatrices(structure.getElement(e));
+			for (int k = pointers[e]; k < pointers[e + 1]; k++)
+				masks[indices[k]] |= matrices[e].mask_;
+		}
+		dofs_ = new int[nn][];
+		offsets_ = new int[nn + 1];
+		for (int a = 0; a < nn; a++) {
+			dofs_[a] = getDofs(masks[a]);
+			offsets_[a + 1] = offsets_[a] + dofs_[a].length;
+		}
+
+		// compute neighbouring nodes of each node and positions of their
+		// dofs within rows of node
+		int[][] neighbours = getNeighbours(nn, ne, pointers, indices);
+		int[][] starts = new int[nn][];
+		int[] lengths = new int[nn];
+		for (int a = 0; a < nn; a++) {
+			starts[a] = new int[neighbours[a].length];
+			for (int p = 0; p < neighbours[a].length; p++) {
+				starts[a][p] = lengths[a];
+				lengths[a] += dofs_[neighbours[a][p]].length;
+			}
+		}
+
+		// compute row pointers and column indices
+		int rows = offsets_[nn];
+		pointers_ = new int[rows + 1];
+		for (int a = 0; a < nn; a++)
+			for (int i = offsets_[a]; i < offsets_[a + 1]; i++)
+				pointers_[i + 1] = pointers_[i] + lengths[a];
+		columns_ = new int[pointers_[rows]];
+		for (int a = 0; a < nn; a++) {
+			for (int i = offsets_[a]; i < offsets_[a + 1]; i++) {
+				int k = pointers_[i];
+				for (int p = 0; p < neighbours[a].length; p++) {
+					int b = neighbours[a][p];
+					for (int j = offsets_[b]; j < offsets_[b + 1]; j++)
+						columns_[k++] = j;
+				}
+			}
+		}
+
+		// loop over elements
+		values_ = new double[columns_.length];
+		loads_ = new double[rows];
+		int[] dofRows = new int[6], dofColumns = new int[6];
+		for (int e = 0; e < ne; e++) {
+
+			// get element matrices
+			ElementMatrices m = matrices[e];
+			matrices[e] = null;
+			int nd = m.dofs_.length;
+			int first = pointers[e], n = pointers[e + 1] - first;
+			int size = nd * n;
+
+			// loop over nodes of element
+			for (int a = 0; a < n; a++) {
+				int na = indices[first + a];
+
+				// get rows of element dofs of node
+				for (int q = 0; q < nd; q++)
+					dofRows[q] = offsets_[na]
+							+ Arrays.binarySearch(dofs_[na], m.dofs_[q]);
+
+				// add load components
+				for (int q = 0; q < nd; q++)
+					loads_[dofRows[q]] += m.loads_[nd * a + q];
+
+				// loop over nodes of element
+				for (int b = 0; b < n; b++) {
+					int nb = indices[first + b];
+					int p = Arrays.binarySearch(neighbours[na], nb);
+
+					// get positions of element dofs of node within rows
+					for (int q = 0; q < nd; q++)
+						dofColumns[q] = starts[na][p]
+								+ Arrays.binarySearch(dofs_[nb], m.dofs_[q]);
+
+					// add stiffness components
+					for (int qa = 0; qa < nd; qa++) {
+						int slot = pointers_[dofRows[qa]];
+						int k = (nd * a + qa) * size + nd * b;
+						for (int qb = 0; qb < nd; qb++)
+							values_[slot + dofColumns[qb]] += m.stiffness_[k
+									+ qb];
+					}
+				}
+			}
+		}
+
+		// set connectivity and states of assembled system
+		connectivity_ = connectivity;
+		states_ = states;
+	}
+
+	/**
+	 * Returns the dofs denoted by the bits of given mask.
+	 * 
+	 * @param mask
+	 *            The dof mask.
+	 * @return Array storing the dofs in ascending order.
+	 */
+	private static int[] getDofs(int mask) {
+		int[] dofs = new int[Integer.bitCount(mask)];
+		for (int j = 0, q = 0; j < 6; j++)
+			if ((mask & (1 << j)) != 0)
+				dofs[q++] = j;
+		return dofs;
+	}
+
+	/**
+	 * Returns the sorted neighbouring nodes of each node, that is the nodes
+	 * sharing an element with the node (including the node itself).
+	 * 
+	 * @param nn
+	 *            Number of numbered nodes.
+	 * @param ne
+	 *            Number of elements.
+	 * @param pointers
+	 *            Pointers to the node indices of each element.
+	 * @param indices
+	 *            Node indices of elements.
+	 * @return Array storing the neighbouring nodes of each node.
+	 */
+	private static int[][] getNeighbours(int nn, int ne, int[] pointers,
+			int[] indices) {
+
+		// count element occurrences of nodes
+		int[] count = new int[nn + 1];
+		for (int k = 0; k < indices.length; k++)
+			count[indices[k] + 1]++;
+		for (int a = 0; a < nn; a++)
+			count[a + 1] += count[a];
+
+		// store elements of nodes
+		int[] elements = new int[indices.length];
+		int[] next = Arrays.copyOf(count, nn);
+		for (int e = 0; e < ne; e++)
+			for (int k = pointers[e]; k < pointers[e + 1]; k++)
+				elements[next[indices[k]]++] = e;
+
+		// collect neighbours of nodes
+		int[][] neighbours = new int[nn][];
+		int[] marks = new int[nn];
+		Arrays.fill(marks, -1);
+		int[] buffer = new int[nn];
+		for (int a = 0; a < nn; a++) {
+			int m = 0;
+			for (int k = count[a]; k < count[a + 1]; k++) {
+				int e = elements[k];
+				for (int l = pointers[e]; l < pointers[e + 1]; l++) {
+					int b = indices[l];
+					if (marks[b] != a) {
+						marks[b] = a;
+						buffer[m++] = b;
+					}
+				}
+			}
+			neighbours[a] = Arrays.copyOf(buffer, m);
+			Arrays.sort(neighbours[a]);
+		}
+		return neighbours;
+	}
+
+	/**
+	 * Class for element matrices in nodal local coordinates, restricted to the
+	 * active dofs of element.
+	 * 
+	 */
+	private static class ElementMatrices {
+
+		/** Mask and array of active dofs (per node) of element. */
+		private final int mask_;
+
+		private final int[] dofs_;
+
+		/** Element stiffness matrix over active dofs (row by row). */
+		private final double[] stiffness_;
+
+		/** Element mechanical and thermal load vector over active dofs. */
+		private final double[] loads_;
+
+		/**
+		 * Computes matrices of given element.
+		 * 
+		 * @param element
+		 *            The element.
+		 */
+		private ElementMatrices(Element element) {
+
+			// get element stiffness matrix in nodal local coordinates
+			int nn = element.getNodes().length, n = 6 * nn;
+			double[] k = new double[n * n];
+			element.getStiffnessMatrix(Node.local_, k);
+
+			// get element mechanical and thermal load vectors
+			double[] p = new double[n];
+			if (element.getMechLoads().size() != 0) {
+				DVec re = element.getMechLoadVector(Node.local_);
+				for (int i = 0; i < n; i++)
+					p[i] += re.get(i);
+			}
+			if (element.getTempLoads().size() != 0) {
+				DVec te = element.getTempLoadVector(Node.local_);
+				for (int i = 0; i < n; i++)
+					p[i] += te.get(i);
+			}
+
+			// get active dofs (dofs having stiffness or load at any node)
+			int mask = 0;
+			for (int i = 0; i < n; i++) {
+				boolean active = p[i] != 0.0;
+				for (int j = 0; j < n && active == false; j++)
+					active = k[i * n + j] != 0.0;
+				if (active)
+					mask |= 1 << (i % 6);
+			}
+			mask_ = mask;
+			dofs_ = getDofs(mask);
+
+			// store components of active dofs
+			int nd = dofs_.length, size = nd * nn;
+			stiffness_ = new double[size * size];
+			loads_ = new double[size];
+			for (int i = 0; i < size; i++) {
+				int gi = 6 * (i / nd) + dofs_[i % nd];
+				loads_[i] = p[gi];
+				for (int j = 0; j < size; j++)
+					stiffness_[i * size + j] = k[gi * n + 6 * (j / nd)
+							+ dofs_[j % nd]];
+			}
+		}
+	}
+}
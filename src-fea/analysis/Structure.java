@@ -15,7 +15,15 @@
  */
 package analysis;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.Vector;
 
 import node.Node;
@@ -25,7 +33,9 @@ import element.ElementLibrary;
 import matrix.DVec;
 
 import data.OutputData;
+import data.OutputStore;
 import dialogs.file.OutputDataHandler1;
+import dialogs.file.OutputDataWriter;
 
 /**
  * Class for structure.
@@ -55,6 +65,27 @@ public class Structure implements Serializable {
 	/** Vector for storing the analysis information. */
 	private Vector<Object> analysisInfo_ = new Vector<Object>();
 
+	/** Flag for bandwidth reducing renumbering of equations. */
+	private boolean renumber_ = false;
+
+	/**
+	 * Half-bandwidth and profile of system matrices before and after
+	 * renumbering.
+	 */
+	private transient long[] numbering_ = new long[4];
+
+	/** Spatial index of nodes (created when first needed). */
+	private transient NodeLocator locator_;
+
+	/** Indices of nodes (created when first needed). */
+	private transient IdentityHashMap<Node, Integer> nodeIndices_;
+
+	/** Element-node connectivity (created when first needed). */
+	private transient Connectivity connectivity_;
+
+	/** Maximum and minimum distances between nodes (created when needed). */
+	private transient double[] distances_;
+
 	/**
 	 * Appends node to structure.
 	 * 
@@ -63,6 +94,12 @@ public class Structure implements Serializable {
 	 */
 	public void addNode(Node node) {
 		nodes_.add(node);
+		if (locator_ != null)
+			locator_.add(node);
+		if (nodeIndices_ != null && nodeIndices_.containsKey(node) == false)
+			nodeIndices_.put(node, nodes_.size() - 1);
+		connectivity_ = null;
+		distances_ = null;
 	}
 
 	/**
@@ -73,6 +110,7 @@ public class Structure implements Serializable {
 	 */
 	public void addElement(Element element) {
 		elements_.add(element);
+		connectivity_ = null;
 	}
 
 	/**
@@ -84,7 +122,30 @@ public class Structure implements Serializable {
 	 *            The new node.
 	 */
 	public void setNode(int index, Node node) {
-		nodes_.set(index, node);
+		Node old = nodes_.set(index, node);
+		if (locator_ != null) {
+			locator_.remove(old);
+			locator_.add(node);
+		}
+		clearIndices();
+	}
+
+	/**
+	 * Moves the given node of structure to the given position. Nodes of the
+	 * structure should be moved only through this method, so that they can
+	 * still be found by {@link #findNodeNear(double, double, double, double)}.
+	 * 
+	 * @param node
+	 *            The node to be moved.
+	 * @param pos
+	 *            The new position vector of node.
+	 */
+	public void setNodePosition(Node node, DVec pos) {
+		boolean located = locator_ != null && locator_.remove(node);
+		node.setPosition(pos);
+		if (located)
+			locator_.add(node);
+		distances_ = null;
 	}
 
 	/**
@@ -97,6 +158,22 @@ public class Structure implements Serializable {
 	 */
 	public void setElement(int index, Element element) {
 		elements_.set(index, element);
+		connectivity_ = null;
+	}
+
+	/**
+	 * Sets the given nodes to the given element of structure. Nodes of the
+	 * elements of structure should be changed only through this method, so
+	 * that the cached element-node connectivity is rebuilt.
+	 * 
+	 * @param element
+	 *            The element.
+	 * @param nodes
+	 *            The new nodes of element.
+	 */
+	public void setElementNodes(Element element, Node[] nodes) {
+		element.setNodes(nodes);
+		connectivity_ = null;
 	}
 
 	/**
@@ -116,6 +193,17 @@ public class Structure implements Serializable {
 		dofs_ = dofs;
 	}
 
+	/**
+	 * Sets bandwidth reducing renumbering of equations. If set, nodes are
+	 * enumerated in Reverse Cuthill-McKee order instead of insertion order.
+	 * 
+	 * @param renumber
+	 *            True if equations are to be renumbered.
+	 */
+	public void setRenumbering(boolean renumber) {
+		renumber_ = renumber;
+	}
+
 	/**
 	 * Writes output data object to given path.
 	 * 
@@ -129,7 +217,112 @@ public class Structure implements Serializable {
 	 */
 	public boolean setUnknowns(String path, double[][] unknowns, int steps) {
 		steps_ = steps;
-		return OutputDataHandler1.write(path, unknowns, steps);
+		return OutputDataHandler1.write(path, getDofMap(), unknowns, steps);
+	}
+
+	/**
+	 * Writes output data with modes to given path. Unknowns of steps are
+	 * expanded from the modes only when they are demanded.
+	 * 
+	 * @param path
+	 *            The path to write the output data.
+	 * @param modes
+	 *            The eqn x m array storing the mode vectors as its columns.
+	 * @param coordinates
+	 *            The n x m array storing the modal coordinates of steps.
+	 * @return True if no problem occured during writing, False vice versa.
+	 */
+	public boolean setUnknowns(String path, double[][] modes,
+			double[][] coordinates) {
+		steps_ = coordinates.length;
+		return OutputDataHandler1.writeModal(path, getDofMap(), modes,
+				coordinates);
+	}
+
+	/**
+	 * Returns the unknowns of all steps written to the given path, if they
+	 * were written for the current numbering of dofs.
+	 * 
+	 * @param path
+	 *            The path of output data.
+	 * @return The eqn x n array storing the unknown vectors of steps as its
+	 *         columns, or null if there is no output data for the current
+	 *         numbering of dofs.
+	 */
+	public double[][] getUnknowns(String path) {
+
+		// read output data
+		OutputData outputData = OutputDataHandler1.read(path);
+		if (outputData == null)
+			return null;
+
+		// check numbering of dofs
+		OutputStore store = outputData.getStore();
+		if (store != null
+				&& Arrays.equals(store.getDofMap(), getDofMap()) == false)
+			return null;
+		return outputData.getUnknowns();
+	}
+
+	/**
+	 * Creates and returns writer for incremental writing of output data.
+	 * 
+	 * @param path
+	 *            The path to write the output data.
+	 * @param eqn
+	 *            Number of equations.
+	 * @param steps
+	 *            Number of planned steps.
+	 * @return Output data writer, or null if problem occured during creating
+	 *         the output data file.
+	 */
+	public OutputDataWriter createOutputWriter(String path, int eqn, int steps) {
+		steps_ = 0;
+		try {
+			return new OutputDataWriter(path, getDofMap(), eqn, steps);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Closes the given output data writer and sets the number of written
+	 * steps to structure.
+	 * 
+	 * @param writer
+	 *            The output data writer.
+	 * @return True if no problem occured during writing, False vice versa.
+	 */
+	public boolean setUnknowns(OutputDataWriter writer) {
+		boolean written = writer.close();
+		steps_ = writer.getNumberOfSteps();
+		return written;
+	}
+
+	/**
+	 * Returns the DOF map of structure. The map stores the equation numbers of
+	 * nodal degrees of freedom, 6 per node in node order.
+	 * 
+	 * @return The DOF map of structure (-1 for constrained dofs).
+	 */
+	public int[] getDofMap() {
+
+		// create map
+		int[] map = new int[6 * nodes_.size()];
+
+		// loop over nodes
+		for (int i = 0; i < nodes_.size(); i++) {
+
+			// get dof numbers of node
+			int[] dof = nodes_.get(i).getDofNumbers();
+
+			// set to map
+			for (int j = 0; j < 6; j++)
+				map[6 * i + j] = dof == null ? -1 : dof[j];
+		}
+
+		// return map
+		return map;
 	}
 
 	/**
@@ -200,6 +393,50 @@ public class Structure implements Serializable {
 		}
 	}
 
+	/**
+	 * Returns the histories of unknowns of given nodes over a range of steps.
+	 * The output data is read once, and the unknowns of all steps are
+	 * gathered in one pass.
+	 * 
+	 * @param path
+	 *            The path of output data.
+	 * @param nodes
+	 *            The nodes.
+	 * @param first
+	 *            The first step number (inclusive).
+	 * @param last
+	 *            The last step number (inclusive).
+	 * @return Array storing the unknowns of nodes for each step (6 per node
+	 *         in node order), or null if output data is not available.
+	 */
+	public double[][] getNodeHistories(String path, Node[] nodes, int first,
+			int last) {
+
+		// read output data
+		OutputData outputData = OutputDataHandler1.read(path);
+
+		// no problem occurred with reading
+		if (outputData != null)
+			return outputData.getNodeHistories(nodes, first, last);
+		return null;
+	}
+
+	/**
+	 * Sets unknowns to nodes from a step of node histories.
+	 * 
+	 * @param nodes
+	 *            The nodes to be set.
+	 * @param history
+	 *            The unknowns of nodes at the step (6 per node in node
+	 *            order), as returned by
+	 *            {@link #getNodeHistories(String, Node[], int, int)}.
+	 */
+	public void setStepToNodes(Node[] nodes, double[] history) {
+		for (int i = 0; i < nodes.length; i++)
+			nodes[i].setUnknown(Arrays.copyOfRange(history, 6 * i,
+					6 * i + 6));
+	}
+
 	/**
 	 * Sets analysis info to the structure.
 	 * 
@@ -238,6 +475,9 @@ public class Structure implements Serializable {
 	 */
 	public void insertNode(int index, Node node) {
 		nodes_.insertElementAt(node, index);
+		if (locator_ != null)
+			locator_.add(node);
+		clearIndices();
 	}
 
 	/**
@@ -250,6 +490,7 @@ public class Structure implements Serializable {
 	 */
 	public void insertElement(int index, Element element) {
 		elements_.insertElementAt(element, index);
+		connectivity_ = null;
 	}
 
 	/**
@@ -259,7 +500,10 @@ public class Structure implements Serializable {
 	 *            The index of node to be removed.
 	 */
 	public void removeNode(int index) {
-		nodes_.remove(index);
+		Node node = nodes_.remove(index);
+		if (locator_ != null)
+			locator_.remove(node);
+		clearIndices();
 	}
 
 	/**
@@ -270,6 +514,154 @@ public class Structure implements Serializable {
 	 */
 	public void removeElement(int index) {
 		elements_.remove(index);
+		connectivity_ = null;
+	}
+
+	/**
+	 * Removes given nodes from structure.
+	 * 
+	 * @param nodes
+	 *            The nodes to be removed.
+	 */
+	public void removeNodes(Collection<Node> nodes) {
+		HashSet<Node> set = new HashSet<Node>(nodes);
+		nodes_.removeAll(set);
+		if (locator_ != null) {
+			Iterator<Node> iterator = set.iterator();
+			while (iterator.hasNext())
+				locator_.remove(iterator.next());
+		}
+		clearIndices();
+	}
+
+	/**
+	 * Removes given elements from structure.
+	 * 
+	 * @param elements
+	 *            The elements to be removed.
+	 */
+	public void removeElements(Collection<Element> elements) {
+		elements_.removeAll(new HashSet<Element>(elements));
+		connectivity_ = null;
+	}
+
+	/**
+	 * Returns duplicate nodes of structure. Each node is considered as a
+	 * duplicate of the first node (in order of structure) within the given
+	 * distance, which is not a duplicate itself.
+	 * 
+	 * @param tol
+	 *            The distance within which nodes are duplicates.
+	 * @return Map of duplicate nodes to the nodes they duplicate.
+	 */
+	public HashMap<Node, Node> getDuplicateNodes(double tol) {
+
+		// initialize map of duplicate nodes
+		HashMap<Node, Node> duplicates = new HashMap<Node, Node>();
+
+		// loop over nodes
+		for (int i = 0; i < nodes_.size(); i++) {
+
+			// get base node (skip if it is a duplicate)
+			Node node1 = nodes_.get(i);
+			if (duplicates.containsKey(node1))
+				continue;
+
+			// get nodes at the same position
+			Vector<Node> nodes = findNodesNear(node1.getPosition(0),
+					node1.getPosition(1), node1.getPosition(2), tol);
+
+			// add them to duplicates
+			for (int j = 0; j < nodes.size(); j++) {
+				Node node2 = nodes.get(j);
+				if (node2 != node1 && duplicates.containsKey(node2) == false)
+					duplicates.put(node2, node1);
+			}
+		}
+		return duplicates;
+	}
+
+	/**
+	 * Replaces given nodes with their counterparts in all elements and
+	 * removes them from structure.
+	 * 
+	 * @param nodes
+	 *            Map of nodes to be replaced to their counterparts.
+	 */
+	public void mergeNodes(HashMap<Node, Node> nodes) {
+
+		// no nodes to merge
+		if (nodes.isEmpty())
+			return;
+
+		// loop over elements
+		for (int i = 0; i < elements_.size(); i++) {
+
+			// replace nodes of element
+			Node[] enodes = elements_.get(i).getNodes();
+			for (int j = 0; j < enodes.length; j++) {
+				Node node = nodes.get(enodes[j]);
+				if (node != null)
+					enodes[j] = node;
+			}
+		}
+
+		// remove replaced nodes
+		removeNodes(nodes.keySet());
+	}
+
+	/**
+	 * Returns duplicate elements of structure. Elements of the same type with
+	 * the same set of nodes are duplicates of the first of them (in order of
+	 * structure).
+	 * 
+	 * @return The duplicate elements.
+	 */
+	public Vector<Element> getDuplicateElements() {
+
+		// get element-node connectivity
+		Connectivity connectivity = getConnectivity();
+		int[] pointers = connectivity.getPointers();
+		int[] indices = connectivity.getNodeIndices();
+
+		// loop over elements
+		Vector<Element> duplicates = new Vector<Element>();
+		HashSet<ElementKey> keys = new HashSet<ElementKey>();
+		for (int i = 0; i < elements_.size(); i++) {
+
+			// get sorted node indices of element
+			int[] key = Arrays.copyOfRange(indices, pointers[i],
+					pointers[i + 1]);
+			Arrays.sort(key);
+
+			// check if an element with the same key exists
+			Element e = elements_.get(i);
+			if (keys.add(new ElementKey(e.getType(), key)) == false)
+				duplicates.add(e);
+		}
+		return duplicates;
+	}
+
+	/**
+	 * Returns nodes of structure which are not connected to any element.
+	 * 
+	 * @return The unused nodes.
+	 */
+	public Vector<Node> getUnusedNodes() {
+
+		// mark nodes of elements as used
+		int[] indices = getConnectivity().getNodeIndices();
+		boolean[] used = new boolean[nodes_.size()];
+		for (int i = 0; i < indices.length; i++)
+			if (indices[i] < used.length)
+				used[indices[i]] = true;
+
+		// collect unused nodes
+		Vector<Node> unused = new Vector<Node>();
+		for (int i = 0; i < used.length; i++)
+			if (used[i] == false)
+				unused.add(nodes_.get(i));
+		return unused;
 	}
 
 	/**
@@ -374,6 +766,74 @@ public class Structure implements Serializable {
 		return nodes_.get(index);
 	}
 
+	/**
+	 * Returns the nearest node of structure within the given distance to the
+	 * given point, or null if there is no such node. Nodes are located through
+	 * a spatial hash, which is created at the first call and kept up to date
+	 * afterwards.
+	 * 
+	 * @param x
+	 *            Global x coordinate of point.
+	 * @param y
+	 *            Global y coordinate of point.
+	 * @param z
+	 *            Global z coordinate of point.
+	 * @param tol
+	 *            The search distance.
+	 * @return The nearest node, or null if there is no node within distance.
+	 */
+	public Node findNodeNear(double x, double y, double z, double tol) {
+		return getLocator().find(x, y, z, tol);
+	}
+
+	/**
+	 * Returns all nodes of structure within the given distance to the given
+	 * point.
+	 * 
+	 * @param x
+	 *            Global x coordinate of point.
+	 * @param y
+	 *            Global y coordinate of point.
+	 * @param z
+	 *            Global z coordinate of point.
+	 * @param tol
+	 *            The search distance.
+	 * @return The nodes within distance.
+	 */
+	public Vector<Node> findNodesNear(double x, double y, double z,
+			double tol) {
+		return getLocator().findAll(x, y, z, tol);
+	}
+
+	/**
+	 * Returns the maximum and minimum distances between nodes of structure.
+	 * The maximum distance is taken as the diagonal of the bounding box of
+	 * nodes. The minimum distance is the smallest non-zero distance between
+	 * any two nodes, or infinity if there is no such pair. The distances are
+	 * cached until the nodes of structure are modified.
+	 * 
+	 * @return Array storing the maximum and minimum distances (in this
+	 *         sequence).
+	 */
+	public double[] getNodeDistances() {
+
+		// compute distances if necessary
+		if (distances_ == null) {
+
+			// get diagonal of bounding box of nodes
+			double[] bounds = NodeLocator.getBounds(nodes_);
+			double max = 0.0;
+			if (nodes_.size() > 0)
+				for (int i = 0; i < 3; i++)
+					max += Math.pow(bounds[i + 3] - bounds[i], 2);
+
+			// compute minimum distance on a grid
+			double min = NodeSpacing.getMinimumDistance(nodes_, bounds);
+			distances_ = new double[] { Math.sqrt(max), min };
+		}
+		return distances_.clone();
+	}
+
 	/**
 	 * Returns the element at the specified position.
 	 * 
@@ -393,7 +853,8 @@ public class Structure implements Serializable {
 	 * @return The index of given node.
 	 */
 	public int indexOfNode(Node node) {
-		return nodes_.indexOf(node);
+		Integer index = getNodeIndices().get(node);
+		return index == null ? -1 : index;
 	}
 
 	/**
@@ -407,6 +868,18 @@ public class Structure implements Serializable {
 		return elements_.indexOf(element);
 	}
 
+	/**
+	 * Returns the element-node connectivity of structure. The connectivity is
+	 * cached until the nodes or elements of structure are modified.
+	 * 
+	 * @return The element-node connectivity.
+	 */
+	public Connectivity getConnectivity() {
+		if (connectivity_ == null)
+			connectivity_ = new Connectivity(elements_, getNodeIndices());
+		return connectivity_;
+	}
+
 	/**
 	 * Returns available dofs of the structure.
 	 * 
@@ -416,6 +889,30 @@ public class Structure implements Serializable {
 		return dofs_;
 	}
 
+	/**
+	 * Returns true if equations are renumbered for bandwidth reduction.
+	 * 
+	 * @return True if equations are renumbered.
+	 */
+	public boolean isRenumbering() {
+		return renumber_;
+	}
+
+	/**
+	 * Returns the half-bandwidth and profile of system matrices before and
+	 * after renumbering of the last enumeration. The sequence of information
+	 * is; half-bandwidth before, profile before, half-bandwidth after, profile
+	 * after. Profile is the number of entries within the skyline of the upper
+	 * triangle (including diagonal).
+	 * 
+	 * @return Array storing the numbering information.
+	 */
+	public long[] getNumberingInfo() {
+		if (numbering_ == null)
+			numbering_ = new long[4];
+		return numbering_.clone();
+	}
+
 	/**
 	 * Returns the number of nodes of structure.
 	 * 
@@ -550,129 +1047,328 @@ public class Structure implements Serializable {
 			elements_.get(i).enumerateDofs();
 		}
 
+		// compute bandwidth and profile of insertion order
+		numbering_ = new long[4];
+		long[] profile = computeProfile(eqn);
+		numbering_[0] = profile[0];
+		numbering_[1] = profile[1];
+
+		// renumber equations in Reverse Cuthill-McKee order
+		if (renumber_) {
+
+			// enumerate nodal degrees of freedom
+			int[] order = computeOrdering();
+			eqn = 0;
+			for (int i = 0; i < order.length; i++)
+				eqn = nodes_.get(order[i]).enumerateDofs(eqn);
+
+			// enumerate element degrees of freedom
+			for (int i = 0; i < elements_.size(); i++)
+				elements_.get(i).enumerateDofs();
+
+			// compute bandwidth and profile of new order
+			profile = computeProfile(eqn);
+		}
+		numbering_[2] = profile[0];
+		numbering_[3] = profile[1];
+
 		// return number of equations
 		return eqn;
 	}
 
 	/**
-	 * Checks whether any duplicate nodes exist.
+	 * Returns the spatial index of nodes. The index is created if it doesn't
+	 * exist yet or has outgrown its cell size.
 	 * 
-	 * @return True if there exists duplicate nodes, False vice versa.
+	 * @return The spatial index of nodes.
 	 */
-	private boolean checkDuplicateNodes() {
-
-		// loop over nodes
-		for (int i = 0; i < getNumberOfNodes() - 1; i++) {
-
-			// get position of base node
-			Node node1 = getNode(i);
-			DVec pos1 = node1.getPosition();
-
-			// loop over other nodes
-			for (int j = i + 1; j < getNumberOfNodes(); j++) {
-
-				// get target node and its position
-				Node node2 = getNode(j);
-				DVec pos2 = node2.getPosition();
+	private NodeLocator getLocator() {
+		if (locator_ == null || locator_.isOutgrown())
+			locator_ = new NodeLocator(nodes_);
+		return locator_;
+	}
 
-				// check positions
-				DVec dif = pos1.subtract(pos2);
-				if (dif.l2Norm() <= tolerance_)
-					return false;
-			}
+	/**
+	 * Computes half-bandwidth and profile of system matrices for the current
+	 * equation numbers.
+	 * 
+	 * @param eqn
+	 *            The number of equations.
+	 * @return Array storing the half-bandwidth and profile.
+	 */
+	private long[] computeProfile(int eqn) {
+
+		// initialize first connected equation of each column
+		int[] first = new int[eqn];
+		for (int i = 0; i < eqn; i++)
+			first[i] = i;
+
+		// loop over elements and nodes
+		int ne = elements_.size();
+		for (int i = 0; i < ne + nodes_.size(); i++) {
+
+			// get dof numbers
+			int[] dof;
+			if (i < ne)
+				dof = elements_.get(i).getDofNumbers();
+			else
+				dof = nodes_.get(i - ne).getDofNumbers();
+
+			// get minimum free dof number
+			int min = eqn;
+			for (int j = 0; j < dof.length; j++)
+				if (dof[j] != -1)
+					min = Math.min(min, dof[j]);
+
+			// update first connected equations
+			for (int j = 0; j < dof.length; j++)
+				if (dof[j] != -1)
+					first[dof[j]] = Math.min(first[dof[j]], min);
 		}
 
-		// no duplicate nodes
-		return true;
+		// compute half-bandwidth and profile
+		long[] profile = new long[2];
+		for (int i = 0; i < eqn; i++) {
+			profile[0] = Math.max(profile[0], i - first[i]);
+			profile[1] += i - first[i] + 1;
+		}
+		return profile;
 	}
 
 	/**
-	 * Checks whether any duplicate elements exist.
+	 * Computes Reverse Cuthill-McKee ordering of nodes from the node adjacency
+	 * graph of elements. Each connected component is started from a
+	 * pseudo-peripheral node.
 	 * 
-	 * @return True if there exists duplicate elements, False vice versa.
+	 * @return Array storing the node indices in new order.
 	 */
-	private boolean checkDuplicateElements() {
-
-		// loop over elements
-		for (int i = 0; i < getNumberOfElements() - 1; i++) {
-
-			// get type and nodes of base element
-			int type1 = getElement(i).getType();
-			Node[] nodes = getElement(i).getNodes();
+	private int[] computeOrdering() {
 
-			// loop over other elements
-			for (int j = i + 1; j < getNumberOfElements(); j++) {
+		// create node indices
+		int nn = nodes_.size();
+		HashMap<Node, Integer> index = new HashMap<Node, Integer>();
+		for (int i = 0; i < nn; i++)
+			index.put(nodes_.get(i), i);
 
-				// get target element and its type
-				Element e = getElement(j);
-				int type2 = e.getType();
-
-				// check for same type
-				if (type1 == type2) {
-
-					// check for identical nodes
-					int m = 0;
-					for (int k = 0; k < nodes.length; k++) {
-						for (int l = 0; l < nodes.length; l++) {
-							if (nodes[k].equals(e.getNodes()[l]))
-								m++;
-						}
+		// count elements of each node
+		int[] pointer = new int[nn + 1];
+		int[][] connectivity = new int[elements_.size()][];
+		for (int i = 0; i < elements_.size(); i++) {
+			Node[] nodes = elements_.get(i).getNodes();
+			connectivity[i] = new int[nodes.length];
+			for (int j = 0; j < nodes.length; j++) {
+				connectivity[i][j] = index.get(nodes[j]);
+				pointer[connectivity[i][j] + 1]++;
+			}
+		}
+		for (int i = 0; i < nn; i++)
+			pointer[i + 1] += pointer[i];
+
+		// store elements of each node
+		int[] incidence = new int[pointer[nn]];
+		int[] next = Arrays.copyOf(pointer, nn);
+		for (int i = 0; i < connectivity.length; i++)
+			for (int j = 0; j < connectivity[i].length; j++)
+				incidence[next[connectivity[i][j]]++] = i;
+
+		// build node adjacency lists
+		int[][] adjacency = new int[nn][];
+		int[] degree = new int[nn];
+		int[] marker = new int[nn];
+		Arrays.fill(marker, -1);
+		int[] list = new int[nn];
+		for (int i = 0; i < nn; i++) {
+			int m = 0;
+			marker[i] = i;
+			for (int k = pointer[i]; k < pointer[i + 1]; k++) {
+				int[] nodes = connectivity[incidence[k]];
+				for (int j = 0; j < nodes.length; j++) {
+					if (marker[nodes[j]] != i) {
+						marker[nodes[j]] = i;
+						list[m++] = nodes[j];
 					}
+				}
+			}
+			adjacency[i] = Arrays.copyOf(list, m);
+			degree[i] = m;
+		}
 
-					// identical nodes
-					if (m == nodes.length)
-						return false;
+		// sort adjacency lists by degree
+		for (int i = 0; i < nn; i++)
+			sortByDegree(adjacency[i], degree);
+
+		// sort start candidates by degree
+		int[] seeds = new int[nn];
+		for (int i = 0; i < nn; i++)
+			seeds[i] = i;
+		sortByDegree(seeds, degree);
+
+		// loop over connected components
+		int[] order = new int[nn];
+		boolean[] numbered = new boolean[nn];
+		int n = 0;
+		for (int i = 0; i < nn; i++) {
+
+			// check if component is already numbered
+			if (numbered[seeds[i]])
+				continue;
+
+			// find pseudo-peripheral node of component
+			int root = findPeripheralNode(seeds[i], adjacency, degree);
+
+			// Cuthill-McKee breadth first search
+			int head = n;
+			order[n++] = root;
+			numbered[root] = true;
+			while (head < n) {
+				int[] adj = adjacency[order[head++]];
+				for (int j = 0; j < adj.length; j++) {
+					if (numbered[adj[j]] == false) {
+						numbered[adj[j]] = true;
+						order[n++] = adj[j];
+					}
 				}
 			}
 		}
 
-		// no duplicate elements
-		return true;
+		// reverse order
+		for (int i = 0; i < nn / 2; i++) {
+			int temp = order[i];
+			order[i] = order[nn - 1 - i];
+			order[nn - 1 - i] = temp;
+		}
+		return order;
 	}
 
 	/**
-	 * Checks whether any unused nodes exist.
+	 * Finds a pseudo-peripheral node of the component containing the given
+	 * node (George-Liu algorithm).
 	 * 
-	 * @return True if there exists unused nodes, False vice versa.
+	 * @param start
+	 *            The starting node index.
+	 * @param adjacency
+	 *            Node adjacency lists.
+	 * @param degree
+	 *            Node degrees.
+	 * @return Index of the pseudo-peripheral node.
 	 */
-	private boolean checkUnusedNodes() {
+	private int findPeripheralNode(int start, int[][] adjacency, int[] degree) {
+
+		// initialize level structure
+		int[] level = new int[adjacency.length];
+		Arrays.fill(level, -1);
+		int[] queue = new int[adjacency.length];
+		int root = start, eccentricity = -1;
+
+		// loop until eccentricity stops growing
+		while (true) {
+
+			// build level structure of root
+			int head = 0, tail = 0;
+			queue[tail++] = root;
+			level[root] = 0;
+			while (head < tail) {
+				int node = queue[head++];
+				int[] adj = adjacency[node];
+				for (int j = 0; j < adj.length; j++) {
+					if (level[adj[j]] == -1) {
+						level[adj[j]] = level[node] + 1;
+						queue[tail++] = adj[j];
+					}
+				}
+			}
 
-		// loop over nodes
-		for (int i = 0; i < getNumberOfNodes(); i++) {
+			// reset levels of component
+			int depth = level[queue[tail - 1]];
+			int next = queue[tail - 1];
+			for (int i = tail - 1; i >= 0; i--) {
 
-			// get node to be checked
-			Node node = getNode(i);
-			int m = 0;
+				// pick node of minimum degree in the last level
+				if (level[queue[i]] == depth
+						&& degree[queue[i]] < degree[next])
+					next = queue[i];
+				level[queue[i]] = -1;
+			}
 
-			// loop over elements
-			for (int j = 0; j < getNumberOfElements(); j++) {
+			// check eccentricity
+			if (depth <= eccentricity)
+				return root;
+			eccentricity = depth;
+			root = next;
+		}
+	}
 
-				// get element and its nodes
-				Element e = getElement(j);
-				Node[] nodes = e.getNodes();
+	/**
+	 * Sorts node indices by ascending degree. Nodes of equal degree keep their
+	 * relative order.
+	 * 
+	 * @param nodes
+	 *            Node indices to be sorted.
+	 * @param degree
+	 *            Node degrees.
+	 */
+	private void sortByDegree(int[] nodes, final int[] degree) {
+		Integer[] sorted = new Integer[nodes.length];
+		for (int i = 0; i < nodes.length; i++)
+			sorted[i] = nodes[i];
+		Arrays.sort(sorted, new Comparator<Integer>() {
+			public int compare(Integer arg0, Integer arg1) {
+				return degree[arg0] - degree[arg1];
+			}
+		});
+		for (int i = 0; i < nodes.length; i++)
+			nodes[i] = sorted[i];
+	}
 
-				// loop over nodes of element
-				for (int k = 0; k < nodes.length; k++) {
+	/**
+	 * Checks whether any duplicate nodes exist.
+	 * 
+	 * @return True if there exists duplicate nodes, False vice versa.
+	 */
+	private boolean checkDuplicateNodes() {
+		return getDuplicateNodes(tolerance_).isEmpty();
+	}
 
-					// element contains node
-					if (nodes[k].equals(node)) {
-						m++;
-						break;
-					}
-				}
+	/**
+	 * Checks whether any duplicate elements exist.
+	 * 
+	 * @return True if there exists duplicate elements, False vice versa.
+	 */
+	private boolean checkDuplicateElements() {
+		return getDuplicateElements().isEmpty();
+	}
 
-				// check node's connection
-				if (m > 0)
-					break;
-			}
+	/**
+	 * Checks whether any unused nodes exist.
+	 * 
+	 * @return True if there exists unused nodes, False vice versa.
+	 */
+	private boolean checkUnusedNodes() {
+		return getUnusedNodes().isEmpty();
+	}
 
-			// check node's connection
-			if (m == 0)
-				return false;
+	/**
+	 * Returns the indices of nodes of structure. The indices are cached until
+	 * the nodes of structure are modified.
+	 * 
+	 * @return Map of nodes to their indices.
+	 */
+	private IdentityHashMap<Node, Integer> getNodeIndices() {
+		if (nodeIndices_ == null) {
+			nodeIndices_ = new IdentityHashMap<Node, Integer>(nodes_.size());
+			for (int i = nodes_.size() - 1; i >= 0; i--)
+				nodeIndices_.put(nodes_.get(i), i);
 		}
+		return nodeIndices_;
+	}
 
-		// no unused nodes
-		return true;
+	/**
+	 * Clears cached node indices, element-node connectivity and distances.
+	 */
+	private void clearIndices() {
+		nodeIndices_ = null;
+		connectivity_ = null;
+		distances_ = null;
 	}
 
 	/**
@@ -732,4 +1428,43 @@ public class Structure implements Serializable {
 	private void exceptionHandler(String message) {
 		throw new IllegalArgumentException(message);
 	}
+
+	/**
+	 * Class for identifying elements by their type and sorted node indices.
+	 * 
+	 */
+	private static class ElementKey {
+
+		/** Element type. */
+		private final int type_;
+
+		/** Sorted node indices of element. */
+		private final int[] nodes_;
+
+		/**
+		 * Creates element key.
+		 * 
+		 * @param type
+		 *            Element type.
+		 * @param nodes
+		 *            Sorted node indices of element.
+		 */
+		private ElementKey(int type, int[] nodes) {
+			type_ = type;
+			nodes_ = nodes;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof ElementKey == false)
+				return false;
+			ElementKey key = (ElementKey) obj;
+			return type_ == key.type_ && Arrays.equals(nodes_, key.nodes_);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * type_ + Arrays.hashCode(nodes_);
+		}
+	}
 }
@@ -16,6 +16,7 @@
 package element;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Vector;
 
 import section.Section;
@@ -439,49 +440,87 @@ public abstract class Element implements Serializable {
 	 */
 	public DMat getStiffnessMatrix(int coord) {
 
-		// get the node number of element
-		Node[] nodes = getNodes();
-		int nn = nodes.length;
+		// compute general element stiffness matrix into array
+		int n = 6 * getNodes().length;
+		double[] k = new double[n * n];
+		getStiffnessMatrix(coord, k);
+
+		// create matrix
+		DMat kg = new DMat(n, n);
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < n; j++)
+				kg.set(i, j, k[i * n + j]);
+		return kg;
+	}
 
-		// create element dof array
+	/**
+	 * Computes element stiffness matrix into given array. The array is filled
+	 * with the general (6nn x 6nn, nn being the number of nodes) stiffness
+	 * matrix in row-major order. Elements providing an array kernel (see
+	 * computeStiffnessMatrix(double[]) method) are computed without creating
+	 * temporary matrices.
+	 * 
+	 * @param coord
+	 *            Demanded coordinate system denoting either global or node
+	 *            local.
+	 * @param k
+	 *            Array to store the stiffness matrix. It must have at least
+	 *            (6nn)^2 components.
+	 */
+	public void getStiffnessMatrix(int coord, double[] k) {
+
+		// get number of general and element dofs
+		int nn = getNodes().length;
+		int n = 6 * nn;
 		int[] edof = getDofArray(Element.global_);
-		int[] dof = new int[nn * edof.length];
-		int k = 0;
-		for (int i = 0; i < nn; i++) {
-			for (int j = 0; j < edof.length; j++) {
-				dof[k] = edof[j] + 6 * i;
-				k++;
-			}
+		int m = edof.length;
+		int ne = m * nn;
+
+		// compute element stiffness matrix into leading components of array
+		Arrays.fill(k, 0, n * n, 0.0);
+		if (computeStiffnessMatrix(k) == false) {
+			DMat ke = computeStiffnessMatrix();
+			for (int i = 0; i < ne; i++)
+				for (int j = 0; j < ne; j++)
+					k[i * ne + j] = ke.get(i, j);
 		}
 
-		// create general element stiffness matrix
-		DMat kg = new DMat(6 * nn, 6 * nn);
-
-		// compute element stiffness matrix
-		DMat ke = computeStiffnessMatrix();
-
-		// store components into general stiffness matrix
-		for (int i = 0; i < ke.rowCount(); i++) {
-			for (int j = 0; j < ke.columnCount(); j++)
-				kg.set(dof[i], dof[j], ke.get(i, j));
+		// move components to general positions (starting from the last
+		// component, since general positions are never before element
+		// positions)
+		for (int i = ne - 1; i >= 0; i--) {
+			int row = (edof[i % m] + 6 * (i / m)) * n;
+			for (int j = ne - 1; j >= 0; j--) {
+				int from = i * ne + j;
+				int to = row + edof[j % m] + 6 * (j / m);
+				if (to != from) {
+					k[to] = k[from];
+					k[from] = 0.0;
+				}
+			}
 		}
 
 		// add spring stiffness matrix if there is spring
-		if (springs_ != null)
-			if (springs_.size() != 0)
-				kg = kg.add(computeSpringStiffnessMatrix());
-
-		// return if in global coordinates is demanded
-		if (coord == Element.global_)
-			return kg;
+		if (springs_ != null) {
+			if (springs_.size() != 0) {
+				DMat ks = computeSpringStiffnessMatrix();
+				for (int i = 0; i < n; i++)
+					for (int j = 0; j < n; j++)
+						k[i * n + j] += ks.get(i, j);
+			}
+		}
 
 		// transform general stiffness matrix to nodal local system
-		DMat tr = setupNodalTransformation();
-		return kg.transform(tr, DMat.toLocal_);
+		if (coord == Element.local_)
+			transformToLocal(k, n);
 	}
 
 	/**
-	 * Returns lumped element mass matrix.
+	 * Returns lumped element mass matrix. The matrix is lumped by scaling its
+	 * diagonal (Hinton-Rock-Zienkiewicz lumping), so that lumped masses are
+	 * positive even where row sums of the consistent matrix are not (e.g.
+	 * higher order elements). The total translational and rotational masses
+	 * of element are kept.
 	 * 
 	 * @param coord
 	 *            Demanded coordinate system denoting either global or node
@@ -521,16 +560,54 @@ public abstract class Element implements Serializable {
 			if (masses_.size() != 0)
 				mg = mg.add(computeAdditionalMassMatrix());
 
-		// return if in global coordinates is demanded
-		if (coord == Element.global_)
-			return mg.lump();
+		// compute lumping factors
+		double[] factors = getLumpingFactors(mg);
 
 		// transform general mass matrix to nodal local system
-		DMat tr = setupNodalTransformation();
-		mg = mg.transform(tr, DMat.toLocal_);
+		if (coord == Element.local_) {
+			DMat tr = setupNodalTransformation();
+			mg = mg.transform(tr, DMat.toLocal_);
+		}
 
 		// return lumped mass matrix
-		return mg.lump();
+		int n = mg.rowCount();
+		DMat ml = new DMat(n, n);
+		for (int i = 0; i < n; i++)
+			ml.set(i, i, factors[(i % 6) / 3] * mg.get(i, i));
+		return ml;
+	}
+
+	/**
+	 * Returns the factors scaling the diagonal of general mass matrix to the
+	 * total translational and rotational masses of element. The total mass of
+	 * each direction is the sum of the components coupling the dofs of that
+	 * direction. Since the sums of diagonal components are taken over
+	 * all directions, the factors also apply to the diagonal of the matrix in
+	 * nodal local systems.
+	 * 
+	 * @param mg
+	 *            The general mass matrix in global coordinates.
+	 * @return Array storing the factors of translational and rotational dofs.
+	 */
+	private static double[] getLumpingFactors(DMat mg) {
+
+		// sum total masses and diagonal components
+		int nn = mg.rowCount() / 6;
+		double[] total = new double[2], diagonal = new double[2];
+		for (int j = 0; j < 6; j++) {
+			for (int a = 0; a < nn; a++) {
+				diagonal[j / 3] += mg.get(6 * a + j, 6 * a + j);
+				for (int b = 0; b < nn; b++)
+					total[j / 3] += mg.get(6 * a + j, 6 * b + j);
+			}
+		}
+
+		// compute factors
+		double[] factors = new double[2];
+		for (int i = 0; i < 2; i++)
+			if (diagonal[i] != 0.0)
+				factors[i] = total[i] / diagonal[i];
+		return factors;
 	}
 
 	/**
@@ -784,6 +861,89 @@ public abstract class Element implements Serializable {
 		return getVolume() * getMaterial().getVolumeWeight();
 	}
 
+	/**
+	 * Returns the state of element. The state stores the objects and values
+	 * which element matrices and load vectors depend on (material, section,
+	 * nodes, loads, springs, parameters and boundary cases). Element matrices
+	 * computed before are valid as long as the state of element is the same
+	 * (see {@link #isSameState(Object[], Object[])}).
+	 * 
+	 * @return The state of element.
+	 */
+	public Object[] getState() {
+		Vector<Object> state = new Vector<Object>();
+		addState(state);
+		return state.toArray();
+	}
+
+	/**
+	 * Returns true if the given states of element are the same. Double arrays
+	 * of states are compared by value, object arrays by the identities of
+	 * their components, and other objects by identity.
+	 * 
+	 * @param state1
+	 *            The first state.
+	 * @param state2
+	 *            The second state.
+	 * @return True if the states are the same, False vice versa.
+	 */
+	public static boolean isSameState(Object[] state1, Object[] state2) {
+
+		// check lengths
+		if (state1 == null || state2 == null || state1.length != state2.length)
+			return false;
+
+		// compare components
+		for (int i = 0; i < state1.length; i++) {
+			Object o1 = state1[i], o2 = state2[i];
+			if (o1 instanceof double[] && o2 instanceof double[]) {
+				if (Arrays.equals((double[]) o1, (double[]) o2) == false)
+					return false;
+			} else if (o1 instanceof Object[] && o2 instanceof Object[]) {
+				Object[] a1 = (Object[]) o1, a2 = (Object[]) o2;
+				if (a1.length != a2.length)
+					return false;
+				for (int j = 0; j < a1.length; j++)
+					if (a1[j] != a2[j])
+						return false;
+			} else if (o1 != o2)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Adds the objects and values which element matrices depend on to the
+	 * given state. Objects are added by reference, and values as copied double
+	 * arrays.
+	 * 
+	 * @param state
+	 *            The state of element.
+	 */
+	protected void addState(Vector<Object> state) {
+
+		// material, section and parameters
+		state.add(material_);
+		state.add(section_);
+		state.add(param_ == null ? null : param_.clone());
+
+		// loads, springs and boundary cases
+		state.add(mechLoads_ == null ? null : mechLoads_.toArray());
+		state.add(tempLoads_ == null ? null : tempLoads_.toArray());
+		state.add(springs_ == null ? null : springs_.toArray());
+		state.add(bCases_ == null ? null : bCases_.toArray());
+		state.add(bScales_ == null ? null : bScales_.clone());
+
+		// nodes
+		Node[] nodes = getNodes();
+		for (int i = 0; i < nodes.length; i++) {
+			state.add(nodes[i]);
+			state.add(nodes[i].getTransformationData());
+			state.add(new double[] { nodes[i].getPosition(0),
+					nodes[i].getPosition(1), nodes[i].getPosition(2) });
+		}
+	}
+
 	/** Returns the volume of element. */
 	public abstract double getVolume();
 
@@ -824,6 +984,21 @@ public abstract class Element implements Serializable {
 	/** Computes element stiffness matrix. */
 	protected abstract DMat computeStiffnessMatrix();
 
+	/**
+	 * Computes element stiffness matrix into given array without creating
+	 * temporary matrices. The matrix is stored in row-major order, in element
+	 * dofs. Elements which don't provide such a kernel return false, and are
+	 * computed by computeStiffnessMatrix() method instead.
+	 * 
+	 * @param k
+	 *            Array to store the element stiffness matrix. It is zero on
+	 *            entry.
+	 * @return True if the matrix is computed.
+	 */
+	protected boolean computeStiffnessMatrix(double[] k) {
+		return false;
+	}
+
 	/** Computes element mass matrix. */
 	protected abstract DMat computeMassMatrix();
 
@@ -892,6 +1067,76 @@ public abstract class Element implements Serializable {
 		throw new IllegalArgumentException(message);
 	}
 
+	/**
+	 * Transforms general element matrix stored in row-major order to nodal
+	 * local system (A = T * A * T(Transpose)). Nodes having the default
+	 * transformation and zero parts of the matrix are skipped.
+	 * 
+	 * @param a
+	 *            The general element matrix.
+	 * @param n
+	 *            The dimension of matrix.
+	 */
+	private void transformToLocal(double[] a, int n) {
+
+		// loop over nodes with customized transformation
+		Node[] nodes = getNodes();
+		double[] x = new double[6];
+		for (int i = 0; i < nodes.length; i++) {
+			double[][] t = nodes[i].getTransformationData();
+			if (t == null)
+				continue;
+
+			// transform rows of node (A = T * A)
+			for (int col = 0; col < n; col++) {
+				if (gather(a, 6 * i * n + col, n, x) == false)
+					continue;
+				for (int r = 0; r < 6; r++) {
+					double sum = 0.0;
+					for (int s = 0; s < 6; s++)
+						sum += t[r][s] * x[s];
+					a[(6 * i + r) * n + col] = sum;
+				}
+			}
+
+			// transform columns of node (A = A * T(Transpose))
+			for (int row = 0; row < n; row++) {
+				if (gather(a, row * n + 6 * i, 1, x) == false)
+					continue;
+				for (int r = 0; r < 6; r++) {
+					double sum = 0.0;
+					for (int s = 0; s < 6; s++)
+						sum += x[s] * t[r][s];
+					a[row * n + 6 * i + r] = sum;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copies 6 components of given array into given vector.
+	 * 
+	 * @param a
+	 *            The array.
+	 * @param first
+	 *            Index of first component.
+	 * @param stride
+	 *            Distance between components.
+	 * @param x
+	 *            The vector.
+	 * @return False if all components are zero.
+	 */
+	private static boolean gather(double[] a, int first, int stride,
+			double[] x) {
+		boolean nonZero = false;
+		for (int s = 0; s < 6; s++) {
+			x[s] = a[first + s * stride];
+			if (x[s] != 0.0)
+				nonZero = true;
+		}
+		return nonZero;
+	}
+
 	/**
 	 * Sets up and returns nodal transformation matrix.
 	 * 
@@ -85,6 +85,19 @@ public abstract class Element1D extends Element {
 		return localAxis_;
 	}
 
+	/**
+	 * Adds the objects and values which element matrices depend on to the
+	 * given state, including the local axis of element.
+	 * 
+	 * @param state
+	 *            The state of element.
+	 */
+	protected void addState(Vector<Object> state) {
+		super.addState(state);
+		state.add(localAxis_);
+		state.add(new double[] { axialRotation_ });
+	}
+
 	/**
 	 * Returns length of element.
 	 * 
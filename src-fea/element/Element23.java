@@ -41,6 +41,9 @@ public class Element23 extends Element3D {
 
 	private static final long serialVersionUID = 1L;
 
+	/** Integration points of stiffness matrix. */
+	private static final double[] stiffnessPoints_ = getHexahedralPoints(3);
+
 	/** The nodes of element. */
 	private Node[] nodes_ = new Node[20];
 
@@ -463,6 +466,18 @@ public class Element23 extends Element3D {
 		return kLocal;
 	}
 
+	/**
+	 * Computes element stiffness matrix into given array.
+	 * 
+	 * @param k
+	 *            Array to store the element stiffness matrix.
+	 * @return True.
+	 */
+	protected boolean computeStiffnessMatrix(double[] k) {
+		integrateStiffness(stiffnessPoints_, k);
+		return true;
+	}
+
 	/**
 	 * Retuns element mass matrix.
 	 * 
@@ -18,6 +18,7 @@ package element;
 import java.util.Vector;
 
 import boundary.ElementMechLoad;
+import material.Material;
 import math.GaussQuadrature;
 import math.Interpolation3D;
 import matrix.DMat;
@@ -835,6 +836,233 @@ public abstract class Element3D extends Element {
 		return inStress.scale(-1.0);
 	}
 
+	/**
+	 * Integrates element stiffness matrix (B(Transpose) * C * B) into given
+	 * array in row-major order, without creating temporary matrices. Only the
+	 * upper triangle is integrated, the lower triangle is set by symmetry.
+	 * 
+	 * @param points
+	 *            Integration points, each given by 3 natural coordinates and
+	 *            the weight factor.
+	 * @param k
+	 *            Array to store the element stiffness matrix. It is zero on
+	 *            entry.
+	 */
+	protected void integrateStiffness(double[] points, double[] k) {
+
+		// get material matrix
+		DMat cm = getMaterial().getC(Material.threeD_);
+		double[] c = new double[36];
+		for (int i = 0; i < 6; i++)
+			for (int j = 0; j < 6; j++)
+				c[6 * i + j] = cm.get(i, j);
+
+		// get nodal coordinates
+		Node[] nodes = getNodes();
+		int nn = nodes.length;
+		double[] xyz = new double[3 * nn];
+		for (int i = 0; i < nn; i++)
+			for (int j = 0; j < 3; j++)
+				xyz[3 * i + j] = nodes[i].getPosition(j);
+
+		// loop over integration points
+		Interpolation3D intF = getInterpolation();
+		double[] work = new double[21 * nn];
+		for (int p = 0; p < points.length; p += 4)
+			addStiffness(intF, points[p], points[p + 1], points[p + 2],
+					points[p + 3], c, xyz, work, k);
+
+		// set lower triangle
+		int n = 3 * nn;
+		for (int i = 1; i < n; i++)
+			for (int j = 0; j < i; j++)
+				k[i * n + j] = k[j * n + i];
+	}
+
+	/**
+	 * Returns the integration points of Gauss quadrature over hexahedral
+	 * geometry.
+	 * 
+	 * @param nog
+	 *            Number of Gauss points in each direction.
+	 * @return Integration points, each given by 3 natural coordinates and the
+	 *         weight factor.
+	 */
+	protected static double[] getHexahedralPoints(int nog) {
+
+		// create quadrature
+		GaussQuadrature q = new GaussQuadrature(nog,
+				GaussQuadrature.threeDimensional_);
+		q.setGeometry(GaussQuadrature.cube_);
+
+		// loop over Gauss points
+		double[] points = new double[4 * nog * nog * nog];
+		int m = 0;
+		for (int i = 0; i < nog; i++) {
+			for (int j = 0; j < nog; j++) {
+				for (int k = 0; k < nog; k++) {
+					points[m++] = q.getSupport1(i);
+					points[m++] = q.getSupport2(j);
+					points[m++] = q.getSupport3(k);
+					points[m++] = q.getWeight(i) * q.getWeight(j)
+							* q.getWeight(k);
+				}
+			}
+		}
+		return points;
+	}
+
+	/**
+	 * Returns the integration points of Gauss quadrature over tetrahedral
+	 * geometry (collapsed from the cube).
+	 * 
+	 * @param nog
+	 *            Number of Gauss points in each direction.
+	 * @return Integration points, each given by 3 natural coordinates and the
+	 *         weight factor.
+	 */
+	protected static double[] getTetrahedralPoints(int nog) {
+
+		// create quadrature
+		GaussQuadrature q = new GaussQuadrature(nog,
+				GaussQuadrature.threeDimensional_);
+		q.setGeometry(GaussQuadrature.tetrahedral_);
+
+		// loop over Gauss points
+		double[] points = new double[4 * nog * nog * nog];
+		int m = 0;
+		for (int i = 0; i < nog; i++) {
+			for (int j = 0; j < nog; j++) {
+				for (int k = 0; k < nog; k++) {
+					double supp1 = q.getSupport1(i);
+					double supp2 = q.getSupport2(j);
+					double supp3 = q.getSupport3(k);
+					double cm = q.getWeight(i) * q.getWeight(j)
+							* q.getWeight(k) / 64.0;
+					cm *= Math.pow(1.0 - supp1, 2.0) * (1.0 - supp2);
+					points[m++] = (1.0 + supp1) / 2.0;
+					points[m++] = (1.0 - supp1) * (1.0 + supp2) / 4.0;
+					points[m++] = (1.0 - supp1) * (1.0 - supp2)
+							* (1 + supp3) / 8.0;
+					points[m++] = cm;
+				}
+			}
+		}
+		return points;
+	}
+
+	/**
+	 * Adds B(Transpose) * C * B * w * det(J) at given point to the upper
+	 * triangle of element stiffness matrix.
+	 * 
+	 * @param intF
+	 *            Interpolation of element.
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param eps3
+	 *            Natural coordinate-3.
+	 * @param w
+	 *            Weight factor.
+	 * @param c
+	 *            Material matrix in row-major order.
+	 * @param xyz
+	 *            Nodal coordinates.
+	 * @param work
+	 *            Workspace of at least 21nn components.
+	 * @param k
+	 *            Element stiffness matrix in row-major order.
+	 */
+	private void addStiffness(Interpolation3D intF, double eps1, double eps2,
+			double eps3, double w, double[] c, double[] xyz, double[] work,
+			double[] k) {
+
+		// compute derivatives with respect to natural coordinates and jacobian
+		int nn = xyz.length / 3;
+		double j00 = 0.0, j01 = 0.0, j02 = 0.0, j10 = 0.0, j11 = 0.0, j12 = 0.0;
+		double j20 = 0.0, j21 = 0.0, j22 = 0.0;
+		for (int i = 0; i < nn; i++) {
+			double der1 = intF.getDer1Function(eps1, eps2, eps3, i);
+			double der2 = intF.getDer2Function(eps1, eps2, eps3, i);
+			double der3 = intF.getDer3Function(eps1, eps2, eps3, i);
+			double x = xyz[3 * i], y = xyz[3 * i + 1], z = xyz[3 * i + 2];
+			j00 += x * der1;
+			j01 += y * der1;
+			j02 += z * der1;
+			j10 += x * der2;
+			j11 += y * der2;
+			j12 += z * der2;
+			j20 += x * der3;
+			j21 += y * der3;
+			j22 += z * der3;
+			work[3 * i] = der1;
+			work[3 * i + 1] = der2;
+			work[3 * i + 2] = der3;
+		}
+
+		// compute determinant and inverse of jacobian
+		double det = j00 * (j11 * j22 - j12 * j21) - j01
+				* (j10 * j22 - j12 * j20) + j02 * (j10 * j21 - j11 * j20);
+		double i00 = (j11 * j22 - j12 * j21) / det;
+		double i01 = (j02 * j21 - j01 * j22) / det;
+		double i02 = (j01 * j12 - j02 * j11) / det;
+		double i10 = (j12 * j20 - j10 * j22) / det;
+		double i11 = (j00 * j22 - j02 * j20) / det;
+		double i12 = (j02 * j10 - j00 * j12) / det;
+		double i20 = (j10 * j21 - j11 * j20) / det;
+		double i21 = (j01 * j20 - j00 * j21) / det;
+		double i22 = (j00 * j11 - j01 * j10) / det;
+
+		// loop over nodes
+		int cb = 3 * nn;
+		for (int i = 0; i < nn; i++) {
+
+			// compute derivatives with respect to cartesian coordinates
+			double der1 = work[3 * i], der2 = work[3 * i + 1];
+			double der3 = work[3 * i + 2];
+			double g1 = i00 * der1 + i01 * der2 + i02 * der3;
+			double g2 = i10 * der1 + i11 * der2 + i12 * der3;
+			double g3 = i20 * der1 + i21 * der2 + i22 * der3;
+			work[3 * i] = g1;
+			work[3 * i + 1] = g2;
+			work[3 * i + 2] = g3;
+
+			// compute nodal C * B (6 x 3)
+			for (int r = 0; r < 6; r++) {
+				int l = cb + 18 * i + 3 * r;
+				work[l] = c[6 * r] * g1 + c[6 * r + 4] * g3 + c[6 * r + 5]
+						* g2;
+				work[l + 1] = c[6 * r + 1] * g2 + c[6 * r + 3] * g3
+						+ c[6 * r + 5] * g1;
+				work[l + 2] = c[6 * r + 2] * g3 + c[6 * r + 3] * g2
+						+ c[6 * r + 4] * g1;
+			}
+		}
+
+		// add nodal blocks B(Transpose) * C * B of upper triangle
+		double f = w * det;
+		int n = 3 * nn;
+		for (int a = 0; a < nn; a++) {
+			double g1 = f * work[3 * a], g2 = f * work[3 * a + 1];
+			double g3 = f * work[3 * a + 2];
+			for (int b = a; b < nn; b++) {
+				int l = cb + 18 * b;
+				for (int q = 0; q < 3; q++) {
+					double cb0 = work[l + q], cb1 = work[l + 3 + q];
+					double cb2 = work[l + 6 + q], cb3 = work[l + 9 + q];
+					double cb4 = work[l + 12 + q], cb5 = work[l + 15 + q];
+					int col = 3 * b + q;
+					k[3 * a * n + col] += g1 * cb0 + g3 * cb4 + g2 * cb5;
+					k[(3 * a + 1) * n + col] += g2 * cb1 + g3 * cb3 + g1
+							* cb5;
+					k[(3 * a + 2) * n + col] += g3 * cb2 + g2 * cb3 + g1
+							* cb4;
+				}
+			}
+		}
+	}
+
 	/** Returns the interpolation of element. */
 	protected abstract Interpolation3D getInterpolation();
 }
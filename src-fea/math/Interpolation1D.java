@@ -35,6 +35,15 @@ public class Interpolation1D {
 	/** The degree of interpolation function. */
 	private int degree_;
 
+	/** Tabulations of interpolation functions at Gauss points. */
+	private static final Tabulation[] tables_ = tabulate();
+
+	/** Natural coordinate of the last demanded point. */
+	private double eps1_ = Double.NaN;
+
+	/** Tabulated values at the last demanded point. */
+	private double[][] values_;
+
 	/**
 	 * Cretaes one dimensional interpolation function.
 	 * 
@@ -76,6 +85,15 @@ public class Interpolation1D {
 		return family_;
 	}
 
+	/**
+	 * Returns the number of interpolation functions.
+	 * 
+	 * @return The number of interpolation functions.
+	 */
+	public int getNumberOfFunctions() {
+		return degree_ + 1;
+	}
+
 	/**
 	 * Returns the value of interpolation function.
 	 * 
@@ -87,6 +105,26 @@ public class Interpolation1D {
 	 */
 	public double getFunction(double eps1, int index) {
 
+		// get tabulated value
+		double[][] values = getValues(eps1, index);
+		if (values != null)
+			return values[0][index];
+
+		// compute value
+		return computeFunction(eps1, index);
+	}
+
+	/**
+	 * Computes the value of interpolation function.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The value of interpolation function.
+	 */
+	private double computeFunction(double eps1, int index) {
+
 		// lagrange family
 		if (family_ == Interpolation1D.lagrange_) {
 
@@ -140,6 +178,26 @@ public class Interpolation1D {
 	 */
 	public double getDerFunction(double eps1, int index) {
 
+		// get tabulated value
+		double[][] values = getValues(eps1, index);
+		if (values != null)
+			return values[1][index];
+
+		// compute value
+		return computeDerFunction(eps1, index);
+	}
+
+	/**
+	 * Computes the value of derivative of interpolation function.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The value of derivative of interpolation function.
+	 */
+	private double computeDerFunction(double eps1, int index) {
+
 		// lagrange family
 		if (family_ == Interpolation1D.lagrange_) {
 
@@ -182,6 +240,65 @@ public class Interpolation1D {
 		return 0.0;
 	}
 
+	/**
+	 * Returns the tabulated values of interpolation functions and their
+	 * derivatives at given point, or null if the point is not tabulated.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The tabulated values, or null.
+	 */
+	private double[][] getValues(double eps1, int index) {
+
+		// illegal indices are handled by computation
+		if (index < 0 || index >= getNumberOfFunctions())
+			return null;
+
+		// look up point if it differs from the last demanded point
+		if (eps1 != eps1_) {
+			values_ = tables_[degree_].get(eps1, 0.0, 0.0);
+			eps1_ = eps1;
+		}
+		return values_;
+	}
+
+	/**
+	 * Tabulates interpolation functions and their derivatives at the
+	 * supporting points of all Gauss quadrature rules.
+	 * 
+	 * @return The tabulations for each degree.
+	 */
+	private static Tabulation[] tabulate() {
+
+		// loop over degrees
+		Tabulation[] tables = new Tabulation[4];
+		for (int degree = 1; degree < 4; degree++) {
+			Interpolation1D f = new Interpolation1D(lagrange_, degree);
+			int n = f.getNumberOfFunctions();
+			tables[degree] = new Tabulation();
+
+			// loop over quadrature rules and their points
+			for (int nOGP = 1; nOGP <= 4; nOGP++) {
+				double[][] points = Tabulation.getPoints(nOGP,
+						GaussQuadrature.oneDimensional_, 0);
+				for (int i = 0; i < points.length; i++) {
+
+					// compute values at point
+					double eps1 = points[i][0];
+					double[][] values = new double[2][n];
+					for (int j = 0; j < n; j++) {
+						values[0][j] = f.computeFunction(eps1, j);
+						values[1][j] = f.computeDerFunction(eps1, j);
+					}
+					tables[degree].put(eps1, 0.0, 0.0, values);
+				}
+			}
+		}
+		return tables;
+	}
+
 	/**
 	 * Throws exception with the related message.
 	 * 
@@ -35,6 +35,15 @@ public class Interpolation2D {
 	/** The degree of interpolation function. */
 	private int geometry_;
 
+	/** Tabulations of interpolation functions at Gauss points. */
+	private static final Tabulation[][] tables_ = tabulate();
+
+	/** Natural coordinates of the last demanded point. */
+	private double eps1_ = Double.NaN, eps2_ = Double.NaN;
+
+	/** Tabulated values at the last demanded point. */
+	private double[][] values_;
+
 	/**
 	 * Creates two dimensional interpolation function.
 	 * 
@@ -78,6 +87,17 @@ public class Interpolation2D {
 		return geometry_;
 	}
 
+	/**
+	 * Returns the number of interpolation functions.
+	 * 
+	 * @return The number of interpolation functions.
+	 */
+	public int getNumberOfFunctions() {
+		if (geometry_ == Interpolation2D.quadrangular_)
+			return 4 * degree_;
+		return 3 * degree_;
+	}
+
 	/**
 	 * Returns the value of interpolation function.
 	 * 
@@ -91,6 +111,28 @@ public class Interpolation2D {
 	 */
 	public double getFunction(double eps1, double eps2, int index) {
 
+		// get tabulated value
+		double[][] values = getValues(eps1, eps2, index);
+		if (values != null)
+			return values[0][index];
+
+		// compute value
+		return computeFunction(eps1, eps2, index);
+	}
+
+	/**
+	 * Computes the value of interpolation function.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The value of interpolation function.
+	 */
+	private double computeFunction(double eps1, double eps2, int index) {
+
 		// quadrangular geometry
 		if (geometry_ == Interpolation2D.quadrangular_) {
 
@@ -224,6 +266,30 @@ public class Interpolation2D {
 	 */
 	public double getDer1Function(double eps1, double eps2, int index) {
 
+		// get tabulated value
+		double[][] values = getValues(eps1, eps2, index);
+		if (values != null)
+			return values[1][index];
+
+		// compute value
+		return computeDer1Function(eps1, eps2, index);
+	}
+
+	/**
+	 * Computes the value of derivative of interpolation function with respect
+	 * to natural coordinate-1.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The value of derivative of interpolation function with respect to
+	 *         natural coordinate-1.
+	 */
+	private double computeDer1Function(double eps1, double eps2, int index) {
+
 		// quadrangular geometry
 		if (geometry_ == Interpolation2D.quadrangular_) {
 
@@ -361,6 +427,30 @@ public class Interpolation2D {
 	 */
 	public double getDer2Function(double eps1, double eps2, int index) {
 
+		// get tabulated value
+		double[][] values = getValues(eps1, eps2, index);
+		if (values != null)
+			return values[2][index];
+
+		// compute value
+		return computeDer2Function(eps1, eps2, index);
+	}
+
+	/**
+	 * Computes the value of derivative of interpolation function with respect
+	 * to natural coordinate-2.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The value of derivative of interpolation function with respect to
+	 *         natural coordinate-2.
+	 */
+	private double computeDer2Function(double eps1, double eps2, int index) {
+
 		// quadrangular geometry
 		if (geometry_ == Interpolation2D.quadrangular_) {
 
@@ -483,6 +573,75 @@ public class Interpolation2D {
 		return 0.0;
 	}
 
+	/**
+	 * Returns the tabulated values of interpolation functions and their
+	 * derivatives at given point, or null if the point is not tabulated.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The tabulated values, or null.
+	 */
+	private double[][] getValues(double eps1, double eps2, int index) {
+
+		// illegal indices are handled by computation
+		if (index < 0 || index >= getNumberOfFunctions())
+			return null;
+
+		// look up point if it differs from the last demanded point
+		if (eps1 != eps1_ || eps2 != eps2_) {
+			values_ = tables_[geometry_][degree_].get(eps1, eps2, 0.0);
+			eps1_ = eps1;
+			eps2_ = eps2;
+		}
+		return values_;
+	}
+
+	/**
+	 * Tabulates interpolation functions and their derivatives at the
+	 * supporting points of all Gauss quadrature rules.
+	 * 
+	 * @return The tabulations for each geometry and degree.
+	 */
+	private static Tabulation[][] tabulate() {
+
+		// quadrature rules of each geometry
+		int[][] rules = { { 1, 2, 3, 4, 5, 6, 7, 8 }, { 1, 3, 4, 7 } };
+
+		// loop over geometries and degrees
+		Tabulation[][] tables = new Tabulation[2][4];
+		for (int geometry = 0; geometry < 2; geometry++) {
+			for (int degree = 1; degree < 4 - geometry; degree++) {
+				Interpolation2D f = new Interpolation2D(degree, geometry);
+				int n = f.getNumberOfFunctions();
+				tables[geometry][degree] = new Tabulation();
+
+				// loop over quadrature rules and their points
+				for (int r = 0; r < rules[geometry].length; r++) {
+					double[][] points = Tabulation.getPoints(
+							rules[geometry][r],
+							GaussQuadrature.twoDimensional_, geometry);
+					for (int i = 0; i < points.length; i++) {
+
+						// compute values at point
+						double[] p = points[i];
+						double[][] values = new double[3][n];
+						for (int j = 0; j < n; j++) {
+							values[0][j] = f.computeFunction(p[0], p[1], j);
+							values[1][j] = f.computeDer1Function(p[0], p[1], j);
+							values[2][j] = f.computeDer2Function(p[0], p[1], j);
+						}
+						tables[geometry][degree].put(p[0], p[1], 0.0, values);
+					}
+				}
+			}
+		}
+		return tables;
+	}
+
 	/**
 	 * Throws exception with the related message.
 	 * 
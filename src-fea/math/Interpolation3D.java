@@ -35,6 +35,15 @@ public class Interpolation3D {
 	/** The degree of interpolation function. */
 	private int geometry_;
 
+	/** Tabulations of interpolation functions at Gauss points. */
+	private static final Tabulation[][] tables_ = tabulate();
+
+	/** Natural coordinates of the last demanded point. */
+	private double eps1_ = Double.NaN, eps2_ = Double.NaN, eps3_ = Double.NaN;
+
+	/** Tabulated values at the last demanded point. */
+	private double[][] values_;
+
 	/**
 	 * Creates three dimensional interpolation function.
 	 * 
@@ -76,6 +85,17 @@ public class Interpolation3D {
 		return geometry_;
 	}
 
+	/**
+	 * Returns the number of interpolation functions.
+	 * 
+	 * @return The number of interpolation functions.
+	 */
+	public int getNumberOfFunctions() {
+		if (geometry_ == Interpolation3D.hexahedral_)
+			return degree_ == Interpolation3D.trilinear_ ? 8 : 20;
+		return degree_ == Interpolation3D.trilinear_ ? 4 : 10;
+	}
+
 	/**
 	 * Returns the value of interpolation function.
 	 * 
@@ -91,6 +111,31 @@ public class Interpolation3D {
 	 */
 	public double getFunction(double eps1, double eps2, double eps3, int index) {
 
+		// get tabulated value
+		double[][] values = getValues(eps1, eps2, eps3, index);
+		if (values != null)
+			return values[0][index];
+
+		// compute value
+		return computeFunction(eps1, eps2, eps3, index);
+	}
+
+	/**
+	 * Computes the value of interpolation function.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param eps3
+	 *            Natural coordinate-3.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The value of interpolation function.
+	 */
+	private double computeFunction(double eps1, double eps2, double eps3,
+			int index) {
+
 		// hexahedral geometry
 		if (geometry_ == Interpolation3D.hexahedral_) {
 
@@ -322,6 +367,33 @@ public class Interpolation3D {
 	public double getDer1Function(double eps1, double eps2, double eps3,
 			int index) {
 
+		// get tabulated value
+		double[][] values = getValues(eps1, eps2, eps3, index);
+		if (values != null)
+			return values[1][index];
+
+		// compute value
+		return computeDer1Function(eps1, eps2, eps3, index);
+	}
+
+	/**
+	 * Computes the value of derivative of interpolation function with respect
+	 * to natural coordinate-1.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param eps3
+	 *            Natural coordinate-3.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The value of derivative of interpolation function with respect to
+	 *         natural coordinate-1.
+	 */
+	private double computeDer1Function(double eps1, double eps2, double eps3,
+			int index) {
+
 		// hexahedral geometry
 		if (geometry_ == Interpolation3D.hexahedral_) {
 
@@ -502,6 +574,33 @@ public class Interpolation3D {
 	public double getDer2Function(double eps1, double eps2, double eps3,
 			int index) {
 
+		// get tabulated value
+		double[][] values = getValues(eps1, eps2, eps3, index);
+		if (values != null)
+			return values[2][index];
+
+		// compute value
+		return computeDer2Function(eps1, eps2, eps3, index);
+	}
+
+	/**
+	 * Computes the value of derivative of interpolation function with respect
+	 * to natural coordinate-2.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param eps3
+	 *            Natural coordinate-3.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The value of derivative of interpolation function with respect to
+	 *         natural coordinate-2.
+	 */
+	private double computeDer2Function(double eps1, double eps2, double eps3,
+			int index) {
+
 		// hexahedral geometry
 		if (geometry_ == Interpolation3D.hexahedral_) {
 
@@ -704,6 +803,33 @@ public class Interpolation3D {
 	public double getDer3Function(double eps1, double eps2, double eps3,
 			int index) {
 
+		// get tabulated value
+		double[][] values = getValues(eps1, eps2, eps3, index);
+		if (values != null)
+			return values[3][index];
+
+		// compute value
+		return computeDer3Function(eps1, eps2, eps3, index);
+	}
+
+	/**
+	 * Computes the value of derivative of interpolation function with respect
+	 * to natural coordinate-3.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param eps3
+	 *            Natural coordinate-3.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The value of derivative of interpolation function with respect to
+	 *         natural coordinate-3.
+	 */
+	private double computeDer3Function(double eps1, double eps2, double eps3,
+			int index) {
+
 		// hexahedral geometry
 		if (geometry_ == Interpolation3D.hexahedral_) {
 
@@ -878,6 +1004,80 @@ public class Interpolation3D {
 		return 0.0;
 	}
 
+	/**
+	 * Returns the tabulated values of interpolation functions and their
+	 * derivatives at given point, or null if the point is not tabulated.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param eps3
+	 *            Natural coordinate-3.
+	 * @param index
+	 *            The index of demanded function.
+	 * @return The tabulated values, or null.
+	 */
+	private double[][] getValues(double eps1, double eps2, double eps3,
+			int index) {
+
+		// illegal indices are handled by computation
+		if (index < 0 || index >= getNumberOfFunctions())
+			return null;
+
+		// look up point if it differs from the last demanded point
+		if (eps1 != eps1_ || eps2 != eps2_ || eps3 != eps3_) {
+			values_ = tables_[geometry_][degree_].get(eps1, eps2, eps3);
+			eps1_ = eps1;
+			eps2_ = eps2;
+			eps3_ = eps3;
+		}
+		return values_;
+	}
+
+	/**
+	 * Tabulates interpolation functions and their derivatives at the
+	 * supporting points of all Gauss quadrature rules.
+	 * 
+	 * @return The tabulations for each geometry and degree.
+	 */
+	private static Tabulation[][] tabulate() {
+
+		// loop over geometries and degrees
+		Tabulation[][] tables = new Tabulation[2][3];
+		for (int geometry = 0; geometry < 2; geometry++) {
+			for (int degree = 1; degree < 3; degree++) {
+				Interpolation3D f = new Interpolation3D(degree, geometry);
+				int n = f.getNumberOfFunctions();
+				tables[geometry][degree] = new Tabulation();
+
+				// loop over quadrature rules and their points
+				for (int nOGP = 1; nOGP <= 8; nOGP++) {
+					double[][] points = Tabulation.getPoints(nOGP,
+							GaussQuadrature.threeDimensional_, geometry);
+					for (int i = 0; i < points.length; i++) {
+
+						// compute values at point
+						double[] p = points[i];
+						double[][] values = new double[4][n];
+						for (int j = 0; j < n; j++) {
+							values[0][j] = f.computeFunction(p[0], p[1], p[2],
+									j);
+							values[1][j] = f.computeDer1Function(p[0], p[1],
+									p[2], j);
+							values[2][j] = f.computeDer2Function(p[0], p[1],
+									p[2], j);
+							values[3][j] = f.computeDer3Function(p[0], p[1],
+									p[2], j);
+						}
+						tables[geometry][degree].put(p[0], p[1], p[2], values);
+					}
+				}
+			}
+		}
+		return tables;
+	}
+
 	/**
 	 * Throws exception with the related message.
 	 * 
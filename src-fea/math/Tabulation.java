@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math;
+
+import java.util.HashMap;
+
+/**
+ * Class for tabulated values of interpolation functions and their derivatives
+ * at the supporting points of Gauss quadrature rules. Tabulations are filled
+ * once when the interpolation classes are loaded and are only read afterwards,
+ * so that they can be shared by all elements and threads.
+ * 
+ * @author Murat Artim
+ * 
+ */
+class Tabulation {
+
+	/** Tabulated values keyed by natural coordinates of points. */
+	private final HashMap<Point, double[][]> values_;
+
+	/**
+	 * Creates empty tabulation.
+	 */
+	protected Tabulation() {
+		values_ = new HashMap<Point, double[][]>();
+	}
+
+	/**
+	 * Stores tabulated values of given point.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param eps3
+	 *            Natural coordinate-3.
+	 * @param values
+	 *            Values of functions (first row) and their derivatives (other
+	 *            rows) at the point.
+	 */
+	protected void put(double eps1, double eps2, double eps3,
+			double[][] values) {
+		values_.put(new Point(eps1, eps2, eps3), values);
+	}
+
+	/**
+	 * Returns tabulated values of given point, or null if the point is not
+	 * tabulated.
+	 * 
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param eps3
+	 *            Natural coordinate-3.
+	 * @return Values of functions (first row) and their derivatives (other
+	 *         rows) at the point.
+	 */
+	protected double[][] get(double eps1, double eps2, double eps3) {
+		return values_.get(new Point(eps1, eps2, eps3));
+	}
+
+	/**
+	 * Returns the supporting points of given Gauss quadrature rule in all
+	 * combinations of directions.
+	 * 
+	 * @param nOGP
+	 *            Number of Gauss points (in one direction).
+	 * @param dimension
+	 *            The dimension of quadrature.
+	 * @param geometry
+	 *            The geometry of quadrature.
+	 * @return Natural coordinates of points.
+	 */
+	protected static double[][] getPoints(int nOGP, int dimension,
+			int geometry) {
+
+		// create quadrature
+		GaussQuadrature q = new GaussQuadrature(nOGP, dimension);
+		q.setGeometry(geometry);
+
+		// get supports in each direction (zero for missing directions)
+		int n2 = dimension >= GaussQuadrature.twoDimensional_ ? nOGP : 1;
+		int n3 = dimension == GaussQuadrature.threeDimensional_ ? nOGP : 1;
+		double[] supp1 = new double[nOGP];
+		double[] supp2 = new double[n2];
+		double[] supp3 = new double[n3];
+		for (int i = 0; i < nOGP; i++) {
+			supp1[i] = q.getSupport1(i);
+			if (dimension >= GaussQuadrature.twoDimensional_)
+				supp2[i] = q.getSupport2(i);
+			if (dimension == GaussQuadrature.threeDimensional_)
+				supp3[i] = q.getSupport3(i);
+		}
+
+		// combine supports
+		double[][] points = new double[nOGP * n2 * n3][];
+		int m = 0;
+		for (int i = 0; i < nOGP; i++)
+			for (int j = 0; j < n2; j++)
+				for (int k = 0; k < n3; k++)
+					points[m++] = new double[] { supp1[i], supp2[j],
+							supp3[k] };
+		return points;
+	}
+
+	/**
+	 * Class for natural coordinates of a point.
+	 * 
+	 */
+	private static class Point {
+
+		/** Bit patterns of natural coordinates. */
+		private final long eps1_, eps2_, eps3_;
+
+		/**
+		 * Creates point.
+		 * 
+		 * @param eps1
+		 *            Natural coordinate-1.
+		 * @param eps2
+		 *            Natural coordinate-2.
+		 * @param eps3
+		 *            Natural coordinate-3.
+		 */
+		private Point(double eps1, double eps2, double eps3) {
+			eps1_ = Double.doubleToLongBits(eps1);
+			eps2_ = Double.doubleToLongBits(eps2);
+			eps3_ = Double.doubleToLongBits(eps3);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof Point == false)
+				return false;
+			Point p = (Point) obj;
+			return eps1_ == p.eps1_ && eps2_ == p.eps2_ && eps3_ == p.eps3_;
+		}
+
+		@Override
+		public int hashCode() {
+			long h = eps1_ * 31 + eps2_;
+			h = h * 31 + eps3_;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package matrix;
+
+import java.util.Arrays;
+
+import no.uib.cipr.matrix.sparse.CompRowMatrix;
+
+/**
+ * Class for compressed-row-storage-square sparse matrix (CRS). The sparsity
+ * pattern is fixed at creation, so that memory grows with the number of
+ * non-zeros rather than with the bandwidth. Adding or setting entries only
+ * locates the slot of the entry within its row, without any allocation. Can be
+ * used for iterative solvers. This class uses an external library called "MTJ".
+ * 
+ * @author Murat Artim
+ */
+public class CSRMat extends SMat {
+
+	/** The CompRowMatrix object. */
+	public CompRowMatrix mat_;
+
+	/** Row pointers and column indices of the sparsity pattern. */
+	private int[] row_, col_;
+
+	/** Values of non-zero entries. */
+	private double[] data_;
+
+	/**
+	 * Creates sparse matrix from another sparse matrix.
+	 * 
+	 * @param arg0
+	 *            Sparse matrix.
+	 */
+	public CSRMat(CSRMat arg0) {
+		this(arg0.mat_.copy());
+	}
+
+	/**
+	 * Creates a new arg0 x arg0 sparse matrix with the given sparsity pattern.
+	 * 
+	 * @param arg0
+	 *            Number of rows.
+	 * @param arg1
+	 *            Sorted column indices of non-zero entries for each row.
+	 */
+	public CSRMat(int arg0, int[][] arg1) {
+		try {
+
+			// create CRS matrix
+			mat_ = new CompRowMatrix(arg0, arg0, arg1);
+			setPattern();
+		} catch (Exception excep) {
+			exceptionHandler("Matrix has illegal dimensions!");
+		}
+	}
+
+	/**
+	 * Creates sparse matrix from CompRowMatrix object.
+	 * 
+	 * @param arg0
+	 *            CompRowMatrix object.
+	 */
+	private CSRMat(CompRowMatrix arg0) {
+		mat_ = arg0;
+		setPattern();
+	}
+
+	/**
+	 * Adds matrices (A = A + B). If the pattern of B is not contained in the
+	 * pattern of A, the pattern of A is extended to their union.
+	 * 
+	 * @param arg0
+	 *            The matrix to be added (B).
+	 * @return This matrix (A).
+	 */
+	public SMat add(SMat arg0) {
+		return axpy(1.0, arg0);
+	}
+
+	/**
+	 * Adds scaled matrix (A = A + s * B). If the pattern of B is not contained
+	 * in the pattern of A, the pattern of A is extended to their union.
+	 * 
+	 * @param arg0
+	 *            The scaling factor (s).
+	 * @param arg1
+	 *            The matrix to be added (B).
+	 * @return This matrix (A).
+	 */
+	public SMat axpy(double arg0, SMat arg1) {
+
+		// cast given matrix
+		CSRMat arg = (CSRMat) arg1;
+
+		// check for dimensions
+		if (rowCount() != arg.rowCount() || columnCount() != arg.columnCount())
+			exceptionHandler("Matrix dimensions don't agree!");
+
+		// same pattern
+		if ((row_ == arg.row_ && col_ == arg.col_)
+				|| (Arrays.equals(row_, arg.row_) && Arrays.equals(col_,
+						arg.col_))) {
+			for (int i = 0; i < data_.length; i++)
+				data_[i] += arg0 * arg.data_[i];
+			return this;
+		}
+
+		// extend pattern if necessary
+		if (contains(arg) == false)
+			extend(arg);
+
+		// add entries of given matrix
+		for (int i = 0; i < arg.row_.length - 1; i++) {
+			for (int k = arg.row_[i]; k < arg.row_[i + 1]; k++)
+				data_[getSlot(i, arg.col_[k])] += arg0 * arg.data_[k];
+		}
+		return this;
+	}
+
+	/**
+	 * Adds element to the specified position. Entries outside the sparsity
+	 * pattern will be ignored.
+	 * 
+	 * @param arg0
+	 *            The row index.
+	 * @param arg1
+	 *            The column index.
+	 * @param arg2
+	 *            The value to be added.
+	 */
+	public void add(int arg0, int arg1, double arg2) {
+
+		// check indices
+		if (arg0 < 0 || arg0 >= rowCount())
+			exceptionHandler("Illegal row index!");
+		if (arg1 < 0 || arg1 >= columnCount())
+			exceptionHandler("Illegal column index!");
+
+		// add element
+		int slot = getSlot(arg0, arg1);
+		if (slot != -1)
+			data_[slot] += arg2;
+	}
+
+	/**
+	 * Returns the column count.
+	 * 
+	 * @return The column count.
+	 */
+	public int columnCount() {
+		return mat_.numColumns();
+	}
+
+	/**
+	 * Returns a deep copy of this matrix.
+	 * 
+	 * @return A deep copy of this matrix.
+	 */
+	public CSRMat copy() {
+		return new CSRMat(this);
+	}
+
+	/**
+	 * Returns the demanded element.
+	 * 
+	 * @param arg0
+	 *            The row index of demanded element.
+	 * @param arg1
+	 *            The column index of demanded element.
+	 * @return The demanded element.
+	 */
+	public double get(int arg0, int arg1) {
+
+		// check indices
+		if (arg0 < 0 || arg0 >= rowCount())
+			exceptionHandler("Illegal row index!");
+		if (arg1 < 0 || arg1 >= columnCount())
+			exceptionHandler("Illegal column index!");
+
+		// return element
+		int slot = getSlot(arg0, arg1);
+		return slot == -1 ? 0.0 : data_[slot];
+	}
+
+	/**
+	 * Returns the number of entries stored in the sparsity pattern.
+	 * 
+	 * @return The number of stored entries.
+	 */
+	public int getNonZeroCount() {
+		return data_.length;
+	}
+
+	/**
+	 * Returns the index of given entry within the value array, or -1 if the
+	 * entry is not in the sparsity pattern.
+	 * 
+	 * @param arg0
+	 *            The row index.
+	 * @param arg1
+	 *            The column index.
+	 * @return The slot index of entry.
+	 */
+	public int getSlot(int arg0, int arg1) {
+
+		// binary search within row
+		int low = row_[arg0], high = row_[arg0 + 1] - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (col_[mid] < arg1)
+				low = mid + 1;
+			else if (col_[mid] > arg1)
+				high = mid - 1;
+			else
+				return mid;
+		}
+		return -1;
+	}
+
+	/**
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b).
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @return The product vector (c).
+	 */
+	public DVec multiply(DVec arg0) {
+		DVec vec = new DVec(arg0.rowCount());
+		multiply(arg0, vec);
+		return vec;
+	}
+
+	/**
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b) into
+	 * given vector.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiply(DVec arg0, DVec arg1) {
+		mat_.mult(arg0.vec_, arg1.vec_);
+	}
+
+	/**
+	 * Returns the row count.
+	 * 
+	 * @return The row count.
+	 */
+	public int rowCount() {
+		return mat_.numRows();
+	}
+
+	/**
+	 * Returns scaled matrix (A = s * A).
+	 * 
+	 * @param arg0
+	 *            The scaling factor (s).
+	 * @return This matrix (A).
+	 */
+	public CSRMat scale(double arg0) {
+		for (int i = 0; i < data_.length; i++)
+			data_[i] *= arg0;
+		return this;
+	}
+
+	/**
+	 * Sets the element to respective place. Entries outside the sparsity
+	 * pattern will be ignored.
+	 * 
+	 * @param arg0
+	 *            The row index to be set.
+	 * @param arg1
+	 *            The column index to be set.
+	 * @param arg2
+	 *            The element to be set.
+	 */
+	public void set(int arg0, int arg1, double arg2) {
+
+		// check indices
+		if (arg0 < 0 || arg0 >= rowCount())
+			exceptionHandler("Illegal row index!");
+		if (arg1 < 0 || arg1 >= columnCount())
+			exceptionHandler("Illegal column index!");
+
+		// set element
+		int slot = getSlot(arg0, arg1);
+		if (slot != -1)
+			data_[slot] = arg2;
+	}
+
+	/**
+	 * Stores references to the pattern and value arrays of CompRowMatrix.
+	 */
+	private void setPattern() {
+		row_ = mat_.getRowPointers();
+		col_ = mat_.getColumnIndices();
+		data_ = mat_.getData();
+	}
+
+	/**
+	 * Returns true if the pattern of given matrix is contained in the pattern
+	 * of this matrix.
+	 * 
+	 * @param arg0
+	 *            The matrix to be checked.
+	 * @return True if the pattern is contained.
+	 */
+	private boolean contains(CSRMat arg0) {
+		for (int i = 0; i < arg0.row_.length - 1; i++) {
+			for (int k = arg0.row_[i]; k < arg0.row_[i + 1]; k++)
+				if (getSlot(i, arg0.col_[k]) == -1)
+					return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Extends the pattern of this matrix to the union of its pattern and the
+	 * pattern of given matrix. Existing values are kept.
+	 * 
+	 * @param arg0
+	 *            The matrix whose pattern is to be merged.
+	 */
+	private void extend(CSRMat arg0) {
+
+		// merge sorted column indices of each row
+		int n = rowCount();
+		int[][] nz = new int[n][];
+		for (int i = 0; i < n; i++) {
+			int a = row_[i], b = arg0.row_[i];
+			int aEnd = row_[i + 1], bEnd = arg0.row_[i + 1];
+			int[] cols = new int[aEnd - a + bEnd - b];
+			int m = 0;
+			while (a < aEnd || b < bEnd) {
+				if (b == bEnd || (a < aEnd && col_[a] < arg0.col_[b]))
+					cols[m++] = col_[a++];
+				else if (a == aEnd || arg0.col_[b] < col_[a])
+					cols[m++] = arg0.col_[b++];
+				else {
+					cols[m++] = col_[a++];
+					b++;
+				}
+			}
+			nz[i] = Arrays.copyOf(cols, m);
+		}
+
+		// copy values into the extended matrix
+		CompRowMatrix mat = new CompRowMatrix(n, n, nz);
+		int[] row = mat.getRowPointers();
+		int[] col = mat.getColumnIndices();
+		double[] data = mat.getData();
+		for (int i = 0; i < n; i++) {
+			int k = row[i];
+			for (int j = row_[i]; j < row_[i + 1]; j++) {
+				while (col[k] != col_[j])
+					k++;
+				data[k] = data_[j];
+			}
+		}
+
+		// set extended matrix
+		mat_ = mat;
+		setPattern();
+	}
+}
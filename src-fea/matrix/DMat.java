@@ -666,7 +666,7 @@ public class DMat extends Mat {
 	 * @return The transpose (B).
 	 */
 	public DMat transpose() {
-		return new DMat(MathUtil.transpose(get2DArray()));
+		return new DMat(mat_.transpose(new DenseMatrix(col_, row_)));
 	}
 
 	/**
@@ -47,6 +47,18 @@ public abstract class SMat extends Mat {
 	 */
 	public abstract SMat add(SMat arg0);
 
+	/**
+	 * Adds scaled matrix (A = A + s * B) in place. Only the stored entries of
+	 * B are visited, and no copy of B is created.
+	 * 
+	 * @param arg0
+	 *            The scaling factor (s).
+	 * @param arg1
+	 *            The matrix to be added (B).
+	 * @return This matrix (A).
+	 */
+	public abstract SMat axpy(double arg0, SMat arg1);
+
 	/**
 	 * Performs linear algebraic matrix-vector multiplication (c = A * b).
 	 * 
@@ -55,4 +67,15 @@ public abstract class SMat extends Mat {
 	 * @return The product vector (c).
 	 */
 	public abstract DVec multiply(DVec arg0);
+
+	/**
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b) into
+	 * given vector, without allocating new vectors.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public abstract void multiply(DVec arg0, DVec arg1);
 }
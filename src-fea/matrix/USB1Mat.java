@@ -15,6 +15,8 @@
  */
 package matrix;
 
+import java.util.Arrays;
+
 /**
  * Class for upper-symmetric-banded matrix stored in 1D array (USB1).
  * 
@@ -72,14 +74,10 @@ public class USB1Mat extends SMat {
 	public USB1Mat(USB1Mat arg0) {
 
 		// copy storage array
-		mat_ = new double[arg0.getData().length];
-		for (int i = 0; i < mat_.length; i++)
-			mat_[i] = arg0.getData()[i];
+		mat_ = arg0.getData().clone();
 
 		// copy adresses array
-		maxa_ = new int[arg0.getAdresses().length];
-		for (int i = 0; i < maxa_.length; i++)
-			maxa_[i] = arg0.getAdresses()[i];
+		maxa_ = arg0.getAdresses().clone();
 
 		// copy dimension
 		n_ = arg0.rowCount();
@@ -96,9 +94,23 @@ public class USB1Mat extends SMat {
 	 * @return This matrix (A).
 	 */
 	public SMat add(SMat arg0) {
+		return axpy(1.0, arg0);
+	}
+
+	/**
+	 * Adds scaled matrix (A = A + s * B). The bandwidth of B
+	 * should not exceed the bandwidth of A.
+	 * 
+	 * @param arg0
+	 *            The scaling factor (s).
+	 * @param arg1
+	 *            The matrix to be added (B).
+	 * @return This matrix (A).
+	 */
+	public SMat axpy(double arg0, SMat arg1) {
 
 		// cast given matrix
-		USB1Mat arg = (USB1Mat) arg0;
+		USB1Mat arg = (USB1Mat) arg1;
 
 		// check for dimensions
 		if (rowCount() != arg.rowCount() || columnCount() != arg.columnCount())
@@ -108,10 +120,21 @@ public class USB1Mat extends SMat {
 		if (getHalfBandwidth() < arg.getHalfBandwidth())
 			exceptionHandler("Matrix bandwidths don't agree!");
 
-		// add
-		for (int i = 0; i < rowCount(); i++)
-			for (int j = 0; j < columnCount(); j++)
-				add(i, j, arg.get(i, j));
+		// same bandwidth (identical storage)
+		double[] mat = arg.getData();
+		if (hbw_ == arg.hbw_) {
+			for (int i = 0; i < mat_.length; i++)
+				mat_[i] += arg0 * mat[i];
+			return this;
+		}
+
+		// loop over columns (only diagonal elements for diagonal matrix)
+		int[] maxa = arg.getAdresses();
+		for (int j = 0; j < n_; j++) {
+			int d = maxa_[j], e = maxa[j];
+			for (int k = 0; k < maxa[j + 1] - e; k++)
+				mat_[d + k] += arg0 * mat[e + k];
+		}
 		return this;
 	}
 
@@ -183,12 +206,41 @@ public class USB1Mat extends SMat {
 	 */
 	public DVec multiply(DVec arg0) {
 		DVec vec = new DVec(arg0.rowCount());
-		for (int i = 0; i < rowCount(); i++)
-			for (int j = 0; j < columnCount(); j++)
-				vec.set(i, get(i, j) * arg0.get(i));
+		multiply(arg0, vec);
 		return vec;
 	}
 
+	/**
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b) into
+	 * given vector.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiply(DVec arg0, DVec arg1) {
+
+		// get arrays of vectors
+		double[] x = arg0.vec_.getData();
+		double[] y = arg1.vec_.getData();
+		Arrays.fill(y, 0.0);
+
+		// loop over columns
+		for (int j = 0; j < n_; j++) {
+
+			// diagonal element
+			int d = maxa_[j];
+			y[j] += mat_[d] * x[j];
+
+			// loop over stored elements above diagonal (row j - k)
+			for (int k = 1; k < maxa_[j + 1] - d; k++) {
+				y[j - k] += mat_[d + k] * x[j];
+				y[j] += mat_[d + k] * x[j - k];
+			}
+		}
+	}
+
 	/**
 	 * Returns the demanded element.
 	 * 
@@ -15,6 +15,8 @@
  */
 package matrix;
 
+import java.util.Arrays;
+
 /**
  * Class for upper-symmetric-banded matrix stored in 2D array (USB2).
  * 
@@ -51,10 +53,9 @@ public class USB2Mat extends SMat {
 	public USB2Mat(USB2Mat arg0) {
 
 		// copy internal storage
-		mat_ = new double[arg0.rowCount()][arg0.getHalfBandwidth() + 1];
+		mat_ = new double[arg0.rowCount()][];
 		for (int i = 0; i < arg0.rowCount(); i++)
-			for (int j = 0; j < arg0.getHalfBandwidth() + 1; j++)
-				mat_[i][j] = arg0.getData()[i][j];
+			mat_[i] = arg0.getData()[i].clone();
 
 		// copy size and half-bandwidth
 		n_ = arg0.rowCount();
@@ -69,9 +70,23 @@ public class USB2Mat extends SMat {
 	 * @return This matrix (A).
 	 */
 	public SMat add(SMat arg0) {
+		return axpy(1.0, arg0);
+	}
+
+	/**
+	 * Adds scaled matrix (A = A + s * B). The bandwidth of B
+	 * should not exceed the bandwidth of A.
+	 * 
+	 * @param arg0
+	 *            The scaling factor (s).
+	 * @param arg1
+	 *            The matrix to be added (B).
+	 * @return This matrix (A).
+	 */
+	public SMat axpy(double arg0, SMat arg1) {
 
 		// cast given matrix
-		USB2Mat arg = (USB2Mat) arg0;
+		USB2Mat arg = (USB2Mat) arg1;
 
 		// check for dimensions
 		if (rowCount() != arg.rowCount() || columnCount() != arg.columnCount())
@@ -81,10 +96,13 @@ public class USB2Mat extends SMat {
 		if (getHalfBandwidth() < arg.getHalfBandwidth())
 			exceptionHandler("Matrix bandwidths don't agree!");
 
-		// add
-		for (int i = 0; i < rowCount(); i++)
-			for (int j = 0; j < columnCount(); j++)
-				add(i, j, arg.get(i, j));
+		// loop over rows (only diagonal elements for diagonal matrix)
+		double[][] mat = arg.getData();
+		for (int i = 0; i < n_; i++) {
+			double[] row = mat_[i], arow = mat[i];
+			for (int k = 0; k < arow.length; k++)
+				row[k] += arg0 * arow[k];
+		}
 		return this;
 	}
 
@@ -156,12 +174,42 @@ public class USB2Mat extends SMat {
 	 */
 	public DVec multiply(DVec arg0) {
 		DVec vec = new DVec(arg0.rowCount());
-		for (int i = 0; i < rowCount(); i++)
-			for (int j = 0; j < columnCount(); j++)
-				vec.set(i, get(i, j) * arg0.get(i));
+		multiply(arg0, vec);
 		return vec;
 	}
 
+	/**
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b) into
+	 * given vector.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiply(DVec arg0, DVec arg1) {
+
+		// get arrays of vectors
+		double[] x = arg0.vec_.getData();
+		double[] y = arg1.vec_.getData();
+		Arrays.fill(y, 0.0);
+
+		// loop over rows
+		for (int i = 0; i < n_; i++) {
+
+			// diagonal element
+			double[] row = mat_[i];
+			y[i] += row[0] * x[i];
+
+			// loop over stored elements right of diagonal (column i + k)
+			int m = Math.min(hbw_, n_ - 1 - i);
+			for (int k = 1; k <= m; k++) {
+				y[i] += row[k] * x[i + k];
+				y[i + k] += row[k] * x[i];
+			}
+		}
+	}
+
 	/**
 	 * Returns the demanded element.
 	 * 
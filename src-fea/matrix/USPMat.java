@@ -61,16 +61,31 @@ public class USPMat extends SMat {
 	 * @return This matrix (A).
 	 */
 	public SMat add(SMat arg0) {
+		return axpy(1.0, arg0);
+	}
+
+	/**
+	 * Adds scaled matrix (A = A + s * B).
+	 * 
+	 * @param arg0
+	 *            The scaling factor (s).
+	 * @param arg1
+	 *            The matrix to be added (B).
+	 * @return This matrix (A).
+	 */
+	public SMat axpy(double arg0, SMat arg1) {
 
 		// cast given matrix
-		USPMat arg = (USPMat) arg0;
+		USPMat arg = (USPMat) arg1;
 
 		// check for dimensions
 		if (rowCount() != arg.rowCount() || columnCount() != arg.columnCount())
 			exceptionHandler("Matrix dimensions don't agree!");
 
-		// add
-		mat_.add(arg.mat_);
+		// add packed storage arrays
+		double[] mat = mat_.getData(), data = arg.mat_.getData();
+		for (int i = 0; i < mat.length; i++)
+			mat[i] += arg0 * data[i];
 		return this;
 	}
 
@@ -149,10 +164,23 @@ public class USPMat extends SMat {
 	 */
 	public DVec multiply(DVec arg0) {
 		DVec vec = new DVec(arg0.rowCount());
-		mat_.mult(arg0.vec_, vec.vec_);
+		multiply(arg0, vec);
 		return vec;
 	}
 
+	/**
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b) into
+	 * given vector.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiply(DVec arg0, DVec arg1) {
+		mat_.mult(arg0.vec_, arg1.vec_);
+	}
+
 	/**
 	 * Returns the demanded element.
 	 * 
@@ -191,7 +219,9 @@ public class USPMat extends SMat {
 	 * @return This matrix (A).
 	 */
 	public USPMat scale(double arg0) {
-		mat_.scale(arg0);
+		double[] mat = mat_.getData();
+		for (int i = 0; i < mat.length; i++)
+			mat[i] *= arg0;
 		return this;
 	}
 }
@@ -409,6 +409,17 @@ public class Node implements Serializable {
 		return new DVec(position_);
 	}
 
+	/**
+	 * Returns the demanded component of position vector of node.
+	 * 
+	 * @param index
+	 *            The index of component (0 -> x, 1 -> y, 2 -> z).
+	 * @return The demanded component of position vector.
+	 */
+	public double getPosition(int index) {
+		return position_[index];
+	}
+
 	/**
 	 * Returns applied constraint of node.
 	 * 
@@ -562,6 +573,17 @@ public class Node implements Serializable {
 			return new DMat(trans_);
 	}
 
+	/**
+	 * Returns the components of transformation matrix of node without copying
+	 * them, or null if the node has the default (unity) transformation. The
+	 * returned array must not be modified.
+	 * 
+	 * @return The components of transformation matrix, or null.
+	 */
+	public double[][] getTransformationData() {
+		return trans_;
+	}
+
 	/**
 	 * Returns the springs of node.
 	 * 
@@ -1006,6 +1028,57 @@ public class Node implements Serializable {
 		return dofNumbers_;
 	}
 
+	/**
+	 * Sets dof numbers array. This is used for restoring nodes of saved
+	 * models.
+	 * 
+	 * @param dofNumbers
+	 *            The dof numbers array.
+	 */
+	public void setDofNumbers(int[] dofNumbers) {
+		dofNumbers_ = dofNumbers;
+	}
+
+	/**
+	 * Returns available dofs of node.
+	 * 
+	 * @return Array storing the available dofs of node (-1 for unavailable
+	 *         dofs).
+	 */
+	public int[] getAvailableDofs() {
+		return availableDofs_;
+	}
+
+	/**
+	 * Sets the components of transformation matrix of node. This is used for
+	 * restoring nodes of saved models.
+	 * 
+	 * @param trans
+	 *            The components of 6x6 transformation matrix, or null for the
+	 *            default (unity) transformation.
+	 */
+	public void setTransformationData(double[][] trans) {
+		trans_ = trans;
+	}
+
+	/**
+	 * Returns the boundary cases set to node for computing nodal quantities.
+	 * 
+	 * @return The boundary cases of node.
+	 */
+	public Vector<BoundaryCase> getBoundaryCases() {
+		return bCases_;
+	}
+
+	/**
+	 * Returns the scaling factors of boundary cases set to node.
+	 * 
+	 * @return The scaling factors of boundary cases.
+	 */
+	public double[] getBoundaryScales() {
+		return bScales_;
+	}
+
 	/**
 	 * Throws exception with the related message.
 	 * 
@@ -0,0 +1,936 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import java.util.Arrays;
+import java.util.Vector;
+
+import no.uib.cipr.matrix.DenseVector;
+import no.uib.cipr.matrix.Matrix;
+import no.uib.cipr.matrix.sparse.CompRowMatrix;
+import no.uib.cipr.matrix.sparse.Preconditioner;
+
+/**
+ * Class for smoothed aggregation algebraic multigrid preconditioner (AMG).
+ * The dofs of each node form a block, and blocks are aggregated by the
+ * strength of their connections. The tentative prolongator of each aggregate
+ * is obtained by orthonormalizing the near null space vectors (rigid body
+ * modes) on the aggregate, and smoothed by a damped Jacobi step. The
+ * preconditioner applies a single V-cycle with symmetric Gauss-Seidel
+ * smoothing, so that it can be used with conjugate gradients. The hierarchy is
+ * set up once for a matrix and reused for all subsequent applications.
+ * 
+ * @author Murat Artim
+ * 
+ */
+class AMG implements Preconditioner {
+
+	/** Maximum number of levels. */
+	private static final int maxLevels_ = 10;
+
+	/** Size of coarsest level, and maximum size solved directly. */
+	private static final int coarseSize_ = 500, directSize_ = 2000;
+
+	/** Strength threshold on finest level (halved on each coarser level). */
+	private static final double threshold_ = 0.08;
+
+	/** Number of power iterations for prolongator smoothing. */
+	private static final int powerIterations_ = 20;
+
+	/** Number of sweeps on coarsest level (if not solved directly). */
+	private static final int coarseSweeps_ = 20;
+
+	/** Dof numbers of nodes (6 for each node, -1 for constrained dofs). */
+	private final int[] dofs_;
+
+	/** Near null space vectors of nodes (6 modes for each dof of node). */
+	private final double[] modes_;
+
+	/** The levels (finest first). */
+	private Level[] levels_;
+
+	/** LU factors and row pivots of coarsest matrix. */
+	private double[][] lu_;
+
+	private int[] pivots_;
+
+	/**
+	 * Creates algebraic multigrid preconditioner.
+	 * 
+	 * @param dofs
+	 *            Dof numbers of nodes (6 for each node, -1 for constrained
+	 *            dofs). Null if each dof is to be treated separately.
+	 * @param modes
+	 *            Near null space vectors of nodes (36 for each node; the 6
+	 *            mode components of each dof of node).
+	 */
+	protected AMG(int[] dofs, double[] modes) {
+		dofs_ = dofs;
+		modes_ = modes;
+	}
+
+	/**
+	 * Sets up the multigrid hierarchy for the given matrix.
+	 */
+	public void setMatrix(Matrix A) {
+
+		// get matrix in compressed row storage
+		CompRowMatrix a = A instanceof CompRowMatrix ? (CompRowMatrix) A
+				: new CompRowMatrix(A);
+		int n = a.numRows();
+		Level level = new Level(new Sparse(n, n, a.getRowPointers(), a
+				.getColumnIndices(), a.getData()));
+
+		// get node blocks and near null space of finest level
+		Object[] fine = getNodeBlocks(n);
+		int[][] blocks = (int[][]) fine[0];
+		double[][] nullSpace = (double[][]) fine[1];
+
+		// create coarser levels
+		Vector<Level> levels = new Vector<Level>();
+		double theta = threshold_;
+		while (levels.size() < maxLevels_ - 1 && level.a_.rows_ > coarseSize_) {
+
+			// aggregate blocks
+			int[] aggregates = aggregate(level.a_, blocks, theta);
+
+			// compute tentative prolongator
+			Object[] coarse = new Object[2];
+			Sparse p = tentative(blocks, aggregates, nullSpace, coarse);
+			if (p.cols_ == 0 || p.cols_ >= level.a_.rows_)
+				break;
+
+			// smooth prolongator and compute coarse matrix
+			level.p_ = smooth(level, p);
+			level.pt_ = level.p_.transpose();
+			Sparse ac = level.pt_.multiply(level.a_.multiply(level.p_));
+			levels.add(level);
+
+			// continue with coarse level
+			level = new Level(ac);
+			blocks = (int[][]) coarse[0];
+			nullSpace = (double[][]) coarse[1];
+			theta *= 0.5;
+		}
+		levels.add(level);
+		levels_ = levels.toArray(new Level[levels.size()]);
+
+		// factorize coarsest matrix
+		lu_ = null;
+		if (level.a_.rows_ <= directSize_)
+			factorize(level.a_);
+	}
+
+	/**
+	 * Applies a V-cycle to the given vector (x = M^-1 * b).
+	 */
+	public no.uib.cipr.matrix.Vector apply(no.uib.cipr.matrix.Vector b,
+			no.uib.cipr.matrix.Vector x) {
+
+		// get arrays of vectors
+		int n = levels_[0].a_.rows_;
+		double[] bd = new double[n];
+		if (b instanceof DenseVector)
+			bd = ((DenseVector) b).getData();
+		else
+			for (int i = 0; i < n; i++)
+				bd[i] = b.get(i);
+		boolean dense = x instanceof DenseVector && x != b;
+		double[] xd = dense ? ((DenseVector) x).getData() : new double[n];
+
+		// apply cycle
+		cycle(0, bd, xd);
+
+		// set solution
+		if (dense == false)
+			for (int i = 0; i < n; i++)
+				x.set(i, xd[i]);
+		return x;
+	}
+
+	/**
+	 * Applies a V-cycle to the given vector. The cycle is symmetric.
+	 */
+	public no.uib.cipr.matrix.Vector transApply(no.uib.cipr.matrix.Vector b,
+			no.uib.cipr.matrix.Vector x) {
+		return apply(b, x);
+	}
+
+	/**
+	 * Returns the number of levels of multigrid hierarchy.
+	 * 
+	 * @return The number of levels.
+	 */
+	protected int getNumberOfLevels() {
+		return levels_.length;
+	}
+
+	/**
+	 * Applies V-cycle starting from given level.
+	 * 
+	 * @param l
+	 *            The level.
+	 * @param b
+	 *            The right hand side vector of level.
+	 * @param x
+	 *            The solution vector of level.
+	 */
+	private void cycle(int l, double[] b, double[] x) {
+
+		// coarsest level
+		Level level = levels_[l];
+		if (l == levels_.length - 1) {
+			if (lu_ != null)
+				solveDirect(b, x);
+			else {
+				Arrays.fill(x, 0.0);
+				for (int s = 0; s < coarseSweeps_; s++) {
+					level.a_.gaussSeidel(b, x, level.diag_, true);
+					level.a_.gaussSeidel(b, x, level.diag_, false);
+				}
+			}
+			return;
+		}
+
+		// pre-smoothing (forward sweep from zero)
+		Arrays.fill(x, 0.0);
+		level.a_.gaussSeidel(b, x, level.diag_, true);
+
+		// restrict residual
+		Level next = levels_[l + 1];
+		level.a_.residual(b, x, level.res_);
+		level.pt_.multiply(level.res_, next.b_);
+
+		// coarse level correction
+		cycle(l + 1, next.b_, next.x_);
+		level.p_.multiplyAdd(next.x_, x);
+
+		// post-smoothing (backward sweep)
+		level.a_.gaussSeidel(b, x, level.diag_, false);
+	}
+
+	/**
+	 * Returns the node blocks and near null space vectors of finest level.
+	 * Dofs which don't belong to any node form blocks of their own.
+	 * 
+	 * @param n
+	 *            The number of equations.
+	 * @return Array storing the blocks (dofs of each block) and the near null
+	 *         space vectors (for each dof).
+	 */
+	private Object[] getNodeBlocks(int n) {
+
+		// no nodal data (constant vector for each dof)
+		if (dofs_ == null) {
+			int[][] blocks = new int[n][];
+			double[][] nullSpace = new double[n][];
+			for (int i = 0; i < n; i++) {
+				blocks[i] = new int[] { i };
+				nullSpace[i] = new double[] { 1.0 };
+			}
+			return new Object[] { blocks, nullSpace };
+		}
+
+		// collect dofs of nodes
+		Vector<int[]> blocks = new Vector<int[]>();
+		double[][] nullSpace = new double[n][];
+		for (int i = 0; i < dofs_.length / 6; i++) {
+			int m = 0;
+			int[] block = new int[6];
+			for (int j = 0; j < 6; j++) {
+				int dof = dofs_[6 * i + j];
+				if (dof < 0 || dof >= n || nullSpace[dof] != null)
+					continue;
+				block[m++] = dof;
+				nullSpace[dof] = Arrays.copyOfRange(modes_, 36 * i + 6 * j,
+						36 * i + 6 * j + 6);
+			}
+			if (m > 0)
+				blocks.add(Arrays.copyOf(block, m));
+		}
+
+		// remaining dofs
+		for (int i = 0; i < n; i++) {
+			if (nullSpace[i] == null) {
+				blocks.add(new int[] { i });
+				nullSpace[i] = new double[6];
+			}
+		}
+		return new Object[] { blocks.toArray(new int[blocks.size()][]),
+				nullSpace };
+	}
+
+	/**
+	 * Aggregates blocks by the strength of their connections. A connection
+	 * between blocks I and J is strong if ||A_IJ|| >= theta * sqrt(||A_II|| *
+	 * ||A_JJ||) in Frobenius norm.
+	 * 
+	 * @param a
+	 *            The matrix.
+	 * @param blocks
+	 *            The dofs of blocks.
+	 * @param theta
+	 *            The strength threshold.
+	 * @return The aggregate index of each block.
+	 */
+	private static int[] aggregate(Sparse a, int[][] blocks, double theta) {
+
+		// get block of each dof
+		int nb = blocks.length;
+		int[] blockOf = new int[a.rows_];
+		for (int b = 0; b < nb; b++)
+			for (int i = 0; i < blocks[b].length; i++)
+				blockOf[blocks[b][i]] = b;
+
+		// compute squared norms of diagonal blocks
+		double[] d = new double[nb];
+		for (int b = 0; b < nb; b++)
+			for (int i = 0; i < blocks[b].length; i++) {
+				int row = blocks[b][i];
+				for (int k = a.ptr_[row]; k < a.ptr_[row + 1]; k++)
+					if (blockOf[a.col_[k]] == b)
+						d[b] += a.val_[k] * a.val_[k];
+			}
+
+		// collect strong connections of blocks
+		int[] ptr = new int[nb + 1];
+		int[] adj = new int[Math.max(16, a.val_.length / 4)];
+		double[] sums = new double[nb];
+		int[] marks = new int[nb], list = new int[nb];
+		Arrays.fill(marks, -1);
+		for (int b = 0; b < nb; b++) {
+			int m = 0;
+			for (int i = 0; i < blocks[b].length; i++) {
+				int row = blocks[b][i];
+				for (int k = a.ptr_[row]; k < a.ptr_[row + 1]; k++) {
+					int c = blockOf[a.col_[k]];
+					if (c == b)
+						continue;
+					if (marks[c] != b) {
+						marks[c] = b;
+						sums[c] = 0.0;
+						list[m++] = c;
+					}
+					sums[c] += a.val_[k] * a.val_[k];
+				}
+			}
+			ptr[b + 1] = ptr[b];
+			for (int t = 0; t < m; t++) {
+				int c = list[t];
+				if (sums[c] >= theta * theta * Math.sqrt(d[b] * d[c])) {
+					if (ptr[b + 1] == adj.length)
+						adj = Arrays.copyOf(adj, 2 * adj.length);
+					adj[ptr[b + 1]++] = c;
+				}
+			}
+		}
+
+		// pass 1: blocks with unaggregated neighbourhoods form aggregates
+		int[] agg = new int[nb];
+		Arrays.fill(agg, -1);
+		int na = 0;
+		for (int b = 0; b < nb; b++) {
+			if (agg[b] != -1 || ptr[b] == ptr[b + 1])
+				continue;
+			boolean free = true;
+			for (int k = ptr[b]; k < ptr[b + 1]; k++)
+				if (agg[adj[k]] != -1)
+					free = false;
+			if (free) {
+				agg[b] = na;
+				for (int k = ptr[b]; k < ptr[b + 1]; k++)
+					agg[adj[k]] = na;
+				na++;
+			}
+		}
+
+		// pass 2: remaining blocks join aggregates of their neighbours
+		int[] first = agg.clone();
+		for (int b = 0; b < nb; b++) {
+			if (agg[b] != -1)
+				continue;
+			for (int k = ptr[b]; k < ptr[b + 1]; k++) {
+				if (first[adj[k]] != -1) {
+					agg[b] = first[adj[k]];
+					break;
+				}
+			}
+		}
+
+		// pass 3: remaining blocks form aggregates with their neighbours
+		for (int b = 0; b < nb; b++) {
+			if (agg[b] != -1)
+				continue;
+			agg[b] = na;
+			for (int k = ptr[b]; k < ptr[b + 1]; k++)
+				if (agg[adj[k]] == -1)
+					agg[adj[k]] = na;
+			na++;
+		}
+		return agg;
+	}
+
+	/**
+	 * Computes the tentative prolongator by orthonormalizing the near null
+	 * space vectors on each aggregate (Q * R = B). The rows of R form the
+	 * near null space of coarse level, and the coarse dofs of each aggregate
+	 * form a coarse block.
+	 * 
+	 * @param blocks
+	 *            The dofs of blocks.
+	 * @param agg
+	 *            The aggregate index of each block.
+	 * @param nullSpace
+	 *            The near null space vectors of each dof.
+	 * @param coarse
+	 *            Array to store the blocks and the near null space vectors of
+	 *            coarse level.
+	 * @return The tentative prolongator.
+	 */
+	private static Sparse tentative(int[][] blocks, int[] agg,
+			double[][] nullSpace, Object[] coarse) {
+
+		// collect dofs of aggregates
+		int n = nullSpace.length, k = nullSpace[0].length, na = 0;
+		for (int b = 0; b < blocks.length; b++)
+			na = Math.max(na, agg[b] + 1);
+		int[] pointers = new int[na + 1];
+		for (int b = 0; b < blocks.length; b++)
+			pointers[agg[b] + 1] += blocks[b].length;
+		for (int g = 0; g < na; g++)
+			pointers[g + 1] += pointers[g];
+		int[] dofs = new int[pointers[na]];
+		int[] next = Arrays.copyOf(pointers, na);
+		for (int b = 0; b < blocks.length; b++)
+			for (int i = 0; i < blocks[b].length; i++)
+				dofs[next[agg[b]]++] = blocks[b][i];
+
+		// loop over aggregates
+		int[] ptr = new int[n + 1];
+		int[] col = new int[n * k];
+		double[] val = new double[n * k];
+		int[][] coarseBlocks = new int[na][];
+		Vector<double[]> coarseNull = new Vector<double[]>();
+		for (int g = 0; g < na; g++) {
+
+			// orthonormalize near null space vectors on aggregate
+			int first = pointers[g], m = pointers[g + 1] - first;
+			double[][] q = new double[k][m];
+			for (int c = 0; c < k; c++)
+				for (int t = 0; t < m; t++)
+					q[c][t] = nullSpace[dofs[first + t]][c];
+			double[][] r = new double[k][k];
+			int rank = orthonormalize(q, r);
+
+			// store coarse block and near null space
+			int offset = coarseNull.size();
+			coarseBlocks[g] = new int[rank];
+			for (int j = 0; j < rank; j++) {
+				coarseBlocks[g][j] = offset + j;
+				coarseNull.add(r[j]);
+			}
+
+			// store rows of prolongator
+			for (int t = 0; t < m; t++) {
+				int row = dofs[first + t];
+				for (int j = 0; j < rank; j++) {
+					col[k * row + j] = offset + j;
+					val[k * row + j] = q[j][t];
+				}
+				ptr[row + 1] = rank;
+			}
+		}
+
+		// compress rows
+		int nnz = 0;
+		for (int i = 0; i < n; i++) {
+			int length = ptr[i + 1];
+			System.arraycopy(col, k * i, col, nnz, length);
+			System.arraycopy(val, k * i, val, nnz, length);
+			nnz += length;
+			ptr[i + 1] = nnz;
+		}
+		coarse[0] = coarseBlocks;
+		coarse[1] = coarseNull.toArray(new double[coarseNull.size()][]);
+		return new Sparse(n, coarseNull.size(), ptr, Arrays.copyOf(col, nnz),
+				Arrays.copyOf(val, nnz));
+	}
+
+	/**
+	 * Orthonormalizes given vectors by modified Gram-Schmidt process with
+	 * reorthogonalization. Dependent vectors are dropped.
+	 * 
+	 * @param q
+	 *            The vectors. The orthonormal vectors are stored at the
+	 *            beginning of array.
+	 * @param r
+	 *            Array to store the components of vectors in orthonormal
+	 *            basis (R of Q * R decomposition).
+	 * @return The number of orthonormal vectors.
+	 */
+	private static int orthonormalize(double[][] q, double[][] r) {
+		int rank = 0;
+		for (int c = 0; c < q.length; c++) {
+			double[] v = q[c];
+			double norm0 = norm(v);
+			for (int pass = 0; pass < 2; pass++) {
+				for (int j = 0; j < rank; j++) {
+					double dot = 0.0;
+					for (int t = 0; t < v.length; t++)
+						dot += q[j][t] * v[t];
+					r[j][c] += dot;
+					for (int t = 0; t < v.length; t++)
+						v[t] -= dot * q[j][t];
+				}
+			}
+			double norm = norm(v);
+			if (norm > 0.0 && norm > 1.0e-8 * norm0) {
+				for (int t = 0; t < v.length; t++)
+					v[t] /= norm;
+				q[c] = q[rank];
+				q[rank] = v;
+				r[rank][c] = norm;
+				rank++;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Smooths tentative prolongator by damped Jacobi step (P = (I - omega *
+	 * D^-1 * A) * P0), where omega = 4 / (3 * rho(D^-1 * A)).
+	 * 
+	 * @param level
+	 *            The fine level.
+	 * @param p
+	 *            The tentative prolongator.
+	 * @return The smoothed prolongator.
+	 */
+	private static Sparse smooth(Level level, Sparse p) {
+
+		// estimate spectral radius of D^-1 * A by power iteration
+		Sparse a = level.a_;
+		int n = a.rows_;
+		double[] x = new double[n], y = new double[n];
+		for (int i = 0; i < n; i++)
+			x[i] = 1.0 + 0.1 * (i % 7);
+		double rho = 0.0;
+		for (int it = 0; it < powerIterations_; it++) {
+			double xn = norm(x);
+			for (int i = 0; i < n; i++)
+				x[i] /= xn;
+			a.multiply(x, y);
+			for (int i = 0; i < n; i++)
+				y[i] *= level.inverse(i);
+			rho = norm(y);
+			double[] temp = x;
+			x = y;
+			y = temp;
+		}
+		double omega = rho > 0.0 ? 4.0 / (3.0 * rho) : 0.0;
+
+		// compute A * P0 and scale its rows
+		Sparse ap = a.multiply(p);
+		for (int i = 0; i < n; i++)
+			for (int k = ap.ptr_[i]; k < ap.ptr_[i + 1]; k++)
+				ap.val_[k] *= -omega * level.inverse(i);
+
+		// add P0
+		return ap.add(p);
+	}
+
+	/**
+	 * Factorizes coarsest matrix by LU decomposition with partial pivoting.
+	 * 
+	 * @param a
+	 *            The coarsest matrix.
+	 */
+	private void factorize(Sparse a) {
+
+		// create dense matrix
+		int n = a.rows_;
+		lu_ = new double[n][n];
+		for (int i = 0; i < n; i++)
+			for (int k = a.ptr_[i]; k < a.ptr_[i + 1]; k++)
+				lu_[i][a.col_[k]] += a.val_[k];
+
+		// decompose
+		pivots_ = new int[n];
+		for (int j = 0; j < n; j++) {
+
+			// find pivot
+			int p = j;
+			for (int i = j + 1; i < n; i++)
+				if (Math.abs(lu_[i][j]) > Math.abs(lu_[p][j]))
+					p = i;
+			pivots_[j] = p;
+			double[] temp = lu_[p];
+			lu_[p] = lu_[j];
+			lu_[j] = temp;
+
+			// eliminate (singular pivots are skipped)
+			if (lu_[j][j] == 0.0)
+				continue;
+			for (int i = j + 1; i < n; i++) {
+				double f = lu_[i][j] /= lu_[j][j];
+				if (f != 0.0)
+					for (int c = j + 1; c < n; c++)
+						lu_[i][c] -= f * lu_[j][c];
+			}
+		}
+	}
+
+	/**
+	 * Solves coarsest level by the LU factors.
+	 * 
+	 * @param b
+	 *            The right hand side vector.
+	 * @param x
+	 *            The solution vector.
+	 */
+	private void solveDirect(double[] b, double[] x) {
+
+		// permute right hand side
+		int n = b.length;
+		System.arraycopy(b, 0, x, 0, n);
+		for (int j = 0; j < n; j++) {
+			double temp = x[j];
+			x[j] = x[pivots_[j]];
+			x[pivots_[j]] = temp;
+		}
+
+		// forward substitution
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < i; j++)
+				x[i] -= lu_[i][j] * x[j];
+
+		// back substitution (zero for singular pivots)
+		for (int i = n - 1; i >= 0; i--) {
+			for (int j = i + 1; j < n; j++)
+				x[i] -= lu_[i][j] * x[j];
+			x[i] = lu_[i][i] == 0.0 ? 0.0 : x[i] / lu_[i][i];
+		}
+	}
+
+	/**
+	 * Returns the Euclidean norm of given vector.
+	 * 
+	 * @param x
+	 *            The vector.
+	 * @return The norm.
+	 */
+	private static double norm(double[] x) {
+		double sum = 0.0;
+		for (int i = 0; i < x.length; i++)
+			sum += x[i] * x[i];
+		return Math.sqrt(sum);
+	}
+
+	/**
+	 * Class for a level of multigrid hierarchy.
+	 * 
+	 */
+	private static class Level {
+
+		/** The matrix, prolongator to next level and its transpose. */
+		private Sparse a_, p_, pt_;
+
+		/** The diagonal of matrix. */
+		private final double[] diag_;
+
+		/** The right hand side, solution and residual vectors. */
+		private final double[] b_, x_, res_;
+
+		/**
+		 * Creates level.
+		 * 
+		 * @param a
+		 *            The matrix of level.
+		 */
+		private Level(Sparse a) {
+			a_ = a;
+			int n = a.rows_;
+			diag_ = new double[n];
+			for (int i = 0; i < n; i++)
+				for (int k = a.ptr_[i]; k < a.ptr_[i + 1]; k++)
+					if (a.col_[k] == i)
+						diag_[i] += a.val_[k];
+			b_ = new double[n];
+			x_ = new double[n];
+			res_ = new double[n];
+		}
+
+		/**
+		 * Returns the inverse of diagonal element (zero if it is zero).
+		 * 
+		 * @param i
+		 *            The row index.
+		 * @return The inverse of diagonal element.
+		 */
+		private double inverse(int i) {
+			return diag_[i] == 0.0 ? 0.0 : 1.0 / diag_[i];
+		}
+	}
+
+	/**
+	 * Class for sparse matrices in compressed row storage.
+	 * 
+	 */
+	private static class Sparse {
+
+		/** Number of rows and columns. */
+		private final int rows_, cols_;
+
+		/** Row pointers and column indices. */
+		private final int[] ptr_, col_;
+
+		/** Values of entries. */
+		private final double[] val_;
+
+		/**
+		 * Creates sparse matrix.
+		 * 
+		 * @param rows
+		 *            Number of rows.
+		 * @param cols
+		 *            Number of columns.
+		 * @param ptr
+		 *            Row pointers.
+		 * @param col
+		 *            Column indices.
+		 * @param val
+		 *            Values of entries.
+		 */
+		private Sparse(int rows, int cols, int[] ptr, int[] col, double[] val) {
+			rows_ = rows;
+			cols_ = cols;
+			ptr_ = ptr;
+			col_ = col;
+			val_ = val;
+		}
+
+		/**
+		 * Performs matrix-vector multiplication (y = A * x).
+		 * 
+		 * @param x
+		 *            The vector to be multiplied.
+		 * @param y
+		 *            The product vector.
+		 */
+		private void multiply(double[] x, double[] y) {
+			for (int i = 0; i < rows_; i++) {
+				double sum = 0.0;
+				for (int k = ptr_[i]; k < ptr_[i + 1]; k++)
+					sum += val_[k] * x[col_[k]];
+				y[i] = sum;
+			}
+		}
+
+		/**
+		 * Adds matrix-vector product to given vector (y = y + A * x).
+		 * 
+		 * @param x
+		 *            The vector to be multiplied.
+		 * @param y
+		 *            The vector to be added to.
+		 */
+		private void multiplyAdd(double[] x, double[] y) {
+			for (int i = 0; i < rows_; i++) {
+				double sum = 0.0;
+				for (int k = ptr_[i]; k < ptr_[i + 1]; k++)
+					sum += val_[k] * x[col_[k]];
+				y[i] += sum;
+			}
+		}
+
+		/**
+		 * Computes residual vector (r = b - A * x).
+		 * 
+		 * @param b
+		 *            The right hand side vector.
+		 * @param x
+		 *            The solution vector.
+		 * @param r
+		 *            The residual vector.
+		 */
+		private void residual(double[] b, double[] x, double[] r) {
+			for (int i = 0; i < rows_; i++) {
+				double sum = b[i];
+				for (int k = ptr_[i]; k < ptr_[i + 1]; k++)
+					sum -= val_[k] * x[col_[k]];
+				r[i] = sum;
+			}
+		}
+
+		/**
+		 * Performs a Gauss-Seidel sweep.
+		 * 
+		 * @param b
+		 *            The right hand side vector.
+		 * @param x
+		 *            The solution vector.
+		 * @param diag
+		 *            The diagonal of matrix.
+		 * @param forward
+		 *            True for forward sweep, false for backward sweep.
+		 */
+		private void gaussSeidel(double[] b, double[] x, double[] diag,
+				boolean forward) {
+			for (int s = 0; s < rows_; s++) {
+				int i = forward ? s : rows_ - 1 - s;
+				if (diag[i] == 0.0)
+					continue;
+				double sum = b[i];
+				for (int k = ptr_[i]; k < ptr_[i + 1]; k++)
+					sum -= val_[k] * x[col_[k]];
+				x[i] += sum / diag[i];
+			}
+		}
+
+		/**
+		 * Returns the transpose of matrix.
+		 * 
+		 * @return The transpose.
+		 */
+		private Sparse transpose() {
+			int[] ptr = new int[cols_ + 1];
+			for (int k = 0; k < ptr_[rows_]; k++)
+				ptr[col_[k] + 1]++;
+			for (int j = 0; j < cols_; j++)
+				ptr[j + 1] += ptr[j];
+			int[] col = new int[ptr[cols_]];
+			double[] val = new double[ptr[cols_]];
+			int[] next = Arrays.copyOf(ptr, cols_);
+			for (int i = 0; i < rows_; i++)
+				for (int k = ptr_[i]; k < ptr_[i + 1]; k++) {
+					int slot = next[col_[k]]++;
+					col[slot] = i;
+					val[slot] = val_[k];
+				}
+			return new Sparse(cols_, rows_, ptr, col, val);
+		}
+
+		/**
+		 * Returns the product of matrices (C = A * B).
+		 * 
+		 * @param b
+		 *            The matrix to be multiplied (B).
+		 * @return The product matrix (C).
+		 */
+		private Sparse multiply(Sparse b) {
+			return combine(b, null);
+		}
+
+		/**
+		 * Returns the sum of matrices (C = A + B).
+		 * 
+		 * @param b
+		 *            The matrix to be added (B).
+		 * @return The sum matrix (C).
+		 */
+		private Sparse add(Sparse b) {
+			return combine(null, b);
+		}
+
+		/**
+		 * Returns the product and/or sum of matrices (C = A * B1 + B2), with
+		 * sorted column indices.
+		 * 
+		 * @param b1
+		 *            The matrix to be multiplied (null for identity).
+		 * @param b2
+		 *            The matrix to be added (null for zero).
+		 * @return The resulting matrix (C).
+		 */
+		private Sparse combine(Sparse b1, Sparse b2) {
+
+			// loop over rows
+			int cols = b1 != null ? b1.cols_ : cols_;
+			int[] marks = new int[cols];
+			Arrays.fill(marks, -1);
+			double[] sums = new double[cols];
+			int[] list = new int[cols];
+			int[] ptr = new int[rows_ + 1];
+			int[] col = new int[Math.max(16, ptr_[rows_])];
+			double[] val = new double[col.length];
+			for (int i = 0; i < rows_; i++) {
+
+				// accumulate row
+				int m = 0;
+				for (int k = ptr_[i]; k < ptr_[i + 1]; k++) {
+					if (b1 == null)
+						m = accumulate(col_[k], val_[k], i, marks, sums, list,
+								m);
+					else {
+						int j = col_[k];
+						for (int l = b1.ptr_[j]; l < b1.ptr_[j + 1]; l++)
+							m = accumulate(b1.col_[l], val_[k] * b1.val_[l], i,
+									marks, sums, list, m);
+					}
+				}
+				if (b2 != null)
+					for (int k = b2.ptr_[i]; k < b2.ptr_[i + 1]; k++)
+						m = accumulate(b2.col_[k], b2.val_[k], i, marks, sums,
+								list, m);
+
+				// store row with sorted columns
+				Arrays.sort(list, 0, m);
+				if (ptr[i] + m > col.length) {
+					int length = Math.max(2 * col.length, ptr[i] + m);
+					col = Arrays.copyOf(col, length);
+					val = Arrays.copyOf(val, length);
+				}
+				for (int t = 0; t < m; t++) {
+					col[ptr[i] + t] = list[t];
+					val[ptr[i] + t] = sums[list[t]];
+				}
+				ptr[i + 1] = ptr[i] + m;
+			}
+			return new Sparse(rows_, cols, ptr, Arrays.copyOf(col, ptr[rows_]),
+					Arrays.copyOf(val, ptr[rows_]));
+		}
+
+		/**
+		 * Accumulates value into the sparse accumulator of a row.
+		 * 
+		 * @param c
+		 *            The column index.
+		 * @param v
+		 *            The value.
+		 * @param i
+		 *            The row index.
+		 * @param marks
+		 *            The last row in which each column was used.
+		 * @param sums
+		 *            The sums of columns.
+		 * @param list
+		 *            The used columns of row.
+		 * @param m
+		 *            The number of used columns of row.
+		 * @return The number of used columns of row.
+		 */
+		private static int accumulate(int c, double v, int i, int[] marks,
+				double[] sums, int[] list, int m) {
+			if (marks[c] != i) {
+				marks[c] = i;
+				sums[c] = 0.0;
+				list[m++] = c;
+			}
+			sums[c] += v;
+			return m;
+		}
+	}
+}
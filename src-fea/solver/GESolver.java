@@ -30,7 +30,7 @@ public abstract class GESolver extends Solver {
 	private static final long serialVersionUID = 1L;
 
 	/** Static variable for the solver type. */
-	public static final int SubSpace_ = 0, Direct_ = 1;
+	public static final int SubSpace_ = 0, Direct_ = 1, Lanczos_ = 2;
 
 	@Override
 	public int getProblemType() {
@@ -19,7 +19,11 @@ import matrix.Mat;
 import matrix.DVec;
 
 /**
- * Class for linear equation solvers.
+ * Class for linear equation solvers. Solvers are used in two phases; the
+ * coefficient matrix is factorized (direct solvers) or the preconditioner is
+ * set up (iterative solvers) once in initialize, and any number of right hand
+ * sides are then solved with the same coefficient matrix until the solver is
+ * cleared.
  * 
  * @author Murat Artim
  * 
@@ -34,6 +38,9 @@ public abstract class LESolver extends Solver {
 	/** Static variable for the direct solver type. */
 	public static int COLSOL_ = 0, GaussSymm_ = 1;
 
+	/** Boolean denoting if the coefficient matrix is factorized. */
+	protected transient boolean factorized_ = false;
+
 	@Override
 	public int getProblemType() {
 		return Solver.linearSystem_;
@@ -54,7 +61,18 @@ public abstract class LESolver extends Solver {
 	public abstract int getSolverType();
 
 	/**
-	 * Initializes solver.
+	 * Returns true if the coefficient matrix is factorized (or preconditioned)
+	 * and the solver is ready for solving.
+	 * 
+	 * @return True if the solver is initialized, False vice versa.
+	 */
+	public boolean isFactorized() {
+		return factorized_;
+	}
+
+	/**
+	 * Initializes solver by factorizing (or preconditioning) the coefficient
+	 * matrix.
 	 * 
 	 * @param matA
 	 *            Coefficient matrix (A).
@@ -64,7 +82,8 @@ public abstract class LESolver extends Solver {
 	public abstract void initialize(Mat matA, DVec vecX);
 
 	/**
-	 * Solves system of linear equations (A x = b).
+	 * Solves system of linear equations (A x = b). The solver has to be
+	 * initialized with the same coefficient matrix beforehand.
 	 * 
 	 * @param matA
 	 *            Coefficient matrix (A).
@@ -76,7 +95,8 @@ public abstract class LESolver extends Solver {
 	public abstract void solve(Mat matA, DVec vecB, DVec vecX);
 
 	/**
-	 * Clears attributes of solver (other than parameters).
+	 * Clears attributes of solver (other than parameters), including the
+	 * factorized state.
 	 * 
 	 */
 	public abstract void clear();
@@ -29,7 +29,7 @@ public abstract class Solver implements Serializable {
 
 	/** Static variable for the solver type. */
 	public static final int solver0_ = 0, solver1_ = 1, solver2_ = 2,
-			solver3_ = 3, solver4_ = 4;
+			solver3_ = 3, solver4_ = 4, solver5_ = 5;
 
 	/** Static variable for the problem type of solver. */
 	public static final int linearSystem_ = 0, eigenSystem_ = 1;
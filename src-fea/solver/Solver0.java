@@ -19,17 +19,21 @@ import no.uib.cipr.matrix.sparse.BiCG;
 import no.uib.cipr.matrix.sparse.BiCGstab;
 import no.uib.cipr.matrix.sparse.CG;
 import no.uib.cipr.matrix.sparse.CGS;
+import no.uib.cipr.matrix.Matrix;
+import no.uib.cipr.matrix.Vector.Norm;
 import no.uib.cipr.matrix.sparse.CompRowMatrix;
+import no.uib.cipr.matrix.sparse.DefaultIterationMonitor;
 import no.uib.cipr.matrix.sparse.DiagonalPreconditioner;
 import no.uib.cipr.matrix.sparse.GMRES;
 import no.uib.cipr.matrix.sparse.ICC;
 import no.uib.cipr.matrix.sparse.ILU;
+import no.uib.cipr.matrix.sparse.IterationMonitor;
 import no.uib.cipr.matrix.sparse.IR;
 import no.uib.cipr.matrix.sparse.IterativeSolver;
 import no.uib.cipr.matrix.sparse.IterativeSolverNotConvergedException;
 import no.uib.cipr.matrix.sparse.Preconditioner;
 import no.uib.cipr.matrix.sparse.QMR;
-import matrix.CDSMat;
+import matrix.CSRMat;
 import matrix.DVec;
 import matrix.Mat;
 
@@ -56,7 +60,13 @@ import matrix.Mat;
  * preconditioner without fill-in using a compressed row matrix as internal
  * storage. ILU : ILU(0) preconditioner using a compressed row matrix as
  * internal storage. DP : Diagonal preconditioner. Uses the inverse of the
- * diagonal as preconditioner.
+ * diagonal as preconditioner. AMG : Smoothed aggregation algebraic multigrid
+ * preconditioner. Aggregates the dofs of nodes by the strength of their
+ * connections, using the rigid body modes of nodes (see
+ * {@link #setNearNullSpace(int[], double[])}) as near null space. The number
+ * of iterations hardly grows with mesh refinement. The solver workspace and the
+ * preconditioner are set up once in initialize and kept between subsequent
+ * solves, each of which is warm-started from the solution of the previous one.
  * 
  * @author Murat Artim
  * 
@@ -70,7 +80,10 @@ public class Solver0 extends LESolver {
 			QMR_ = 4, GMRES_ = 5, IR_ = 6;
 
 	/** Static variable for the preconditioner type. */
-	public static final int ICC_ = 0, ILU_ = 1, DP_ = 2;
+	public static final int ICC_ = 0, ILU_ = 1, DP_ = 2, AMG_ = 3;
+
+	/** Default relative convergence tolerance of iterative solvers. */
+	private static final double relTol_ = 1.0e-5;
 
 	/** Iterative solver type. */
 	private int solverType_;
@@ -81,6 +94,14 @@ public class Solver0 extends LESolver {
 	/** Iterative solver. */
 	private IterativeSolver solver_;
 
+	/** Solution of the previous solve, used as initial guess of the next. */
+	private transient DVec guess_;
+
+	/** Dof numbers and near null space vectors of nodes (for AMG). */
+	private transient int[] nullDofs_;
+
+	private transient double[] nullModes_;
+
 	/**
 	 * Creates linear system iterative solver.
 	 * 
@@ -113,6 +134,23 @@ public class Solver0 extends LESolver {
 		return precondType_;
 	}
 
+	/**
+	 * Sets the near null space (rigid body modes) of nodes, used by algebraic
+	 * multigrid preconditioner. Has to be called before initialization. If not
+	 * set, each dof is aggregated separately with a constant vector.
+	 * 
+	 * @param dofs
+	 *            Dof numbers of nodes (6 for each node, -1 for constrained
+	 *            dofs).
+	 * @param modes
+	 *            Near null space vectors of nodes (36 for each node; the
+	 *            components of 6 modes for each dof of node).
+	 */
+	public void setNearNullSpace(int[] dofs, double[] modes) {
+		nullDofs_ = dofs;
+		nullModes_ = modes;
+	}
+
 	/**
 	 * Returns number of iterations performed.
 	 * 
@@ -143,10 +181,7 @@ public class Solver0 extends LESolver {
 
 	@Override
 	public int getStorageType() {
-		if (precondType_ == Solver0.DP_)
-			return Solver.CDS_;
-		else
-			return Solver.CRS_;
+		return Solver.CRS_;
 	}
 
 	@Override
@@ -157,25 +192,47 @@ public class Solver0 extends LESolver {
 	@Override
 	public void initialize(Mat matA, DVec vecX) {
 
-		// cast matrix
-		CDSMat a = (CDSMat) matA;
+		// get matrix
+		Matrix a = getMatrix(matA);
 
 		// allocate storage for the selected solver type
 		createSolver(vecX);
 
 		// create and set up the selected preconditioner
 		createPreconditioner(a);
+		factorized_ = true;
+		guess_ = null;
 	}
 
 	@Override
 	public void solve(Mat matA, DVec vecB, DVec vecX) {
 
-		// cast matrix
-		CDSMat a = (CDSMat) matA;
+		// check if initialized
+		if (factorized_ == false)
+			exceptionHandler("Solver is not initialized!");
+
+		// get matrix
+		Matrix a = getMatrix(matA);
+
+		// start from the solution of previous solve
+		if (guess_ != null && guess_.rowCount() == vecX.rowCount()) {
+			vecX.vec_.set(guess_.vec_);
+
+			// converge relative to the right hand side instead of the
+			// (already small) initial residual
+			IterationMonitor monitor = solver_.getIterationMonitor();
+			if (monitor instanceof DefaultIterationMonitor)
+				((DefaultIterationMonitor) monitor)
+						.setAbsoluteTolerance(relTol_
+								* vecB.vec_.norm(Norm.Two));
+		}
 
 		// start the solver, and check for problems
 		try {
-			solver_.solve(a.mat_, vecB.vec_, vecX.vec_);
+			solver_.solve(a, vecB.vec_, vecX.vec_);
+			if (guess_ == null)
+				guess_ = new DVec(vecX.rowCount());
+			guess_.vec_.set(vecX.vec_);
 		}
 
 		// problem occured
@@ -187,6 +244,8 @@ public class Solver0 extends LESolver {
 	@Override
 	public void clear() {
 		solver_ = null;
+		guess_ = null;
+		factorized_ = false;
 	}
 
 	/**
@@ -238,38 +297,55 @@ public class Solver0 extends LESolver {
 	 * iterative solver.
 	 * 
 	 * @param matA
-	 *            Coefficient matrix (A). Has to be compressed-diagonal-storage
-	 *            sparse matrix (CDSMat).
+	 *            Coefficient matrix (A).
 	 */
-	private void createPreconditioner(CDSMat matA) {
+	private void createPreconditioner(Matrix matA) {
 
 		// initialize preconditioner
 		Preconditioner M = null;
 
 		// Cholesky preconditioner without fill-in (ICC)
 		if (precondType_ == Solver0.ICC_) {
-			CompRowMatrix a = new CompRowMatrix(matA.mat_);
+			CompRowMatrix a = new CompRowMatrix(matA);
 			M = new ICC(a);
-			M.setMatrix(matA.mat_);
+			M.setMatrix(matA);
 		}
 
 		// Incomplete LU preconditioner without fill-in (ILU)
 		else if (precondType_ == Solver0.ILU_) {
-			CompRowMatrix a = new CompRowMatrix(matA.mat_);
+			CompRowMatrix a = new CompRowMatrix(matA);
 			M = new ILU(a);
-			M.setMatrix(matA.mat_);
+			M.setMatrix(matA);
 		}
 
 		// Diagonal preconditioner (DP)
 		else if (precondType_ == Solver0.DP_) {
-			M = new DiagonalPreconditioner(matA.rowCount());
-			M.setMatrix(matA.mat_);
+			M = new DiagonalPreconditioner(matA.numRows());
+			M.setMatrix(matA);
+		}
+
+		// Algebraic multigrid preconditioner (AMG)
+		else if (precondType_ == Solver0.AMG_) {
+			M = new AMG(nullDofs_, nullModes_);
+			M.setMatrix(matA);
 		}
 
 		// attach preconditioner to solver
 		solver_.setPreconditioner(M);
 	}
 
+	/**
+	 * Returns the underlying matrix of given sparse matrix.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix (A). Has to be compressed-row-storage
+	 *            (CSRMat) sparse matrix.
+	 * @return The underlying matrix.
+	 */
+	private Matrix getMatrix(Mat matA) {
+		return ((CSRMat) matA).mat_;
+	}
+
 	/**
 	 * Checks given parameters for the solver and preconditioner types.
 	 * 
@@ -285,7 +361,7 @@ public class Solver0 extends LESolver {
 			exceptionHandler("Invalid solver type for iterative solver!");
 
 		// check preconditioner type
-		if (precondType < 0 || precondType > 2)
+		if (precondType < 0 || precondType > 3)
 			exceptionHandler("Invalid preconditioner type for iterative solver!");
 	}
 }
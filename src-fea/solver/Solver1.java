@@ -15,13 +15,6 @@
  */
 package solver;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-
 import matrix.Mat;
 import matrix.USB1Mat;
 import matrix.DVec;
@@ -29,8 +22,10 @@ import matrix.DVec;
 /**
  * Class for direct-active column-linear equation solver. It can be used for
  * solving linear system of equations (A x = b). It is an implementation of
- * Gauss elimination procedure. This class uses an external executable file
- * called "COLSOL.exe".
+ * Gauss elimination procedure. The coefficient matrix is factorized in place
+ * into its L*D*L(T) factors using the compacted storage and column reduction
+ * scheme of COLSOL (Bathe-p708). Subsequent solutions are performed by forward
+ * reduction and back-substitution of the right hand side vector only.
  * 
  * @author Murat Artim
  * 
@@ -69,168 +64,31 @@ public class Solver1 extends LESolver {
 		return Solver.solver1_;
 	}
 
-	@Override
+	/**
+	 * Initializes solver by factorizing the coefficient matrix in place.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix (A). Has to be in USB1 form (assumed
+	 *            positive definite). It is replaced by its L*D*L(T) factors.
+	 * @param vecX
+	 *            Solution vector (x).
+	 */
 	public void initialize(Mat matA, DVec vecX) {
 
 		// cast matrix
 		USB1Mat a = (USB1Mat) matA;
 
-		// initialize buffered writer
-		BufferedWriter bwriter = null;
-
-		try {
-
-			// create input file
-			File input = new File("INPUT.txt");
-
-			// create file writer
-			FileWriter writer = new FileWriter(input);
-
-			// create buffered writer
-			bwriter = new BufferedWriter(writer);
-
-			// write header to input
-			bwriter.write("P A R A M E T E R S");
-			bwriter.newLine();
-
-			// number of equations
-			bwriter.write(Integer.toString(a.rowCount()));
-			bwriter.newLine();
-
-			// number of elements below skyline of matrix
-			bwriter.write(Integer.toString(a.getData().length));
-			bwriter.newLine();
-
-			// dimension of adresses array
-			bwriter.write(Integer.toString(a.getAdresses().length));
-			bwriter.newLine();
-
-			// triangularization of stiffness matrix
-			bwriter.write(Integer.toString(1));
-			bwriter.newLine();
-
-			// write matrices/vectors
-			write(a, vecX, bwriter);
-
-			// delete marices/vectors
-			a.delete();
-			vecX.delete();
-		}
-
-		// exception occured during writing input file
-		catch (Exception excep) {
-			exceptionHandler("Exception occured during writing input file!");
-		}
-
-		// close writer
-		finally {
-
-			// check if the writer is null
-			if (bwriter != null) {
-				try {
-
-					// close writer
-					bwriter.close();
-				} catch (IOException io) {
-				}
-			}
-		}
-
-		// initialize buffered reader and file
-		BufferedReader breader = null;
-		File file = null;
-
-		try {
-
-			// create file
-			file = new File("solvers/COLSOL.exe");
-
-			// solver exists
-			if (file.exists()) {
-
-				// execute solver
-				Process p = Runtime.getRuntime().exec("solvers/COLSOL.exe");
-				p.waitFor();
-
-				// get output file
-				file = new File("OUTPUT.txt");
-
-				// output file exists
-				if (file.exists()) {
-
-					// create file reader
-					FileReader reader = new FileReader(file);
-
-					// create buffered reader
-					breader = new BufferedReader(reader);
-
-					// check if successfull exit
-					String exit = breader.readLine();
-					if (exit.equalsIgnoreCase("*** SUCCESSFULL EXIT ***")) {
-
-						// reallocate marices/vectors
-						a.reAllocate();
-						vecX.reAllocate();
-
-						// read # of equations
-						breader.readLine();
-						breader.readLine();
-
-						// read matrix - a
-						breader.readLine();
-						for (int i = 0; i < a.getData().length; i++)
-							a.set(i, Double.parseDouble(breader.readLine()
-									.trim()));
-					}
-
-					// solve failed
-					else
-						exceptionHandler("Solve failed!");
-				}
-
-				// output file doesn't exist
-				else
-					exceptionHandler("Solve failed!");
-			}
-
-			// solver file doesn't exist
-			else
-				exceptionHandler("Exception occurred during solver execution!");
-		}
-
-		// exception occurred during execution
-		catch (Exception e) {
-			exceptionHandler("Solve failed!");
-		}
-
-		// close reader
-		finally {
-
-			// check if the reader is null
-			if (breader != null) {
-				try {
-
-					// close writer
-					breader.close();
-				} catch (IOException io) {
-				}
-			}
-
-			// check if the file is null
-			if (file != null) {
-
-				// delete output file
-				file.delete();
-			}
-		}
+		// factorize
+		factorize(a.getData(), a.getAdresses(), a.rowCount());
+		factorized_ = true;
 	}
 
 	/**
 	 * Solves system of linear equations (A x = b).
 	 * 
 	 * @param matA
-	 *            Coefficient matrix (A). Has to be in USB1 form (assumed
-	 *            positive definite).
+	 *            Coefficient matrix (A). Has to be in USB1 form and factorized
+	 *            by initialize method.
 	 * @param vecB
 	 *            Right hand side vector (b). Has to be dense vector (DVec).
 	 * @param vecX
@@ -238,210 +96,136 @@ public class Solver1 extends LESolver {
 	 */
 	public void solve(Mat matA, DVec vecB, DVec vecX) {
 
+		// check if factorized
+		if (factorized_ == false)
+			exceptionHandler("Solver is not initialized!");
+
 		// cast matrix
 		USB1Mat a = (USB1Mat) matA;
 
-		// initialize buffered writer
-		BufferedWriter bwriter = null;
+		// copy right hand side vector to solution vector
+		int n = a.rowCount();
+		double[] v = vecX.vec_.getData();
+		System.arraycopy(vecB.vec_.getData(), 0, v, 0, n);
 
-		try {
-
-			// create input file
-			File input = new File("INPUT.txt");
-
-			// create file writer
-			FileWriter writer = new FileWriter(input);
-
-			// create buffered writer
-			bwriter = new BufferedWriter(writer);
-
-			// write header to input
-			bwriter.write("P A R A M E T E R S");
-			bwriter.newLine();
-
-			// number of equations
-			bwriter.write(Integer.toString(a.rowCount()));
-			bwriter.newLine();
-
-			// number of elements below skyline of matrix
-			bwriter.write(Integer.toString(a.getData().length));
-			bwriter.newLine();
-
-			// dimension of adresses array
-			bwriter.write(Integer.toString(a.getAdresses().length));
-			bwriter.newLine();
-
-			// reduction and back-substitution of load vector
-			bwriter.write(Integer.toString(2));
-			bwriter.newLine();
-
-			// write matrices/vectors
-			write(a, vecB, bwriter);
-
-			// delete matrix/vector
-			a.delete();
-			vecX.delete();
-		}
-
-		// exception occured during writing input file
-		catch (Exception excep) {
-			exceptionHandler("Exception occured during writing input file!");
-		}
-
-		// close writer
-		finally {
-
-			// check if the writer is null
-			if (bwriter != null) {
-				try {
-
-					// close writer
-					bwriter.close();
-				} catch (IOException io) {
-				}
-			}
-		}
-
-		// initialize buffered reader and file
-		BufferedReader breader = null;
-		File file = null;
-
-		try {
-
-			// create file
-			file = new File("solvers/COLSOL.exe");
-
-			// solver exists
-			if (file.exists()) {
-
-				// execute solver
-				Process p = Runtime.getRuntime().exec("solvers/COLSOL.exe");
-				p.waitFor();
-
-				// get output file
-				file = new File("OUTPUT.txt");
-
-				// output file exists
-				if (file.exists()) {
-
-					// create file reader
-					FileReader reader = new FileReader(file);
-
-					// create buffered reader
-					breader = new BufferedReader(reader);
-
-					// check if successfull exit
-					String exit = breader.readLine();
-					if (exit.equalsIgnoreCase("*** SUCCESSFULL EXIT ***")) {
-
-						// reallocate marices/vectors
-						a.reAllocate();
-						vecX.reAllocate();
-
-						// read # of equations
-						breader.readLine();
-						int neq = Integer.parseInt(breader.readLine().trim());
+		// reduce and back-substitute (in place)
+		substitute(a.getData(), a.getAdresses(), v, n);
+	}
 
-						// read matrix - a
-						breader.readLine();
-						for (int i = 0; i < a.getData().length; i++)
-							a.set(i, Double.parseDouble(breader.readLine()
-									.trim()));
+	@Override
+	public void clear() {
+		factorized_ = false;
+	}
 
-						// read displacements
-						breader.readLine();
-						for (int i = 0; i < neq; i++)
-							vecX.set(i, Double.parseDouble(breader.readLine()
-									.trim()));
+	/**
+	 * Performs L*D*L(T) factorization of the given matrix in compacted
+	 * storage. The matrix is replaced by its D and L factors.
+	 * 
+	 * @param a
+	 *            The matrix stored in compacted form.
+	 * @param maxa
+	 *            Array containing the adresses of diagonal elements in a.
+	 * @param nn
+	 *            Number of equations.
+	 */
+	private void factorize(double[] a, int[] maxa, int nn) {
+
+		// loop over columns
+		for (int n = 0; n < nn; n++) {
+
+			// get adresses of column
+			int kn = maxa[n];
+			int kl = kn + 1;
+			int ku = maxa[n + 1] - 1;
+			int kh = ku - kl;
+
+			// reduce off-diagonal elements of column
+			if (kh > 0) {
+				int k = n - kh;
+				int ic = 0;
+				int klt = ku;
+				for (int j = 0; j < kh; j++) {
+					ic++;
+					klt--;
+					int ki = maxa[k];
+					int nd = maxa[k + 1] - ki - 1;
+					if (nd > 0) {
+						int kk = Math.min(ic, nd);
+						double c = 0.0;
+						for (int l = 1; l <= kk; l++)
+							c += a[ki + l] * a[klt + l];
+						a[klt] -= c;
 					}
-
-					// solve failed
-					else
-						exceptionHandler("Solve failed!");
+					k++;
 				}
-
-				// output file doesn't exist
-				else
-					exceptionHandler("Solve failed!");
 			}
 
-			// solver file doesn't exist
-			else
-				exceptionHandler("Exception occurred during solver execution!");
-		}
-
-		// exception occurred during execution
-		catch (Exception e) {
-			exceptionHandler("Solve failed!");
-		}
-
-		// close reader
-		finally {
-
-			// check if the reader is null
-			if (breader != null) {
-				try {
-
-					// close writer
-					breader.close();
-				} catch (IOException io) {
+			// compute L factors and reduce diagonal element
+			if (kh >= 0) {
+				int k = n;
+				double b = 0.0;
+				for (int kk = kl; kk <= ku; kk++) {
+					k--;
+					int ki = maxa[k];
+					double c = a[kk] / a[ki];
+					b += c * a[kk];
+					a[kk] = c;
 				}
+				a[kn] -= b;
 			}
 
-			// check if the file is null
-			if (file != null) {
-
-				// delete output file
-				file.delete();
-			}
+			// check pivot
+			if (a[kn] <= 0.0)
+				exceptionHandler("Stiffness matrix not positive definite! Nonpositive pivot for equation "
+						+ (n + 1) + ".");
 		}
 	}
 
-	@Override
-	public void clear() {
-	}
-
 	/**
-	 * Writes matrices and vectors for input file.
+	 * Performs reduction and back-substitution of the right hand side vector
+	 * using the factorized matrix.
 	 * 
 	 * @param a
-	 *            Matrix A.
-	 * @param b
-	 *            Vector b.
-	 * @param bwriter
-	 *            Writer for input file.
+	 *            The D and L factors stored in compacted form.
+	 * @param maxa
+	 *            Array containing the adresses of diagonal elements in a.
+	 * @param v
+	 *            The right hand side vector. It is replaced by the solution.
+	 * @param nn
+	 *            Number of equations.
 	 */
-	private void write(USB1Mat a, DVec b, BufferedWriter bwriter) {
-		try {
-
-			// matrix - a
-			bwriter.write("M A T R I X  -  A");
-			bwriter.newLine();
-			for (int i = 0; i < a.getData().length; i++) {
-				bwriter.write(Double.toString(a.getData()[i]));
-				bwriter.newLine();
-			}
-
-			// vector - b
-			bwriter.write("V E C T O R  -  B/X");
-			bwriter.newLine();
-			for (int i = 0; i < b.rowCount(); i++) {
-				bwriter.write(Double.toString(b.get(i)));
-				bwriter.newLine();
-			}
-
-			// vector containing adresses of diagonal elements of a
-			bwriter.write("M A X A   V E C T O R");
-			bwriter.newLine();
-			for (int i = 0; i < a.getAdresses().length; i++) {
-				bwriter.write(Integer.toString(a.getAdresses()[i] + 1));
-				bwriter.newLine();
+	private void substitute(double[] a, int[] maxa, double[] v, int nn) {
+
+		// reduce right hand side vector
+		for (int n = 0; n < nn; n++) {
+			int kl = maxa[n] + 1;
+			int ku = maxa[n + 1] - 1;
+			if (ku >= kl) {
+				int k = n;
+				double c = 0.0;
+				for (int kk = kl; kk <= ku; kk++) {
+					k--;
+					c += a[kk] * v[k];
+				}
+				v[n] -= c;
 			}
 		}
 
-		// exception occured during writing input file
-		catch (Exception excep) {
-			exceptionHandler("Exception occured during writing input file!");
+		// divide by diagonal factors
+		for (int n = 0; n < nn; n++)
+			v[n] /= a[maxa[n]];
+
+		// back-substitute
+		for (int n = nn - 1; n > 0; n--) {
+			int kl = maxa[n] + 1;
+			int ku = maxa[n + 1] - 1;
+			if (ku >= kl) {
+				int k = n;
+				for (int kk = kl; kk <= ku; kk++) {
+					k--;
+					v[k] -= a[kk] * v[n];
+				}
+			}
 		}
 	}
 }
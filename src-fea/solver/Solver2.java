@@ -15,13 +15,6 @@
  */
 package solver;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-
 import matrix.Mat;
 import matrix.DVec;
 import matrix.USB2Mat;
@@ -29,8 +22,11 @@ import matrix.USB2Mat;
 /**
  * Class for direct-symmetric-Gauss elimination linear equation solver. It can
  * be used for solving linear system of equations (A x = b). It is an
- * implementation of Gauss elimination procedure. This class uses an external
- * executable file called "SYMSOLVR.exe".
+ * implementation of Gauss elimination procedure for banded symmetric matrices
+ * (SYMSOLVR). The coefficient matrix is eliminated in place once, and the
+ * eliminated band is kept as the Gauss factors, so that subsequent solutions
+ * only perform forward reduction and back-substitution of the right hand side
+ * vector.
  * 
  * @author Murat Artim
  * 
@@ -69,16 +65,31 @@ public class Solver2 extends LESolver {
 		return Solver.solver2_;
 	}
 
-	@Override
+	/**
+	 * Initializes solver by eliminating the coefficient matrix in place.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix (A). Has to be in USB2 form (assumed
+	 *            positive definite). It is replaced by its Gauss factors.
+	 * @param vecX
+	 *            Solution vector (x).
+	 */
 	public void initialize(Mat matA, DVec vecX) {
+
+		// cast matrix
+		USB2Mat a = (USB2Mat) matA;
+
+		// eliminate
+		eliminate(a.getData(), a.rowCount(), a.getHalfBandwidth() + 1);
+		factorized_ = true;
 	}
 
 	/**
 	 * Solves system of linear equations (A x = b).
 	 * 
 	 * @param matA
-	 *            Coefficient matrix (A). Has to be in USB1 form (assumed
-	 *            positive definite).
+	 *            Coefficient matrix (A). Has to be in USB2 form and eliminated
+	 *            by initialize method.
 	 * @param vecB
 	 *            Right hand side vector (b). Has to be dense vector (DVec).
 	 * @param vecX
@@ -86,205 +97,97 @@ public class Solver2 extends LESolver {
 	 */
 	public void solve(Mat matA, DVec vecB, DVec vecX) {
 
+		// check if factorized
+		if (factorized_ == false)
+			exceptionHandler("Solver is not initialized!");
+
 		// cast matrix
 		USB2Mat a = (USB2Mat) matA;
 
-		// initialize buffered writer
-		BufferedWriter bwriter = null;
-
-		try {
-
-			// create input file
-			File input = new File("INPUT.txt");
-
-			// create file writer
-			FileWriter writer = new FileWriter(input);
-
-			// create buffered writer
-			bwriter = new BufferedWriter(writer);
-
-			// write header to input
-			bwriter.write("P A R A M E T E R S");
-			bwriter.newLine();
-
-			// row count of coefficient matrix
-			bwriter.write(Integer.toString(a.rowCount()));
-			bwriter.newLine();
-
-			// column count of coefficient matrix
-			bwriter.write(Integer.toString(a.getHalfBandwidth() + 1));
-			bwriter.newLine();
-
-			// number of equations
-			bwriter.write(Integer.toString(a.rowCount()));
-			bwriter.newLine();
-
-			// half bandwidth
-			bwriter.write(Integer.toString(a.getHalfBandwidth() + 1));
-			bwriter.newLine();
-
-			// write matrices/vectors
-			write(a, vecB, bwriter);
-
-			// delete matrix/vector
-			a.delete();
-			vecX.delete();
-		}
-
-		// exception occured during writing input file
-		catch (Exception excep) {
-			exceptionHandler("Exception occured during writing input file!");
-		}
-
-		// close writer
-		finally {
-
-			// check if the writer is null
-			if (bwriter != null) {
-				try {
-
-					// close writer
-					bwriter.close();
-				} catch (IOException io) {
-				}
-			}
-		}
-
-		// initialize buffered reader and file
-		BufferedReader breader = null;
-		File file = null;
-
-		try {
-
-			// create file
-			file = new File("solvers/SYMSOLVR.exe");
+		// copy right hand side vector to solution vector
+		int n = a.rowCount();
+		double[] rhs = vecX.vec_.getData();
+		System.arraycopy(vecB.vec_.getData(), 0, rhs, 0, n);
 
-			// solver exists
-			if (file.exists()) {
-
-				// execute solver
-				Process p = Runtime.getRuntime().exec("solvers/SYMSOLVR.exe");
-				p.waitFor();
-
-				// get output file
-				file = new File("OUTPUT.txt");
-
-				// output file exists
-				if (file.exists()) {
-
-					// create file reader
-					FileReader reader = new FileReader(file);
-
-					// create buffered reader
-					breader = new BufferedReader(reader);
-
-					// reallocate marices/vectors
-					a.reAllocate();
-					vecX.reAllocate();
-
-					// read matrix - a
-					breader.readLine();
-					for (int i = 0; i < a.rowCount(); i++)
-						for (int j = 0; j < a.getHalfBandwidth() + 1; j++)
-							a.setToInt(i, j, Double.parseDouble(breader
-									.readLine().trim()));
-
-					// check if successfull exit
-					String exit = breader.readLine();
-					if (exit.equalsIgnoreCase("*** SUCCESSFULL EXIT ***")) {
-
-						// read # of equations
-						breader.readLine();
-						int neq = Integer.parseInt(breader.readLine().trim());
-
-						// read displacements
-						breader.readLine();
-						for (int i = 0; i < neq; i++)
-							vecX.set(i, Double.parseDouble(breader.readLine()
-									.trim()));
-					}
-
-					// solve failed
-					else
-						exceptionHandler("Solve failed!");
-				}
-
-				// output file doesn't exist
-				else
-					exceptionHandler("Solve failed!");
-			}
-
-			// solver file doesn't exist
-			else
-				exceptionHandler("Exception occurred during solver execution!");
-		}
-
-		// exception occurred during execution
-		catch (Exception e) {
-			exceptionHandler("Solve failed!");
-		}
-
-		// close reader
-		finally {
-
-			// check if the reader is null
-			if (breader != null) {
-				try {
-
-					// close writer
-					breader.close();
-				} catch (IOException io) {
-				}
-			}
-
-			// check if the file is null
-			if (file != null) {
-
-				// delete output file
-				file.delete();
-			}
-		}
+		// reduce and back-substitute (in place)
+		substitute(a.getData(), rhs, n, a.getHalfBandwidth() + 1);
 	}
 
 	@Override
 	public void clear() {
+		factorized_ = false;
 	}
 
 	/**
-	 * Writes matrices and vectors for input file.
+	 * Performs Gauss elimination of the given banded matrix. The matrix is
+	 * replaced by the eliminated band.
 	 * 
-	 * @param a
-	 *            Matrix A.
-	 * @param b
-	 *            Vector b.
-	 * @param bwriter
-	 *            Writer for input file.
+	 * @param band
+	 *            The banded matrix.
+	 * @param neqns
+	 *            Number of equations.
+	 * @param nbw
+	 *            Half-bandwidth (including diagonal).
 	 */
-	private void write(USB2Mat a, DVec b, BufferedWriter bwriter) {
-		try {
-
-			// matrix - a
-			bwriter.write("M A T R I X  -  A");
-			bwriter.newLine();
-			for (int i = 0; i < a.rowCount(); i++) {
-				for (int j = 0; j < a.getHalfBandwidth() + 1; j++) {
-					bwriter.write(Double.toString(a.getData()[i][j]));
-					bwriter.newLine();
+	private void eliminate(double[][] band, int neqns, int nbw) {
+
+		// loop over pivots
+		for (int npiv = 0; npiv < neqns - 1; npiv++) {
+
+			// check pivot
+			if (band[npiv][0] == 0.0)
+				exceptionHandler("Zero pivot for equation " + (npiv + 1)
+						+ "!");
+
+			// eliminate rows below pivot
+			int lstsub = Math.min(npiv + nbw - 1, neqns - 1);
+			for (int nrow = npiv + 1; nrow <= lstsub; nrow++) {
+				double factor = band[npiv][nrow - npiv] / band[npiv][0];
+				if (factor != 0.0) {
+					for (int ncol = nrow; ncol <= lstsub; ncol++)
+						band[nrow][ncol - nrow] -= factor
+								* band[npiv][ncol - npiv];
 				}
 			}
+		}
+
+		// check last pivot
+		if (neqns > 0 && band[neqns - 1][0] == 0.0)
+			exceptionHandler("Zero pivot for equation " + neqns + "!");
+	}
 
-			// vector - b
-			bwriter.write("V E C T O R  -  B");
-			bwriter.newLine();
-			for (int i = 0; i < b.rowCount(); i++) {
-				bwriter.write(Double.toString(b.get(i)));
-				bwriter.newLine();
+	/**
+	 * Performs forward reduction and back-substitution of the right hand side
+	 * vector using the eliminated band.
+	 * 
+	 * @param band
+	 *            The eliminated band.
+	 * @param rhs
+	 *            The right hand side vector. It is replaced by the solution.
+	 * @param neqns
+	 *            Number of equations.
+	 * @param nbw
+	 *            Half-bandwidth (including diagonal).
+	 */
+	private void substitute(double[][] band, double[] rhs, int neqns, int nbw) {
+
+		// reduce right hand side vector
+		for (int npiv = 0; npiv < neqns - 1; npiv++) {
+			int lstsub = Math.min(npiv + nbw - 1, neqns - 1);
+			for (int nrow = npiv + 1; nrow <= lstsub; nrow++) {
+				double factor = band[npiv][nrow - npiv] / band[npiv][0];
+				rhs[nrow] -= factor * rhs[npiv];
 			}
 		}
 
-		// exception occured during writing input file
-		catch (Exception excep) {
-			exceptionHandler("Exception occured during writing input file!");
+		// back-substitute
+		for (int npiv = neqns - 1; npiv > 0; npiv--) {
+			rhs[npiv] /= band[npiv][0];
+			int lstsub = Math.max(npiv - nbw + 1, 0);
+			for (int nrow = npiv - 1; nrow >= lstsub; nrow--)
+				rhs[nrow] -= band[nrow][npiv - nrow] * rhs[npiv];
 		}
+		if (neqns > 0)
+			rhs[0] /= band[0][0];
 	}
 }
@@ -0,0 +1,485 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import java.util.Random;
+
+import Jama.EigenvalueDecomposition;
+import Jama.Matrix;
+
+import matrix.GPSMat;
+import matrix.DVec;
+import matrix.USB1Mat;
+import matrix.Mat;
+
+/**
+ * Class for sparse generalized eigenproblem solver. It solves for the smallest
+ * eigenvalues (assumed > 0) and corresponding eigenvectors of A * x = (lambda)
+ * * B * x using the thick-restart Lanczos method. The problem is transformed
+ * into B * x = (mu) * A * x with mu = 1 / lambda, whose operator inv(A) * B is
+ * self-adjoint in the A-inner product, so B is not required to be positive
+ * definite. A is factorized once in banded form and an unfactorized copy is
+ * kept for computing the products of A with the basis; the basis holds
+ * min(n, max(2 * nRoot, nRoot + 16)) vectors, so memory grows linearly with
+ * the number of equations. This class is written in pure Java.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class Solver5 extends GESolver {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Minimum number of additional Lanczos vectors. */
+	private static final int extraVectors_ = 16;
+
+	/** Relative tolerance for detecting invariant subspaces. */
+	private static final double breakdown_ = 1.0e-10;
+
+	/** Number of required eigenvalues and eigenvectors. */
+	private int nRoot_;
+
+	/** Convergence tolerance on eigenvalues (1.e-06 or smaller). */
+	private double rTol_;
+
+	/** Maximum number of restarts permitted. */
+	private int nitem_;
+
+	/** Linear equation solver used for factorizing matrix A. */
+	private transient Solver1 factor_;
+
+	/** Unfactorized copy of matrix A. */
+	private transient USB1Mat matA_;
+
+	/** Random number generator for starting vectors. */
+	private transient Random random_;
+
+	/**
+	 * Creates Lanczos eigenproblem solver.
+	 * 
+	 * @param name
+	 *            The name of solver.
+	 * @param nRoot
+	 *            Number of required eigenvalues and eigenvectors.
+	 * @param rTol
+	 *            Convergence tolerance on eigenvalues (1.e-06 or smaller).
+	 * @param nitem
+	 *            Maximum number of restarts permitted. It must be increased if
+	 *            a solution has not converged.
+	 */
+	public Solver5(String name, int nRoot, double rTol, int nitem) {
+
+		// set name
+		setName(name);
+
+		// check parameters
+		checkParameters(nRoot, rTol, nitem);
+
+		// set parameters
+		nRoot_ = nRoot;
+		rTol_ = rTol;
+		nitem_ = nitem;
+	}
+
+	/**
+	 * Returns maximum number of permitted restarts.
+	 * 
+	 * @return Maximum number of permitted restarts.
+	 */
+	public int getMaxNumberOfIterations() {
+		return nitem_;
+	}
+
+	@Override
+	public int getNumberOfRequiredEigenvalues() {
+		return nRoot_;
+	}
+
+	@Override
+	public double getConvergenceTolerance() {
+		return rTol_;
+	}
+
+	@Override
+	public int getStorageType() {
+		return Solver.USB1S_;
+	}
+
+	@Override
+	public int getType() {
+		return Solver.solver5_;
+	}
+
+	@Override
+	public int getSolverType() {
+		return GESolver.Lanczos_;
+	}
+
+	/**
+	 * Initializes solver by factorizing the first coefficient matrix in place.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix A. Has to be in USB1 form (assumed positive
+	 *            definite). It is replaced by its L*D*L(T) factors.
+	 * @param matB
+	 *            The second coefficient matrix (B). Has to be in USB1 form.
+	 */
+	public void initialize(Mat matA, Mat matB) {
+
+		// copy and factorize matrix A
+		matA_ = ((USB1Mat) matA).copy();
+		factor_ = new Solver1(getName());
+		factor_.initialize(matA, null);
+
+		// create random number generator with fixed seed
+		random_ = new Random(1);
+	}
+
+	/**
+	 * Solves generalized eigenvalue problem. Eigenvectors are normalized with
+	 * respect to matrix B.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix A. Has to be factorized by initialize
+	 *            method.
+	 * @param matB
+	 *            Coefficient matrix B.
+	 * @param eigval
+	 *            Vector for storing the eigenvalues.
+	 * @param eigvec
+	 *            Matrix for storing the eigenvectors.
+	 * @param nEigval
+	 *            Number of computed eigenvalues.
+	 */
+	public void solve(Mat matA, Mat matB, DVec eigval, GPSMat eigvec,
+			int nEigval) {
+
+		// check if initialized
+		if (factor_ == null)
+			exceptionHandler("Solver is not initialized!");
+
+		// cast matrices
+		USB1Mat a = (USB1Mat) matA;
+		USB1Mat b = (USB1Mat) matB;
+
+		// get dimensions
+		int n = a.rowCount();
+		int nev = Math.min(nEigval, n);
+		int m = Math.min(n, Math.max(2 * nev, nev + extraVectors_));
+
+		// create Lanczos basis (q) and its product with A (aq)
+		double[][] q = new double[m + 1][];
+		double[][] aq = new double[m + 1][];
+		double[][] t = new double[m][m];
+
+		// create starting vector
+		int size = m;
+		if (startVector(a, b, q, aq, 0) == false)
+			exceptionHandler("Matrix B is zero!");
+
+		// loop over restarts
+		int k = 0;
+		double[] theta = null;
+		double[][] y = null;
+		for (int iter = 0; iter <= nitem_; iter++) {
+
+			// expand Lanczos basis
+			double beta = 0.0;
+			for (int j = k; j < size; j++) {
+
+				// apply operator (w = inv(A) * B * q)
+				double[] bq = multiply(b, q[j]);
+				double[] w = solve(a, bq);
+				double norm = Math.sqrt(dot(w, bq));
+
+				// orthogonalize against basis twice
+				for (int pass = 0; pass < 2; pass++) {
+					for (int i = 0; i <= j; i++) {
+						double h = dot(aq[i], w);
+						axpy(-h, q[i], w);
+						t[i][j] += h;
+					}
+				}
+				double[] aw = multiply(matA_, w);
+				beta = Math.sqrt(Math.max(dot(w, aw), 0.0));
+
+				// invariant subspace found
+				if (beta <= breakdown_ * norm) {
+					beta = 0.0;
+
+					// restart from a new vector or truncate basis
+					if (j + 1 < size && startVector(a, b, q, aq, j + 1))
+						continue;
+					size = j + 1;
+					break;
+				}
+
+				// set next Lanczos vector
+				q[j + 1] = scale(w, 1.0 / beta);
+				aq[j + 1] = scale(aw, 1.0 / beta);
+			}
+
+			// solve projected eigenproblem
+			double[][] s = new double[size][size];
+			for (int i = 0; i < size; i++)
+				for (int j = i; j < size; j++)
+					s[i][j] = s[j][i] = t[i][j];
+			EigenvalueDecomposition eig = new Matrix(s).eig();
+			double[] d = eig.getRealEigenvalues();
+			double[][] v = eig.getV().getArray();
+
+			// sort Ritz pairs in descending order
+			theta = new double[size];
+			y = new double[size][size];
+			for (int i = 0; i < size; i++) {
+				theta[i] = d[size - 1 - i];
+				for (int j = 0; j < size; j++)
+					y[j][i] = v[j][size - 1 - i];
+			}
+
+			// check convergence of required Ritz pairs
+			nev = Math.min(nev, size);
+			boolean converged = true;
+			for (int i = 0; i < nev; i++)
+				if (Math.abs(beta * y[size - 1][i]) > rTol_
+						* Math.abs(theta[i]))
+					converged = false;
+			if (converged)
+				break;
+
+			// maximum number of restarts reached
+			if (iter == nitem_)
+				exceptionHandler("Solver failed to converge!");
+
+			// keep the leading Ritz vectors
+			k = Math.min(nev + (size - nev) / 2, size - 1);
+			rotate(q, y, size, k);
+			rotate(aq, y, size, k);
+			q[k] = q[size];
+			aq[k] = aq[size];
+			for (int i = k + 1; i <= m; i++) {
+				q[i] = null;
+				aq[i] = null;
+			}
+
+			// reset projected matrix
+			t = new double[m][m];
+			for (int i = 0; i < k; i++)
+				t[i][i] = theta[i];
+		}
+
+		// compute Ritz vectors
+		rotate(q, y, size, nev);
+
+		// loop over eigenpairs
+		double[][] vec = eigvec.getData();
+		for (int i = 0; i < nev; i++) {
+
+			// set eigenvalue
+			eigval.set(i, 1.0 / theta[i]);
+
+			// normalize eigenvector with respect to B
+			double c = theta[i] > 0.0 ? 1.0 / Math.sqrt(theta[i]) : 1.0;
+			for (int j = 0; j < n; j++)
+				vec[j][i] = c * q[i][j];
+		}
+	}
+
+	/**
+	 * Creates Lanczos vector from a random vector, orthogonalized against the
+	 * previous vectors of basis.
+	 * 
+	 * @param a
+	 *            Factorized coefficient matrix A.
+	 * @param b
+	 *            Coefficient matrix B.
+	 * @param q
+	 *            Lanczos basis.
+	 * @param aq
+	 *            Products of A and Lanczos basis.
+	 * @param j
+	 *            Index of vector to be created.
+	 * @return True if a vector independent of the basis could be created.
+	 */
+	private boolean startVector(USB1Mat a, USB1Mat b, double[][] q,
+			double[][] aq, int j) {
+
+		// loop over attempts
+		for (int attempt = 0; attempt < 3; attempt++) {
+
+			// create random vector in the range of operator
+			double[] x = new double[a.rowCount()];
+			for (int i = 0; i < x.length; i++)
+				x[i] = random_.nextDouble() - 0.5;
+			double[] bx = multiply(b, x);
+			double[] w = solve(a, bx);
+			double norm = Math.sqrt(Math.max(dot(w, bx), 0.0));
+
+			// orthogonalize against basis twice
+			for (int pass = 0; pass < 2; pass++) {
+				for (int i = 0; i < j; i++) {
+					double h = dot(aq[i], w);
+					axpy(-h, q[i], w);
+				}
+			}
+			double[] aw = multiply(matA_, w);
+			double beta = Math.sqrt(Math.max(dot(w, aw), 0.0));
+
+			// set vector
+			if (beta > breakdown_ * norm) {
+				q[j] = scale(w, 1.0 / beta);
+				aq[j] = scale(aw, 1.0 / beta);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Replaces the first vectors of basis by their combinations (Q = Q * Y).
+	 * 
+	 * @param q
+	 *            Basis vectors.
+	 * @param y
+	 *            Combination coefficients.
+	 * @param size
+	 *            Number of basis vectors.
+	 * @param k
+	 *            Number of combinations to be computed.
+	 */
+	private void rotate(double[][] q, double[][] y, int size, int k) {
+
+		// loop over components
+		double[] row = new double[size];
+		for (int r = 0; r < q[0].length; r++) {
+
+			// get component of basis vectors
+			for (int i = 0; i < size; i++)
+				row[i] = q[i][r];
+
+			// compute combinations
+			for (int c = 0; c < k; c++) {
+				double sum = 0.0;
+				for (int i = 0; i < size; i++)
+					sum += row[i] * y[i][c];
+				q[c][r] = sum;
+			}
+		}
+	}
+
+	/**
+	 * Returns product of sparse matrix and vector.
+	 * 
+	 * @param b
+	 *            Sparse matrix.
+	 * @param x
+	 *            Vector.
+	 * @return The product vector.
+	 */
+	private double[] multiply(USB1Mat b, double[] x) {
+		return b.multiply(new DVec(x)).vec_.getData();
+	}
+
+	/**
+	 * Solves factorized linear system (A x = b).
+	 * 
+	 * @param a
+	 *            Factorized coefficient matrix.
+	 * @param rhs
+	 *            Right hand side vector.
+	 * @return The solution vector.
+	 */
+	private double[] solve(USB1Mat a, double[] rhs) {
+		DVec x = new DVec(rhs.length);
+		factor_.solve(a, new DVec(rhs), x);
+		return x.vec_.getData();
+	}
+
+	/**
+	 * Returns dot product of vectors.
+	 * 
+	 * @param x
+	 *            First vector.
+	 * @param y
+	 *            Second vector.
+	 * @return Dot product.
+	 */
+	private double dot(double[] x, double[] y) {
+		double sum = 0.0;
+		for (int i = 0; i < x.length; i++)
+			sum += x[i] * y[i];
+		return sum;
+	}
+
+	/**
+	 * Performs y = y + alpha * x.
+	 * 
+	 * @param alpha
+	 *            Scaling factor.
+	 * @param x
+	 *            Vector to be added.
+	 * @param y
+	 *            Vector to be updated.
+	 */
+	private void axpy(double alpha, double[] x, double[] y) {
+		for (int i = 0; i < x.length; i++)
+			y[i] += alpha * x[i];
+	}
+
+	/**
+	 * Returns scaled copy of vector.
+	 * 
+	 * @param x
+	 *            Vector.
+	 * @param alpha
+	 *            Scaling factor.
+	 * @return Scaled copy of vector.
+	 */
+	private double[] scale(double[] x, double alpha) {
+		double[] y = new double[x.length];
+		for (int i = 0; i < x.length; i++)
+			y[i] = alpha * x[i];
+		return y;
+	}
+
+	/**
+	 * Checks given parameters.
+	 * 
+	 * @param nRoot
+	 *            Number of required eigenvalues and eigenvectors.
+	 * @param rTol
+	 *            Convergence tolerance on eigenvalues.
+	 * @param nitem
+	 *            Maximum number of restarts permitted.
+	 */
+	private void checkParameters(int nRoot, double rTol, int nitem) {
+
+		// initialize error message
+		String err = "Invalid parameter for solver!";
+
+		// check nRoot
+		if (nRoot <= 0)
+			exceptionHandler(err);
+
+		// check rTol
+		if (rTol <= 0.0)
+			exceptionHandler(err);
+
+		// check nitem
+		if (nitem <= 0)
+			exceptionHandler(err);
+	}
+}
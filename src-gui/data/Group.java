@@ -16,6 +16,8 @@
 package data;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Vector;
 
 import element.Element;
@@ -168,6 +170,26 @@ public class Group implements Serializable {
 		elements_.remove(element);
 	}
 
+	/**
+	 * Removes given nodes from group.
+	 *
+	 * @param nodes
+	 *            The nodes to be removed.
+	 */
+	public void removeNodes(Collection<Node> nodes) {
+		nodes_.removeAll(new HashSet<Node>(nodes));
+	}
+
+	/**
+	 * Removes given elements from group.
+	 *
+	 * @param elements
+	 *            The elements to be removed.
+	 */
+	public void removeElements(Collection<Element> elements) {
+		elements_.removeAll(new HashSet<Element>(elements));
+	}
+
 	/**
 	 * Checks whether the given node is in group or not.
 	 *
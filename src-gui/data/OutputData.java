@@ -17,11 +17,11 @@ package data;
 
 import java.io.Serializable;
 
+import analysis.ReactionRecovery;
 import analysis.Structure;
 
 import element.Element;
 import node.Node;
-import matrix.DVec;
 
 /**
  * Class for output data object.
@@ -43,6 +43,15 @@ public class OutputData implements Serializable {
 	/** Number of steps available. */
 	private Integer steps_ = 0;
 
+	/** Binary results store backing this object, if any. */
+	private transient OutputStore store_;
+
+	/**
+	 * Reaction recovery of the structure set (created when needed). It is
+	 * released together with this object.
+	 */
+	private transient ReactionRecovery reactions_;
+
 	/**
 	 * Creates output object.
 	 * 
@@ -56,6 +65,18 @@ public class OutputData implements Serializable {
 		steps_ = steps;
 	}
 
+	/**
+	 * Creates output object backed by binary results store. Unknowns are read
+	 * from the store on demand.
+	 * 
+	 * @param store
+	 *            The results store.
+	 */
+	public OutputData(OutputStore store) {
+		store_ = store;
+		steps_ = store.getNumberOfSteps();
+	}
+
 	/**
 	 * Sets nodal unknowns and reaction forces to nodes depending on the step
 	 * number given.
@@ -68,7 +89,7 @@ public class OutputData implements Serializable {
 	public void setStep(Structure s, int n) {
 
 		// check unknowns matrix
-		if (unknowns_ != null) {
+		if (hasUnknowns()) {
 
 			// check demanded step number
 			if (n < steps_) {
@@ -77,7 +98,9 @@ public class OutputData implements Serializable {
 				setUnknowns(s, n);
 
 				// set reaction forces to nodes
-				setReactionForces(s);
+				if (reactions_ == null)
+					reactions_ = new ReactionRecovery();
+				reactions_.recover(s);
 			}
 		}
 	}
@@ -93,7 +116,7 @@ public class OutputData implements Serializable {
 	public void setStepToNode(Node node, int n) {
 
 		// check unknowns matrix
-		if (unknowns_ != null) {
+		if (hasUnknowns()) {
 
 			// get node's dof numbers array
 			int[] dof = node.getDofNumbers();
@@ -108,7 +131,7 @@ public class OutputData implements Serializable {
 				if (dof[j] != -1) {
 
 					// set unknowns to array
-					uNode[j] = unknowns_[dof[j]][n];
+					uNode[j] = getUnknown(dof[j], n);
 				}
 			}
 
@@ -128,7 +151,7 @@ public class OutputData implements Serializable {
 	public void setStepToElement(Element e, int n) {
 
 		// check unknowns matrix
-		if (unknowns_ != null) {
+		if (hasUnknowns()) {
 
 			// get nodes of element
 			Node[] nodes = e.getNodes();
@@ -149,7 +172,7 @@ public class OutputData implements Serializable {
 					if (dof[j] != -1) {
 
 						// set unknowns to array
-						uNode[j] = unknowns_[dof[j]][n];
+						uNode[j] = getUnknown(dof[j], n);
 					}
 				}
 
@@ -159,6 +182,81 @@ public class OutputData implements Serializable {
 		}
 	}
 
+	/**
+	 * Returns the time histories of given equations over a range of steps. The
+	 * unknowns are gathered in one pass over the steps, without setting them
+	 * to nodes.
+	 * 
+	 * @param eqs
+	 *            The equation numbers (-1 for constrained dofs, whose
+	 *            histories are zero).
+	 * @param first
+	 *            The first step number (inclusive).
+	 * @param last
+	 *            The last step number (inclusive).
+	 * @return Array storing the history of each equation, or null if output
+	 *         object has no unknowns.
+	 */
+	public double[][] getHistories(int[] eqs, int first, int last) {
+
+		// check unknowns matrix
+		if (hasUnknowns() == false)
+			return null;
+
+		// create histories
+		double[][] histories = new double[eqs.length][last - first + 1];
+
+		// loop over steps
+		for (int n = first; n <= last; n++) {
+
+			// loop over equations
+			for (int i = 0; i < eqs.length; i++) {
+
+				// check if dof is free
+				if (eqs[i] != -1)
+					histories[i][n - first] = getUnknown(eqs[i], n);
+			}
+		}
+
+		// return histories
+		return histories;
+	}
+
+	/**
+	 * Returns the histories of unknowns of given nodes over a range of steps.
+	 * 
+	 * @param nodes
+	 *            The nodes.
+	 * @param first
+	 *            The first step number (inclusive).
+	 * @param last
+	 *            The last step number (inclusive).
+	 * @return Array storing the unknowns of nodes for each step (6 per node
+	 *         in node order), or null if output object has no unknowns.
+	 */
+	public double[][] getNodeHistories(Node[] nodes, int first, int last) {
+
+		// collect equation numbers of nodes
+		int[] eqs = new int[6 * nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			int[] dof = nodes[i].getDofNumbers();
+			for (int j = 0; j < 6; j++)
+				eqs[6 * i + j] = dof[j];
+		}
+
+		// get histories of equations
+		double[][] histories = getHistories(eqs, first, last);
+		if (histories == null)
+			return null;
+
+		// arrange by steps
+		double[][] steps = new double[last - first + 1][eqs.length];
+		for (int i = 0; i < eqs.length; i++)
+			for (int n = 0; n < steps.length; n++)
+				steps[n][i] = histories[i][n];
+		return steps;
+	}
+
 	/**
 	 * Returns number of available steps.
 	 * 
@@ -174,9 +272,58 @@ public class OutputData implements Serializable {
 	 * @return Unknowns matrix of output object.
 	 */
 	public double[][] getUnknowns() {
+
+		// build unknowns matrix from store
+		if (unknowns_ == null && store_ != null
+				&& store_.getNumberOfEquations() > 0) {
+			int eqn = store_.getNumberOfEquations();
+			double[][] unknowns = new double[eqn][steps_];
+			double[] u = new double[eqn];
+			for (int n = 0; n < steps_; n++) {
+				store_.getStep(n, u);
+				for (int i = 0; i < u.length; i++)
+					unknowns[i][n] = u[i];
+			}
+			return unknowns;
+		}
 		return unknowns_;
 	}
 
+	/**
+	 * Returns the binary results store of output object.
+	 * 
+	 * @return The results store, or null if the unknowns are kept in memory.
+	 */
+	public OutputStore getStore() {
+		return store_;
+	}
+
+	/**
+	 * Returns true if output object has unknowns.
+	 * 
+	 * @return True if output object has unknowns, False vice versa.
+	 */
+	private boolean hasUnknowns() {
+		if (store_ != null)
+			return store_.getNumberOfEquations() > 0;
+		return unknowns_ != null;
+	}
+
+	/**
+	 * Returns the unknown of given equation at the given step.
+	 * 
+	 * @param eq
+	 *            The equation number.
+	 * @param n
+	 *            The step number.
+	 * @return The unknown value.
+	 */
+	private double getUnknown(int eq, int n) {
+		if (store_ != null)
+			return store_.get(eq, n);
+		return unknowns_[eq][n];
+	}
+
 	/**
 	 * Sets unknowns to nodes.
 	 * 
@@ -187,6 +334,13 @@ public class OutputData implements Serializable {
 	 */
 	private void setUnknowns(Structure s, int n) {
 
+		// read step block at once from store
+		double[] u = null;
+		if (store_ != null) {
+			u = new double[store_.getNumberOfEquations()];
+			store_.getStep(n, u);
+		}
+
 		// loop over nodes
 		for (int i = 0; i < s.getNumberOfNodes(); i++) {
 
@@ -206,7 +360,7 @@ public class OutputData implements Serializable {
 				if (dof[j] != -1) {
 
 					// set unknowns to array
-					uNode[j] = unknowns_[dof[j]][n];
+					uNode[j] = u == null ? unknowns_[dof[j]][n] : u[dof[j]];
 				}
 			}
 
@@ -214,64 +368,4 @@ public class OutputData implements Serializable {
 			node.setUnknown(uNode);
 		}
 	}
-
-	/**
-	 * Sets reaction forces to nodes.
-	 * 
-	 * @param s
-	 *            Structure to be set.
-	 */
-	private void setReactionForces(Structure s) {
-
-		// loop over nodes for initializing reaction forces
-		for (int i = 0; i < s.getNumberOfNodes(); i++)
-			s.getNode(i).setReactionForce(null);
-
-		// loop over elements for element boundary loads
-		for (int i = 0; i < s.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = s.getElement(i);
-
-			// get boundary load vector of element
-			DVec pe = e.getBoundLoadVector();
-
-			// get nodes of element
-			Node[] nodes = e.getNodes();
-
-			// build array for storing node's forces
-			double[] fNode = new double[6];
-
-			// loop over nodes of element
-			for (int j = 0; j < nodes.length; j++) {
-
-				// loop over dofs of node
-				for (int k = 0; k < 6; k++) {
-
-					// set node's forces
-					fNode[k] = pe.get(6 * j + k);
-				}
-
-				// add reactions to node
-				nodes[j].addReactionForce(new DVec(fNode));
-			}
-		}
-
-		// loop over nodes for nodal mechanical loads
-		for (int i = 0; i < s.getNumberOfNodes(); i++) {
-
-			// get node
-			Node node = s.getNode(i);
-
-			// check if the node has mechanical load
-			if (node.getMechLoads().size() != 0) {
-
-				// get mechanical load vector of node
-				DVec rn = node.getMechLoadVector().scale(-1.0);
-
-				// add reactions to node
-				node.addReactionForce(rn);
-			}
-		}
-	}
 }
@@ -0,0 +1,435 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class for random-access binary results store. The store file consists of a
+ * header, a DOF map and step-major blocks of doubles. The header holds the
+ * magic number, format version, number of equations, number of written steps,
+ * number of planned steps, the length of DOF map and the number of modes. The
+ * DOF map holds the equation numbers of nodal degrees of freedom (6 per node,
+ * -1 for constrained dofs). Each step block holds the system unknown vector of
+ * that step. The blocks are read by positional reads through a bounded cache of
+ * pages, so that demanding a single step or node only touches the related
+ * pages of the file. The file is opened when the store is read, and released
+ * by {@link #close()}. The file is not memory mapped, since mappings can't be
+ * released explicitly and prevent rewriting the file on some platforms.
+ * <p>
+ * A store with modes holds a basis of mode vectors after the DOF map, and its
+ * step blocks hold the modal coordinates of steps. Unknowns are then expanded
+ * from the modes on demand, only for the demanded steps and equations.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class OutputStore {
+
+	/** Magic number and format version of results store. */
+	public static final int magic_ = 0x534D4F55, version_ = 2;
+
+	/** Byte size of header (the first version has no number of modes). */
+	public static final int headerSize_ = 28;
+
+	/** Byte positions of the number of written steps in header. */
+	public static final int stepsPosition_ = 12;
+
+	/** Number of equations, written steps, planned steps and modes. */
+	private int eqn_, steps_, capacity_, modes_;
+
+	/** The DOF map of store. */
+	private int[] dofMap_;
+
+	/** Byte size of cached pages and of chunks for reading whole blocks. */
+	private static final int pageSize_ = 8192, chunkSize_ = 65536;
+
+	/** Maximum number of cached pages. */
+	private static final int maxPages_ = 256;
+
+	/** The results store file. */
+	private final File file_;
+
+	/** The opened file (null if the file is closed). */
+	private RandomAccessFile raf_;
+
+	/** Byte offsets of the first mode vector and the first step block. */
+	private long basisOffset_, offset_;
+
+	/** Cached pages of file (in access order). */
+	private final Map<Long, ByteBuffer> pages_;
+
+	/** Buffer for reading whole blocks in chunks. */
+	private final ByteBuffer chunk_ = ByteBuffer.allocate(chunkSize_);
+
+	/**
+	 * Opens results store from the given file.
+	 * 
+	 * @param file
+	 *            The results store file.
+	 * @throws IOException
+	 *             If the file cannot be read or is not a results store.
+	 */
+	public OutputStore(File file) throws IOException {
+
+		// create page cache
+		file_ = file;
+		pages_ = new LinkedHashMap<Long, ByteBuffer>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, ByteBuffer> e) {
+				return size() > maxPages_;
+			}
+		};
+
+		// initialize random access file
+		RandomAccessFile raf = null;
+
+		try {
+
+			// open file and read header
+			raf = new RandomAccessFile(file, "r");
+			if (raf.readInt() != magic_)
+				throw new IOException("Not a results store!");
+			int version = raf.readInt();
+			if (version > version_)
+				throw new IOException("Unsupported results store version!");
+			eqn_ = raf.readInt();
+			steps_ = raf.readInt();
+			capacity_ = raf.readInt();
+			dofMap_ = new int[raf.readInt()];
+			modes_ = version < 2 ? 0 : raf.readInt();
+
+			// read DOF map
+			for (int i = 0; i < dofMap_.length; i++)
+				dofMap_[i] = raf.readInt();
+
+			// compute offsets of mode vectors and step blocks (data starts at
+			// the first aligned position after DOF map, whatever the header
+			// size of version is)
+			basisOffset_ = align(raf.getFilePointer());
+			offset_ = basisOffset_ + modes_ * getBlockSize(eqn_);
+
+			// compute number of completely written steps
+			long block = getBlockSize(modes_ > 0 ? modes_ : eqn_);
+			if (block == 0)
+				steps_ = 0;
+			else
+				steps_ = (int) Math.min(steps_, (raf.length() - offset_)
+						/ block);
+		}
+
+		// close file (opened again when the store is read)
+		finally {
+			if (raf != null) {
+				try {
+					raf.close();
+				} catch (IOException io) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the given file starts with the results store magic
+	 * number.
+	 * 
+	 * @param file
+	 *            The file to be checked.
+	 * @return True if the given file is a results store, False vice versa.
+	 */
+	public static boolean isStore(File file) {
+
+		// initialize input stream
+		DataInputStream in = null;
+
+		try {
+
+			// read magic number
+			in = new DataInputStream(new FileInputStream(file));
+			return in.readInt() == magic_;
+		}
+
+		// cannot read file
+		catch (IOException e) {
+			return false;
+		}
+
+		// close input stream
+		finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException io) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the byte offset of the first step block (or the first mode
+	 * vector for stores with modes).
+	 * 
+	 * @param dofMapLength
+	 *            The length of DOF map.
+	 * @return The byte offset of the first block (aligned to 8 bytes).
+	 */
+	public static long getDataOffset(int dofMapLength) {
+		return align(headerSize_ + 4L * dofMapLength);
+	}
+
+	/**
+	 * Returns the first byte position aligned to 8 bytes at or after the given
+	 * position.
+	 * 
+	 * @param position
+	 *            The byte position.
+	 * @return The aligned byte position.
+	 */
+	private static long align(long position) {
+		return (position + 7) / 8 * 8;
+	}
+
+	/**
+	 * Returns the byte size of a step block.
+	 * 
+	 * @param eqn
+	 *            The number of equations.
+	 * @return The byte size of a step block.
+	 */
+	public static long getBlockSize(int eqn) {
+		return 8L * eqn;
+	}
+
+	/**
+	 * Returns the number of equations.
+	 * 
+	 * @return The number of equations.
+	 */
+	public int getNumberOfEquations() {
+		return eqn_;
+	}
+
+	/**
+	 * Returns the number of modes of store.
+	 * 
+	 * @return The number of modes, or 0 if step blocks hold the unknowns.
+	 */
+	public int getNumberOfModes() {
+		return modes_;
+	}
+
+	/**
+	 * Returns the number of completely written steps.
+	 * 
+	 * @return The number of available steps.
+	 */
+	public int getNumberOfSteps() {
+		return steps_;
+	}
+
+	/**
+	 * Returns the number of planned steps. This is greater than the number of
+	 * available steps for partially written stores.
+	 * 
+	 * @return The number of planned steps.
+	 */
+	public int getCapacity() {
+		return capacity_;
+	}
+
+	/**
+	 * Returns the DOF map of store.
+	 * 
+	 * @return The equation numbers of nodal dofs (6 per node, -1 for
+	 *         constrained dofs).
+	 */
+	public int[] getDofMap() {
+		return dofMap_;
+	}
+
+	/**
+	 * Closes the file of store and clears the cached pages. The file is
+	 * opened again if the store is read afterwards, so the store shouldn't be
+	 * read after its file is rewritten.
+	 */
+	public synchronized void close() {
+		pages_.clear();
+		if (raf_ != null) {
+			try {
+				raf_.close();
+			} catch (IOException io) {
+			}
+			raf_ = null;
+		}
+	}
+
+	/**
+	 * Returns the unknown of given equation at the given step.
+	 * 
+	 * @param eq
+	 *            The equation number.
+	 * @param n
+	 *            The step number.
+	 * @return The unknown value.
+	 */
+	public synchronized double get(int eq, int n) {
+
+		// unknowns
+		if (modes_ == 0)
+			return getDouble(offset_ + n * getBlockSize(eqn_) + 8L * eq);
+
+		// expand from modes
+		long position = offset_ + n * getBlockSize(modes_);
+		double value = 0.0;
+		for (int j = 0; j < modes_; j++)
+			value += getDouble(position + 8L * j) * getMode(j, eq);
+		return value;
+	}
+
+	/**
+	 * Reads the system unknown vector of the given step.
+	 * 
+	 * @param n
+	 *            The step number.
+	 * @param u
+	 *            Array to store the unknowns. Its length should be at least
+	 *            the number of equations.
+	 */
+	public synchronized void getStep(int n, double[] u) {
+
+		// unknowns
+		if (modes_ == 0) {
+			readDoubles(offset_ + n * getBlockSize(eqn_), u, eqn_);
+			return;
+		}
+
+		// read modal coordinates
+		double[] q = new double[modes_];
+		readDoubles(offset_ + n * getBlockSize(modes_), q, modes_);
+
+		// expand from modes
+		Arrays.fill(u, 0, eqn_, 0.0);
+		double[] mode = new double[eqn_];
+		for (int j = 0; j < modes_; j++) {
+			if (q[j] != 0.0) {
+				readDoubles(basisOffset_ + j * getBlockSize(eqn_), mode, eqn_);
+				for (int i = 0; i < eqn_; i++)
+					u[i] += q[j] * mode[i];
+			}
+		}
+	}
+
+	/**
+	 * Returns the component of given mode vector.
+	 * 
+	 * @param j
+	 *            The mode number.
+	 * @param eq
+	 *            The equation number.
+	 * @return The component of mode vector.
+	 */
+	private double getMode(int j, int eq) {
+		return getDouble(basisOffset_ + j * getBlockSize(eqn_) + 8L * eq);
+	}
+
+	/**
+	 * Returns the double value at the given byte position of file, reading
+	 * its page if it is not cached.
+	 * 
+	 * @param position
+	 *            The byte position (aligned to 8 bytes).
+	 * @return The double value.
+	 */
+	private double getDouble(long position) {
+		Long page = position / pageSize_;
+		ByteBuffer buffer = pages_.get(page);
+		if (buffer == null) {
+			buffer = ByteBuffer.allocate(pageSize_);
+			read(buffer, page * pageSize_);
+			pages_.put(page, buffer);
+		}
+		return buffer.getDouble((int) (position % pageSize_));
+	}
+
+	/**
+	 * Reads given number of doubles starting from the given byte position of
+	 * file, in chunks.
+	 * 
+	 * @param position
+	 *            The byte position.
+	 * @param values
+	 *            Array to store the values.
+	 * @param count
+	 *            Number of values to read.
+	 */
+	private void readDoubles(long position, double[] values, int count) {
+		int perChunk = chunkSize_ / 8;
+		for (int first = 0; first < count; first += perChunk) {
+			int n = Math.min(perChunk, count - first);
+			chunk_.clear();
+			chunk_.limit(8 * n);
+			read(chunk_, position + 8L * first);
+			for (int i = 0; i < n; i++)
+				values[first + i] = chunk_.getDouble(8 * i);
+		}
+	}
+
+	/**
+	 * Fills given buffer from the given byte position of file, opening the
+	 * file if it is closed. The remaining bytes beyond the end of file are
+	 * left unchanged.
+	 * 
+	 * @param buffer
+	 *            The buffer to be filled from its position to its limit.
+	 * @param position
+	 *            The byte position of file.
+	 */
+	private void read(ByteBuffer buffer, long position) {
+		try {
+			if (raf_ == null)
+				raf_ = new RandomAccessFile(file_, "r");
+			FileChannel channel = raf_.getChannel();
+			long start = position - buffer.position();
+			while (buffer.hasRemaining())
+				if (channel.read(buffer, start + buffer.position()) < 0)
+					break;
+		} catch (IOException e) {
+			exceptionHandler("Cannot read results store!");
+		}
+	}
+
+	/**
+	 * Throws exception with the related message.
+	 * 
+	 * @param message
+	 *            The message to be displayed.
+	 */
+	private void exceptionHandler(String message) {
+		throw new IllegalArgumentException(message);
+	}
+}
@@ -47,6 +47,7 @@ import matrix.DVec;
 import element.Element;
 import element.Element2D;
 import element.ElementLibrary;
+import node.Node;
 
 /**
  * Class for Display Area History Plot menu.
@@ -377,6 +378,11 @@ public class DisplayAreaPlot1 extends JDialog implements ActionListener,
 					// initialize vector index
 					int i = 0;
 
+					// read unknowns of element nodes for demanded steps
+					Node[] nodes = e2D.getNodes();
+					double[][] history = owner_.structure_.getNodeHistories(
+							owner_.path_, nodes, step1, step2);
+
 					// loop over demanded steps
 					progressor_.setStatusMessage("Forming graph data...");
 					for (int j = step1; j <= step2; j++) {
@@ -385,7 +391,7 @@ public class DisplayAreaPlot1 extends JDialog implements ActionListener,
 						setXValues(type, xVal, i, j);
 
 						// set y values
-						setYValues(e2D, comp, yVal, i, j, eps1, eps2);
+						setYValues(e2D, comp, yVal, i, history[i], eps1, eps2);
 
 						// renew result index
 						i++;
@@ -447,14 +453,14 @@ public class DisplayAreaPlot1 extends JDialog implements ActionListener,
 	 *            Y values vector to be set.
 	 * @param i
 	 *            Index for setting the value.
-	 * @param j
-	 *            Index for the step number.
+	 * @param history
+	 *            The unknowns of element nodes at the step.
 	 */
-	private void setYValues(Element2D e2D, int comp, DVec yVal, int i, int j,
-			double[] eps1, double[] eps2) {
+	private void setYValues(Element2D e2D, int comp, DVec yVal, int i,
+			double[] history, double[] eps1, double[] eps2) {
 
-		// set step number to element
-		owner_.structure_.setStepToElement(owner_.path_, e2D, j);
+		// set unknowns of step to nodes
+		owner_.structure_.setStepToNodes(e2D.getNodes(), history);
 
 		// displacements
 		if (combobox1_.getSelectedIndex() == 0)
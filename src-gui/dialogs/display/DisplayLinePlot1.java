@@ -50,6 +50,7 @@ import matrix.DVec;
 import element.Element;
 import element.Element1D;
 import element.ElementLibrary;
+import node.Node;
 
 /**
  * Class for Display Line History Plot menu.
@@ -349,6 +350,11 @@ public class DisplayLinePlot1 extends JDialog implements ActionListener,
 					// initialize vector index
 					int i = 0;
 
+					// read unknowns of element nodes for demanded steps
+					Node[] nodes = e1D.getNodes();
+					double[][] history = owner_.structure_.getNodeHistories(
+							owner_.path_, nodes, step1, step2);
+
 					// loop over demanded steps
 					progressor_.setStatusMessage("Forming graph data...");
 					for (int j = step1; j <= step2; j++) {
@@ -357,7 +363,7 @@ public class DisplayLinePlot1 extends JDialog implements ActionListener,
 						setXValues(type, xVal, i, j);
 
 						// set y values
-						setYValues(e1D, comp, yVal, i, j, eps1);
+						setYValues(e1D, comp, yVal, i, history[i], eps1);
 
 						// renew result index
 						i++;
@@ -419,14 +425,14 @@ public class DisplayLinePlot1 extends JDialog implements ActionListener,
 	 *            Y values vector to be set.
 	 * @param i
 	 *            Index for setting the value.
-	 * @param j
-	 *            Index for the step number.
+	 * @param history
+	 *            The unknowns of element nodes at the step.
 	 */
-	private void setYValues(Element1D e1D, int comp, DVec yVal, int i, int j,
-			double[] eps1) {
+	private void setYValues(Element1D e1D, int comp, DVec yVal, int i,
+			double[] history, double[] eps1) {
 
-		// set step number to element
-		owner_.structure_.setStepToElement(owner_.path_, e1D, j);
+		// set unknowns of step to nodes
+		owner_.structure_.setStepToNodes(e1D.getNodes(), history);
 
 		// displacements
 		if (combobox1_.getSelectedIndex() == 0)
@@ -335,6 +335,11 @@ public class DisplayNodePlot1 extends JDialog implements ActionListener,
 				// initialize vector index
 				int i = 0;
 
+				// read unknowns of node for demanded steps
+				Node[] nodes = { node };
+				double[][] history = owner_.structure_.getNodeHistories(
+						owner_.path_, nodes, step1, step2);
+
 				// loop over demanded steps
 				progressor_.setStatusMessage("Forming graph data...");
 				for (int j = step1; j <= step2; j++) {
@@ -343,7 +348,7 @@ public class DisplayNodePlot1 extends JDialog implements ActionListener,
 					setXValues(type, xVal, i, j);
 
 					// set y values
-					setYValues(node, coord, comp, yVal, i, j);
+					setYValues(node, coord, comp, yVal, i, history[i]);
 
 					// renew result index
 					i++;
@@ -393,14 +398,14 @@ public class DisplayNodePlot1 extends JDialog implements ActionListener,
 	 *            Y values vector to be set.
 	 * @param i
 	 *            Index for setting the value.
-	 * @param j
-	 *            Index for the step number.
+	 * @param history
+	 *            The unknowns of node at the step.
 	 */
 	private void setYValues(Node node, int coord, int comp, DVec yVal, int i,
-			int j) {
+			double[] history) {
 
-		// set step number to node
-		owner_.structure_.setStepToNode(owner_.path_, node, j);
+		// set unknowns of step to node
+		node.setUnknown(history);
 
 		// displacements
 		if (combobox2_.getSelectedIndex() == 0)
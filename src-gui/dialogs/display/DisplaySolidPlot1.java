@@ -50,6 +50,7 @@ import matrix.DVec;
 import element.Element;
 import element.Element3D;
 import element.ElementLibrary;
+import node.Node;
 
 /**
  * Class for Display Solid History Plot menu.
@@ -391,6 +392,11 @@ public class DisplaySolidPlot1 extends JDialog implements ActionListener,
 					// initialize vector index
 					int i = 0;
 
+					// read unknowns of element nodes for demanded steps
+					Node[] nodes = e3D.getNodes();
+					double[][] history = owner_.structure_.getNodeHistories(
+							owner_.path_, nodes, step1, step2);
+
 					// loop over demanded steps
 					progressor_.setStatusMessage("Forming graph data...");
 					for (int j = step1; j <= step2; j++) {
@@ -399,7 +405,8 @@ public class DisplaySolidPlot1 extends JDialog implements ActionListener,
 						setXValues(type, xVal, i, j);
 
 						// set y values
-						setYValues(e3D, comp, yVal, i, j, eps1, eps2, eps3);
+						setYValues(e3D, comp, yVal, i, history[i], eps1, eps2,
+								eps3);
 
 						// renew result index
 						i++;
@@ -461,14 +468,14 @@ public class DisplaySolidPlot1 extends JDialog implements ActionListener,
 	 *            Y values vector to be set.
 	 * @param i
 	 *            Index for setting the value.
-	 * @param j
-	 *            Index for the step number.
+	 * @param history
+	 *            The unknowns of element nodes at the step.
 	 */
-	private void setYValues(Element3D e3D, int comp, DVec yVal, int i, int j,
-			double[] eps1, double[] eps2, double[] eps3) {
+	private void setYValues(Element3D e3D, int comp, DVec yVal, int i,
+			double[] history, double[] eps1, double[] eps2, double[] eps3) {
 
-		// set step number to element
-		owner_.structure_.setStepToElement(owner_.path_, e3D, j);
+		// set unknowns of step to nodes
+		owner_.structure_.setStepToNodes(e3D.getNodes(), history);
 
 		// displacements
 		if (combobox1_.getSelectedIndex() == 0)
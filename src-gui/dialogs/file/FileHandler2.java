@@ -18,13 +18,10 @@ package dialogs.file;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 
 // import javax.swing.ImageIcon;
 import javax.swing.JDialog;
@@ -39,7 +36,6 @@ import main.SolidMAT;
 import main.SwingWorker;
 
 import data.InputData;
-import data.OutputData;
 
 import analysis.Structure;
 import main.Commons;
@@ -150,17 +146,34 @@ public class FileHandler2 extends JDialog {
 		// read file
 		try {
 
-			// create input stream
-			in = new ObjectInputStream(new BufferedInputStream(
-					new FileInputStream(path_)));
+			// initialize input data and structure
+			InputData inputData = null;
+			Structure structure = null;
+
+			// binary model file (results are set from output data on demand)
+			if (ModelFile.isModelFile(path_)) {
+				label1_.setText("Reading model...");
+				ModelFile model = new ModelFile(path_);
+				model.readModel(false);
+				inputData = model.getInputData();
+				structure = model.getStructure();
+			}
+
+			// serialized model file (former format)
+			else {
+
+				// create input stream
+				in = new ObjectInputStream(new BufferedInputStream(
+						new FileInputStream(path_)));
 
-			// read input data
-			label1_.setText("Reading input data...");
-			InputData inputData = (InputData) in.readObject();
+				// read input data
+				label1_.setText("Reading input data...");
+				inputData = (InputData) in.readObject();
 
-			// read structure
-			label1_.setText("Reading structure...");
-			Structure structure = (Structure) in.readObject();
+				// read structure
+				label1_.setText("Reading structure...");
+				structure = (Structure) in.readObject();
+			}
 
 			// set input data to main frame
 			owner_.setInputData(inputData);
@@ -235,23 +248,12 @@ public class FileHandler2 extends JDialog {
 	 */
 	private void saveFile() {
 
-		// initialize output stream
-		ObjectOutputStream out = null;
-
 		// write to file
 		try {
 
-			// create output stream for structure and input data
-			out = new ObjectOutputStream(new BufferedOutputStream(
-					new FileOutputStream(path_)));
-
-			// write input data
-			label1_.setText("Writing input data...");
-			out.writeObject(owner_.inputData_);
-
-			// write structure
-			label1_.setText("Writing structure...");
-			out.writeObject(owner_.structure_);
+			// write input data and structure
+			label1_.setText("Writing model...");
+			ModelFile.write(path_, owner_.inputData_, owner_.structure_);
 		}
 
 		// cannot write to file
@@ -262,20 +264,8 @@ public class FileHandler2 extends JDialog {
 					.showMessageDialog(owner_.viewer_, err4_, "Exception", 2);
 		}
 
-		// close output stream
+		// close dialog
 		finally {
-
-			// check if the output stream is null
-			if (out != null) {
-				try {
-
-					// close
-					out.close();
-				} catch (IOException io) {
-				}
-			}
-
-			// close dialog
 			setVisible(false);
 		}
 	}
@@ -286,23 +276,12 @@ public class FileHandler2 extends JDialog {
 	 */
 	private void saveFileAs() {
 
-		// initialize output stream
-		ObjectOutputStream out = null;
-
 		// write to file
 		try {
 
-			// create output stream for structure and input data
-			out = new ObjectOutputStream(new BufferedOutputStream(
-					new FileOutputStream(path_)));
-
-			// write input data
-			label1_.setText("Writing input data...");
-			out.writeObject(owner_.inputData_);
-
-			// write structure
-			label1_.setText("Writing structure...");
-			out.writeObject(owner_.structure_);
+			// write input data and structure
+			label1_.setText("Writing model...");
+			ModelFile.write(path_, owner_.inputData_, owner_.structure_);
 
 			// owner path doesn't exist
 			if (owner_.path_ == null) {
@@ -321,11 +300,9 @@ public class FileHandler2 extends JDialog {
 			// owner path exists
 			else {
 
-				// read output data
-				OutputData outputData = OutputDataHandler1.read(owner_.path_);
-
-				// problem occured during reading
-				if (outputData == null) {
+				// copy output data
+				label1_.setText("Writing output data...");
+				if (OutputDataHandler1.copy(owner_.path_, path_) == false) {
 
 					// display message
 					JOptionPane.showMessageDialog(owner_.viewer_, err4_,
@@ -335,11 +312,6 @@ public class FileHandler2 extends JDialog {
 				// no problem occured
 				else {
 
-					// write output data
-					label1_.setText("Writing output data...");
-					OutputDataHandler1.write(path_, outputData.getUnknowns(),
-							outputData.getNumberOfSteps());
-
 					// set path
 					owner_.path_ = path_;
 
@@ -357,20 +329,8 @@ public class FileHandler2 extends JDialog {
 					.showMessageDialog(owner_.viewer_, err4_, "Exception", 2);
 		}
 
-		// close output stream
+		// close dialog
 		finally {
-
-			// check if the output stream is null
-			if (out != null) {
-				try {
-
-					// close
-					out.close();
-				} catch (IOException io) {
-				}
-			}
-
-			// close dialog
 			setVisible(false);
 		}
 	}
@@ -0,0 +1,905 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dialogs.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.IdentityHashMap;
+import java.util.Vector;
+
+import node.LocalAxis;
+import node.NodalMass;
+import node.NodalSpring;
+import node.Node;
+import analysis.Connectivity;
+import analysis.Structure;
+import boundary.BoundaryCase;
+import boundary.Constraint;
+import boundary.DispLoad;
+import boundary.InitialDisp;
+import boundary.InitialVelo;
+import boundary.NodalMechLoad;
+import data.InputData;
+import element.Element;
+import matrix.DVec;
+
+/**
+ * Class for binary model file. The model file consists of a header and four
+ * sections. The header holds the magic number, format version, number of
+ * sections and the byte offset and length of each section. The node section
+ * holds the coordinates of nodes in columns (all x, all y and all z values).
+ * It also holds a mask per node denoting the attributes assigned to node, and
+ * the available dofs and dof numbers of nodes. The element section holds the
+ * types of elements and their connectivity in compressed row form, from which
+ * the nodes of elements are set on reading. The library section is a
+ * serialized object stream holding the assigned attributes of nodes, the
+ * elements (without their node arrays), the input data and the structure, in
+ * which every reference to a node or element is written as its index. The
+ * result section holds the unknowns and reaction forces of nodes which have
+ * any, and is only read when demanded.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class ModelFile {
+
+	/** Magic number and format version of model file. */
+	public static final int magic_ = 0x534D4D46, version_ = 1;
+
+	/** Indices of sections. */
+	private static final int nodes_ = 0, elements_ = 1, library_ = 2,
+			nodalResults_ = 3;
+
+	/** Number of sections. */
+	private static final int sections_ = 4;
+
+	/** Number of node attributes written to library. */
+	private static final int attributes_ = 11;
+
+	/** Node mask bits of available dofs, dof numbers and results. */
+	private static final int availableDofs_ = 1 << attributes_,
+			dofNumbers_ = availableDofs_ << 1, results_ = dofNumbers_ << 1;
+
+	/** Byte size of header. */
+	private static final int headerSize_ = 12 + 16 * sections_;
+
+	/** Size of transfer buffers. */
+	private static final int bufferSize_ = 1 << 16;
+
+	/** The file of model. */
+	private final File file_;
+
+	/** Byte offsets and lengths of sections. */
+	private final long[] offsets_, lengths_;
+
+	/** Number of nodes and elements. */
+	private final int numberOfNodes_, numberOfElements_;
+
+	/** The input data and structure read. */
+	private InputData inputData_;
+
+	private Structure structure_;
+
+	/**
+	 * Opens model file. Only the header and counts are read; the model is read
+	 * by {@link #readModel(boolean)}.
+	 * 
+	 * @param path
+	 *            The path of model file.
+	 * @throws IOException
+	 *             If the file cannot be read or is not a model file.
+	 */
+	public ModelFile(String path) throws IOException {
+
+		// initialize random access file
+		file_ = new File(path);
+		RandomAccessFile raf = null;
+
+		try {
+
+			// read header
+			raf = new RandomAccessFile(file_, "r");
+			ByteBuffer header = read(raf.getChannel(), 0, headerSize_);
+			if (header.getInt() != magic_)
+				throw new IOException("Not a model file!");
+			if (header.getInt() > version_)
+				throw new IOException("Unsupported model file version!");
+			if (header.getInt() != sections_)
+				throw new IOException("Illegal number of sections!");
+			offsets_ = new long[sections_];
+			lengths_ = new long[sections_];
+			for (int i = 0; i < sections_; i++) {
+				offsets_[i] = header.getLong();
+				lengths_[i] = header.getLong();
+			}
+
+			// read counts
+			numberOfNodes_ = read(raf.getChannel(), offsets_[nodes_], 4)
+					.getInt();
+			numberOfElements_ = read(raf.getChannel(), offsets_[elements_], 4)
+					.getInt();
+		}
+
+		// close file
+		finally {
+			if (raf != null) {
+				try {
+					raf.close();
+				} catch (IOException io) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the given file starts with the model file magic number.
+	 * 
+	 * @param path
+	 *            The path of file to be checked.
+	 * @return True if the given file is a model file, False vice versa.
+	 */
+	public static boolean isModelFile(String path) {
+
+		// initialize input stream
+		DataInputStream in = null;
+
+		try {
+
+			// read magic number
+			in = new DataInputStream(new FileInputStream(path));
+			return in.readInt() == magic_;
+		}
+
+		// cannot read file
+		catch (IOException e) {
+			return false;
+		}
+
+		// close input stream
+		finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException io) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes model to given path.
+	 * 
+	 * @param path
+	 *            The path of model file.
+	 * @param inputData
+	 *            The input data of model.
+	 * @param structure
+	 *            The structure of model.
+	 * @throws IOException
+	 *             If the model cannot be written.
+	 */
+	public static void write(String path, InputData inputData,
+			Structure structure) throws IOException {
+
+		// number nodes (nodes of structure, then foreign nodes of elements)
+		Connectivity connectivity = structure.getConnectivity();
+		int nn = connectivity.getNumberOfNodes();
+		int ne = connectivity.getNumberOfElements();
+		int[] pointers = connectivity.getPointers();
+		int[] indices = connectivity.getNodeIndices();
+		Node[] nodes = new Node[nn];
+		for (int i = 0; i < structure.getNumberOfNodes(); i++)
+			nodes[i] = structure.getNode(i);
+		Element[] elements = new Element[ne];
+		for (int i = 0; i < ne; i++) {
+			elements[i] = structure.getElement(i);
+			Node[] en = elements[i].getNodes();
+			for (int k = pointers[i]; k < pointers[i + 1]; k++)
+				nodes[indices[k]] = en[k - pointers[i]];
+		}
+
+		// initialize random access file
+		RandomAccessFile raf = null;
+
+		try {
+
+			// create file and skip header
+			raf = new RandomAccessFile(path, "rw");
+			raf.setLength(0);
+			FileChannel channel = raf.getChannel();
+			long[] offsets = new long[sections_];
+			long[] lengths = new long[sections_];
+			channel.position(headerSize_);
+
+			// write node coordinates
+			offsets[nodes_] = channel.position();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize_);
+			buffer.putInt(nn);
+			for (int j = 0; j < 3; j++)
+				for (int i = 0; i < nn; i++)
+					buffer = putDouble(channel, buffer, nodes[i]
+							.getPosition(j));
+
+			// write masks of nodes
+			int[] masks = new int[nn];
+			for (int i = 0; i < nn; i++) {
+				masks[i] = getMask(nodes[i]);
+				buffer = putInt(channel, buffer, masks[i]);
+			}
+
+			// write available dofs and dof numbers of nodes
+			for (int i = 0; i < nn; i++)
+				for (int j = 0; j < 6; j++)
+					buffer = putInt(channel, buffer, (masks[i]
+							& availableDofs_) == 0 ? -1 : nodes[i]
+							.getAvailableDofs()[j]);
+			for (int i = 0; i < nn; i++)
+				for (int j = 0; j < 6; j++)
+					buffer = putInt(channel, buffer,
+							(masks[i] & dofNumbers_) == 0 ? -1 : nodes[i]
+									.getDofNumbers()[j]);
+			flush(channel, buffer);
+			lengths[nodes_] = channel.position() - offsets[nodes_];
+
+			// write element types and connectivity
+			offsets[elements_] = channel.position();
+			buffer.putInt(ne);
+			for (int i = 0; i < ne; i++)
+				buffer = putInt(channel, buffer, elements[i].getType());
+			for (int i = 0; i <= ne; i++)
+				buffer = putInt(channel, buffer, pointers[i]);
+			for (int i = 0; i < indices.length; i++)
+				buffer = putInt(channel, buffer, indices[i]);
+			flush(channel, buffer);
+			lengths[elements_] = channel.position() - offsets[elements_];
+
+			// write library
+			offsets[library_] = channel.position();
+			ModelOutputStream out = new ModelOutputStream(
+					new BufferedOutputStream(Channels.newOutputStream(channel),
+							bufferSize_), nodes, elements);
+			for (int i = 0; i < nn; i++) {
+				Object[] attributes = getAttributes(nodes[i]);
+				for (int j = 0; j < attributes_; j++)
+					if ((masks[i] & (1 << j)) != 0)
+						out.writeObject(attributes[j]);
+			}
+			for (int i = 0; i < ne; i++)
+				out.writeElement(elements[i]);
+			out.writeObject(inputData);
+			out.writeObject(structure);
+			out.flush();
+			lengths[library_] = channel.position() - offsets[library_];
+
+			// write results of nodes which have any
+			offsets[nodalResults_] = channel.position();
+			for (int i = 0; i < nn; i++) {
+				if ((masks[i] & results_) != 0) {
+					DVec u = nodes[i].getUnknown(Node.local_);
+					DVec r = nodes[i].getReactionForce(Node.local_);
+					for (int j = 0; j < 6; j++)
+						buffer = putDouble(channel, buffer, u.get(j));
+					for (int j = 0; j < 6; j++)
+						buffer = putDouble(channel, buffer, r.get(j));
+				}
+			}
+			flush(channel, buffer);
+			lengths[nodalResults_] = channel.position()
+					- offsets[nodalResults_];
+
+			// write header
+			buffer.putInt(magic_);
+			buffer.putInt(version_);
+			buffer.putInt(sections_);
+			for (int i = 0; i < sections_; i++) {
+				buffer.putLong(offsets[i]);
+				buffer.putLong(lengths[i]);
+			}
+			channel.position(0);
+			flush(channel, buffer);
+		}
+
+		// close file
+		finally {
+			if (raf != null) {
+				try {
+					raf.close();
+				} catch (IOException io) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of nodes of model, including the nodes of elements
+	 * which don't belong to the structure.
+	 * 
+	 * @return The number of nodes.
+	 */
+	public int getNumberOfNodes() {
+		return numberOfNodes_;
+	}
+
+	/**
+	 * Returns the number of elements of model.
+	 * 
+	 * @return The number of elements.
+	 */
+	public int getNumberOfElements() {
+		return numberOfElements_;
+	}
+
+	/**
+	 * Reads and returns the coordinates of nodes, without reading the rest of
+	 * model.
+	 * 
+	 * @return Array storing the x, y and z coordinates of nodes (in this
+	 *         sequence).
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	public double[][] readCoordinates() throws IOException {
+		return readCoordinates(readSection(nodes_));
+	}
+
+	/**
+	 * Reads and returns the coordinates of nodes from the given node section.
+	 * 
+	 * @param buffer
+	 *            Buffer storing the node section. It is positioned after
+	 *            the coordinates afterwards.
+	 * @return Array storing the x, y and z coordinates of nodes (in this
+	 *         sequence).
+	 */
+	private double[][] readCoordinates(ByteBuffer buffer) {
+		buffer.getInt();
+		double[][] coords = new double[3][numberOfNodes_];
+		for (int j = 0; j < 3; j++) {
+			buffer.asDoubleBuffer().get(coords[j]);
+			buffer.position(buffer.position() + 8 * numberOfNodes_);
+		}
+		return coords;
+	}
+
+	/**
+	 * Reads and returns the element types and connectivity, without reading
+	 * the rest of model.
+	 * 
+	 * @return Array storing the element types, the pointers to the node
+	 *         indices of each element and the node indices of elements (in
+	 *         this sequence).
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	public int[][] readConnectivity() throws IOException {
+		return readConnectivity(readSection(elements_));
+	}
+
+	/**
+	 * Reads and returns the element types and connectivity from the given
+	 * element section.
+	 * 
+	 * @param buffer
+	 *            Buffer storing the element section.
+	 * @return Array storing the element types, the pointers to the node
+	 *         indices of each element and the node indices of elements (in
+	 *         this sequence).
+	 */
+	private int[][] readConnectivity(ByteBuffer buffer) {
+
+		// read types and pointers
+		buffer.getInt();
+		int[] types = new int[numberOfElements_];
+		buffer.asIntBuffer().get(types);
+		buffer.position(buffer.position() + 4 * types.length);
+		int[] pointers = new int[numberOfElements_ + 1];
+		buffer.asIntBuffer().get(pointers);
+		buffer.position(buffer.position() + 4 * pointers.length);
+
+		// read node indices
+		int[] indices = new int[pointers[numberOfElements_]];
+		buffer.asIntBuffer().get(indices);
+		return new int[][] { types, pointers, indices };
+	}
+
+	/**
+	 * Reads model. The input data and structure can be obtained afterwards.
+	 * 
+	 * @param results
+	 *            True if the unknowns and reaction forces of nodes are to be
+	 *            read as well. Otherwise they are left to be set from the
+	 *            output data when a step is demanded.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 * @throws ClassNotFoundException
+	 *             If the library contains unknown classes.
+	 */
+	public void readModel(boolean results) throws IOException,
+			ClassNotFoundException {
+
+		// create nodes
+		ByteBuffer buffer = readSection(nodes_);
+		double[][] coords = readCoordinates(buffer);
+		Node[] nodes = new Node[numberOfNodes_];
+		for (int i = 0; i < nodes.length; i++)
+			nodes[i] = new Node(coords[0][i], coords[1][i], coords[2][i]);
+		coords = null;
+
+		// read masks of nodes
+		int[] masks = new int[nodes.length];
+		buffer.asIntBuffer().get(masks);
+		buffer.position(buffer.position() + 4 * masks.length);
+
+		// set available dofs and dof numbers to nodes
+		for (int k = 0; k < 2; k++) {
+			int bit = k == 0 ? availableDofs_ : dofNumbers_;
+			for (int i = 0; i < nodes.length; i++) {
+				int[] dofs = new int[6];
+				for (int j = 0; j < 6; j++)
+					dofs[j] = buffer.getInt();
+				if ((masks[i] & bit) == 0)
+					continue;
+				if (k == 0)
+					nodes[i].setAvailableDofs(dofs);
+				else
+					nodes[i].setDofNumbers(dofs);
+			}
+		}
+
+		// initialize input stream
+		FileInputStream file = null;
+
+		try {
+
+			// read library
+			file = new FileInputStream(file_);
+			file.getChannel().position(offsets_[library_]);
+			ModelInputStream in = new ModelInputStream(
+					new BufferedInputStream(file, bufferSize_), nodes,
+					numberOfElements_);
+			for (int i = 0; i < nodes.length; i++) {
+				Object[] attributes = new Object[attributes_];
+				for (int j = 0; j < attributes_; j++)
+					if ((masks[i] & (1 << j)) != 0)
+						attributes[j] = in.readObject();
+				setAttributes(nodes[i], attributes);
+			}
+			for (int i = 0; i < numberOfElements_; i++)
+				in.readElement(i);
+			in.setNodes(readConnectivity(readSection(elements_)));
+			inputData_ = (InputData) in.readObject();
+			structure_ = (Structure) in.readObject();
+		}
+
+		// close input stream
+		finally {
+			if (file != null) {
+				try {
+					file.close();
+				} catch (IOException io) {
+				}
+			}
+		}
+
+		// read results of nodes which have any
+		if (results) {
+			buffer = readSection(nodalResults_);
+			for (int i = 0; i < nodes.length; i++) {
+				if ((masks[i] & results_) != 0) {
+					double[] u = new double[6];
+					double[] r = new double[6];
+					for (int j = 0; j < 6; j++)
+						u[j] = buffer.getDouble();
+					for (int j = 0; j < 6; j++)
+						r[j] = buffer.getDouble();
+					nodes[i].setUnknown(u);
+					nodes[i].setReactionForce(r);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the input data read by {@link #readModel(boolean)}.
+	 * 
+	 * @return The input data.
+	 */
+	public InputData getInputData() {
+		return inputData_;
+	}
+
+	/**
+	 * Returns the structure read by {@link #readModel(boolean)}.
+	 * 
+	 * @return The structure.
+	 */
+	public Structure getStructure() {
+		return structure_;
+	}
+
+	/**
+	 * Returns the mask of node. The first bits denote the assigned attributes
+	 * of node (see {@link #getAttributes(Node)}), and the following bits
+	 * denote available dofs, dof numbers and results of node.
+	 * 
+	 * @param node
+	 *            The node.
+	 * @return The mask of node.
+	 */
+	private static int getMask(Node node) {
+
+		// assigned attributes
+		int mask = 0;
+		Object[] attributes = getAttributes(node);
+		for (int j = 0; j < attributes_; j++)
+			if (attributes[j] != null)
+				mask |= 1 << j;
+
+		// available dofs and dof numbers
+		if (node.getAvailableDofs() != null)
+			mask |= availableDofs_;
+		if (node.getDofNumbers() != null)
+			mask |= dofNumbers_;
+
+		// results
+		DVec u = node.getUnknown(Node.local_);
+		DVec r = node.getReactionForce(Node.local_);
+		for (int j = 0; j < 6; j++)
+			if (u.get(j) != 0.0 || r.get(j) != 0.0)
+				mask |= results_;
+		return mask;
+	}
+
+	/**
+	 * Returns the attributes of node which are written to library.
+	 * 
+	 * @param node
+	 *            The node.
+	 * @return Array storing the attributes of node.
+	 */
+	private static Object[] getAttributes(Node node) {
+		return new Object[] { node.getLocalAxis(),
+				node.getTransformationData(), node.getAppliedConstraint(),
+				node.getAllMechLoads(), node.getAllDispLoads(),
+				node.getAllInitialDisp(), node.getAllInitialVelo(),
+				node.getSprings(), node.getMasses(), node.getBoundaryCases(),
+				node.getBoundaryScales() };
+	}
+
+	/**
+	 * Sets attributes read from library to node.
+	 * 
+	 * @param node
+	 *            The node.
+	 * @param attributes
+	 *            Array storing the attributes of node (see
+	 *            {@link #getAttributes(Node)}).
+	 */
+	@SuppressWarnings("unchecked")
+	private static void setAttributes(Node node, Object[] attributes) {
+		node.setLocalAxis((LocalAxis) attributes[0]);
+		node.setTransformationData((double[][]) attributes[1]);
+		node.setConstraint((Constraint) attributes[2]);
+		node.setMechLoads((Vector<NodalMechLoad>) attributes[3]);
+		node.setDispLoads((Vector<DispLoad>) attributes[4]);
+		node.setInitialDisp((Vector<InitialDisp>) attributes[5]);
+		node.setInitialVelo((Vector<InitialVelo>) attributes[6]);
+		node.setSprings((Vector<NodalSpring>) attributes[7]);
+		node.setMasses((Vector<NodalMass>) attributes[8]);
+		node.setBoundaryCases((Vector<BoundaryCase>) attributes[9],
+				(double[]) attributes[10]);
+	}
+
+	/**
+	 * Reads and returns the given section.
+	 * 
+	 * @param section
+	 *            The index of section.
+	 * @return Buffer storing the section.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	private ByteBuffer readSection(int section) throws IOException {
+
+		// initialize random access file
+		RandomAccessFile raf = null;
+
+		try {
+
+			// read section
+			raf = new RandomAccessFile(file_, "r");
+			return read(raf.getChannel(), offsets_[section],
+					(int) lengths_[section]);
+		}
+
+		// close file
+		finally {
+			if (raf != null) {
+				try {
+					raf.close();
+				} catch (IOException io) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads given number of bytes from channel.
+	 * 
+	 * @param channel
+	 *            The file channel.
+	 * @param position
+	 *            The byte position to start reading.
+	 * @param length
+	 *            The number of bytes to read.
+	 * @return Buffer storing the bytes read.
+	 * @throws IOException
+	 *             If the bytes cannot be read.
+	 */
+	private static ByteBuffer read(FileChannel channel, long position,
+			int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining())
+			if (channel.read(buffer, position + buffer.position()) < 0)
+				throw new IOException("Unexpected end of file!");
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Puts double value to buffer, writing the buffer to channel when full.
+	 * 
+	 * @param channel
+	 *            The file channel.
+	 * @param buffer
+	 *            The buffer.
+	 * @param value
+	 *            The value.
+	 * @return The buffer.
+	 * @throws IOException
+	 *             If the buffer cannot be written.
+	 */
+	private static ByteBuffer putDouble(FileChannel channel,
+			ByteBuffer buffer, double value) throws IOException {
+		if (buffer.remaining() < 8)
+			flush(channel, buffer);
+		return buffer.putDouble(value);
+	}
+
+	/**
+	 * Puts integer value to buffer, writing the buffer to channel when full.
+	 * 
+	 * @param channel
+	 *            The file channel.
+	 * @param buffer
+	 *            The buffer.
+	 * @param value
+	 *            The value.
+	 * @return The buffer.
+	 * @throws IOException
+	 *             If the buffer cannot be written.
+	 */
+	private static ByteBuffer putInt(FileChannel channel, ByteBuffer buffer,
+			int value) throws IOException {
+		if (buffer.remaining() < 4)
+			flush(channel, buffer);
+		return buffer.putInt(value);
+	}
+
+	/**
+	 * Writes contents of buffer to channel and clears the buffer.
+	 * 
+	 * @param channel
+	 *            The file channel.
+	 * @param buffer
+	 *            The buffer.
+	 * @throws IOException
+	 *             If the buffer cannot be written.
+	 */
+	private static void flush(FileChannel channel, ByteBuffer buffer)
+			throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Class for reference to a node or element of model by its index.
+	 * 
+	 */
+	private static class Reference implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		/** True for element reference, False for node reference. */
+		private final boolean element_;
+
+		/** The index of node or element. */
+		private final int index_;
+
+		/**
+		 * Creates reference.
+		 * 
+		 * @param element
+		 *            True for element reference, False for node reference.
+		 * @param index
+		 *            The index of node or element.
+		 */
+		private Reference(boolean element, int index) {
+			element_ = element;
+			index_ = index;
+		}
+	}
+
+	/**
+	 * Class for object output stream writing nodes and elements of model as
+	 * references. The node arrays of elements are written as null, since they
+	 * are stored in the element section.
+	 * 
+	 */
+	private static class ModelOutputStream extends ObjectOutputStream {
+
+		/** Indices of nodes and elements of model. */
+		private final IdentityHashMap<Object, Reference> references_;
+
+		/** The element being written itself. */
+		private Element element_;
+
+		/**
+		 * Creates output stream.
+		 * 
+		 * @param out
+		 *            The underlying output stream.
+		 * @param nodes
+		 *            The nodes of model.
+		 * @param elements
+		 *            The elements of model.
+		 * @throws IOException
+		 *             If the stream header cannot be written.
+		 */
+		private ModelOutputStream(OutputStream out, Node[] nodes,
+				Element[] elements) throws IOException {
+			super(out);
+			enableReplaceObject(true);
+			references_ = new IdentityHashMap<Object, Reference>();
+			for (int i = 0; i < nodes.length; i++)
+				references_.put(nodes[i], new Reference(false, i));
+			for (int i = 0; i < elements.length; i++)
+				references_.put(elements[i], new Reference(true, i));
+		}
+
+		/**
+		 * Writes element itself (rather than its reference).
+		 * 
+		 * @param element
+		 *            The element to be written.
+		 * @throws IOException
+		 *             If the element cannot be written.
+		 */
+		private void writeElement(Element element) throws IOException {
+			element_ = element;
+			writeObject(element);
+			element_ = null;
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			if (obj == element_)
+				return obj;
+			if (element_ != null && obj == element_.getNodes())
+				return null;
+			Reference reference = references_.get(obj);
+			return reference == null ? obj : reference;
+		}
+	}
+
+	/**
+	 * Class for object input stream resolving references to nodes and elements
+	 * of model.
+	 * 
+	 */
+	private static class ModelInputStream extends ObjectInputStream {
+
+		/** The nodes and elements of model. */
+		private final Node[] nodes_;
+
+		private final Element[] elements_;
+
+		/**
+		 * Creates input stream.
+		 * 
+		 * @param in
+		 *            The underlying input stream.
+		 * @param nodes
+		 *            The nodes of model.
+		 * @param numberOfElements
+		 *            The number of elements of model.
+		 * @throws IOException
+		 *             If the stream header cannot be read.
+		 */
+		private ModelInputStream(InputStream in, Node[] nodes,
+				int numberOfElements) throws IOException {
+			super(in);
+			enableResolveObject(true);
+			nodes_ = nodes;
+			elements_ = new Element[numberOfElements];
+		}
+
+		/**
+		 * Reads element itself.
+		 * 
+		 * @param index
+		 *            The index of element.
+		 * @throws IOException
+		 *             If the element cannot be read.
+		 * @throws ClassNotFoundException
+		 *             If the element is of unknown class.
+		 */
+		private void readElement(int index) throws IOException,
+				ClassNotFoundException {
+			elements_[index] = (Element) readObject();
+		}
+
+		/**
+		 * Sets nodes to the elements read, and checks their types.
+		 * 
+		 * @param connectivity
+		 *            Array storing the element types, the pointers to the
+		 *            node indices of each element and the node indices of
+		 *            elements (in this sequence).
+		 * @throws IOException
+		 *             If the element types don't match.
+		 */
+		private void setNodes(int[][] connectivity) throws IOException {
+			int[] types = connectivity[0];
+			int[] pointers = connectivity[1];
+			int[] indices = connectivity[2];
+			for (int i = 0; i < elements_.length; i++) {
+				if (elements_[i].getType() != types[i])
+					throw new IOException("Illegal element type!");
+				Node[] nodes = new Node[pointers[i + 1] - pointers[i]];
+				for (int k = 0; k < nodes.length; k++)
+					nodes[k] = nodes_[indices[pointers[i] + k]];
+				elements_[i].setNodes(nodes);
+			}
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			if (obj instanceof Reference) {
+				Reference reference = (Reference) obj;
+				if (reference.element_)
+					return elements_[reference.index_];
+				return nodes_[reference.index_];
+			}
+			return obj;
+		}
+	}
+}
@@ -16,25 +16,40 @@
 package dialogs.file;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import data.OutputData;
-
+import data.OutputStore;
 
 /**
- * Class for reading/writing output data object.
+ * Class for reading/writing output data object. Output data is written as
+ * binary results store (see {@link OutputStore}). Output data files written in
+ * the former serialized object format can still be read. The recently read
+ * output data is cached for the post-processing session, and is read again
+ * only if its file has changed since.
  * 
  * @author Murat Artim
  * 
  */
 public class OutputDataHandler1 {
 
+	/** File of cached output data. */
+	private static File cachedFile_;
+
+	/** Modification time and length of file when cached. */
+	private static long cachedModified_, cachedLength_;
+
+	/** Cached output data. */
+	private static OutputData cached_;
+
 	/**
 	 * Reads and returns output data object from the given path.
 	 * 
@@ -42,55 +57,143 @@ public class OutputDataHandler1 {
 	 *            The path of demanded output data object.
 	 * @return Output data object.
 	 */
-	public static OutputData read(String path) {
+	public static synchronized OutputData read(String path) {
 
-		// initialize input stream
-		ObjectInputStream in = null;
+		// get output data file
+		File file = new File(getOutputPath(path)).getAbsoluteFile();
 
-		// read file
-		try {
+		// file has not changed since cached
+		long modified = file.lastModified();
+		long length = file.length();
+		if (cached_ != null && file.equals(cachedFile_)
+				&& modified == cachedModified_ && length == cachedLength_)
+			return cached_;
 
-			// set path for reading output data
-			String path1 = path.substring(0, path.length() - 4);
-			path1 += ".out";
+		// close file of previously cached output data
+		release();
 
-			// create input stream
-			in = new ObjectInputStream(new BufferedInputStream(
-					new FileInputStream(path1)));
+		// read output data
+		OutputData outputData = null;
 
-			// read and return output data
-			return (OutputData) in.readObject();
-		}
+		// binary results store
+		if (OutputStore.isStore(file)) {
+			try {
+				outputData = new OutputData(new OutputStore(file));
+			}
 
-		// file not found
-		catch (FileNotFoundException e) {
-			return null;
+			// cannot read file
+			catch (IOException e) {
+				outputData = null;
+			}
 		}
 
-		// cannot read file
-		catch (IOException e) {
-			return null;
-		}
+		// serialized output data object
+		else
+			outputData = readObject(file);
 
-		// cannot process file
-		catch (ClassNotFoundException e) {
-			return null;
+		// cache output data
+		cached_ = outputData;
+		cachedFile_ = file;
+		cachedModified_ = modified;
+		cachedLength_ = length;
+		return outputData;
+	}
+
+	/**
+	 * Releases cached output data, closing the file of its results store.
+	 * The reaction recovery system assembled by the output data is released
+	 * with it. This should be called before the output data file is rewritten
+	 * or removed. Output data previously returned by {@link #read(String)}
+	 * shouldn't be used after its file is rewritten.
+	 */
+	public static synchronized void release() {
+		if (cached_ != null && cached_.getStore() != null)
+			cached_.getStore().close();
+		cached_ = null;
+		cachedFile_ = null;
+	}
+
+	/**
+	 * Writes output data object to given path.
+	 * 
+	 * @param path
+	 *            The path to write the output data object.
+	 * @param unknowns
+	 *            The unknowns array of output data.
+	 * @param steps
+	 *            Number of steps.
+	 * @return True if no problem occured during writing, False vice versa.
+	 */
+	public static boolean write(String path, double[][] unknowns, Integer steps) {
+		return write(path, new int[0], unknowns, steps);
+	}
+
+	/**
+	 * Writes output data object to given path.
+	 * 
+	 * @param path
+	 *            The path to write the output data object.
+	 * @param dofMap
+	 *            The equation numbers of nodal dofs (6 per node, -1 for
+	 *            constrained dofs).
+	 * @param unknowns
+	 *            The unknowns array of output data.
+	 * @param steps
+	 *            Number of steps.
+	 * @return True if no problem occured during writing, False vice versa.
+	 */
+	public static boolean write(String path, int[] dofMap, double[][] unknowns,
+			Integer steps) {
+
+		// get number of equations and steps
+		int eqn = unknowns == null ? 0 : unknowns.length;
+		int n = steps == null || unknowns == null ? 0 : steps;
+
+		// release cached output data
+		release();
+
+		// initialize random access file
+		RandomAccessFile raf = null;
+
+		// write to file
+		try {
+
+			// create file
+			raf = new RandomAccessFile(getOutputPath(path), "rw");
+			raf.setLength(0);
+			FileChannel channel = raf.getChannel();
+
+			// write header and DOF map
+			writeHeader(channel, eqn, 0, n, n, dofMap);
+
+			// write step blocks
+			ByteBuffer block = ByteBuffer.allocateDirect((int) OutputStore
+					.getBlockSize(eqn));
+			for (int j = 0; j < n; j++) {
+				block.clear();
+				for (int i = 0; i < eqn; i++)
+					block.putDouble(unknowns[i][j]);
+				block.flip();
+				while (block.hasRemaining())
+					channel.write(block);
+			}
+			return true;
 		}
 
-		// cannot process file
-		catch (ClassCastException e) {
-			return null;
+		// cannot write to file
+		catch (IOException e) {
+			return false;
 		}
 
-		// close input stream
+		// close file
 		finally {
 
-			// check if the input stream is null
-			if (in != null) {
+			// check if the file is null
+			if (raf != null) {
 				try {
 
 					// close
-					in.close();
+					raf.close();
 				} catch (IOException io) {
 				}
 			}
@@ -98,34 +201,114 @@ public class OutputDataHandler1 {
 	}
 
 	/**
-	 * Writes output data object to given path.
+	 * Copies output data file of the source path to the target path.
+	 * 
+	 * @param source
+	 *            The path of source output data.
+	 * @param target
+	 *            The path of target output data.
+	 * @return True if no problem occured during copying, False vice versa.
+	 */
+	public static boolean copy(String source, String target) {
+
+		// release cached output data
+		release();
+
+		// initialize streams
+		FileInputStream in = null;
+		FileOutputStream out = null;
+
+		// copy file
+		try {
+			in = new FileInputStream(getOutputPath(source));
+			out = new FileOutputStream(getOutputPath(target));
+			FileChannel src = in.getChannel();
+			long size = src.size();
+			long position = 0;
+			while (position < size)
+				position += src.transferTo(position, size - position, out
+						.getChannel());
+			return true;
+		}
+
+		// cannot copy file
+		catch (IOException e) {
+			return false;
+		}
+
+		// close streams
+		finally {
+			try {
+				if (in != null)
+					in.close();
+				if (out != null)
+					out.close();
+			} catch (IOException io) {
+			}
+		}
+	}
+
+	/**
+	 * Writes output data with modes to given path. The unknowns of steps are
+	 * expanded from the modes when they are read.
 	 * 
 	 * @param path
-	 *            The path to write the output data object.
-	 * @param unknowns
-	 *            The unknowns array of output data.
-	 * @param steps
-	 *            Number of steps.
+	 *            The path to write the output data.
+	 * @param dofMap
+	 *            The equation numbers of nodal dofs (6 per node, -1 for
+	 *            constrained dofs).
+	 * @param modes
+	 *            The eqn x m array storing the mode vectors as its columns.
+	 * @param coordinates
+	 *            The n x m array storing the modal coordinates of steps.
 	 * @return True if no problem occured during writing, False vice versa.
 	 */
-	public static boolean write(String path, double[][] unknowns, Integer steps) {
+	public static boolean writeModal(String path, int[] dofMap,
+			double[][] modes, double[][] coordinates) {
 
-		// initialize output stream
-		ObjectOutputStream out = null;
+		// get number of equations, modes and steps
+		int eqn = modes.length;
+		int m = coordinates.length == 0 ? 0 : coordinates[0].length;
+		int n = coordinates.length;
+
+		// release cached output data
+		release();
+
+		// initialize random access file
+		RandomAccessFile raf = null;
 
 		// write to file
 		try {
 
-			// set path for saving output data
-			String path1 = path.substring(0, path.length() - 4);
-			path1 += ".out";
+			// create file
+			raf = new RandomAccessFile(getOutputPath(path), "rw");
+			raf.setLength(0);
+			FileChannel channel = raf.getChannel();
 
-			// create output stream for output data
-			out = new ObjectOutputStream(new BufferedOutputStream(
-					new FileOutputStream(path1)));
+			// write header and DOF map
+			writeHeader(channel, eqn, m, n, n, dofMap);
 
-			// write output data
-			out.writeObject(new OutputData(unknowns, steps));
+			// write mode vectors
+			ByteBuffer block = ByteBuffer.allocateDirect((int) OutputStore
+					.getBlockSize(Math.max(eqn, m)));
+			for (int j = 0; j < m; j++) {
+				block.clear();
+				for (int i = 0; i < eqn; i++)
+					block.putDouble(modes[i][j]);
+				block.flip();
+				while (block.hasRemaining())
+					channel.write(block);
+			}
+
+			// write modal coordinates of steps
+			for (int k = 0; k < n; k++) {
+				block.clear();
+				for (int j = 0; j < m; j++)
+					block.putDouble(coordinates[k][j]);
+				block.flip();
+				while (block.hasRemaining())
+					channel.write(block);
+			}
 			return true;
 		}
 
@@ -134,15 +317,128 @@ public class OutputDataHandler1 {
 			return false;
 		}
 
-		// close output stream
+		// close file
 		finally {
+			if (raf != null) {
+				try {
+					raf.close();
+				} catch (IOException io) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes header and DOF map of results store to the beginning of given
+	 * channel. The channel is positioned to the first block afterwards.
+	 * 
+	 * @param channel
+	 *            File channel to write to.
+	 * @param eqn
+	 *            Number of equations.
+	 * @param modes
+	 *            Number of modes (0 if step blocks hold the unknowns).
+	 * @param steps
+	 *            Number of written steps.
+	 * @param capacity
+	 *            Number of planned steps.
+	 * @param dofMap
+	 *            The DOF map.
+	 * @throws IOException
+	 *             If the header cannot be written.
+	 */
+	public static void writeHeader(FileChannel channel, int eqn, int modes,
+			int steps, int capacity, int[] dofMap) throws IOException {
 
-			// check if the output stream is null
-			if (out != null) {
+		// fill header buffer
+		int offset = (int) OutputStore.getDataOffset(dofMap.length);
+		ByteBuffer header = ByteBuffer.allocate(offset);
+		header.putInt(OutputStore.magic_);
+		header.putInt(OutputStore.version_);
+		header.putInt(eqn);
+		header.putInt(steps);
+		header.putInt(capacity);
+		header.putInt(dofMap.length);
+		header.putInt(modes);
+		for (int i = 0; i < dofMap.length; i++)
+			header.putInt(dofMap[i]);
+		header.clear();
+
+		// write header
+		channel.position(0);
+		while (header.hasRemaining())
+			channel.write(header);
+	}
+
+	/**
+	 * Returns the path of output data file for the given model path. The
+	 * extension of model path (if any) is replaced by ".out".
+	 * 
+	 * @param path
+	 *            The model path.
+	 * @return The path of output data file.
+	 */
+	public static String getOutputPath(String path) {
+		int dot = path.lastIndexOf('.');
+		if (dot > path.lastIndexOf(File.separatorChar)
+				&& dot > path.lastIndexOf('/'))
+			path = path.substring(0, dot);
+		return path + ".out";
+	}
+
+	/**
+	 * Reads and returns output data object written in serialized object
+	 * format.
+	 * 
+	 * @param file
+	 *            The output data file.
+	 * @return Output data object.
+	 */
+	private static OutputData readObject(File file) {
+
+		// initialize input stream
+		ObjectInputStream in = null;
+
+		// read file
+		try {
+
+			// create input stream
+			in = new ObjectInputStream(new BufferedInputStream(
+					new FileInputStream(file)));
+
+			// read and return output data
+			return (OutputData) in.readObject();
+		}
+
+		// file not found
+		catch (FileNotFoundException e) {
+			return null;
+		}
+
+		// cannot read file
+		catch (IOException e) {
+			return null;
+		}
+
+		// cannot process file
+		catch (ClassNotFoundException e) {
+			return null;
+		}
+
+		// cannot process file
+		catch (ClassCastException e) {
+			return null;
+		}
+
+		// close input stream
+		finally {
+
+			// check if the input stream is null
+			if (in != null) {
 				try {
 
 					// close
-					out.close();
+					in.close();
 				} catch (IOException io) {
 				}
 			}
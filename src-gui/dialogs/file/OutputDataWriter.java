@@ -0,0 +1,283 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dialogs.file;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import data.OutputStore;
+
+/**
+ * Class for incremental writing of output data. Step vectors are appended to
+ * a binary results store (see {@link OutputStore}) one by one. Writing is
+ * performed on a background thread, using a bounded pool of step buffers. The
+ * number of written steps in header is updated after each step, so that a
+ * partially written store remains readable.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class OutputDataWriter {
+
+	/** Maximum memory used for pending step buffers (in bytes). */
+	private static final long maxBufferMemory_ = 64L * 1024L * 1024L;
+
+	/** Buffer signaling the background thread to stop. */
+	private static final ByteBuffer stop_ = ByteBuffer.allocate(0);
+
+	/** Number of equations and planned steps. */
+	private final int eqn_, capacity_;
+
+	/** Number of submitted steps. */
+	private int submitted_ = 0;
+
+	/** Number of written steps. */
+	private volatile int written_ = 0;
+
+	/** The file and its channel. */
+	private final RandomAccessFile file_;
+
+	private final FileChannel channel_;
+
+	/** Byte offset of the first step block. */
+	private final long offset_;
+
+	/** Queues of free and pending step buffers. */
+	private final BlockingQueue<ByteBuffer> free_, pending_;
+
+	/** Background writing thread. */
+	private final Thread thread_;
+
+	/** Exception occurred during background writing, if any. */
+	private volatile IOException exception_;
+
+	/** Boolean denoting if writer is closed. */
+	private boolean closed_ = false;
+
+	/**
+	 * Creates output data writer and writes header of results store.
+	 * 
+	 * @param path
+	 *            The path to write the output data.
+	 * @param dofMap
+	 *            The equation numbers of nodal dofs (6 per node, -1 for
+	 *            constrained dofs).
+	 * @param eqn
+	 *            Number of equations.
+	 * @param steps
+	 *            Number of planned steps.
+	 * @throws IOException
+	 *             If the results store cannot be created.
+	 */
+	public OutputDataWriter(String path, int[] dofMap, int eqn, int steps)
+			throws IOException {
+
+		// set parameters
+		eqn_ = eqn;
+		capacity_ = steps;
+		offset_ = OutputStore.getDataOffset(dofMap.length);
+
+		// release cached output data (closes its results store, so that the
+		// file can be truncated)
+		OutputDataHandler1.release();
+
+		// create file and write header (close file if it cannot be written)
+		file_ = new RandomAccessFile(OutputDataHandler1.getOutputPath(path),
+				"rw");
+		channel_ = file_.getChannel();
+		try {
+			file_.setLength(0);
+			OutputDataHandler1.writeHeader(channel_, eqn, 0, 0, steps, dofMap);
+		} catch (IOException e) {
+			file_.close();
+			throw e;
+		}
+
+		// create bounded pool of step buffers
+		long block = Math.max(8, OutputStore.getBlockSize(eqn));
+		int nBuffers = (int) Math.max(2, Math.min(16, maxBufferMemory_ / block));
+		free_ = new ArrayBlockingQueue<ByteBuffer>(nBuffers);
+		pending_ = new ArrayBlockingQueue<ByteBuffer>(nBuffers + 1);
+		for (int i = 0; i < nBuffers; i++)
+			free_.add(ByteBuffer.allocateDirect((int) OutputStore
+					.getBlockSize(eqn)));
+
+		// start background writing thread
+		thread_ = new Thread(new Runnable() {
+			public void run() {
+				writeBlocks();
+			}
+		}, "OutputDataWriter");
+		thread_.setDaemon(true);
+		thread_.start();
+	}
+
+	/**
+	 * Appends the unknown vector of the next step. Blocks only if all step
+	 * buffers are waiting to be written.
+	 * 
+	 * @param u
+	 *            The system unknown vector of step.
+	 */
+	public void write(double[] u) {
+
+		// check writer
+		if (closed_)
+			exceptionHandler("Output data writer is closed!");
+		if (exception_ != null)
+			exceptionHandler("Exception occurred during writing output data!");
+		if (submitted_ >= capacity_)
+			exceptionHandler("Number of planned steps exceeded!");
+
+		try {
+
+			// get free buffer and fill it
+			ByteBuffer block = free_.take();
+			block.clear();
+			for (int i = 0; i < eqn_; i++)
+				block.putDouble(u[i]);
+			block.flip();
+
+			// submit for writing
+			pending_.put(block);
+			submitted_++;
+		}
+
+		// interrupted
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			exceptionHandler("Output data writing interrupted!");
+		}
+	}
+
+	/**
+	 * Waits for pending steps to be written and closes the writer.
+	 * 
+	 * @return True if no problem occured during writing, False vice versa.
+	 */
+	public boolean close() {
+
+		// already closed
+		if (closed_)
+			return exception_ == null;
+		closed_ = true;
+
+		try {
+
+			// stop background thread after pending steps
+			pending_.put(stop_);
+			thread_.join();
+		}
+
+		// interrupted
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			thread_.interrupt();
+		}
+
+		// close file
+		finally {
+			try {
+				file_.close();
+			} catch (IOException io) {
+				if (exception_ == null)
+					exception_ = io;
+			}
+		}
+		return exception_ == null;
+	}
+
+	/**
+	 * Returns number of steps written to file.
+	 * 
+	 * @return Number of written steps.
+	 */
+	public int getNumberOfSteps() {
+		return written_;
+	}
+
+	/**
+	 * Returns number of planned steps.
+	 * 
+	 * @return Number of planned steps.
+	 */
+	public int getCapacity() {
+		return capacity_;
+	}
+
+	/**
+	 * Writes pending step buffers to file until writer is closed.
+	 * 
+	 */
+	private void writeBlocks() {
+
+		// header buffer for the number of written steps
+		ByteBuffer steps = ByteBuffer.allocate(4);
+
+		try {
+
+			// loop until the stop buffer is taken
+			while (true) {
+
+				// take next pending step
+				ByteBuffer block = pending_.take();
+				if (block == stop_)
+					break;
+
+				// write step block, unless a previous write failed
+				if (exception_ == null) {
+					try {
+						long position = offset_ + written_
+								* OutputStore.getBlockSize(eqn_);
+						while (block.hasRemaining())
+							position += channel_.write(block, position);
+
+						// update number of written steps in header
+						steps.clear();
+						steps.putInt(written_ + 1);
+						steps.flip();
+						channel_.write(steps, OutputStore.stepsPosition_);
+						written_++;
+					} catch (IOException e) {
+						exception_ = e;
+					}
+				}
+
+				// return buffer to pool
+				free_.put(block);
+			}
+		}
+
+		// interrupted
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Throws exception with the related message.
+	 * 
+	 * @param message
+	 *            The message to be displayed.
+	 */
+	private void exceptionHandler(String message) {
+		throw new IllegalArgumentException(message);
+	}
+}
@@ -778,6 +778,8 @@ public class AnalysisCase2 extends JDialog implements ActionListener {
 				ld.setNewmarkParameters(par[0], par[1]);
 			else if (method == LinearTransient.wilson_)
 				ld.setWilsonParameter(par[0]);
+			else if (method == LinearTransient.modalSuperposition_)
+				ld.setNumberOfModes((int) par[0]);
 			ld.setBoundaries(bound, scales);
 			ld.setLoadTimeFunction(func);
 			object = ld;
@@ -247,6 +247,8 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 			integrationPar_ = ld.getNewmarkParameters();
 		else if (method_ == LinearTransient.wilson_)
 			integrationPar_[0] = ld.getWilsonParameter();
+		else if (method_ == LinearTransient.modalSuperposition_)
+			integrationPar_[0] = ld.getNumberOfModes();
 
 		// get solver
 		String solver = ld.getSolver().getName();
@@ -271,6 +273,10 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 			textfield5_.setText("Newmark");
 		else if (method_ == LinearTransient.wilson_)
 			textfield5_.setText("Wilson");
+		else if (method_ == LinearTransient.centralDifference_)
+			textfield5_.setText("Central difference");
+		else if (method_ == LinearTransient.modalSuperposition_)
+			textfield5_.setText("Modal superposition");
 
 		// set solver
 		combobox2_.setSelectedItem(solver);
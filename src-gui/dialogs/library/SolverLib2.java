@@ -144,14 +144,14 @@ public class SolverLib2 extends JDialog implements ActionListener,
 				"BiConjugate gradients stabilized", "Quasi-minimal residual",
 				"Generalized minimal residual", "Iterative refinement" };
 		String types2[] = { "Incomplete Cholesky", "Incomplete LU",
-				"Diagonal preconditioning" };
-		String types3[] = { "Subspace iteration", "Direct" };
+				"Diagonal preconditioning", "Algebraic multigrid" };
+		String types3[] = { "Subspace iteration", "Direct", "Lanczos" };
 		combobox1_ = new JComboBox(types1);
 		combobox2_ = new JComboBox(types2);
 		combobox3_ = new JComboBox(types3);
 		combobox1_.setMaximumRowCount(5);
-		combobox2_.setMaximumRowCount(3);
-		combobox3_.setMaximumRowCount(2);
+		combobox2_.setMaximumRowCount(4);
+		combobox3_.setMaximumRowCount(3);
 		combobox1_.setPreferredSize(new Dimension(177, 23));
 		combobox3_.setPreferredSize(new Dimension(208, 23));
 
@@ -413,6 +413,41 @@ public class SolverLib2 extends JDialog implements ActionListener,
 			setDefaultText(textfield2_);
 			setDefaultText(textfield7_);
 		}
+
+		// Solver6
+		else if (type == Solver.solver5_) {
+
+			// get solver
+			Solver5 solver = (Solver5) selected;
+
+			// set tab
+			tabbedpane1_.setSelectedIndex(solver.getProblemType());
+
+			// set name
+			textfield3_.setText(solver.getName());
+
+			// set # of eigenvalues
+			textfield5_.setText(Integer.toString(solver
+					.getNumberOfRequiredEigenvalues()));
+
+			// set convergence tolerance
+			textfield6_.setText(owner_.owner_.formatter_.format(solver
+					.getConvergenceTolerance()));
+
+			// set maximum restarts
+			textfield7_.setText(Integer.toString(solver
+					.getMaxNumberOfIterations()));
+
+			// set solver
+			combobox3_.setSelectedIndex(solver.getSolverType());
+
+			// set storage
+			setStorage(selected);
+
+			// set default for other textfields
+			setDefaultText(textfield1_);
+			setDefaultText(textfield2_);
+		}
 	}
 
 	/**
@@ -764,11 +799,24 @@ public class SolverLib2 extends JDialog implements ActionListener,
 
 		// combobox3 event
 		else if (event.getSource().equals(combobox3_)) {
-			setStorage(getObject());
 
 			// get selected index
 			int index = combobox3_.getSelectedIndex();
 
+			// reset number of eigenvalues if it exceeds limit of solver
+			if (index != GESolver.Lanczos_) {
+				try {
+					if (Integer.parseInt(textfield5_.getText()) > 20)
+						setDefaultText(textfield5_);
+				}
+
+				// non-numeric value
+				catch (Exception excep) {
+					setDefaultText(textfield5_);
+				}
+			}
+			setStorage(getObject());
+
 			// Subspace
 			if (index == GESolver.SubSpace_)
 				textfield7_.setEnabled(true);
@@ -776,6 +824,10 @@ public class SolverLib2 extends JDialog implements ActionListener,
 			// direct
 			else if (index == GESolver.Direct_)
 				textfield7_.setEnabled(false);
+
+			// Lanczos
+			else if (index == GESolver.Lanczos_)
+				textfield7_.setEnabled(true);
 		}
 	}
 
@@ -887,6 +939,16 @@ public class SolverLib2 extends JDialog implements ActionListener,
 				// return object
 				return new Solver4(name, nRoot, rTol);
 			}
+
+			// Lanczos
+			else if (solver == GESolver.Lanczos_) {
+
+				// get maximum restarts
+				int maxit = Integer.parseInt(textfield7_.getText());
+
+				// return object
+				return new Solver5(name, nRoot, rTol, maxit);
+			}
 		}
 		return null;
 	}
@@ -965,7 +1027,8 @@ public class SolverLib2 extends JDialog implements ActionListener,
 	 *            The textfield that the false data has been entered.
 	 * @param messageType
 	 *            The type of message to be displayed (No name given -> 0, Name
-	 *            exists -> 1, Illegal value (non-integer, <=0 || >20) -> 2,
+	 *            exists -> 1, Illegal value (non-integer, <=0 || >20 unless
+	 *            Lanczos) -> 2,
 	 *            Illegal value (non-double, <=0) -> 3, Illegal value
 	 *            (non-integer, <=0) -> 4).
 	 * @return True if the data entered is correct, False if not.
@@ -1013,8 +1076,9 @@ public class SolverLib2 extends JDialog implements ActionListener,
 				// convert text to integer value
 				int value = Integer.parseInt(text);
 
-				// check constraints
-				if (value <= 0 || value > 20) {
+				// check constraints (no upper limit for Lanczos solver)
+				int index = combobox3_.getSelectedIndex();
+				if (value <= 0 || (value > 20 && index != GESolver.Lanczos_)) {
 
 					// display message
 					JOptionPane.showMessageDialog(this, "Illegal value!",
@@ -877,20 +877,9 @@ public class AddElement1 extends JDialog implements ActionListener,
 	 */
 	private Node checkCoordinates(DVec pos) {
 
-		// loop over nodes of structure
-		for (int i = 0; i < owner_.structure_.getNumberOfNodes(); i++) {
-
-			// get nodal position vector
-			Node node = owner_.structure_.getNode(i);
-			DVec pos1 = node.getPosition();
-
-			// check coordinates
-			if (pos.subtract(pos1).l2Norm() <= tol1_)
-				return node;
-		}
-
-		// no node exists at the same coordinates
-		return null;
+		// find node at the same coordinates
+		return owner_.structure_.findNodeNear(pos.get(0),
+				pos.get(1), pos.get(2), tol1_);
 	}
 
 	/**
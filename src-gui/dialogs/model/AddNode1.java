@@ -284,19 +284,9 @@ public class AddNode1 extends JDialog implements ActionListener, FocusListener {
 		pos.set(1, Double.parseDouble(textfield3_.getText()));
 		pos.set(2, Double.parseDouble(textfield4_.getText()));
 
-		// loop over nodes of structure
-		for (int i = 0; i < owner_.structure_.getNumberOfNodes(); i++) {
-
-			// get nodal position vector
-			DVec pos1 = owner_.structure_.getNode(i).getPosition();
-
-			// check coordinates
-			if (pos.subtract(pos1).l2Norm() <= tolerance_)
-				return false;
-		}
-
-		// no node exists at the same coordinates
-		return true;
+		// check if any node exists at the same coordinates
+		return owner_.structure_.findNodeNear(pos.get(0), pos.get(1),
+				pos.get(2), tolerance_) == null;
 	}
 
 	/**
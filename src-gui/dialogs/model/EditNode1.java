@@ -216,7 +216,7 @@ public class EditNode1 extends JDialog implements ActionListener {
 		if (checkId() && checkCoordinates() && checkConnectivity()) {
 
 			// set new position vector to the node
-			node_.setPosition(new DVec(coord_));
+			owner_.structure_.setNodePosition(node_, new DVec(coord_));
 
 			// draw
 			progressor_.setStatusMessage("Drawing...");
@@ -302,24 +302,18 @@ public class EditNode1 extends JDialog implements ActionListener {
 			pos.set(2, coord_[2]);
 
 			// check structure for any node having the same coordinates
-			for (int i = 0; i < owner_.structure_.getNumberOfNodes(); i++) {
+			if (owner_.structure_.findNodeNear(pos.get(0), pos.get(1),
+					pos.get(2), tolerance_) != null) {
 
-				// get nodal position vector
-				DVec pos1 = owner_.structure_.getNode(i).getPosition();
-
-				// check coordinates
-				if (pos.subtract(pos1).l2Norm() <= tolerance_) {
-
-					// close progressor
-					progressor_.close();
-					setStill(false);
+				// close progressor
+				progressor_.close();
+				setStill(false);
 
-					// display message
-					JOptionPane.showMessageDialog(EditNode1.this,
-							"There exists a node at the given coordinates!",
-							"False data entry", 2);
-					return false;
-				}
+				// display message
+				JOptionPane.showMessageDialog(EditNode1.this,
+						"There exists a node at the given coordinates!",
+						"False data entry", 2);
+				return false;
 			}
 		} catch (Exception excep) {
 
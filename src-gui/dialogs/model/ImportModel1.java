@@ -25,6 +25,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.util.HashMap;
 import java.util.Vector;
 
 // import javax.swing.ImageIcon;
@@ -41,6 +42,7 @@ import javax.swing.WindowConstants;
 import data.Group;
 import dialogs.file.FFilter1;
 import dialogs.file.FView1;
+import dialogs.file.ModelFile;
 
 import analysis.Structure;
 import element.Element;
@@ -281,58 +283,13 @@ public class ImportModel1 extends JDialog implements ActionListener {
 	 */
 	private void unusedNodes() {
 
-		// initialize would be removed nodes vector
-		Vector<Node> nodes1 = new Vector<Node>();
-
-		// loop over nodes
-		nodes1.clear();
-		for (int i = 0; i < owner_.structure_.getNumberOfNodes(); i++) {
-
-			// get node to be checked
-			Node node = owner_.structure_.getNode(i);
-			int m = 0;
-
-			// loop over elements
-			for (int j = 0; j < owner_.structure_.getNumberOfElements(); j++) {
-
-				// get element and its nodes
-				Element e = owner_.structure_.getElement(j);
-				Node[] nodes = e.getNodes();
-
-				// loop over nodes of element
-				for (int k = 0; k < nodes.length; k++) {
-
-					// element contains node
-					if (nodes[k].equals(node)) {
-						m++;
-						break;
-					}
-				}
-
-				// check node's connection
-				if (m > 0)
-					break;
-			}
-
-			// check node's connection
-			if (m == 0)
-				nodes1.add(node);
-		}
+		// get unused nodes
+		Vector<Node> nodes1 = owner_.structure_.getUnusedNodes();
 
 		// remove unused nodes from structure and groups
-		for (int i = 0; i < nodes1.size(); i++) {
-			int index = owner_.structure_.indexOfNode(nodes1.get(i));
-			owner_.structure_.removeNode(index);
-			for (int j = 0; j < owner_.inputData_.getGroup().size(); j++) {
-
-				// get group
-				Group group = owner_.inputData_.getGroup().get(j);
-
-				// check if group contains node
-				if (group.containsNode(nodes1.get(i)))
-					group.removeNode(nodes1.get(i));
-			}
-		}
+		owner_.structure_.removeNodes(nodes1);
+		for (int j = 0; j < owner_.inputData_.getGroup().size(); j++)
+			owner_.inputData_.getGroup().get(j).removeNodes(nodes1);
 	}
 
 	/**
@@ -341,61 +298,13 @@ public class ImportModel1 extends JDialog implements ActionListener {
 	 */
 	private void duplicateElements() {
 
-		// initialize would be removed elements vector
-		Vector<Element> elements1 = new Vector<Element>();
-
-		// loop over elements
-		for (int i = 0; i < owner_.structure_.getNumberOfElements() - 1; i++) {
-
-			// get type and nodes of base element
-			int type1 = owner_.structure_.getElement(i).getType();
-			Node[] nodes = owner_.structure_.getElement(i).getNodes();
-
-			// loop over other elements
-			for (int j = i + 1; j < owner_.structure_.getNumberOfElements(); j++) {
-
-				// get target element and its type
-				Element e = owner_.structure_.getElement(j);
-				int type2 = e.getType();
-
-				// check for same type
-				if (type1 == type2) {
-
-					// check for identical nodes
-					int m = 0;
-					for (int k = 0; k < nodes.length; k++) {
-						for (int l = 0; l < nodes.length; l++) {
-							if (nodes[k].equals(e.getNodes()[l]))
-								m++;
-						}
-					}
-
-					// identical nodes
-					if (m == nodes.length) {
-						if (elements1.contains(e) == false) {
-
-							// add to would be removed elements list
-							elements1.add(e);
-						}
-					}
-				}
-			}
-		}
+		// get duplicate elements
+		Vector<Element> elements1 = owner_.structure_.getDuplicateElements();
 
 		// remove duplicate elements from structure and groups
-		for (int i = 0; i < elements1.size(); i++) {
-			int index = owner_.structure_.indexOfElement(elements1.get(i));
-			owner_.structure_.removeElement(index);
-			for (int j = 0; j < owner_.inputData_.getGroup().size(); j++) {
-
-				// get group
-				Group group = owner_.inputData_.getGroup().get(j);
-
-				// check if group contains element
-				if (group.containsElement(elements1.get(i)))
-					group.removeElement(elements1.get(i));
-			}
-		}
+		owner_.structure_.removeElements(elements1);
+		for (int j = 0; j < owner_.inputData_.getGroup().size(); j++)
+			owner_.inputData_.getGroup().get(j).removeElements(elements1);
 	}
 
 	/**
@@ -404,66 +313,14 @@ public class ImportModel1 extends JDialog implements ActionListener {
 	 */
 	private void duplicateNodes() {
 
-		// initialize would be removed nodes vector
-		Vector<Node> nodes1 = new Vector<Node>();
-
-		// loop over nodes
-		for (int i = 0; i < owner_.structure_.getNumberOfNodes() - 1; i++) {
-
-			// get position of base node
-			Node node1 = owner_.structure_.getNode(i);
-			DVec pos1 = node1.getPosition();
-
-			// loop over other nodes
-			for (int j = i + 1; j < owner_.structure_.getNumberOfNodes(); j++) {
-
-				// get target node and its position
-				Node node2 = owner_.structure_.getNode(j);
-				DVec pos2 = node2.getPosition();
-
-				// check positions
-				DVec dif = pos1.subtract(pos2);
-				if (dif.l2Norm() <= tolerance_) {
-					if (nodes1.contains(node2) == false) {
-
-						// add to would be removed nodes list
-						nodes1.add(node2);
-
-						// loop over elements
-						for (int k = 0; k < owner_.structure_
-								.getNumberOfElements(); k++) {
-
-							// get nodes of element
-							Node[] nodes = owner_.structure_.getElement(k)
-									.getNodes();
-
-							// loop over nodes of element
-							for (int l = 0; l < nodes.length; l++) {
+		// get duplicate nodes
+		HashMap<Node, Node> nodes1 = owner_.structure_
+				.getDuplicateNodes(tolerance_);
 
-								// check if it contains the node
-								if (nodes[l].equals(node2))
-									nodes[l] = node1;
-							}
-						}
-					}
-				}
-			}
-		}
-
-		// remove duplicate nodes from structure and groups
-		for (int i = 0; i < nodes1.size(); i++) {
-			int index = owner_.structure_.indexOfNode(nodes1.get(i));
-			owner_.structure_.removeNode(index);
-			for (int j = 0; j < owner_.inputData_.getGroup().size(); j++) {
-
-				// get group
-				Group group = owner_.inputData_.getGroup().get(j);
-
-				// check if group contains node
-				if (group.containsNode(nodes1.get(i)))
-					group.removeNode(nodes1.get(i));
-			}
-		}
+		// merge duplicate nodes and remove them from groups
+		owner_.structure_.mergeNodes(nodes1);
+		for (int j = 0; j < owner_.inputData_.getGroup().size(); j++)
+			owner_.inputData_.getGroup().get(j).removeNodes(nodes1.keySet());
 	}
 
 	/**
@@ -592,15 +449,26 @@ public class ImportModel1 extends JDialog implements ActionListener {
 			// get the path
 			String path = textfield1_.getText();
 
-			// create input stream
-			in = new ObjectInputStream(new BufferedInputStream(
-					new FileInputStream(path)));
+			// binary model file
+			if (ModelFile.isModelFile(path)) {
+				ModelFile model = new ModelFile(path);
+				model.readModel(false);
+				s = model.getStructure();
+			}
+
+			// serialized model file (former format)
+			else {
+
+				// create input stream
+				in = new ObjectInputStream(new BufferedInputStream(
+						new FileInputStream(path)));
 
-			// read input data
-			in.readObject();
+				// read input data
+				in.readObject();
 
-			// read structure
-			s = (Structure) in.readObject();
+				// read structure
+				s = (Structure) in.readObject();
+			}
 		}
 
 		// file not found
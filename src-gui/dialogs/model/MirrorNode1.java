@@ -564,20 +564,9 @@ public class MirrorNode1 extends JDialog implements ActionListener,
 	 */
 	private boolean checkCoordinates(DVec pos) {
 
-		// loop over nodes of structure
-		for (int i = 0; i < owner_.structure_.getNumberOfNodes(); i++) {
-
-			// get nodal position vector and length
-			Node node = owner_.structure_.getNode(i);
-			DVec pos1 = node.getPosition();
-
-			// check coordinates
-			if (pos.subtract(pos1).l2Norm() <= tolerance_)
-				return false;
-		}
-
-		// no node exists at the same coordinates
-		return true;
+		// check if any node exists at the same coordinates
+		return owner_.structure_.findNodeNear(pos.get(0),
+				pos.get(1), pos.get(2), tolerance_) == null;
 	}
 
 	/**
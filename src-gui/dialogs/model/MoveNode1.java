@@ -543,7 +543,7 @@ public class MoveNode1 extends JDialog implements ActionListener, ItemListener {
 		if (checkCoordinates(pos)) {
 
 			// set new position vector to the node
-			nod.setPosition(pos);
+			owner_.structure_.setNodePosition(nod, pos);
 		}
 	}
 
@@ -557,20 +557,9 @@ public class MoveNode1 extends JDialog implements ActionListener, ItemListener {
 	 */
 	private boolean checkCoordinates(DVec pos) {
 
-		// loop over nodes of structure
-		for (int i = 0; i < owner_.structure_.getNumberOfNodes(); i++) {
-
-			// get nodal position vector and length
-			Node node = owner_.structure_.getNode(i);
-			DVec pos1 = node.getPosition();
-
-			// check coordinates
-			if (pos.subtract(pos1).l2Norm() <= tolerance_)
-				return false;
-		}
-
-		// no node exists at the same coordinates
-		return true;
+		// check if any node exists at the same coordinates
+		return owner_.structure_.findNodeNear(pos.get(0),
+				pos.get(1), pos.get(2), tolerance_) == null;
 	}
 
 	/**
@@ -15,7 +15,6 @@
  */
 package dialogs.model;
 
-import data.Group;
 import element.Element;
 
 
@@ -23,6 +22,7 @@ import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.HashMap;
 import java.util.Vector;
 
 // import javax.swing.ImageIcon;
@@ -42,7 +42,6 @@ import main.Commons;
 import main.SolidMAT;
 import main.Progressor;
 import main.SwingWorker;
-import matrix.DVec;
 
 /**
  * Class for Sweep Model menu.
@@ -58,12 +57,6 @@ public class Sweep1 extends JDialog implements ActionListener {
 
 	private JTextField textfield1_;
 
-	/** Vector for storing nodes to be moved. */
-	private Vector<Node> nodes1_ = new Vector<Node>();
-
-	/** Vector for storing elements to be moved. */
-	private Vector<Element> elements1_ = new Vector<Element>();
-
 	private JButton button1_, button2_;
 
 	/** The progress monitor of processses that take place. */
@@ -300,61 +293,19 @@ public class Sweep1 extends JDialog implements ActionListener {
 	 */
 	private String unusedNodes(String message) {
 
-		// loop over nodes
-		nodes1_.clear();
-		for (int i = 0; i < owner_.structure_.getNumberOfNodes(); i++) {
-
-			// get node to be checked
-			Node node = owner_.structure_.getNode(i);
-			int m = 0;
-
-			// loop over elements
-			for (int j = 0; j < owner_.structure_.getNumberOfElements(); j++) {
-
-				// get element and its nodes
-				Element e = owner_.structure_.getElement(j);
-				Node[] nodes = e.getNodes();
-
-				// loop over nodes of element
-				for (int k = 0; k < nodes.length; k++) {
-
-					// element contains node
-					if (nodes[k].equals(node)) {
-						m++;
-						break;
-					}
-				}
-
-				// check node's connection
-				if (m > 0)
-					break;
-			}
-
-			// check node's connection
-			if (m == 0)
-				nodes1_.add(node);
-		}
+		// get unused nodes
+		Vector<Node> nodes1 = owner_.structure_.getUnusedNodes();
 
 		// remove unused nodes from structure and groups
-		for (int i = 0; i < nodes1_.size(); i++) {
-			int index = owner_.structure_.indexOfNode(nodes1_.get(i));
-			owner_.structure_.removeNode(index);
-			for (int j = 0; j < owner_.inputData_.getGroup().size(); j++) {
-
-				// get group
-				Group group = owner_.inputData_.getGroup().get(j);
-
-				// check if group contains node
-				if (group.containsNode(nodes1_.get(i)))
-					group.removeNode(nodes1_.get(i));
-			}
-		}
+		owner_.structure_.removeNodes(nodes1);
+		for (int j = 0; j < owner_.inputData_.getGroup().size(); j++)
+			owner_.inputData_.getGroup().get(j).removeNodes(nodes1);
 
 		// set message and return
 		if (message != null)
-			message += "\n" + nodes1_.size() + " unused nodes removed!";
+			message += "\n" + nodes1.size() + " unused nodes removed!";
 		else if (message == null)
-			message = nodes1_.size() + " unused nodes removed!";
+			message = nodes1.size() + " unused nodes removed!";
 		return message;
 	}
 
@@ -367,65 +318,20 @@ public class Sweep1 extends JDialog implements ActionListener {
 	 */
 	private String duplicateElements(String message) {
 
-		// loop over elements
-		for (int i = 0; i < owner_.structure_.getNumberOfElements() - 1; i++) {
-
-			// get type and nodes of base element
-			int type1 = owner_.structure_.getElement(i).getType();
-			Node[] nodes = owner_.structure_.getElement(i).getNodes();
-
-			// loop over other elements
-			for (int j = i + 1; j < owner_.structure_.getNumberOfElements(); j++) {
-
-				// get target element and its type
-				Element e = owner_.structure_.getElement(j);
-				int type2 = e.getType();
-
-				// check for same type
-				if (type1 == type2) {
-
-					// check for identical nodes
-					int m = 0;
-					for (int k = 0; k < nodes.length; k++) {
-						for (int l = 0; l < nodes.length; l++) {
-							if (nodes[k].equals(e.getNodes()[l]))
-								m++;
-						}
-					}
-
-					// identical nodes
-					if (m == nodes.length) {
-						if (elements1_.contains(e) == false) {
-
-							// add to would be removed elements list
-							elements1_.add(e);
-						}
-					}
-				}
-			}
-		}
+		// get duplicate elements
+		Vector<Element> elements1 = owner_.structure_.getDuplicateElements();
 
 		// remove duplicate elements from structure and groups
-		for (int i = 0; i < elements1_.size(); i++) {
-			int index = owner_.structure_.indexOfElement(elements1_.get(i));
-			owner_.structure_.removeElement(index);
-			for (int j = 0; j < owner_.inputData_.getGroup().size(); j++) {
-
-				// get group
-				Group group = owner_.inputData_.getGroup().get(j);
-
-				// check if group contains element
-				if (group.containsElement(elements1_.get(i)))
-					group.removeElement(elements1_.get(i));
-			}
-		}
+		owner_.structure_.removeElements(elements1);
+		for (int j = 0; j < owner_.inputData_.getGroup().size(); j++)
+			owner_.inputData_.getGroup().get(j).removeElements(elements1);
 
 		// set message and return
 		if (message != null)
-			message += "\n" + elements1_.size()
+			message += "\n" + elements1.size()
 					+ " duplicate elements removed!";
 		else if (message == null)
-			message = elements1_.size() + " duplicate elements removed!";
+			message = elements1.size() + " duplicate elements removed!";
 		return message;
 	}
 
@@ -441,66 +347,16 @@ public class Sweep1 extends JDialog implements ActionListener {
 		// get tolerance
 		double tol = Double.parseDouble(textfield1_.getText());
 
-		// loop over nodes
-		for (int i = 0; i < owner_.structure_.getNumberOfNodes() - 1; i++) {
-
-			// get position of base node
-			Node node1 = owner_.structure_.getNode(i);
-			DVec pos1 = node1.getPosition();
-
-			// loop over other nodes
-			for (int j = i + 1; j < owner_.structure_.getNumberOfNodes(); j++) {
-
-				// get target node and its position
-				Node node2 = owner_.structure_.getNode(j);
-				DVec pos2 = node2.getPosition();
-
-				// check positions
-				DVec dif = pos1.subtract(pos2);
-				if (dif.l2Norm() <= tol) {
-					if (nodes1_.contains(node2) == false) {
-
-						// add to would be removed nodes list
-						nodes1_.add(node2);
+		// get duplicate nodes
+		HashMap<Node, Node> nodes1 = owner_.structure_.getDuplicateNodes(tol);
 
-						// loop over elements
-						for (int k = 0; k < owner_.structure_
-								.getNumberOfElements(); k++) {
-
-							// get nodes of element
-							Node[] nodes = owner_.structure_.getElement(k)
-									.getNodes();
-
-							// loop over nodes of element
-							for (int l = 0; l < nodes.length; l++) {
-
-								// check if it contains the node
-								if (nodes[l].equals(node2))
-									nodes[l] = node1;
-							}
-						}
-					}
-				}
-			}
-		}
-
-		// remove duplicate nodes from structure and groups
-		for (int i = 0; i < nodes1_.size(); i++) {
-			int index = owner_.structure_.indexOfNode(nodes1_.get(i));
-			owner_.structure_.removeNode(index);
-			for (int j = 0; j < owner_.inputData_.getGroup().size(); j++) {
-
-				// get group
-				Group group = owner_.inputData_.getGroup().get(j);
-
-				// check if group contains node
-				if (group.containsNode(nodes1_.get(i)))
-					group.removeNode(nodes1_.get(i));
-			}
-		}
+		// merge duplicate nodes and remove them from groups
+		owner_.structure_.mergeNodes(nodes1);
+		for (int j = 0; j < owner_.inputData_.getGroup().size(); j++)
+			owner_.inputData_.getGroup().get(j).removeNodes(nodes1.keySet());
 
 		// set message and return
-		message = nodes1_.size() + " duplicate nodes removed!";
+		message = nodes1.size() + " duplicate nodes removed!";
 		return message;
 	}
 }
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package main;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import analysis.Analysis;
+import analysis.LinearTransient;
+import analysis.Structure;
+import data.InputData;
+import dialogs.file.ModelFile;
+import dialogs.file.OutputDataHandler1;
+
+/**
+ * Class for running analysis cases of a model without the graphical user
+ * interface. Each case is run on its own copy of the model (read from the
+ * model file), so that several cases can be run concurrently. Each case writes
+ * its own model and output data files, named after the model and the case
+ * (such as <code>model_case.smt</code> and <code>model_case.out</code>),
+ * which can be opened in the graphical user interface. Cases whose names would
+ * give the same file names are not run.
+ * 
+ * <p>
+ * Usage: <code>BatchAnalysis model.smt [-threads=n] [case ...]</code>. All
+ * analysis cases of model are run if no case is given.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class BatchAnalysis {
+
+	/** The path of model file. */
+	private final String path_;
+
+	/** Number of cases run concurrently. */
+	private final int threads_;
+
+	/**
+	 * Creates batch analysis.
+	 * 
+	 * @param path
+	 *            The path of model file.
+	 * @param threads
+	 *            Number of cases to be run concurrently.
+	 */
+	public BatchAnalysis(String path, int threads) {
+		path_ = path;
+		threads_ = Math.max(threads, 1);
+	}
+
+	public static void main(String args[]) {
+
+		// check arguments
+		if (args.length == 0) {
+			System.out.println("Usage: BatchAnalysis model.smt "
+					+ "[-threads=n] [case ...]");
+			System.exit(1);
+		}
+
+		// get number of threads and cases
+		int threads = Runtime.getRuntime().availableProcessors();
+		Vector<String> names = new Vector<String>();
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].startsWith("-threads="))
+				threads = Integer.parseInt(args[i].substring(9));
+			else
+				names.add(args[i]);
+		}
+
+		// run cases
+		try {
+			BatchAnalysis batch = new BatchAnalysis(args[0], threads);
+			if (names.isEmpty())
+				names = batch.getCaseNames();
+			Vector<String> reports = batch.run(names);
+			for (int i = 0; i < reports.size(); i++)
+				System.out.println(reports.get(i));
+		}
+
+		// exception occurred
+		catch (Exception e) {
+			System.err.println("Exception occurred during batch analysis: "
+					+ e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Returns the names of analysis cases of model.
+	 * 
+	 * @return Vector storing the names of analysis cases.
+	 * @throws Exception
+	 *             If exception occurs during reading model file.
+	 */
+	public Vector<String> getCaseNames() throws Exception {
+		InputData inputData = (InputData) readModel()[0];
+		Vector<Analysis> analyses = inputData.getAnalysis();
+		Vector<String> names = new Vector<String>();
+		for (int i = 0; i < analyses.size(); i++)
+			names.add(analyses.get(i).getName());
+		return names;
+	}
+
+	/**
+	 * Runs given analysis cases concurrently and returns their reports, in
+	 * the sequence of given cases. A case is not run if its files would be
+	 * the same as those of a preceding case (such as for the cases "load 1"
+	 * and "load_1"), since concurrent cases would overwrite each other's
+	 * results.
+	 * 
+	 * @param names
+	 *            The names of analysis cases.
+	 * @return Vector storing the reports of cases.
+	 * @throws Exception
+	 *             If exception occurs during running cases.
+	 */
+	public Vector<String> run(Vector<String> names) throws Exception {
+
+		// check for cases with the same files (ignoring case of letters for
+		// case-insensitive file systems)
+		Vector<String> reports = new Vector<String>();
+		Vector<String> paths = new Vector<String>();
+		for (int i = 0; i < names.size(); i++) {
+			String path = getCasePath(names.get(i)).toLowerCase();
+			int j = paths.indexOf(path);
+			paths.add(path);
+			if (j == -1)
+				reports.add(null);
+			else
+				reports.add("Case " + names.get(i) + ": not run, its files "
+						+ "would be the same as those of case "
+						+ names.get(j) + ".");
+		}
+
+		// submit cases
+		ExecutorService pool = Executors.newFixedThreadPool(threads_);
+		Vector<Future<String>> tasks = new Vector<Future<String>>();
+		try {
+			for (int i = 0; i < names.size(); i++) {
+				final String name = names.get(i);
+				if (reports.get(i) != null) {
+					tasks.add(null);
+					continue;
+				}
+				tasks.add(pool.submit(new Callable<String>() {
+					public String call() throws Exception {
+						return run(name);
+					}
+				}));
+			}
+
+			// collect reports
+			for (int i = 0; i < tasks.size(); i++) {
+				if (tasks.get(i) == null)
+					continue;
+				try {
+					reports.set(i, tasks.get(i).get());
+				} catch (ExecutionException e) {
+					reports.set(i, "Case " + names.get(i) + ": "
+							+ e.getCause().toString());
+				}
+			}
+			return reports;
+		}
+
+		// shut down pool
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Runs given analysis case on its own copy of model, and returns the
+	 * report of case.
+	 * 
+	 * @param name
+	 *            The name of analysis case.
+	 * @return The report of case.
+	 * @throws Exception
+	 *             If exception occurs during reading or writing model.
+	 */
+	public String run(String name) throws Exception {
+
+		// read copy of model
+		long start = System.nanoTime();
+		Object[] model = readModel();
+		InputData inputData = (InputData) model[0];
+		Structure structure = (Structure) model[1];
+		double reading = (System.nanoTime() - start) / 1.0e6;
+
+		// get analysis case
+		Analysis analysis = null;
+		Vector<Analysis> analyses = inputData.getAnalysis();
+		for (int i = 0; i < analyses.size(); i++)
+			if (analyses.get(i).getName().equals(name))
+				analysis = analyses.get(i);
+		if (analysis == null)
+			return "Case " + name + ": no such analysis case.";
+
+		// buckling uses static results and modal superposition uses modes of
+		// model
+		String path = getCasePath(name);
+		if (analysis.getType() == Analysis.linearBuckling_
+				|| isModalSuperposition(analysis))
+			OutputDataHandler1.copy(path_, path);
+
+		// run analysis
+		analysis.setStructure(structure);
+		analysis.setPath(path);
+		analysis.analyze();
+		Vector<String> phases = analysis.getPhases();
+		double[] times = analysis.getPhaseTimes();
+
+		// write model of case
+		start = System.nanoTime();
+		if (analysis.isCompleted())
+			ModelFile.write(path, inputData, structure);
+		double writing = (System.nanoTime() - start) / 1.0e6;
+
+		// create report
+		String report = "Case " + name + ": ";
+		report += analysis.isCompleted() ? "completed" : "killed";
+		report += " (" + analysis.getStatus() + ")";
+		report += "\n  " + format(reading) + " Reading model";
+		for (int i = 0; i < phases.size(); i++)
+			report += "\n  " + format(times[i]) + " " + phases.get(i);
+		if (analysis.isCompleted())
+			report += "\n  " + format(writing) + " Writing model " + path;
+		return report;
+	}
+
+	/**
+	 * Reads and returns a new copy of model.
+	 * 
+	 * @return Array storing the input data and structure of model.
+	 * @throws IOException
+	 *             If exception occurs during reading model file.
+	 * @throws ClassNotFoundException
+	 *             If class of a serialized object cannot be found.
+	 */
+	private Object[] readModel() throws IOException, ClassNotFoundException {
+
+		// binary model file
+		if (ModelFile.isModelFile(path_)) {
+			ModelFile model = new ModelFile(path_);
+			model.readModel(false);
+			return new Object[] { model.getInputData(), model.getStructure() };
+		}
+
+		// serialized model file (former format)
+		ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(
+				new FileInputStream(path_)));
+		try {
+			InputData inputData = (InputData) in.readObject();
+			Structure structure = (Structure) in.readObject();
+			return new Object[] { inputData, structure };
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Returns the model path of given analysis case. The path is formed from
+	 * the model path without its extension, and the name of case in which
+	 * characters other than letters, digits, '-' and '_' are replaced. The
+	 * extension of model files (.smt) is appended.
+	 * 
+	 * @param name
+	 *            The name of analysis case.
+	 * @return The model path of analysis case.
+	 */
+	private String getCasePath(String name) {
+
+		// get model path without extension
+		String base = path_;
+		int dot = path_.lastIndexOf('.');
+		if (dot > path_.lastIndexOf(File.separatorChar)
+				&& dot > path_.lastIndexOf('/'))
+			base = path_.substring(0, dot);
+
+		// append name of case
+		return base + "_" + name.replaceAll("[^A-Za-z0-9_\\-]", "_")
+				+ ".smt";
+	}
+
+	/**
+	 * Returns true if given analysis is a linear transient analysis using modal
+	 * superposition.
+	 * 
+	 * @param analysis
+	 *            The analysis.
+	 * @return True if the analysis uses modal superposition.
+	 */
+	private static boolean isModalSuperposition(Analysis analysis) {
+		if (analysis.getType() != Analysis.linearTransient_)
+			return false;
+		int method = ((LinearTransient) analysis).getIntegrationMethod();
+		return method == LinearTransient.modalSuperposition_;
+	}
+
+	/**
+	 * Formats given time for reports.
+	 * 
+	 * @param time
+	 *            The time in milliseconds.
+	 * @return The formatted time.
+	 */
+	private static String format(double time) {
+		return String.format("%10.1f ms", time);
+	}
+}
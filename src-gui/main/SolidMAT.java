@@ -60,6 +60,9 @@ public class SolidMAT implements WindowListener, MouseListener {
 	/** The post-visualizer of the main frame. */
 	public PostVisualizer postVis_ = new PostVisualizer();
 
+	/** Empty sphere drawn when there is nothing to visualize. */
+	private Sphere placeholder_;
+
 	/** The contour scalor of main frame. */
 	public ContourScalor scalor_;
 
@@ -110,8 +113,9 @@ public class SolidMAT implements WindowListener, MouseListener {
 		// disable canvas
 		viewer_.getCanvas().setEnabled(false);
 
-		// clear viewer
-		viewer_.clear();
+		// clear drawing of post-visualizer
+		postVis_.clear();
+		removePlaceholder();
 
 		// get # of nodes and elements
 		int nn = structure_.getNumberOfNodes();
@@ -125,8 +129,7 @@ public class SolidMAT implements WindowListener, MouseListener {
 		if (nn == 0 && ne == 0) {
 
 			// create sphere
-			Sphere sphere = new Sphere();
-			sphere.setRadius(0);
+			drawPlaceholder();
 		}
 
 		// no elements but nodes available
@@ -146,8 +149,7 @@ public class SolidMAT implements WindowListener, MouseListener {
 			else {
 
 				// create sphere
-				Sphere sphere = new Sphere();
-				sphere.setRadius(0);
+				drawPlaceholder();
 			}
 		}
 
@@ -168,8 +170,7 @@ public class SolidMAT implements WindowListener, MouseListener {
 			else {
 
 				// create sphere
-				Sphere sphere = new Sphere();
-				sphere.setRadius(0);
+				drawPlaceholder();
 			}
 		}
 
@@ -190,8 +191,7 @@ public class SolidMAT implements WindowListener, MouseListener {
 			else {
 
 				// create sphere
-				Sphere sphere = new Sphere();
-				sphere.setRadius(0);
+				drawPlaceholder();
 			}
 		}
 
@@ -219,8 +219,9 @@ public class SolidMAT implements WindowListener, MouseListener {
 		// disable canvas
 		viewer_.getCanvas().setEnabled(false);
 
-		// clear viewer
-		viewer_.clear();
+		// clear drawing of pre-visualizer
+		preVis_.clear();
+		removePlaceholder();
 
 		// get structure properties
 		int nn = structure_.getNumberOfNodes();
@@ -230,8 +231,7 @@ public class SolidMAT implements WindowListener, MouseListener {
 		if (nn == 0 || ne == 0) {
 
 			// create sphere
-			Sphere sphere = new Sphere();
-			sphere.setRadius(0);
+			drawPlaceholder();
 		}
 
 		// nodes and elements avaible
@@ -253,6 +253,34 @@ public class SolidMAT implements WindowListener, MouseListener {
 		viewer_.getCanvas().setEnabled(true);
 	}
 
+	/**
+	 * Clears both visualizers and draws an empty sphere in their place.
+	 * 
+	 */
+	private void drawPlaceholder() {
+
+		// clear visualizers
+		preVis_.clear();
+		postVis_.clear();
+
+		// create sphere
+		if (placeholder_ == null) {
+			placeholder_ = new Sphere();
+			placeholder_.setRadius(0);
+		}
+	}
+
+	/**
+	 * Removes the empty sphere from the viewer, if drawn.
+	 * 
+	 */
+	private void removePlaceholder() {
+		if (placeholder_ != null) {
+			placeholder_.unregister();
+			placeholder_ = null;
+		}
+	}
+
 	/**
 	 * Sets contour scalor visible or unvisible depending on the set parameter.
 	 * If set is False, other parameters are not referenced.
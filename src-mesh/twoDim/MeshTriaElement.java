@@ -160,20 +160,9 @@ public class MeshTriaElement {
 	 */
 	private Node checkCoordinates(DVec pos) {
 
-		// loop over nodes of structure
-		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
-
-			// get nodal position vector
-			Node node = structure_.getNode(i);
-			DVec pos1 = node.getPosition();
-
-			// check coordinates
-			if (pos.subtract(pos1).l2Norm() <= tolerance_)
-				return node;
-		}
-
-		// no node exists at the same coordinates
-		return null;
+		// find node at the same coordinates
+		return structure_.findNodeNear(pos.get(0), pos.get(1), pos.get(2),
+				tolerance_);
 	}
 
 	/**
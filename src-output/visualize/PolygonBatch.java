@@ -0,0 +1,525 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package visualize;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import inf.v3d.obj.PolygonOutlines;
+import inf.v3d.obj.Polygons;
+
+/**
+ * Class for batched drawing of polygonal cells. Cells of the same color and
+ * opacity are collected into a single polygon set, so that a whole layer of
+ * nodes or elements is passed to the viewer as a few objects (one per color),
+ * instead of as one object per node or element.
+ * <p>
+ * The batch is retained between drawings. Cells are buffered during a drawing
+ * and passed to the viewer when the batch is flushed; polygon sets whose cells
+ * are the same as in the previous drawing are kept in the viewer as they are,
+ * and only the changed ones are recreated.
+ * 
+ * @author Murat Artim
+ * 
+ */
+class PolygonBatch {
+
+	/** Number of sides of tubes. */
+	private static final int sides_ = 8;
+
+	/** Flag for drawing outlines of cells. */
+	private final boolean outlined_;
+
+	/** Flag for coloring cells by the contour colors of their scalars. */
+	private final boolean contoured_;
+
+	/** Cell sets keyed by color and opacity. */
+	private final HashMap<String, Cells> cells_;
+
+	/** Color components of next cells, or null if color is given by name. */
+	private double[] rgb_ = { 1.0, 1.0, 1.0 };
+
+	/** Color name of next cells. */
+	private String color_;
+
+	/** Opacity of next cells. */
+	private double opacity_ = 1.0;
+
+	/**
+	 * Creates empty batch.
+	 * 
+	 * @param outlined
+	 *            True if outlines of cells are to be drawn.
+	 * @param contoured
+	 *            True if cells are to be colored by the contour colors of
+	 *            their scalars, rather than by the color of batch.
+	 */
+	protected PolygonBatch(boolean outlined, boolean contoured) {
+		outlined_ = outlined;
+		contoured_ = contoured;
+		cells_ = new HashMap<String, Cells>();
+	}
+
+	/**
+	 * Starts new drawing. Buffered cells are discarded, while the polygon sets
+	 * of the previous drawing are kept in the viewer until the batch is
+	 * flushed.
+	 */
+	protected void begin() {
+
+		// reset color and opacity
+		rgb_ = new double[] { 1.0, 1.0, 1.0 };
+		color_ = null;
+		opacity_ = 1.0;
+
+		// discard buffered cells
+		Iterator<Cells> sets = cells_.values().iterator();
+		while (sets.hasNext())
+			sets.next().reset();
+	}
+
+	/**
+	 * Passes the buffered cells to the viewer. Polygon sets whose cells have
+	 * not changed since the previous drawing are kept, the others are
+	 * recreated or removed.
+	 */
+	protected void flush() {
+		Iterator<Cells> sets = cells_.values().iterator();
+		while (sets.hasNext()) {
+			Cells cells = sets.next();
+			if (cells.flush() == false)
+				sets.remove();
+		}
+	}
+
+	/**
+	 * Removes all polygon sets of batch from the viewer.
+	 */
+	protected void clear() {
+		Iterator<Cells> sets = cells_.values().iterator();
+		while (sets.hasNext())
+			sets.next().unregister();
+		cells_.clear();
+	}
+
+	/**
+	 * Sets color of next cells.
+	 * 
+	 * @param r
+	 *            Red component.
+	 * @param g
+	 *            Green component.
+	 * @param b
+	 *            Blue component.
+	 */
+	protected void setColor(double r, double g, double b) {
+		rgb_ = new double[] { r, g, b };
+		color_ = null;
+	}
+
+	/**
+	 * Sets color of next cells.
+	 * 
+	 * @param color
+	 *            The color name.
+	 */
+	protected void setColor(String color) {
+		rgb_ = null;
+		color_ = color;
+	}
+
+	/**
+	 * Sets opacity of next cells.
+	 * 
+	 * @param opacity
+	 *            The opacity.
+	 */
+	protected void setOpacity(double opacity) {
+		opacity_ = opacity;
+	}
+
+	/**
+	 * Returns the cell set of current color and opacity. The cell set is
+	 * created when it is first demanded.
+	 * 
+	 * @return The cell set.
+	 */
+	protected Cells getCells() {
+
+		// contoured cells are all stored in a single set
+		String key = "";
+		if (contoured_ == false) {
+
+			// get key of color and opacity
+			key = opacity_ + " ";
+			if (rgb_ != null)
+				key += rgb_[0] + " " + rgb_[1] + " " + rgb_[2];
+			else
+				key += color_;
+		}
+
+		// create cell set if necessary
+		Cells cells = cells_.get(key);
+		if (cells == null) {
+			cells = new Cells(this, rgb_, color_, opacity_);
+			cells_.put(key, cells);
+		}
+		return cells;
+	}
+
+	/**
+	 * Inserts cube cells with current color and opacity.
+	 * 
+	 * @param x
+	 *            Global x coordinate of center.
+	 * @param y
+	 *            Global y coordinate of center.
+	 * @param z
+	 *            Global z coordinate of center.
+	 * @param half
+	 *            Half of the edge length of cube.
+	 */
+	protected void insertBox(double x, double y, double z, double half) {
+
+		// compute corners (bits of index give the sides in x, y and z)
+		double[][] c = new double[8][];
+		for (int i = 0; i < 8; i++)
+			c[i] = new double[] { (i & 1) == 0 ? x - half : x + half,
+					(i & 2) == 0 ? y - half : y + half,
+					(i & 4) == 0 ? z - half : z + half };
+
+		// insert faces
+		Cells cells = getCells();
+		insertQuad(cells, c[0], c[2], c[6], c[4]);
+		insertQuad(cells, c[1], c[5], c[7], c[3]);
+		insertQuad(cells, c[0], c[4], c[5], c[1]);
+		insertQuad(cells, c[2], c[3], c[7], c[6]);
+		insertQuad(cells, c[0], c[1], c[3], c[2]);
+		insertQuad(cells, c[4], c[6], c[7], c[5]);
+	}
+
+	/**
+	 * Inserts tube cells with current color and opacity. Nothing is inserted
+	 * if the end points coincide.
+	 * 
+	 * @param p1
+	 *            Coordinates of starting point.
+	 * @param p2
+	 *            Coordinates of end point.
+	 * @param radius
+	 *            The radius of tube.
+	 */
+	protected void insertTube(double[] p1, double[] p2, double radius) {
+
+		// get axis of tube
+		double[] d = new double[3];
+		for (int i = 0; i < 3; i++)
+			d[i] = p2[i] - p1[i];
+		double length = Math.sqrt(d[0] * d[0] + d[1] * d[1] + d[2] * d[2]);
+		if (length == 0.0)
+			return;
+
+		// get global axis which is most perpendicular to tube
+		int k = 0;
+		for (int i = 1; i < 3; i++)
+			if (Math.abs(d[i]) < Math.abs(d[k]))
+				k = i;
+		double[] a = new double[3];
+		a[k] = 1.0;
+
+		// compute unit vectors perpendicular to tube
+		double[] u = cross(d, a);
+		double[] v = cross(d, u);
+		double lu = Math.sqrt(u[0] * u[0] + u[1] * u[1] + u[2] * u[2]);
+		double lv = lu * length;
+		for (int i = 0; i < 3; i++) {
+			u[i] *= radius / lu;
+			v[i] *= radius / lv;
+		}
+
+		// compute points on circles around end points
+		double[][] c1 = new double[sides_][3];
+		double[][] c2 = new double[sides_][3];
+		for (int j = 0; j < sides_; j++) {
+			double cos = Math.cos(2.0 * Math.PI * j / sides_);
+			double sin = Math.sin(2.0 * Math.PI * j / sides_);
+			for (int i = 0; i < 3; i++) {
+				double offset = cos * u[i] + sin * v[i];
+				c1[j][i] = p1[i] + offset;
+				c2[j][i] = p2[i] + offset;
+			}
+		}
+
+		// insert sides
+		Cells cells = getCells();
+		for (int j = 0; j < sides_; j++) {
+			int l = (j + 1) % sides_;
+			insertQuad(cells, c1[j], c1[l], c2[l], c2[j]);
+		}
+	}
+
+	/**
+	 * Inserts quadrilateral cell into given cell set.
+	 * 
+	 * @param cells
+	 *            The cell set.
+	 * @param p1
+	 *            First corner.
+	 * @param p2
+	 *            Second corner.
+	 * @param p3
+	 *            Third corner.
+	 * @param p4
+	 *            Fourth corner.
+	 */
+	private static void insertQuad(Cells cells, double[] p1, double[] p2,
+			double[] p3, double[] p4) {
+		cells.insertNextCell(4);
+		cells.insertCellPoint(p1, 0.0);
+		cells.insertCellPoint(p2, 0.0);
+		cells.insertCellPoint(p3, 0.0);
+		cells.insertCellPoint(p4, 0.0);
+	}
+
+	/**
+	 * Returns the cross product of given vectors.
+	 * 
+	 * @param a
+	 *            First vector.
+	 * @param b
+	 *            Second vector.
+	 * @return The cross product.
+	 */
+	private static double[] cross(double[] a, double[] b) {
+		return new double[] { a[1] * b[2] - a[2] * b[1],
+				a[2] * b[0] - a[0] * b[2], a[0] * b[1] - a[1] * b[0] };
+	}
+
+	/**
+	 * Class for cells of a single color and opacity. Cells are inserted in the
+	 * same way as into polygons, and are passed to the viewer when the batch
+	 * is flushed.
+	 * 
+	 */
+	protected static class Cells {
+
+		/** The owner batch. */
+		private final PolygonBatch owner_;
+
+		/** Color components, or null if color is given by name. */
+		private final double[] rgb_;
+
+		/** Color name. */
+		private final String color_;
+
+		/** Opacity. */
+		private final double opacity_;
+
+		/** Number of points of buffered and drawn cells. */
+		private int[] sizes_ = new int[16], drawnSizes_ = new int[0];
+
+		/** Point coordinates and scalars of buffered and drawn cells. */
+		private double[] points_ = new double[64],
+				drawnPoints_ = new double[0];
+
+		/** Numbers of buffered cells and points, and of drawn ones. */
+		private int nCells_, nPoints_, nDrawnCells_, nDrawnPoints_;
+
+		/** Polygons in the viewer, or null if not drawn. */
+		private Polygons poly_;
+
+		/** Outlines of polygons in the viewer, or null if not drawn. */
+		private PolygonOutlines outlines_;
+
+		/**
+		 * Creates empty cell set.
+		 * 
+		 * @param owner
+		 *            The owner batch.
+		 * @param rgb
+		 *            Color components, or null if color is given by name.
+		 * @param color
+		 *            Color name.
+		 * @param opacity
+		 *            Opacity.
+		 */
+		private Cells(PolygonBatch owner, double[] rgb, String color,
+				double opacity) {
+			owner_ = owner;
+			rgb_ = rgb;
+			color_ = color;
+			opacity_ = opacity;
+		}
+
+		/**
+		 * Inserts next cell.
+		 * 
+		 * @param size
+		 *            Number of points of cell.
+		 */
+		protected void insertNextCell(int size) {
+			if (nCells_ == sizes_.length)
+				sizes_ = Arrays.copyOf(sizes_, 2 * nCells_);
+			sizes_[nCells_++] = size;
+		}
+
+		/**
+		 * Inserts point of recent cell.
+		 * 
+		 * @param point
+		 *            Coordinates of point.
+		 * @param scalar
+		 *            Scalar value of point.
+		 */
+		protected void insertCellPoint(double[] point, double scalar) {
+			if (4 * (nPoints_ + 1) > points_.length)
+				points_ = Arrays.copyOf(points_, 8 * (nPoints_ + 1));
+			int k = 4 * nPoints_++;
+			points_[k] = point[0];
+			points_[k + 1] = point[1];
+			points_[k + 2] = point[2];
+			points_[k + 3] = scalar;
+		}
+
+		/**
+		 * Discards buffered cells.
+		 */
+		private void reset() {
+			nCells_ = 0;
+			nPoints_ = 0;
+		}
+
+		/**
+		 * Passes buffered cells to the viewer, unless they are the same as
+		 * the drawn cells.
+		 * 
+		 * @return False if there are no cells to draw.
+		 */
+		private boolean flush() {
+
+			// cells have not changed
+			if (poly_ != null && nCells_ == nDrawnCells_
+					&& nPoints_ == nDrawnPoints_
+					&& equals(sizes_, drawnSizes_, nCells_)
+					&& equals(points_, drawnPoints_, 4 * nPoints_))
+				return true;
+
+			// remove drawn cells
+			unregister();
+			if (nCells_ == 0)
+				return false;
+
+			// create polygons
+			poly_ = new Polygons();
+			if (owner_.contoured_ == false) {
+				poly_.setColored(false);
+				if (rgb_ != null)
+					poly_.setColor(rgb_[0], rgb_[1], rgb_[2]);
+				else
+					poly_.setColor(color_);
+				poly_.setOpacity(opacity_);
+			}
+
+			// set outline
+			if (owner_.outlined_) {
+				outlines_ = new PolygonOutlines();
+				outlines_.setPolygons(poly_);
+			}
+
+			// insert cells
+			double[] point = new double[3];
+			int k = 0;
+			for (int i = 0; i < nCells_; i++) {
+				poly_.insertNextCell(sizes_[i]);
+				for (int j = 0; j < sizes_[i]; j++, k += 4) {
+					point[0] = points_[k];
+					point[1] = points_[k + 1];
+					point[2] = points_[k + 2];
+					poly_.insertCellPoint(point.clone(), points_[k + 3]);
+				}
+			}
+
+			// create contour colors
+			if (owner_.contoured_)
+				poly_.createColors();
+
+			// swap buffers (drawn cells are kept for comparison)
+			int[] sizes = drawnSizes_;
+			drawnSizes_ = sizes_;
+			sizes_ = sizes.length == 0 ? new int[16] : sizes;
+			double[] points = drawnPoints_;
+			drawnPoints_ = points_;
+			points_ = points.length == 0 ? new double[64] : points;
+			nDrawnCells_ = nCells_;
+			nDrawnPoints_ = nPoints_;
+			return true;
+		}
+
+		/**
+		 * Removes drawn cells from the viewer.
+		 */
+		private void unregister() {
+			if (outlines_ != null)
+				outlines_.unregister();
+			if (poly_ != null)
+				poly_.unregister();
+			outlines_ = null;
+			poly_ = null;
+			nDrawnCells_ = 0;
+			nDrawnPoints_ = 0;
+		}
+
+		/**
+		 * Returns true if the given number of leading values of arrays are
+		 * equal.
+		 * 
+		 * @param a
+		 *            First array.
+		 * @param b
+		 *            Second array.
+		 * @param n
+		 *            Number of values to compare.
+		 * @return True if equal.
+		 */
+		private static boolean equals(int[] a, int[] b, int n) {
+			for (int i = 0; i < n; i++)
+				if (a[i] != b[i])
+					return false;
+			return true;
+		}
+
+		/**
+		 * Returns true if the given number of leading values of arrays are
+		 * equal.
+		 * 
+		 * @param a
+		 *            First array.
+		 * @param b
+		 *            Second array.
+		 * @param n
+		 *            Number of values to compare.
+		 * @return True if equal.
+		 */
+		private static boolean equals(double[] a, double[] b, int n) {
+			for (int i = 0; i < n; i++)
+				if (Double.doubleToLongBits(a[i]) != Double
+						.doubleToLongBits(b[i]))
+					return false;
+			return true;
+		}
+	}
+}
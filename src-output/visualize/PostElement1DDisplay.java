@@ -21,15 +21,12 @@ import java.util.Locale;
 import node.Node;
 
 import main.SolidMAT;
-import math.MathUtil;
 import matrix.DMat;
 import matrix.DVec;
 
+import analysis.Connectivity;
 import analysis.Structure;
 
-import inf.v3d.obj.Cylinder;
-import inf.v3d.obj.Polygons;
-
 import element.Element;
 import element.Element1D;
 import element.ElementLibrary;
@@ -45,12 +42,18 @@ public class PostElement1DDisplay {
 	/** Static variable for the number of stationary points. */
 	private static final int numberOfStations_ = 50;
 
-	/** Polygons used to draw the result diagrams. */
-	private Polygons polys_ = new Polygons();
+	/** Cells used to draw the result diagrams. */
+	private PolygonBatch.Cells polys_;
+
+	/** The batch of elements. */
+	private PolygonBatch elements_;
 
 	/** The structure to be drawn. */
 	private Structure structure_;
 
+	/** The scene to draw into. */
+	private Scene scene_;
+
 	/** Vector for storing demanded result values of all elements. */
 	private Vector<double[]> values_;
 
@@ -102,6 +105,16 @@ public class PostElement1DDisplay {
 		scale_ = scale;
 	}
 
+	/**
+	 * Sets the scene to draw into.
+	 * 
+	 * @param scene
+	 *            The scene of visualizer.
+	 */
+	protected void setScene(Scene scene) {
+		scene_ = scene;
+	}
+
 	/**
 	 * Draws one dimensional elements and related results.
 	 * 
@@ -119,6 +132,12 @@ public class PostElement1DDisplay {
 	protected void draw(SolidMAT owner, int shape, int option, int[] comp,
 			boolean isScaled) {
 
+		// get layer of elements
+		elements_ = scene_.getLayer("elements1D", false, false);
+
+		// get layer of results
+		polys_ = scene_.getLayer("diagrams1D", false, true).getCells();
+
 		// get result option
 		String opt = checkOption(option, comp);
 
@@ -196,43 +215,25 @@ public class PostElement1DDisplay {
 		if (opt != null)
 			drawContourScalor(owner, opt);
 
-		// create contour colours
-		polys_.createColors();
-
 		// delete values vector
 		values_ = null;
 	}
 
 	/**
-	 * Draws one dimensional elements as lines.
+	 * Draws one dimensional elements as tubes into the batch of elements.
 	 * 
 	 * @param pos
 	 *            Array storing the nodal position vectors of element.
 	 */
 	private void drawElement(DVec[] pos) {
 
-		// loop over nodes of element
-		for (int i = 0; i < pos.length - 1; i++) {
-
-			// get positions of recent node
-			double x1 = pos[i].get(0);
-			double y1 = pos[i].get(1);
-			double z1 = pos[i].get(2);
-
-			// get positions of next node
-			double x2 = pos[i + 1].get(0);
-			double y2 = pos[i + 1].get(1);
-			double z2 = pos[i + 1].get(2);
-
-			// create cylinder
-			Cylinder cylinder = new Cylinder(x1, y1, z1, x2, y2, z2);
+		// set color
+		elements_.setColor("yellow");
 
-			// set radius
-			cylinder.setRadius(radius_);
-
-			// set color
-			cylinder.setColor("yellow");
-		}
+		// loop over nodes of element
+		for (int i = 0; i < pos.length - 1; i++)
+			elements_.insertTube(pos[i].get1DArray(),
+					pos[i + 1].get1DArray(), radius_);
 	}
 
 	/**
@@ -503,91 +504,53 @@ public class PostElement1DDisplay {
 	}
 
 	/**
-	 * Computes nodal average for the demanded result values.
+	 * Computes nodal average for the demanded result values. Values of
+	 * elements are summed up at nodes and the mean values are set back to
+	 * elements, both in a single pass over the element-node connectivity.
 	 */
 	private void computeAverage() {
 
-		// create vector for storing the node ids of elements
-		Vector<int[]> ids = new Vector<int[]>();
+		// get element-node connectivity of structure
+		Connectivity connectivity = structure_.getConnectivity();
+		int[] pointers = connectivity.getPointers();
+		int[] indices = connectivity.getNodeIndices();
 
-		// store node id arrays of every element in a vector
-		// loop over elements
+		// sum up element values at nodes
+		double[] sums = new double[connectivity.getNumberOfNodes()];
+		int[] counts = new int[sums.length];
+		int m = 0;
 		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
 
-			// get element
-			Element e = structure_.getElement(i);
-
 			// one dimensional elements
+			Element e = structure_.getElement(i);
 			if (e.getDimension() == ElementLibrary.oneDimensional_) {
 
-				// get two dimensional element
-				Element1D e1D = (Element1D) e;
-
-				// get nodes of element
-				Node[] nodes = e1D.getNodes();
-
-				// initialize ids of nodes
-				int[] nodeIds = new int[nodes.length];
-
 				// loop over nodes of element
-				for (int j = 0; j < nodeIds.length; j++)
-					nodeIds[j] = structure_.indexOfNode(nodes[j]);
-
-				// set element node ids to ids vector
-				ids.add(nodeIds);
-			}
-		}
-
-		// compute and set mean values for each node
-		// initialize node ids and node values vectors
-		Vector<Integer> nodeIds = new Vector<Integer>();
-		Vector<Double> nodeValues = new Vector<Double>();
-
-		// loop over nodes
-		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
-
-			// loop over elements
-			int k = 0;
-			for (int j = 0; j < ids.size(); j++) {
-
-				// get the index of node in the element
-				int index = MathUtil.indexOf(ids.get(j), i);
-
-				// set value if contains
-				if (index != -1) {
-
-					// increase capacity if necessary
-					if (i >= nodeValues.size())
-						nodeValues.setSize(i + 1);
-
-					// set value
-					Double val = nodeValues.get(i);
-					if (val != null)
-						nodeValues.set(i, val + values_.get(j)[index]);
-					else
-						nodeValues.set(i, values_.get(j)[index]);
-					k++;
+				double[] values = values_.get(m++);
+				for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+					if (connectivity.isFirstOccurrence(i, k)) {
+						sums[indices[k]] += values[k - pointers[i]];
+						counts[indices[k]]++;
+					}
 				}
 			}
-
-			// compute mean value
-			if (k > 0) {
-				nodeIds.add(i);
-				nodeValues.set(i, nodeValues.get(i) / k);
-			}
 		}
 
 		// set the mean values to elements
-		// loop over node ids
-		for (int i = 0; i < nodeIds.size(); i++) {
+		m = 0;
+		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
 
-			// loop over element node ids
-			for (int j = 0; j < ids.size(); j++) {
+			// one dimensional elements
+			Element e = structure_.getElement(i);
+			if (e.getDimension() == ElementLibrary.oneDimensional_) {
 
-				// check if node is contained
-				int index = MathUtil.indexOf(ids.get(j), nodeIds.get(i));
-				if (index != -1)
-					values_.get(j)[index] = nodeValues.get(nodeIds.get(i));
+				// loop over nodes of element
+				double[] values = values_.get(m++);
+				for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+					if (connectivity.isFirstOccurrence(i, k))
+						values[k - pointers[i]] = sums[indices[k]]
+								/ counts[indices[k]];
+				}
 			}
 		}
 	}
@@ -15,14 +15,10 @@
  */
 package visualize;
 
-import inf.v3d.obj.PolygonOutlines;
-import inf.v3d.obj.Polygons;
-
 import java.util.Vector;
 import java.util.Locale;
 
 import main.SolidMAT;
-import math.MathUtil;
 import matrix.DMat;
 import matrix.DVec;
 import node.Node;
@@ -30,6 +26,7 @@ import element.Element;
 import element.Element3D;
 import element.ElementLibrary;
 
+import analysis.Connectivity;
 import analysis.Structure;
 
 /**
@@ -40,12 +37,18 @@ import analysis.Structure;
  */
 public class PostElement3DDisplay {
 
-	/** Polygons used to draw elements. */
-	private Polygons polys_ = new Polygons();
+	/** Cells used to draw the results of elements. */
+	private PolygonBatch.Cells polys_;
+
+	/** The batch of elements. */
+	private PolygonBatch elements_;
 
 	/** The structure to be drawn. */
 	private Structure structure_;
 
+	/** The scene to draw into. */
+	private Scene scene_;
+
 	/** Vector for storing demanded result values of all elements. */
 	private Vector<double[]> values_;
 
@@ -98,6 +101,16 @@ public class PostElement3DDisplay {
 		scale_ = scale;
 	}
 
+	/**
+	 * Sets the scene to draw into.
+	 * 
+	 * @param scene
+	 *            The scene of visualizer.
+	 */
+	protected void setScene(Scene scene) {
+		scene_ = scene;
+	}
+
 	/**
 	 * Draws three dimensional elements and related results.
 	 * 
@@ -115,6 +128,12 @@ public class PostElement3DDisplay {
 	protected void draw(SolidMAT owner, int shape, int option, int[] comp,
 			boolean isScaled) {
 
+		// get layer of elements
+		elements_ = scene_.getLayer("elements3D", true, false);
+
+		// get layer of results
+		polys_ = scene_.getLayer("results3D", false, true).getCells();
+
 		// get result option
 		String opt = checkOption(option, comp);
 
@@ -194,15 +213,13 @@ public class PostElement3DDisplay {
 		if (opt != null)
 			drawContourScalor(owner, opt);
 
-		// create contour colours
-		polys_.createColors();
-
 		// delete values vector
 		values_ = null;
 	}
 
 	/**
-	 * Draws three dimensional elements as polygons.
+	 * Draws three dimensional elements as polygons into the batch of
+	 * elements.
 	 * 
 	 * @param e3D
 	 *            Three dimensional element.
@@ -211,12 +228,9 @@ public class PostElement3DDisplay {
 	 */
 	private void drawElement(Element3D e3D, DVec[] pos) {
 
-		// create polygon
-		Polygons poly = new Polygons();
-
-		// set color to light grey
-		poly.setColored(false);
-		poly.setColor(0.752941, 0.752941, 0.752941);
+		// get cells of batch with light grey color
+		elements_.setColor(0.752941, 0.752941, 0.752941);
+		PolygonBatch.Cells poly = elements_.getCells();
 
 		// get the geometry of element
 		int geo = e3D.getGeometry();
@@ -412,10 +426,6 @@ public class PostElement3DDisplay {
 				poly.insertCellPoint(pos[4].get1DArray(), 0.0);
 			}
 		}
-
-		// set outline
-		PolygonOutlines outlines = new PolygonOutlines();
-		outlines.setPolygons(poly);
 	}
 
 	/**
@@ -1077,91 +1087,53 @@ public class PostElement3DDisplay {
 	}
 
 	/**
-	 * Computes nodal average for the demanded result values.
+	 * Computes nodal average for the demanded result values. Values of
+	 * elements are summed up at nodes and the mean values are set back to
+	 * elements, both in a single pass over the element-node connectivity.
 	 */
 	private void computeAverage() {
 
-		// create vector for storing the node ids of elements
-		Vector<int[]> ids = new Vector<int[]>();
+		// get element-node connectivity of structure
+		Connectivity connectivity = structure_.getConnectivity();
+		int[] pointers = connectivity.getPointers();
+		int[] indices = connectivity.getNodeIndices();
 
-		// store node id arrays of every element in a vector
-		// loop over elements
+		// sum up element values at nodes
+		double[] sums = new double[connectivity.getNumberOfNodes()];
+		int[] counts = new int[sums.length];
+		int m = 0;
 		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
 
-			// get element
-			Element e = structure_.getElement(i);
-
 			// three dimensional elements
+			Element e = structure_.getElement(i);
 			if (e.getDimension() == ElementLibrary.threeDimensional_) {
 
-				// get two dimensional element
-				Element3D e3D = (Element3D) e;
-
-				// get nodes of element
-				Node[] nodes = e3D.getNodes();
-
-				// initialize ids of nodes
-				int[] nodeIds = new int[nodes.length];
-
 				// loop over nodes of element
-				for (int j = 0; j < nodeIds.length; j++)
-					nodeIds[j] = structure_.indexOfNode(nodes[j]);
-
-				// set element node ids to ids vector
-				ids.add(nodeIds);
-			}
-		}
-
-		// compute and set mean values for each node
-		// initialize node ids and node values vectors
-		Vector<Integer> nodeIds = new Vector<Integer>();
-		Vector<Double> nodeValues = new Vector<Double>();
-
-		// loop over nodes
-		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
-
-			// loop over elements
-			int k = 0;
-			for (int j = 0; j < ids.size(); j++) {
-
-				// get the index of node in the element
-				int index = MathUtil.indexOf(ids.get(j), i);
-
-				// set value if contains
-				if (index != -1) {
-
-					// increase capacity if necessary
-					if (i >= nodeValues.size())
-						nodeValues.setSize(i + 1);
-
-					// set value
-					Double val = nodeValues.get(i);
-					if (val != null)
-						nodeValues.set(i, val + values_.get(j)[index]);
-					else
-						nodeValues.set(i, values_.get(j)[index]);
-					k++;
+				double[] values = values_.get(m++);
+				for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+					if (connectivity.isFirstOccurrence(i, k)) {
+						sums[indices[k]] += values[k - pointers[i]];
+						counts[indices[k]]++;
+					}
 				}
 			}
-
-			// compute mean value
-			if (k > 0) {
-				nodeIds.add(i);
-				nodeValues.set(i, nodeValues.get(i) / k);
-			}
 		}
 
 		// set the mean values to elements
-		// loop over node ids
-		for (int i = 0; i < nodeIds.size(); i++) {
+		m = 0;
+		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
 
-			// loop over element node ids
-			for (int j = 0; j < ids.size(); j++) {
+			// three dimensional elements
+			Element e = structure_.getElement(i);
+			if (e.getDimension() == ElementLibrary.threeDimensional_) {
 
-				// check if node is contained
-				int index = MathUtil.indexOf(ids.get(j), nodeIds.get(i));
-				if (index != -1)
-					values_.get(j)[index] = nodeValues.get(nodeIds.get(i));
+				// loop over nodes of element
+				double[] values = values_.get(m++);
+				for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+					if (connectivity.isFirstOccurrence(i, k))
+						values[k - pointers[i]] = sums[indices[k]]
+								/ counts[indices[k]];
+				}
 			}
 		}
 	}
@@ -19,8 +19,6 @@ import node.Node;
 import main.SolidMAT;
 import matrix.DVec;
 import analysis.Structure;
-import inf.v3d.obj.BoundingBox;
-import inf.v3d.obj.Sphere;
 import java.util.Locale;
 import math.MathUtil;
 
@@ -41,6 +39,9 @@ public class PostNodeDisplay {
 	/** The structure to be drawn. */
 	private Structure structure_;
 
+	/** The scene to draw into. */
+	private Scene scene_;
+
 	/** The coordinate system for drawing numerical values. */
 	private int coordinateSystem_ = PostNodeDisplay.global_;
 
@@ -53,6 +54,9 @@ public class PostNodeDisplay {
 	 */
 	private Double scale_ = null;
 
+	/** The batch of nodes. */
+	private PolygonBatch nodes_;
+
 	/**
 	 * Creates PostNodeDisplay object.
 	 * 
@@ -88,6 +92,16 @@ public class PostNodeDisplay {
 		coordinateSystem_ = coordinateSystem;
 	}
 
+	/**
+	 * Sets the scene to draw into.
+	 * 
+	 * @param scene
+	 *            The scene of visualizer.
+	 */
+	protected void setScene(Scene scene) {
+		scene_ = scene;
+	}
+
 	/**
 	 * Sets factor for scaling nodal displacements.
 	 * 
@@ -118,6 +132,9 @@ public class PostNodeDisplay {
 		// compute nodal values
 		double[] values = computeValues(option, comp);
 
+		// get layer of nodes
+		nodes_ = scene_.getLayer("nodes", false, false);
+
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
 
@@ -177,7 +194,7 @@ public class PostNodeDisplay {
 	}
 
 	/**
-	 * Draws nodes as sphere.
+	 * Draws node as box into the batch of nodes.
 	 * 
 	 * @param pos
 	 *            The position vector of node.
@@ -186,26 +203,11 @@ public class PostNodeDisplay {
 	 */
 	private void drawResult(DVec pos, double val) {
 
-		// create sphere
-		Sphere sphere = new Sphere();
-
-		// set center
-		double x = pos.get(0);
-		double y = pos.get(1);
-		double z = pos.get(2);
-		sphere.setCenter(x, y, z);
-
-		// set radius
-		sphere.setRadius(radius_);
-
-		// create bounding box
-		BoundingBox box = new BoundingBox(sphere);
-
-		// unregister sphere
-		sphere.unregister();
-
 		// set color
-		box.setColor(getColor(val));
+		nodes_.setColor(getColor(val));
+
+		// insert box bounding the sphere of node
+		nodes_.insertBox(pos.get(0), pos.get(1), pos.get(2), radius_);
 	}
 
 	/**
@@ -57,6 +57,9 @@ public class PostVisualizer {
 	/** The structure to be visualized. */
 	private Structure structure_;
 
+	/** The retained drawing of visualizer. */
+	private Scene scene_ = new Scene();
+
 	/** Node and node related results drawer of visualizer. */
 	private PostNodeDisplay nodeDisplay_;
 
@@ -172,6 +175,14 @@ public class PostVisualizer {
 		return factors_;
 	}
 
+	/**
+	 * Removes the drawing of visualizer from the viewer.
+	 * 
+	 */
+	public void clear() {
+		scene_.clear();
+	}
+
 	/**
 	 * Draws results on undeformed shape of the structure.
 	 * 
@@ -187,9 +198,18 @@ public class PostVisualizer {
 		// check parameters
 		check(option, comp);
 
+		// set scene
+		nodeDisplay_.setScene(scene_);
+		element1DDisplay_.setScene(scene_);
+		element2DDisplay_.setScene(scene_);
+		element3DDisplay_.setScene(scene_);
+
 		// set coordinate system for nodes
 		nodeDisplay_.setCoordinateSystem(coordinateSystem_);
 
+		// start drawing
+		scene_.begin();
+
 		// visualize nodal results
 		if (option == PostVisualizer.nodalDisp_
 				|| option == PostVisualizer.reactionForces_)
@@ -207,6 +227,9 @@ public class PostVisualizer {
 		// visualize three dimensional elements and results
 		element3DDisplay_.draw(owner, PostVisualizer.undeformed_, option, comp,
 				false);
+
+		// pass changes to viewer
+		scene_.end();
 	}
 
 	/**
@@ -229,6 +252,12 @@ public class PostVisualizer {
 		// check parameters
 		check(option, comp);
 
+		// set scene
+		nodeDisplay_.setScene(scene_);
+		element1DDisplay_.setScene(scene_);
+		element2DDisplay_.setScene(scene_);
+		element3DDisplay_.setScene(scene_);
+
 		// set coordinate system for nodes
 		nodeDisplay_.setCoordinateSystem(coordinateSystem_);
 
@@ -238,6 +267,9 @@ public class PostVisualizer {
 		element2DDisplay_.setScalingFactor(scale_);
 		element3DDisplay_.setScalingFactor(scale_);
 
+		// start drawing
+		scene_.begin();
+
 		// visualize nodal results
 		if (option == PostVisualizer.nodalDisp_
 				|| option == PostVisualizer.reactionForces_)
@@ -256,6 +288,9 @@ public class PostVisualizer {
 		element3DDisplay_.draw(owner, PostVisualizer.deformed_, option, comp,
 				isScaled);
 
+		// pass changes to viewer
+		scene_.end();
+
 		// draw contour scalor for deformed shape
 		if (option == PostVisualizer.noOption_)
 			drawScalor(owner, step);
@@ -305,41 +340,28 @@ public class PostVisualizer {
 
 	/**
 	 * Computes maximum and minimum distances between nodes of structure. These
-	 * distances are used for scaling objects.
+	 * distances are used for scaling objects. The maximum distance is taken as
+	 * the diagonal of the bounding box of nodes.
 	 * 
 	 */
 	private void computeScalors() {
 
-		// loop over nodes
-		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
-
-			// get base node
-			Node node = structure_.getNode(i);
+		// get distances between nodes (cached by structure)
+		double[] distances = structure_.getNodeDistances();
 
-			// get base node's position vector
-			DVec pos1 = node.getPosition();
+		// assign minimum distance
+		if (distances[1] < minDistance_)
+			minDistance_ = distances[1];
 
-			// loop over nodes
-			for (int j = 0; j < structure_.getNumberOfNodes(); j++) {
+		// assign maximum distance
+		if (distances[0] > maxDistance_)
+			maxDistance_ = distances[0];
 
-				// get target node's position vector
-				DVec pos2 = structure_.getNode(j).getPosition();
-
-				// compute resultant distance
-				DVec dis = pos1.subtract(pos2);
-				double length = dis.l2Norm();
-
-				// assign minimum distance
-				if (length < minDistance_ && length > 0.0)
-					minDistance_ = length;
-
-				// assign maximum distance
-				if (length > maxDistance_)
-					maxDistance_ = length;
-			}
+		// loop over nodes
+		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
 
 			// get base node's displacement vector
-			DVec dispVec = node.getUnknown(Node.global_);
+			DVec dispVec = structure_.getNode(i).getUnknown(Node.global_);
 			dispVec = dispVec.getSubVector(0, 2);
 			double dispVal = dispVec.l2Norm();
 
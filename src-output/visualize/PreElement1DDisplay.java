@@ -37,10 +37,8 @@ import boundary.ElementTemp;
 import analysis.Structure;
 
 import inf.v3d.obj.Arrow;
-import inf.v3d.obj.Cylinder;
 import inf.v3d.obj.Extrusion;
 import inf.v3d.obj.Text;
-import inf.v3d.obj.Object3D;
 
 import element.*;
 
@@ -62,6 +60,9 @@ public class PreElement1DDisplay {
 	/** The structure to be drawn. */
 	private Structure structure_;
 
+	/** The scene to draw into. */
+	private Scene scene_;
+
 	/** The scaled values of the drawing. */
 	private double radius_, radius1_, textHeight_, textPosition_,
 			arrowLength1_, arrowLength2_;
@@ -75,6 +76,9 @@ public class PreElement1DDisplay {
 	/** Writing tolerance. */
 	private double tol_;
 
+	/** The batch of elements. */
+	private PolygonBatch elements_;
+
 	/**
 	 * Creates Element1DDisplay object.
 	 * 
@@ -105,6 +109,16 @@ public class PreElement1DDisplay {
 		coordinateSystem_ = coordinateSystem;
 	}
 
+	/**
+	 * Sets the scene to draw into.
+	 * 
+	 * @param scene
+	 *            The scene of visualizer.
+	 */
+	protected void setScene(Scene scene) {
+		scene_ = scene;
+	}
+
 	/**
 	 * Sets boundary cases for drawing boundaries.
 	 * 
@@ -136,7 +150,10 @@ public class PreElement1DDisplay {
 	 *            of elements.
 	 */
 	protected void draw(SolidMAT owner, boolean[] options, double[] vizOptions,
-			Vector[] assigns) {
+			Vector<?>[] assigns) {
+
+		// get layer of elements
+		elements_ = scene_.getLayer("elements1D", false, false);
 
 		// loop over elements
 		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
@@ -214,7 +231,7 @@ public class PreElement1DDisplay {
 	}
 
 	/**
-	 * Draws one dimensional elements as lines.
+	 * Draws one dimensional elements as tubes into the batch of elements.
 	 * 
 	 * @param owner
 	 *            The owner frame of this drawing.
@@ -231,68 +248,76 @@ public class PreElement1DDisplay {
 	 *            of elements.
 	 */
 	private void drawElement(SolidMAT owner, Element1D e1D, DVec[] pos,
-			double[] vizOptions, boolean[] options, Vector[] assigns) {
-
-		// loop over nodes of element
-		for (int i = 0; i < pos.length - 1; i++) {
+			double[] vizOptions, boolean[] options, Vector<?>[] assigns) {
 
-			// get positions of recent node
-			double x1 = pos[i].get(0);
-			double y1 = pos[i].get(1);
-			double z1 = pos[i].get(2);
-
-			// get positions of next node
-			double x2 = pos[i + 1].get(0);
-			double y2 = pos[i + 1].get(1);
-			double z2 = pos[i + 1].get(2);
+		// set color
+		double[] c = getColor(owner, e1D, vizOptions, options, assigns);
+		elements_.setColor(c[0], c[1], c[2]);
 
-			// create cylinder
-			Cylinder cylinder = new Cylinder(x1, y1, z1, x2, y2, z2);
+		// set opacity
+		elements_.setOpacity(vizOptions[3]);
 
-			// set radius
-			cylinder.setRadius(radius_);
+		// loop over nodes of element
+		for (int i = 0; i < pos.length - 1; i++)
+			elements_.insertTube(pos[i].get1DArray(),
+					pos[i + 1].get1DArray(), radius_);
+	}
 
-			// set color
-			cylinder.setColor(vizOptions[0], vizOptions[1], vizOptions[2]);
+	/**
+	 * Returns the color of element.
+	 * 
+	 * @param owner
+	 *            The owner frame of this drawing.
+	 * @param e1D
+	 *            One dimensional element.
+	 * @param vizOptions
+	 *            The visualization options for element.
+	 * @param options
+	 *            The element display options.
+	 * @param assigns
+	 *            Vector storing the names and related colors of colored assigns
+	 *            of elements.
+	 * @return Array storing the red, green and blue components of color.
+	 */
+	private double[] getColor(SolidMAT owner, Element1D e1D,
+			double[] vizOptions, boolean[] options, Vector<?>[] assigns) {
 
-			// colored assigns selected
-			if (options[6] || options[7] || options[10])
-				setColorForAssigns(e1D, options, assigns, cylinder);
+		// colored assigns selected
+		if (options[6] || options[7] || options[10])
+			return getColorForAssigns(e1D, options, assigns);
 
-			// groups assign selected
-			else if (options[11])
-				setColorForGroupAssigns(owner, e1D, assigns, cylinder);
+		// groups assign selected
+		else if (options[11])
+			return getColorForGroupAssigns(owner, e1D, assigns);
 
-			// check assign selected
-			else if (options[12] || options[13] || options[14] || options[15])
-				setColorForCheckAssigns(assigns, cylinder);
+		// check assign selected
+		else if (options[12] || options[13] || options[14] || options[15])
+			return getColorForCheckAssigns(assigns);
 
-			// set opacity
-			cylinder.setOpacity(vizOptions[3]);
-		}
+		// no assign selected
+		return new double[] { vizOptions[0], vizOptions[1], vizOptions[2] };
 	}
 
 	/**
-	 * Sets color to element for check assigns.
+	 * Returns color of element for check assigns.
 	 * 
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param object3D
-	 *            Drawing object representing the element.
+	 * @return Array storing the red, green and blue components of color.
 	 */
-	private void setColorForCheckAssigns(Vector[] assigns, Object3D object3D) {
+	private double[] getColorForCheckAssigns(Vector<?>[] assigns) {
 
 		// element has no assign
 		Color c = (Color) assigns[1].lastElement();
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		object3D.setColor(r, g, b);
+		return new double[] { r, g, b };
 	}
 
 	/**
-	 * Sets color to element for the group-assign.
+	 * Returns color of element for the group-assign.
 	 * 
 	 * @param owner
 	 *            The owner frame of this drawing.
@@ -301,11 +326,10 @@ public class PreElement1DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param object3D
-	 *            Drawing object representing the element.
+	 * @return Array storing the red, green and blue components of color.
 	 */
-	private void setColorForGroupAssigns(SolidMAT owner, Element e,
-			Vector[] assigns, Object3D object3D) {
+	private double[] getColorForGroupAssigns(SolidMAT owner, Element e,
+			Vector<?>[] assigns) {
 
 		// get groups vector
 		Vector<Group> groups = owner.inputData_.getGroup();
@@ -327,8 +351,7 @@ public class PreElement1DDisplay {
 				double r = c.getRed() / 255.0;
 				double g = c.getGreen() / 255.0;
 				double b = c.getBlue() / 255.0;
-				object3D.setColor(r, g, b);
-				return;
+				return new double[] { r, g, b };
 			}
 		}
 
@@ -337,11 +360,11 @@ public class PreElement1DDisplay {
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		object3D.setColor(r, g, b);
+		return new double[] { r, g, b };
 	}
 
 	/**
-	 * Sets color to element for the given colored-assign.
+	 * Returns color of element for the given colored-assign.
 	 * 
 	 * @param e
 	 *            The element to be colored.
@@ -350,11 +373,10 @@ public class PreElement1DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param object3D
-	 *            Drawing object representing the element.
+	 * @return Array storing the red, green and blue components of color.
 	 */
-	private void setColorForAssigns(Element e, boolean[] options,
-			Vector[] assigns, Object3D object3D) {
+	private double[] getColorForAssigns(Element e, boolean[] options,
+			Vector<?>[] assigns) {
 
 		// get assign
 		Object a = null;
@@ -373,7 +395,7 @@ public class PreElement1DDisplay {
 			double r = c.getRed() / 255.0;
 			double g = c.getGreen() / 255.0;
 			double b = c.getBlue() / 255.0;
-			object3D.setColor(r, g, b);
+			return new double[] { r, g, b };
 		}
 
 		// element has assign
@@ -393,7 +415,7 @@ public class PreElement1DDisplay {
 			double r = c.getRed() / 255.0;
 			double g = c.getGreen() / 255.0;
 			double b = c.getBlue() / 255.0;
-			object3D.setColor(r, g, b);
+			return new double[] { r, g, b };
 		}
 	}
 
@@ -446,7 +468,7 @@ public class PreElement1DDisplay {
 	 *            of elements.
 	 */
 	private void drawExtrude(SolidMAT owner, Element1D e1D, DVec[] pos,
-			double[] vizOptions, boolean[] options, Vector[] assigns) {
+			double[] vizOptions, boolean[] options, Vector<?>[] assigns) {
 
 		// loop over nodes of element
 		for (int i = 0; i < pos.length - 1; i++) {
@@ -463,6 +485,7 @@ public class PreElement1DDisplay {
 
 			// create extrusion
 			Extrusion extrusion = new Extrusion();
+			scene_.add(extrusion);
 			extrusion.setPoint1(x1, y1, z1);
 			extrusion.setPoint2(x2, y2, z2);
 
@@ -471,19 +494,8 @@ public class PreElement1DDisplay {
 			extrusion.setOutline(section.getOutline());
 
 			// set color
-			extrusion.setColor(vizOptions[0], vizOptions[1], vizOptions[2]);
-
-			// colored assigns selected
-			if (options[6] || options[7] || options[10])
-				setColorForAssigns(e1D, options, assigns, extrusion);
-
-			// groups assign selected
-			else if (options[11])
-				setColorForGroupAssigns(owner, e1D, assigns, extrusion);
-
-			// check assign selected
-			else if (options[12] || options[13] || options[14] || options[15])
-				setColorForCheckAssigns(assigns, extrusion);
+			double[] c = getColor(owner, e1D, vizOptions, options, assigns);
+			extrusion.setColor(c[0], c[1], c[2]);
 
 			// set opacity
 			extrusion.setOpacity(vizOptions[3]);
@@ -885,6 +897,7 @@ public class PreElement1DDisplay {
 
 		// create text
 		Text label = new Text(text);
+		scene_.add(label);
 
 		// set text height
 		label.setHeight(textHeight_);
@@ -941,6 +954,7 @@ public class PreElement1DDisplay {
 
 			// create arrow
 			Arrow arrow = new Arrow(pos.get1DArray(), vec.get1DArray());
+			scene_.add(arrow);
 			arrow.setRadius(radius1_);
 			arrow.setColor(color);
 
@@ -968,6 +982,7 @@ public class PreElement1DDisplay {
 
 			// create first arrow
 			Arrow arrow1 = new Arrow(pos.get1DArray(), vec1.get1DArray());
+			scene_.add(arrow1);
 			arrow1.setRadius(radius1_);
 			arrow1.setColor(color);
 
@@ -987,6 +1002,7 @@ public class PreElement1DDisplay {
 
 			// create second arrow
 			Arrow arrow2 = new Arrow(pos.get1DArray(), vec2.get1DArray());
+			scene_.add(arrow2);
 			arrow2.setRadius(radius1_);
 			arrow2.setColor(color);
 
@@ -16,9 +16,6 @@
 package visualize;
 
 import inf.v3d.obj.Arrow;
-import inf.v3d.obj.Object3D;
-import inf.v3d.obj.Polygons;
-import inf.v3d.obj.PolygonOutlines;
 import inf.v3d.obj.Text;
 
 import java.awt.Color;
@@ -63,6 +60,9 @@ public class PreElement2DDisplay {
 	/** The structure to be drawn. */
 	private Structure structure_;
 
+	/** The scene to draw into. */
+	private Scene scene_;
+
 	/** The boundary cases to be displayed for boundaries. */
 	private Vector<BoundaryCase> bCases_ = new Vector<BoundaryCase>();
 
@@ -79,6 +79,9 @@ public class PreElement2DDisplay {
 	/** Writing tolerance. */
 	private double tol_;
 
+	/** The batch of elements. */
+	private PolygonBatch elements_;
+
 	/**
 	 * Creates Element2DDisplay object.
 	 * 
@@ -109,6 +112,16 @@ public class PreElement2DDisplay {
 		coordinateSystem_ = coordinateSystem;
 	}
 
+	/**
+	 * Sets the scene to draw into.
+	 * 
+	 * @param scene
+	 *            The scene of visualizer.
+	 */
+	protected void setScene(Scene scene) {
+		scene_ = scene;
+	}
+
 	/**
 	 * Sets treshold value for displaying bad aspect ratio elements.
 	 * 
@@ -160,7 +173,10 @@ public class PreElement2DDisplay {
 	 *            of elements.
 	 */
 	protected void draw(SolidMAT owner, boolean[] options, double[] vizOptions,
-			Vector[] assigns) {
+			Vector<?>[] assigns) {
+
+		// get layer of elements
+		elements_ = scene_.getLayer("elements2D", true, false);
 
 		// loop over elements
 		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
@@ -231,7 +247,7 @@ public class PreElement2DDisplay {
 	}
 
 	/**
-	 * Draws two dimensional elements as polygons.
+	 * Draws two dimensional elements as polygons into the batch of elements.
 	 * 
 	 * @param owner
 	 *            The owner frame of this drawing.
@@ -248,41 +264,36 @@ public class PreElement2DDisplay {
 	 *            of elements.
 	 */
 	private void drawElement(SolidMAT owner, Element2D e2D, DVec[] pos,
-			double[] vizOptions, boolean[] options, Vector[] assigns) {
-
-		// create polygon
-		Polygons poly = new Polygons();
+			double[] vizOptions, boolean[] options, Vector<?>[] assigns) {
 
 		// set color
-		poly.setColored(false);
-		poly.setColor(vizOptions[0], vizOptions[1], vizOptions[2]);
+		elements_.setColor(vizOptions[0], vizOptions[1], vizOptions[2]);
 
 		// colored assigns selected
 		if (options[6] || options[7] || options[10])
-			setColorForAssigns(e2D, options, assigns, poly);
+			setColorForAssigns(e2D, options, assigns, elements_);
 
 		// groups assign selected
 		else if (options[11])
-			setColorForGroupAssigns(owner, e2D, assigns, poly);
+			setColorForGroupAssigns(owner, e2D, assigns, elements_);
 
 		// upside down assign selected
 		else if (options[12])
-			setColorForUpsideDownAssigns(owner, e2D, assigns, poly);
+			setColorForUpsideDownAssigns(owner, e2D, assigns, elements_);
 
 		// inside out/zero volume assign selected
 		else if (options[13] || options[14])
-			setColorForNoAssigns(assigns, poly);
+			setColorForNoAssigns(assigns, elements_);
 
 		// aspect ratio assign selected
 		else if (options[15])
-			setColorForAspectRatioAssigns(owner, e2D, assigns, poly);
+			setColorForAspectRatioAssigns(owner, e2D, assigns, elements_);
 
 		// set opacity
-		poly.setOpacity(vizOptions[3]);
+		elements_.setOpacity(vizOptions[3]);
 
-		// set outline
-		PolygonOutlines outlines = new PolygonOutlines();
-		outlines.setPolygons(poly);
+		// get cells of batch with color and opacity of element
+		PolygonBatch.Cells poly = elements_.getCells();
 
 		// get the geometry of element
 		int geo = e2D.getGeometry();
@@ -355,17 +366,17 @@ public class PreElement2DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param object3D
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
-	private void setColorForNoAssigns(Vector[] assigns, Object3D object3D) {
+	private void setColorForNoAssigns(Vector<?>[] assigns, PolygonBatch batch) {
 
 		// element has no assign
 		Color c = (Color) assigns[1].lastElement();
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		object3D.setColor(r, g, b);
+		batch.setColor(r, g, b);
 	}
 
 	/**
@@ -378,11 +389,11 @@ public class PreElement2DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param poly
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
 	private void setColorForAspectRatioAssigns(SolidMAT owner, Element2D e2D,
-			Vector[] assigns, Polygons poly) {
+			Vector<?>[] assigns, PolygonBatch batch) {
 
 		// initialize color to be set
 		Color c = null;
@@ -469,7 +480,7 @@ public class PreElement2DDisplay {
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		poly.setColor(r, g, b);
+		batch.setColor(r, g, b);
 	}
 
 	/**
@@ -482,11 +493,11 @@ public class PreElement2DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param poly
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
 	private void setColorForUpsideDownAssigns(SolidMAT owner, Element2D e2D,
-			Vector[] assigns, Polygons poly) {
+			Vector<?>[] assigns, PolygonBatch batch) {
 
 		// initialize and compute natural coordinates
 		double[] eps1 = null;
@@ -545,7 +556,7 @@ public class PreElement2DDisplay {
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		poly.setColor(r, g, b);
+		batch.setColor(r, g, b);
 	}
 
 	/**
@@ -558,11 +569,11 @@ public class PreElement2DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param poly
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
 	private void setColorForGroupAssigns(SolidMAT owner, Element e,
-			Vector[] assigns, Polygons poly) {
+			Vector<?>[] assigns, PolygonBatch batch) {
 
 		// get groups vector
 		Vector<Group> groups = owner.inputData_.getGroup();
@@ -584,7 +595,7 @@ public class PreElement2DDisplay {
 				double r = c.getRed() / 255.0;
 				double g = c.getGreen() / 255.0;
 				double b = c.getBlue() / 255.0;
-				poly.setColor(r, g, b);
+				batch.setColor(r, g, b);
 				return;
 			}
 		}
@@ -594,7 +605,7 @@ public class PreElement2DDisplay {
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		poly.setColor(r, g, b);
+		batch.setColor(r, g, b);
 	}
 
 	/**
@@ -607,11 +618,11 @@ public class PreElement2DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param poly
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
 	private void setColorForAssigns(Element e, boolean[] options,
-			Vector[] assigns, Polygons poly) {
+			Vector<?>[] assigns, PolygonBatch batch) {
 
 		// get assign
 		Object a = null;
@@ -630,7 +641,7 @@ public class PreElement2DDisplay {
 			double r = c.getRed() / 255.0;
 			double g = c.getGreen() / 255.0;
 			double b = c.getBlue() / 255.0;
-			poly.setColor(r, g, b);
+			batch.setColor(r, g, b);
 		}
 
 		// element has material
@@ -650,7 +661,7 @@ public class PreElement2DDisplay {
 			double r = c.getRed() / 255.0;
 			double g = c.getGreen() / 255.0;
 			double b = c.getBlue() / 255.0;
-			poly.setColor(r, g, b);
+			batch.setColor(r, g, b);
 		}
 	}
 
@@ -1172,6 +1183,7 @@ public class PreElement2DDisplay {
 
 		// create text
 		Text label = new Text(text);
+		scene_.add(label);
 
 		// set text height
 		label.setHeight(textHeight_);
@@ -1231,6 +1243,7 @@ public class PreElement2DDisplay {
 
 			// create arrow
 			Arrow arrow = new Arrow(pos.get1DArray(), vec.get1DArray());
+			scene_.add(arrow);
 			arrow.setRadius(radius_);
 			arrow.setColor(color);
 
@@ -1258,6 +1271,7 @@ public class PreElement2DDisplay {
 
 			// create first arrow
 			Arrow arrow1 = new Arrow(pos.get1DArray(), vec1.get1DArray());
+			scene_.add(arrow1);
 			arrow1.setRadius(radius_);
 			arrow1.setColor(color);
 
@@ -1278,6 +1292,7 @@ public class PreElement2DDisplay {
 
 			// create second arrow
 			Arrow arrow2 = new Arrow(pos.get1DArray(), vec2.get1DArray());
+			scene_.add(arrow2);
 			arrow2.setRadius(radius_);
 			arrow2.setColor(color);
 
@@ -16,9 +16,6 @@
 package visualize;
 
 import inf.v3d.obj.Arrow;
-import inf.v3d.obj.Object3D;
-import inf.v3d.obj.PolygonOutlines;
-import inf.v3d.obj.Polygons;
 import inf.v3d.obj.Text;
 
 import java.awt.Color;
@@ -59,6 +56,9 @@ public class PreElement3DDisplay {
 	/** The structure to be drawn. */
 	private Structure structure_;
 
+	/** The scene to draw into. */
+	private Scene scene_;
+
 	/** The boundary cases to be displayed for boundaries. */
 	private Vector<BoundaryCase> bCases_ = new Vector<BoundaryCase>();
 
@@ -75,6 +75,9 @@ public class PreElement3DDisplay {
 	/** Writing tolerance. */
 	private double tol_;
 
+	/** The batch of elements. */
+	private PolygonBatch elements_;
+
 	/**
 	 * Creates Element3DDisplay object.
 	 * 
@@ -132,6 +135,16 @@ public class PreElement3DDisplay {
 		treshold_ = treshold;
 	}
 
+	/**
+	 * Sets the scene to draw into.
+	 * 
+	 * @param scene
+	 *            The scene of visualizer.
+	 */
+	protected void setScene(Scene scene) {
+		scene_ = scene;
+	}
+
 	/**
 	 * Draws three dimensional elements and related objects.
 	 * 
@@ -146,7 +159,10 @@ public class PreElement3DDisplay {
 	 *            of elements.
 	 */
 	protected void draw(SolidMAT owner, boolean[] options, double[] vizOptions,
-			Vector[] assigns) {
+			Vector<?>[] assigns) {
+
+		// get layer of elements
+		elements_ = scene_.getLayer("elements3D", true, false);
 
 		// loop over elements
 		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
@@ -217,7 +233,7 @@ public class PreElement3DDisplay {
 	}
 
 	/**
-	 * Draws three dimensional elements.
+	 * Draws three dimensional elements into the batch of elements.
 	 * 
 	 * @param owner
 	 *            The owner frame of this drawing.
@@ -234,45 +250,40 @@ public class PreElement3DDisplay {
 	 *            of elements.
 	 */
 	private void drawElement(SolidMAT owner, Element3D e3D, DVec[] pos,
-			double[] vizOptions, boolean[] options, Vector[] assigns) {
-
-		// create polygon
-		Polygons poly = new Polygons();
+			double[] vizOptions, boolean[] options, Vector<?>[] assigns) {
 
 		// set color
-		poly.setColored(false);
-		poly.setColor(vizOptions[0], vizOptions[1], vizOptions[2]);
+		elements_.setColor(vizOptions[0], vizOptions[1], vizOptions[2]);
 
 		// colored assigns selected
 		if (options[6] || options[7] || options[10])
-			setColorForAssigns(e3D, options, assigns, poly);
+			setColorForAssigns(e3D, options, assigns, elements_);
 
 		// groups assign selected
 		else if (options[11])
-			setColorForGroupAssigns(owner, e3D, assigns, poly);
+			setColorForGroupAssigns(owner, e3D, assigns, elements_);
 
 		// upside down assign selected
 		else if (options[12])
-			setColorForNoAssigns(assigns, poly);
+			setColorForNoAssigns(assigns, elements_);
 
 		// inside out assign selected
 		else if (options[13])
-			setColorForInsideOutAssigns(owner, e3D, assigns, poly);
+			setColorForInsideOutAssigns(owner, e3D, assigns, elements_);
 
 		// zero volume assign selected
 		else if (options[14])
-			setColorForZeroVolumeAssigns(owner, e3D, assigns, poly);
+			setColorForZeroVolumeAssigns(owner, e3D, assigns, elements_);
 
 		// aspect ratio assign selected
 		else if (options[15])
-			setColorForAspectRatioAssigns(owner, e3D, assigns, poly);
+			setColorForAspectRatioAssigns(owner, e3D, assigns, elements_);
 
 		// set opacity
-		poly.setOpacity(vizOptions[3]);
+		elements_.setOpacity(vizOptions[3]);
 
-		// set outline
-		PolygonOutlines outlines = new PolygonOutlines();
-		outlines.setPolygons(poly);
+		// get cells of batch with color and opacity of element
+		PolygonBatch.Cells poly = elements_.getCells();
 
 		// get the geometry of element
 		int geo = e3D.getGeometry();
@@ -476,17 +487,17 @@ public class PreElement3DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param object3D
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
-	private void setColorForNoAssigns(Vector[] assigns, Object3D object3D) {
+	private void setColorForNoAssigns(Vector<?>[] assigns, PolygonBatch batch) {
 
 		// element has no assign
 		Color c = (Color) assigns[1].lastElement();
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		object3D.setColor(r, g, b);
+		batch.setColor(r, g, b);
 	}
 
 	/**
@@ -499,11 +510,11 @@ public class PreElement3DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param poly
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
 	private void setColorForAspectRatioAssigns(SolidMAT owner, Element3D e3D,
-			Vector[] assigns, Polygons poly) {
+			Vector<?>[] assigns, PolygonBatch batch) {
 
 		// initialize color to be set
 		Color c = null;
@@ -598,7 +609,7 @@ public class PreElement3DDisplay {
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		poly.setColor(r, g, b);
+		batch.setColor(r, g, b);
 	}
 
 	/**
@@ -611,11 +622,11 @@ public class PreElement3DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param poly
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
 	private void setColorForZeroVolumeAssigns(SolidMAT owner, Element3D e3D,
-			Vector[] assigns, Polygons poly) {
+			Vector<?>[] assigns, PolygonBatch batch) {
 
 		// initialize color to be set
 		Color c = null;
@@ -632,7 +643,7 @@ public class PreElement3DDisplay {
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		poly.setColor(r, g, b);
+		batch.setColor(r, g, b);
 	}
 
 	/**
@@ -645,11 +656,11 @@ public class PreElement3DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param poly
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
 	private void setColorForInsideOutAssigns(SolidMAT owner, Element3D e3D,
-			Vector[] assigns, Polygons poly) {
+			Vector<?>[] assigns, PolygonBatch batch) {
 
 		// initialize and compute natural coordinates
 		double[] eps1 = null;
@@ -734,7 +745,7 @@ public class PreElement3DDisplay {
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		poly.setColor(r, g, b);
+		batch.setColor(r, g, b);
 	}
 
 	/**
@@ -747,11 +758,11 @@ public class PreElement3DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param poly
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
 	private void setColorForGroupAssigns(SolidMAT owner, Element e,
-			Vector[] assigns, Polygons poly) {
+			Vector<?>[] assigns, PolygonBatch batch) {
 
 		// get groups vector
 		Vector<Group> groups = owner.inputData_.getGroup();
@@ -773,7 +784,7 @@ public class PreElement3DDisplay {
 				double r = c.getRed() / 255.0;
 				double g = c.getGreen() / 255.0;
 				double b = c.getBlue() / 255.0;
-				poly.setColor(r, g, b);
+				batch.setColor(r, g, b);
 				return;
 			}
 		}
@@ -783,7 +794,7 @@ public class PreElement3DDisplay {
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		poly.setColor(r, g, b);
+		batch.setColor(r, g, b);
 	}
 
 	/**
@@ -796,11 +807,11 @@ public class PreElement3DDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of elements.
-	 * @param poly
-	 *            Drawing object representing the element.
+	 * @param batch
+	 *            The batch of elements.
 	 */
 	private void setColorForAssigns(Element e, boolean[] options,
-			Vector[] assigns, Polygons poly) {
+			Vector<?>[] assigns, PolygonBatch batch) {
 
 		// get assign
 		Object a = null;
@@ -819,7 +830,7 @@ public class PreElement3DDisplay {
 			double r = c.getRed() / 255.0;
 			double g = c.getGreen() / 255.0;
 			double b = c.getBlue() / 255.0;
-			poly.setColor(r, g, b);
+			batch.setColor(r, g, b);
 		}
 
 		// element has material
@@ -839,7 +850,7 @@ public class PreElement3DDisplay {
 			double r = c.getRed() / 255.0;
 			double g = c.getGreen() / 255.0;
 			double b = c.getBlue() / 255.0;
-			poly.setColor(r, g, b);
+			batch.setColor(r, g, b);
 		}
 	}
 
@@ -1250,6 +1261,7 @@ public class PreElement3DDisplay {
 
 		// create text
 		Text label = new Text(text);
+		scene_.add(label);
 
 		// set text height
 		label.setHeight(textHeight_);
@@ -1301,6 +1313,7 @@ public class PreElement3DDisplay {
 
 			// create arrow
 			Arrow arrow = new Arrow(pos.get1DArray(), vec.get1DArray());
+			scene_.add(arrow);
 			arrow.setRadius(radius_);
 			arrow.setColor(color);
 
@@ -1324,6 +1337,7 @@ public class PreElement3DDisplay {
 
 			// create first arrow
 			Arrow arrow1 = new Arrow(pos.get1DArray(), vec1.get1DArray());
+			scene_.add(arrow1);
 			arrow1.setRadius(radius_);
 			arrow1.setColor(color);
 
@@ -1340,6 +1354,7 @@ public class PreElement3DDisplay {
 
 			// create second arrow
 			Arrow arrow2 = new Arrow(pos.get1DArray(), vec2.get1DArray());
+			scene_.add(arrow2);
 			arrow2.setRadius(radius_);
 			arrow2.setColor(color);
 
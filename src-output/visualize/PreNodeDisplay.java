@@ -31,8 +31,6 @@ import boundary.BoundaryCase;
 
 import analysis.Structure;
 
-import inf.v3d.obj.Sphere;
-import inf.v3d.obj.BoundingBox;
 import inf.v3d.obj.Text;
 import inf.v3d.obj.Arrow;
 
@@ -53,6 +51,9 @@ public class PreNodeDisplay {
 	/** The structure to be drawn. */
 	private Structure structure_;
 
+	/** The scene to draw into. */
+	private Scene scene_;
+
 	/** The scaled values of the drawing. */
 	private double radius_, radius1_, textHeight_, textPosition_,
 			arrowLength1_, arrowLength2_;
@@ -66,6 +67,9 @@ public class PreNodeDisplay {
 	/** Writing tolerance. */
 	private double tol_;
 
+	/** The batch of nodes. */
+	private PolygonBatch nodes_;
+
 	/**
 	 * Creates PreNodeDisplay object.
 	 * 
@@ -96,6 +100,16 @@ public class PreNodeDisplay {
 		coordinateSystem_ = coordinateSystem;
 	}
 
+	/**
+	 * Sets the scene to draw into.
+	 * 
+	 * @param scene
+	 *            The scene of visualizer.
+	 */
+	protected void setScene(Scene scene) {
+		scene_ = scene;
+	}
+
 	/**
 	 * Sets boundary cases for drawing boundaries.
 	 * 
@@ -127,7 +141,10 @@ public class PreNodeDisplay {
 	 *            of elements.
 	 */
 	protected void draw(SolidMAT owner, boolean[] options, double[] vizOptions,
-			Vector[] assigns) {
+			Vector<?>[] assigns) {
+
+		// get layer of nodes
+		nodes_ = scene_.getLayer("nodes", false, false);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
@@ -200,7 +217,7 @@ public class PreNodeDisplay {
 	}
 
 	/**
-	 * Draws nodes as sphere.
+	 * Draws node as box into the batch of nodes.
 	 * 
 	 * @param owner
 	 *            The owner frame of this drawing.
@@ -217,35 +234,20 @@ public class PreNodeDisplay {
 	 *            of elements.
 	 */
 	private void drawNode(SolidMAT owner, Node node, DVec pos,
-			double[] vizOptions, boolean[] options, Vector[] assigns) {
-
-		// create sphere
-		Sphere sphere = new Sphere();
-
-		// set center
-		double x = pos.get(0);
-		double y = pos.get(1);
-		double z = pos.get(2);
-		sphere.setCenter(x, y, z);
-
-		// set radius
-		sphere.setRadius(radius_);
-
-		// create bounding box
-		BoundingBox box = new BoundingBox(sphere);
-
-		// unregister sphere
-		sphere.unregister();
+			double[] vizOptions, boolean[] options, Vector<?>[] assigns) {
 
 		// set color
-		box.setColor(vizOptions[0], vizOptions[1], vizOptions[2]);
+		nodes_.setColor(vizOptions[0], vizOptions[1], vizOptions[2]);
 
 		// groups assign selected
 		if (options[10])
-			setColorForGroupAssigns(owner, node, assigns, box);
+			setColorForGroupAssigns(owner, node, assigns, nodes_);
 
 		// set opacity
-		box.setOpacity(vizOptions[3]);
+		nodes_.setOpacity(vizOptions[3]);
+
+		// insert box bounding the sphere of node
+		nodes_.insertBox(pos.get(0), pos.get(1), pos.get(2), radius_);
 	}
 
 	/**
@@ -258,11 +260,11 @@ public class PreNodeDisplay {
 	 * @param assigns
 	 *            Vector storing the names and related colors of colored assigns
 	 *            of nodes.
-	 * @param box
-	 *            Drawing object representing the node.
+	 * @param batch
+	 *            The batch of nodes.
 	 */
 	private void setColorForGroupAssigns(SolidMAT owner, Node node,
-			Vector[] assigns, BoundingBox box) {
+			Vector<?>[] assigns, PolygonBatch batch) {
 
 		// get groups vector
 		Vector<Group> groups = owner.inputData_.getGroup();
@@ -284,7 +286,7 @@ public class PreNodeDisplay {
 				double r = c.getRed() / 255.0;
 				double g = c.getGreen() / 255.0;
 				double b = c.getBlue() / 255.0;
-				box.setColor(r, g, b);
+				batch.setColor(r, g, b);
 				return;
 			}
 		}
@@ -294,7 +296,7 @@ public class PreNodeDisplay {
 		double r = c.getRed() / 255.0;
 		double g = c.getGreen() / 255.0;
 		double b = c.getBlue() / 255.0;
-		box.setColor(r, g, b);
+		batch.setColor(r, g, b);
 	}
 
 	/**
@@ -737,6 +739,7 @@ public class PreNodeDisplay {
 
 		// create text
 		Text label = new Text(text);
+		scene_.add(label);
 
 		// set text height
 		label.setHeight(textHeight_);
@@ -787,6 +790,7 @@ public class PreNodeDisplay {
 
 			// create arrow
 			Arrow arrow = new Arrow(pos.get1DArray(), vec.get1DArray());
+			scene_.add(arrow);
 			arrow.setRadius(radius1_);
 			arrow.setColor(color);
 
@@ -810,6 +814,7 @@ public class PreNodeDisplay {
 
 			// create first arrow
 			Arrow arrow1 = new Arrow(pos.get1DArray(), vec1.get1DArray());
+			scene_.add(arrow1);
 			arrow1.setRadius(radius1_);
 			arrow1.setColor(color);
 
@@ -829,6 +834,7 @@ public class PreNodeDisplay {
 
 			// create second arrow
 			Arrow arrow2 = new Arrow(pos.get1DArray(), vec2.get1DArray());
+			scene_.add(arrow2);
 			arrow2.setRadius(radius1_);
 			arrow2.setColor(color);
 
@@ -18,7 +18,6 @@ package visualize;
 import java.util.Vector;
 
 import main.SolidMAT;
-import matrix.DVec;
 
 import boundary.BoundaryCase;
 
@@ -47,6 +46,9 @@ public class PreVisualizer {
 	/** The structure to be visualized. */
 	private Structure structure_;
 
+	/** The retained drawing of visualizer. */
+	private Scene scene_ = new Scene();
+
 	/** Node and node related objects drawer of visualizer. */
 	private PreNodeDisplay nodeDisplay_;
 
@@ -382,6 +384,14 @@ public class PreVisualizer {
 		elementOptions_[15] = false;
 	}
 
+	/**
+	 * Removes the drawing of visualizer from the viewer.
+	 * 
+	 */
+	public void clear() {
+		scene_.clear();
+	}
+
 	/**
 	 * Draws undeformed shape of the structure depending on the display options
 	 * for nodes and elements selected.
@@ -391,6 +401,12 @@ public class PreVisualizer {
 	 */
 	public void draw(SolidMAT owner) {
 
+		// set scene
+		nodeDisplay_.setScene(scene_);
+		element1DDisplay_.setScene(scene_);
+		element2DDisplay_.setScene(scene_);
+		element3DDisplay_.setScene(scene_);
+
 		// set coordinate system
 		nodeDisplay_.setCoordinateSystem(coordinateSystem_);
 		element1DDisplay_.setCoordinateSystem(coordinateSystem_);
@@ -411,7 +427,10 @@ public class PreVisualizer {
 		element3DDisplay_.setTreshold(treshold_);
 
 		// get material assigns array if selected
-		Vector<Object>[] assigns = getColoredAssigns(owner);
+		Vector<?>[] assigns = getColoredAssigns(owner);
+
+		// start drawing
+		scene_.begin();
 
 		// visualize nodes and related objects
 		nodeDisplay_.draw(owner, nodeOptions_, nodeVizOptions_, assigns);
@@ -428,6 +447,9 @@ public class PreVisualizer {
 		element3DDisplay_.draw(owner, elementOptions_, elementVizOptions_,
 				assigns);
 
+		// pass changes to viewer
+		scene_.end();
+
 		// draw contour scalor
 		drawScalor(owner, assigns);
 	}
@@ -440,7 +462,7 @@ public class PreVisualizer {
 	 * @param assigns
 	 *            Array storing vectors holding colored assign names and colors.
 	 */
-	private void drawScalor(SolidMAT owner, Vector<Object>[] assigns) {
+	private void drawScalor(SolidMAT owner, Vector<?>[] assigns) {
 
 		// draw contour scalor if colored assigns selected
 		if (elementOptions_[6] || elementOptions_[7] || elementOptions_[10]
@@ -477,7 +499,7 @@ public class PreVisualizer {
 	 * 
 	 * @return Array storing vectors holding colored assign names and colors.
 	 */
-	private Vector<Object>[] getColoredAssigns(SolidMAT owner) {
+	private Vector<?>[] getColoredAssigns(SolidMAT owner) {
 
 		// materials, sections or element types selected
 		if (elementOptions_[6] || elementOptions_[7] || elementOptions_[10])
@@ -505,7 +527,7 @@ public class PreVisualizer {
 	 * 
 	 * @return Array storing vectors holding colored assign names and colors.
 	 */
-	private Vector<Object>[] getCheckAssigns(SolidMAT owner) {
+	private Vector<?>[] getCheckAssigns(SolidMAT owner) {
 
 		// initialize assignment names, color vectors
 		Vector<String> assigns = new Vector<String>();
@@ -527,7 +549,7 @@ public class PreVisualizer {
 		colors.add(Color.LIGHT_GRAY);
 
 		// store vectors in array and return
-		Vector[] vectors = { assigns, colors };
+		Vector<?>[] vectors = { assigns, colors };
 		return vectors;
 	}
 
@@ -538,7 +560,7 @@ public class PreVisualizer {
 	 * 
 	 * @return Array storing vectors holding colored assign names and colors.
 	 */
-	private Vector<Object>[] getAssigns(SolidMAT owner) {
+	private Vector<?>[] getAssigns(SolidMAT owner) {
 
 		// initialize assignment names vector
 		Vector<String> assigns = new Vector<String>();
@@ -601,7 +623,7 @@ public class PreVisualizer {
 		}
 
 		// store vectors in array and return
-		Vector[] vectors = { assigns, colors };
+		Vector<?>[] vectors = { assigns, colors };
 		return vectors;
 	}
 
@@ -611,7 +633,7 @@ public class PreVisualizer {
 	 * 
 	 * @return Array storing vectors holding colored assign names and colors.
 	 */
-	private Vector<Object>[] getElementGroupAssigns(SolidMAT owner) {
+	private Vector<?>[] getElementGroupAssigns(SolidMAT owner) {
 
 		// get groups vector
 		Vector<Group> groups = owner.inputData_.getGroup();
@@ -676,7 +698,7 @@ public class PreVisualizer {
 		}
 
 		// store vectors in array and return
-		Vector[] vectors = { assigns, colors };
+		Vector<?>[] vectors = { assigns, colors };
 		return vectors;
 	}
 
@@ -686,7 +708,7 @@ public class PreVisualizer {
 	 * 
 	 * @return Array storing vectors holding colored assign names and colors.
 	 */
-	private Vector<Object>[] getNodeGroupAssigns(SolidMAT owner) {
+	private Vector<?>[] getNodeGroupAssigns(SolidMAT owner) {
 
 		// get groups vector
 		Vector<Group> groups = owner.inputData_.getGroup();
@@ -751,41 +773,28 @@ public class PreVisualizer {
 		}
 
 		// store vectors in array and return
-		Vector[] vectors = { assigns, colors };
+		Vector<?>[] vectors = { assigns, colors };
 		return vectors;
 	}
 
 	/**
 	 * Computes maximum and minimum distances between nodes of structure. These
-	 * distances are used for scaling objects.
+	 * distances are used for scaling objects. The maximum distance is taken as
+	 * the diagonal of the bounding box of nodes.
 	 * 
 	 */
 	private void computeScalors() {
 
-		// loop over nodes
-		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
-
-			// get base node's position vector
-			DVec pos1 = structure_.getNode(i).getPosition();
-
-			// loop over nodes
-			for (int j = 0; j < structure_.getNumberOfNodes(); j++) {
+		// get distances between nodes (cached by structure)
+		double[] distances = structure_.getNodeDistances();
 
-				// get target node's position vector
-				DVec pos2 = structure_.getNode(j).getPosition();
+		// assign minimum distance
+		if (distances[1] < minDistance_)
+			minDistance_ = distances[1];
 
-				// compute distance between base and target nodes
-				double length = pos1.subtract(pos2).l2Norm();
-
-				// assign minimum distance
-				if (length < minDistance_ && length > 0.0)
-					minDistance_ = length;
-
-				// assign maximum distance
-				if (length > maxDistance_)
-					maxDistance_ = length;
-			}
-		}
+		// assign maximum distance
+		if (distances[0] > maxDistance_)
+			maxDistance_ = distances[0];
 	}
 
 	/**
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package visualize;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Vector;
+
+import inf.v3d.obj.Object3D;
+
+/**
+ * Class for retained drawing of a visualizer. The scene consists of named
+ * layers, which are polygon batches kept in the viewer between drawings, and
+ * of annotation objects (such as labels and arrows), which are removed at the
+ * start of each drawing. When the scene is redrawn, only the polygon sets of
+ * layers which have changed are passed to the viewer again.
+ * 
+ * @author Murat Artim
+ * 
+ */
+class Scene {
+
+	/** Layers of scene keyed by name. */
+	private final HashMap<String, PolygonBatch> layers_;
+
+	/** Annotation objects of recent drawing. */
+	private final Vector<Object3D> objects_;
+
+	/**
+	 * Creates empty scene.
+	 */
+	protected Scene() {
+		layers_ = new HashMap<String, PolygonBatch>();
+		objects_ = new Vector<Object3D>();
+	}
+
+	/**
+	 * Starts new drawing. Annotation objects are removed from the viewer, and
+	 * all layers are emptied until they are redrawn.
+	 */
+	protected void begin() {
+
+		// remove annotations
+		for (int i = 0; i < objects_.size(); i++)
+			objects_.get(i).unregister();
+		objects_.clear();
+
+		// begin layers
+		Iterator<PolygonBatch> layers = layers_.values().iterator();
+		while (layers.hasNext())
+			layers.next().begin();
+	}
+
+	/**
+	 * Ends drawing. Changed layers are passed to the viewer, and layers which
+	 * were not redrawn are removed from it.
+	 */
+	protected void end() {
+		Iterator<PolygonBatch> layers = layers_.values().iterator();
+		while (layers.hasNext())
+			layers.next().flush();
+	}
+
+	/**
+	 * Removes all objects of scene from the viewer.
+	 */
+	protected void clear() {
+
+		// remove annotations
+		for (int i = 0; i < objects_.size(); i++)
+			objects_.get(i).unregister();
+		objects_.clear();
+
+		// remove layers
+		Iterator<PolygonBatch> layers = layers_.values().iterator();
+		while (layers.hasNext())
+			layers.next().clear();
+		layers_.clear();
+	}
+
+	/**
+	 * Returns the layer with given name. The layer is created when it is first
+	 * demanded.
+	 * 
+	 * @param name
+	 *            The name of layer.
+	 * @param outlined
+	 *            True if outlines of cells are to be drawn.
+	 * @param contoured
+	 *            True if cells are to be colored by the contour colors of
+	 *            their scalars.
+	 * @return The layer.
+	 */
+	protected PolygonBatch getLayer(String name, boolean outlined,
+			boolean contoured) {
+		PolygonBatch layer = layers_.get(name);
+		if (layer == null) {
+			layer = new PolygonBatch(outlined, contoured);
+			layers_.put(name, layer);
+		}
+		return layer;
+	}
+
+	/**
+	 * Adds annotation object to scene. The object is removed from the viewer
+	 * at the start of the next drawing.
+	 * 
+	 * @param object
+	 *            The annotation object.
+	 */
+	protected void add(Object3D object) {
+		objects_.add(object);
+	}
+}
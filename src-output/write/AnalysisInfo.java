@@ -60,16 +60,20 @@ public class AnalysisInfo extends Writer {
 			if (type == Analysis.linearStatic_) {
 				writeTable1(info);
 				writeTable2(info);
+				writeTable10(info, 5, 3);
 			} else if (type == Analysis.modal_) {
 				writeTable3(info);
 				writeTable4(info);
+				writeTable10(info, 8, 3);
 			} else if (type == Analysis.linearTransient_) {
 				writeTable5(info);
 				writeTable6(info);
 				writeTable7(info);
+				writeTable10(info, 11, 4);
 			} else if (type == Analysis.linearBuckling_) {
 				writeTable8(info);
 				writeTable9(info);
+				writeTable10(info, 6, 3);
 			}
 
 			// close writer
@@ -367,6 +371,10 @@ public class AnalysisInfo extends Writer {
 				table[0] = "Newmark";
 			else if (method == LinearTransient.wilson_)
 				table[0] = "Wilson";
+			else if (method == LinearTransient.centralDifference_)
+				table[0] = "C-Diff";
+			else if (method == LinearTransient.modalSuperposition_)
+				table[0] = "Modal";
 			Function func = (Function) info.get(10);
 			table[1] = func.getName();
 			double[] damp = (double[]) info.get(9);
@@ -566,4 +574,66 @@ public class AnalysisInfo extends Writer {
 			exceptionHandler("Exception occured during writing output file!");
 		}
 	}
+
+	/**
+	 * Writes table for equation numbering (half-bandwidth and profile before
+	 * and after renumbering). Nothing is written if the information is not
+	 * available.
+	 * 
+	 * @param info
+	 *            Vector storing the analysis information.
+	 * @param index
+	 *            The index of numbering information within the vector.
+	 * @param part
+	 *            The part number of table.
+	 */
+	private void writeTable10(Vector<Object> info, int index, int part) {
+
+		// check if information is available
+		if (info.size() <= index)
+			return;
+
+		try {
+
+			// pass to new line
+			bwriter_.newLine();
+
+			// write header for numbering part of table
+			bwriter_.write(header("Analysis Information, " + part));
+
+			// pass two lines
+			bwriter_.newLine();
+			bwriter_.newLine();
+
+			// write headers
+			String[] table = { "Numbering", "Half-BW", "Profile" };
+			bwriter_.write(table(table));
+
+			// pass two lines
+			bwriter_.newLine();
+			bwriter_.newLine();
+
+			// get info
+			long[] numbering = (long[]) info.get(index);
+
+			// write original numbering
+			table[0] = "Original";
+			table[1] = Long.toString(numbering[0]);
+			table[2] = Long.toString(numbering[1]);
+			bwriter_.write(table(table));
+			bwriter_.newLine();
+
+			// write final numbering
+			table[0] = "Final";
+			table[1] = Long.toString(numbering[2]);
+			table[2] = Long.toString(numbering[3]);
+			bwriter_.write(table(table));
+			bwriter_.newLine();
+		}
+
+		// exception occured
+		catch (Exception excep) {
+			exceptionHandler("Exception occured during writing output file!");
+		}
+	}
 }
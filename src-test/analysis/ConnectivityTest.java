@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import node.Node;
+import element.Element;
+import element.Element0;
+
+/**
+ * Test for element-node connectivity of structure. An element is moved onto
+ * new nodes, as done by the move and rotate element dialogs, and the
+ * connectivity must follow the new nodes. Exits with non-zero status on
+ * failure.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class ConnectivityTest {
+
+	public static void main(String[] args) {
+
+		// create two trusses
+		Structure structure = new Structure();
+		Node[] nodes = new Node[3];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new Node(i, 0.0, 0.0);
+			structure.addNode(nodes[i]);
+		}
+		structure.addElement(new Element0(nodes[0], nodes[1]));
+		structure.addElement(new Element0(nodes[1], nodes[2]));
+		check(structure);
+
+		// move second truss to new nodes
+		Node[] moved = new Node[2];
+		for (int i = 0; i < moved.length; i++) {
+			moved[i] = new Node(i + 1.0, 1.0, 0.0);
+			structure.addNode(moved[i]);
+		}
+		check(structure);
+		structure.setElementNodes(structure.getElement(1), moved);
+		structure.removeNode(structure.indexOfNode(nodes[2]));
+		check(structure);
+
+		// move it back onto existing nodes only
+		structure.setElementNodes(structure.getElement(1), new Node[] {
+				nodes[1], nodes[0] });
+		check(structure);
+		System.out.println("OK");
+	}
+
+	/**
+	 * Exits with failure message if the connectivity of structure doesn't
+	 * match the nodes of its elements.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 */
+	private static void check(Structure structure) {
+		Connectivity connectivity = structure.getConnectivity();
+		int[] pointers = connectivity.getPointers();
+		int[] indices = connectivity.getNodeIndices();
+		for (int i = 0; i < structure.getNumberOfElements(); i++) {
+			Element element = structure.getElement(i);
+			Node[] nodes = element.getNodes();
+			for (int j = 0; j < nodes.length; j++) {
+				int index = structure.indexOfNode(nodes[j]);
+				if (indices[pointers[i] + j] != index) {
+					System.err.println("FAILED: node " + j + " of element "
+							+ i + " has index " + indices[pointers[i] + j]
+							+ " instead of " + index + ".");
+					System.exit(1);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package main;
+
+import java.io.File;
+import java.util.Vector;
+
+import math.Function;
+import matrix.DVec;
+import node.Node;
+import section.CircleCS;
+import analysis.Analysis;
+import analysis.LinearTransient;
+import analysis.Modal;
+import analysis.Structure;
+import boundary.BoundaryCase;
+import boundary.Constraint;
+import boundary.NodalMechLoad;
+import data.InputData;
+import dialogs.file.ModelFile;
+import dialogs.file.OutputDataHandler1;
+import element.Element;
+import element.Element13;
+import material.Isotropic;
+import solver.Solver0;
+import solver.Solver5;
+
+/**
+ * Test for batch analysis. A cantilever beam model is analyzed for its modes,
+ * and a linear transient case using modal superposition is run in batch. The
+ * case must find the modes of model. Exits with non-zero status on failure.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class BatchAnalysisTest {
+
+	public static void main(String[] args) throws Exception {
+
+		// create cantilever beam
+		Structure structure = new Structure();
+		Isotropic material = new Isotropic("steel", 2.0e5, 0.3);
+		material.setVolumeMass(7.85e-9);
+		CircleCS section = new CircleCS("circle", 10.0);
+		BoundaryCase bc = new BoundaryCase("case");
+		Vector<BoundaryCase> bcs = new Vector<BoundaryCase>();
+		bcs.add(bc);
+		Node[] nodes = new Node[11];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new Node(10.0 * i, 0.0, 0.0);
+			structure.addNode(nodes[i]);
+		}
+		nodes[0].setConstraint(new Constraint("fix", bc, new boolean[6]));
+		Vector<NodalMechLoad> loads = new Vector<NodalMechLoad>();
+		loads.add(new NodalMechLoad("load", bc, new DVec(new double[] { 0.0,
+				100.0, 0.0, 0.0, 0.0, 0.0 })));
+		nodes[nodes.length - 1].setMechLoads(loads);
+		for (int i = 0; i < nodes.length - 1; i++) {
+			Element element = new Element13(nodes[i], nodes[i + 1]);
+			element.setMaterial(material);
+			element.setSection(section);
+			structure.addElement(element);
+		}
+
+		// create analysis cases
+		Modal modal = new Modal("modal");
+		modal.setSolver(new Solver5("eigen", 6, 1.0e-10, 200));
+		modal.setBoundaries(bcs, new double[] { 1.0 });
+		Function function = new Function("constant", Function.linear_);
+		function.setParameters(new double[] { 1.0, 0.0, 0.0, 0.0 });
+		LinearTransient linear = new LinearTransient("transient");
+		linear.setSolver(new Solver0("direct", 0, 2));
+		linear.setBoundaries(bcs, new double[] { 1.0 });
+		linear.setTimeParameters(20, 1.0e-4);
+		linear.setIntegrationMethod(LinearTransient.modalSuperposition_);
+		linear.setLoadTimeFunction(function);
+		Vector<Analysis> analyses = new Vector<Analysis>();
+		analyses.add(modal);
+		analyses.add(linear);
+		InputData inputData = new InputData();
+		inputData.setAnalysis(analyses);
+
+		// run modal analysis on model and write model
+		File dir = File.createTempFile("batch", "");
+		dir.delete();
+		dir.mkdir();
+		String path = new File(dir, "model.smt").getPath();
+		modal.setStructure(structure);
+		modal.setPath(path);
+		modal.analyze();
+		check(modal.isCompleted(), "Modal analysis: " + modal.getStatus());
+		ModelFile.write(path, inputData, structure);
+
+		// run transient case in batch
+		String report = new BatchAnalysis(path, 1).run("transient");
+		System.out.println(report);
+
+		// remove model files
+		OutputDataHandler1.release();
+		for (File file : dir.listFiles())
+			file.delete();
+		dir.delete();
+		check(report.startsWith("Case transient: completed"), report);
+		System.out.println("OK");
+	}
+
+	/**
+	 * Exits with failure message if given condition doesn't hold.
+	 * 
+	 * @param condition
+	 *            The condition.
+	 * @param message
+	 *            The failure message.
+	 */
+	private static void check(boolean condition, String message) {
+		if (condition == false) {
+			System.err.println("FAILED: " + message);
+			System.exit(1);
+		}
+	}
+}